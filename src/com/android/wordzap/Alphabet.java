@@ -0,0 +1,121 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
+
+/*
+ * Letters of a language, as used by LevelGenerator to pick the letters of a
+ * level : vowels, consonants, and the letter that makes words plural.
+ * 
+ * NOTE : Letters have to be upper case english letters ('A' to 'Z'), as
+ * compiled dictionaries and letter signatures only hold those. Languages
+ * written with other letters can't be described yet.
+ * 
+ */
+public class Alphabet {
+
+	// Used as the plural letter of languages without one
+	public static final char NO_PLURAL_CHAR = 0;
+
+	// Alphabet of english
+	public static final Alphabet ENGLISH = new Alphabet("AEIOU",
+			"BCDFGHJKLMNPQRTVWXYZ", 'S');
+
+	private final List<Character> vowels;
+	private final List<Character> consonants;
+	private final char pluralChar;
+
+	/*
+	 * Parameter 1 : Vowels of the language
+	 * 
+	 * Parameter 2 : Consonants of the language, other than the plural letter
+	 * 
+	 * Parameter 3 : Letter that makes words plural, which is neither a vowel
+	 * nor a consonant, or Alphabet.NO_PLURAL_CHAR
+	 * 
+	 * Throws IllegalArgumentException : If a letter is not an upper case
+	 * english letter, or is given more than once
+	 */
+	public Alphabet(String vowels, String consonants, char pluralChar) {
+		String allLetters = vowels + consonants
+				+ (pluralChar == NO_PLURAL_CHAR ? "" : "" + pluralChar);
+		for (int index = 0; index < allLetters.length(); index++) {
+			char letter = allLetters.charAt(index);
+			if (letter < 'A' || letter > 'Z') {
+				throw new IllegalArgumentException("'" + letter
+						+ "' is not an upper case english letter");
+			}
+			if (allLetters.indexOf(letter) != index) {
+				throw new IllegalArgumentException("'" + letter
+						+ "' is given more than once");
+			}
+		}
+		this.vowels = toList(vowels);
+		this.consonants = toList(consonants);
+		this.pluralChar = pluralChar;
+	}
+
+	// Returns the letters of a string as a read only list
+	private static List<Character> toList(String letters) {
+		List<Character> letterList = new Vector<Character>();
+		for (char letter : letters.toCharArray()) {
+			letterList.add(letter);
+		}
+		return Collections.unmodifiableList(letterList);
+	}
+
+	// Returns read only list of vowels
+	public List<Character> getVowels() {
+		return this.vowels;
+	}
+
+	// Returns read only list of consonants, other than the plural letter
+	public List<Character> getConsonants() {
+		return this.consonants;
+	}
+
+	// Returns letter that makes words plural, or Alphabet.NO_PLURAL_CHAR
+	public char getPluralChar() {
+		return this.pluralChar;
+	}
+
+	// Returns true if the language has a letter that makes words plural
+	public boolean hasPluralChar() {
+		return this.pluralChar != NO_PLURAL_CHAR;
+	}
+
+	// Returns true if letter is a vowel, a consonant or the plural letter
+	public boolean contains(char letter) {
+		return letter != NO_PLURAL_CHAR
+				&& (letter == this.pluralChar
+						|| this.vowels.contains(letter) || this.consonants
+						.contains(letter));
+	}
+}
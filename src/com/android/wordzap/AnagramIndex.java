@@ -0,0 +1,225 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Arrays;
+
+/*
+ * Groups the words of a compiled dictionary by their sorted multiset of
+ * letters, i.e. by their LetterSignature. Words in a group are anagrams of
+ * each other.
+ * 
+ * To find every word that can be formed from a set of letters, the index
+ * walks each distinct sub multiset of the letters (atmost 2^8 of them for a
+ * level's eight letters) and looks its group up in a hash table, instead of
+ * scanning the whole dictionary. The number of sub multisets grows
+ * exponentially with the number of letters, so for sets with more sub
+ * multisets than there are words, the signatures of the dictionary are
+ * scanned instead.
+ */
+public class AnagramIndex {
+
+	// Hash table of signatures, with open addressing. A slot is free if its
+	// group is empty
+	private final long[] slotLows;
+	private final long[] slotHighs;
+
+	// Position of each slot's group in groupedWords, and size of the group
+	private final int[] groupStart;
+	private final int[] groupSize;
+
+	// Word indices, grouped by signature. Each group is in increasing order
+	private final int[] groupedWords;
+
+	// Number of distinct signatures
+	private final int numGroups;
+
+	private final int slotMask;
+
+	// Dictionary scanned for large sets of letters
+	private final BinaryDictionary dictionary;
+
+	/*
+	 * Indexes every word of a compiled dictionary
+	 */
+	public AnagramIndex(final BinaryDictionary dictionary) {
+		this.dictionary = dictionary;
+		int wordCount = dictionary.getWordCount();
+		int numSlots = 16;
+		while (numSlots < 2 * wordCount) {
+			numSlots *= 2;
+		}
+		this.slotMask = numSlots - 1;
+		this.slotLows = new long[numSlots];
+		this.slotHighs = new long[numSlots];
+		this.groupStart = new int[numSlots];
+		this.groupSize = new int[numSlots];
+		this.groupedWords = new int[wordCount];
+
+		// Counting words in each group
+		int[] slotOfWord = new int[wordCount];
+		int distinctSignatures = 0;
+		for (int index = 0; index < wordCount; index++) {
+			long low = dictionary.getSignatureLow(index);
+			long high = dictionary.getSignatureHigh(index);
+			int slot = this.findSlot(low, high);
+			if (this.groupSize[slot] == 0) {
+				this.slotLows[slot] = low;
+				this.slotHighs[slot] = high;
+				distinctSignatures++;
+			}
+			this.groupSize[slot]++;
+			slotOfWord[index] = slot;
+		}
+		this.numGroups = distinctSignatures;
+
+		// Laying groups out one after the other
+		int position = 0;
+		for (int slot = 0; slot < numSlots; slot++) {
+			this.groupStart[slot] = position;
+			position += this.groupSize[slot];
+		}
+		int[] groupFill = new int[numSlots];
+		for (int index = 0; index < wordCount; index++) {
+			int slot = slotOfWord[index];
+			this.groupedWords[this.groupStart[slot] + groupFill[slot]++] = index;
+		}
+	}
+
+	/*
+	 * Returns the slot holding a signature, or the free slot where it should
+	 * be inserted
+	 */
+	private int findSlot(long low, long high) {
+		long hash = low * 0x9E3779B97F4A7C15L + high;
+		int slot = (int) (hash ^ (hash >>> 29) ^ (hash >>> 47))
+				& this.slotMask;
+		while (this.groupSize[slot] != 0
+				&& (this.slotLows[slot] != low || this.slotHighs[slot] != high)) {
+			slot = (slot + 1) & this.slotMask;
+		}
+		return slot;
+	}
+
+	/*
+	 * Finds all words that can be formed from a set of letters, using each
+	 * letter in the set at most once. Indices of these words are written to
+	 * wordIndices in increasing order.
+	 * 
+	 * Parameter 1 : Set of letters
+	 * 
+	 * Parameter 2 : Array that receives word indices. Should be atleast as
+	 * long as the number of words in the dictionary.
+	 * 
+	 * Returns number of words found
+	 */
+	public int findWords(final char[] letters, final int[] wordIndices) {
+		int[] laneCounts = new int[LetterSignature.OTHER_LANE + 1];
+		for (char letter : letters) {
+			int lane = LetterSignature.laneOf(letter);
+			if (laneCounts[lane] < LetterSignature.MAX_LETTER_COUNT) {
+				laneCounts[lane]++;
+			}
+		}
+
+		// Only lanes that hold letters take part in the walk
+		int numLanes = 0;
+		int[] lanes = new int[laneCounts.length];
+		long numSubsets = 1;
+		for (int lane = 0; lane < laneCounts.length; lane++) {
+			if (laneCounts[lane] != 0) {
+				lanes[numLanes++] = lane;
+				numSubsets = Math.min(numSubsets * (laneCounts[lane] + 1),
+						Integer.MAX_VALUE);
+			}
+		}
+
+		// Scanning every signature is cheaper than walking the sub multisets
+		if (numSubsets > this.dictionary.getWordCount()) {
+			return this.dictionary.findSubsetWords(
+					LetterSignature.low(letters), LetterSignature.high(letters),
+					wordIndices);
+		}
+
+		int numFound = this.collectWords(lanes, numLanes, laneCounts, 0, 0, 0,
+				wordIndices, 0);
+		Arrays.sort(wordIndices, 0, numFound);
+		return numFound;
+	}
+
+	/*
+	 * Walks all sub multisets that use 0 upto laneCounts[lane] letters of each
+	 * remaining lane, and collects the words of their groups.
+	 * 
+	 * Returns number of words collected so far
+	 */
+	private int collectWords(final int[] lanes, int numLanes,
+			final int[] laneCounts, int laneIndex, long low, long high,
+			final int[] wordIndices, int numFound) {
+		if (laneIndex == numLanes) {
+			int slot = this.findSlot(low, high);
+			int size = this.groupSize[slot];
+			System.arraycopy(this.groupedWords, this.groupStart[slot],
+					wordIndices, numFound, size);
+			return numFound + size;
+		}
+
+		int lane = lanes[laneIndex];
+		boolean isHighLane = lane >= LetterSignature.LOW_LANES;
+		long step = 1L << ((lane % LetterSignature.LOW_LANES) * LetterSignature.LANE_BITS);
+		for (int count = 0; count <= laneCounts[lane]; count++) {
+			numFound = this.collectWords(lanes, numLanes, laneCounts,
+					laneIndex + 1, low, high, wordIndices, numFound);
+			if (isHighLane) {
+				high += step;
+			} else {
+				low += step;
+			}
+		}
+		return numFound;
+	}
+
+	/*
+	 * Finds all anagrams of word (words with exactly the same letters) and
+	 * writes their indices to wordIndices in increasing order.
+	 * 
+	 * Returns number of anagrams found
+	 */
+	public int findAnagrams(final CharSequence word, final int[] wordIndices) {
+		int slot = this.findSlot(LetterSignature.low(word), LetterSignature
+				.high(word));
+		int size = this.groupSize[slot];
+		System.arraycopy(this.groupedWords, this.groupStart[slot], wordIndices,
+				0, size);
+		return size;
+	}
+
+	// Returns number of distinct letter multisets in the dictionary
+	public int getGroupCount() {
+		return this.numGroups;
+	}
+}
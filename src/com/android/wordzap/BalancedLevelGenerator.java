@@ -0,0 +1,158 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.Random;
+
+import com.android.wordzap.exceptions.InvalidCpuDescriptionException;
+import com.android.wordzap.exceptions.InvalidLevelException;
+
+/*
+ * Generates levels whose number of playable words falls within a target band
+ * for the level.
+ * 
+ * LevelGenerator picks letters at random within frequency tiers, so two
+ * levels with the same number can be very different : some can't fill a
+ * letter grid, others are trivially easy. This class draws candidate letter
+ * sets from a LevelGenerator, counts their playable words with a
+ * LevelAnalyzer, and returns the first candidate within the band of its
+ * level. The bands of a dictionary pack hold the middle half of the levels
+ * LevelGenerator generates for it (see LevelBands), so each level keeps its
+ * difficulty while its outliers are rejected.
+ * 
+ * Levels generated from a given Random (or seed) draw upto maxCandidates
+ * candidates, however long that takes, so a seed always gives the same
+ * level. Unseeded levels also stop drawing once the time budget runs out.
+ * The budget depends on the speed of the device, so it is never applied to
+ * seeded levels. Either way, if no candidate falls within the band, the
+ * candidate closest to the band is returned.
+ * 
+ */
+public class BalancedLevelGenerator {
+
+	private final LevelGenerator levelGen;
+	private final LevelAnalyzer analyzer;
+
+	// Bands of playable words levels should fall within
+	private final LevelBands bands;
+
+	// Time after which the best candidate so far is returned, for unseeded
+	// levels
+	private final long timeBudgetNanos;
+
+	// Most candidates drawn for a level
+	private final int maxCandidates;
+
+	/*
+	 * Parameter 1 : Generator that candidate letter sets are drawn from
+	 * 
+	 * Parameter 2 : Analyzer that counts playable words of candidates
+	 * 
+	 * Parameter 3 : Bands of the dictionary the analyzer counts words of
+	 * 
+	 * Parameter 4 : Time budget of an unseeded level, in milliseconds
+	 * 
+	 * Parameter 5 : Most candidates drawn for a level
+	 * 
+	 * Throws IllegalArgumentException : if Parameter 5 is less than 1
+	 */
+	public BalancedLevelGenerator(final LevelGenerator levelGen,
+			final LevelAnalyzer analyzer, final LevelBands bands,
+			long timeBudgetMillis, int maxCandidates) {
+		if (maxCandidates < 1) {
+			throw new IllegalArgumentException(
+					"Atleast one candidate should be drawn for a level");
+		}
+		this.levelGen = levelGen;
+		this.analyzer = analyzer;
+		this.bands = bands;
+		this.timeBudgetNanos = timeBudgetMillis * 1000000L;
+		this.maxCandidates = maxCandidates;
+	}
+
+	/*
+	 * Generates a level from unseeded random choices, drawing candidates until
+	 * one is accepted, maxCandidates are drawn or the time budget runs out
+	 */
+	public Level generateLevel(int level) throws InvalidLevelException,
+			InvalidCpuDescriptionException {
+		return this.generateLevel(level, new Random(), this.timeBudgetNanos);
+	}
+
+	// Generates the level given by a seed
+	public Level generateLevel(int level, long seed)
+			throws InvalidLevelException, InvalidCpuDescriptionException {
+		return this.generateLevel(level, new Random(seed));
+	}
+
+	/*
+	 * Generates a level whose number of playable words is within the band of
+	 * the level, or as close to it as possible. The level only depends on the
+	 * random choices, as the time budget doesn't apply.
+	 * 
+	 * Parameter 1 : Level for which characters have to be generated
+	 * 
+	 * Parameter 2 : Source of random choices
+	 * 
+	 * Throws InvalidLevelException : if the level parameter passed doesnt fall
+	 * between LevelGenerator.MIN_LEVEL and LevelGenerator.MAX_LEVEL
+	 */
+	public Level generateLevel(int level, final Random rand)
+			throws InvalidLevelException, InvalidCpuDescriptionException {
+		return this.generateLevel(level, rand, Long.MAX_VALUE);
+	}
+
+	/*
+	 * Draws candidates until one is accepted, maxCandidates are drawn or
+	 * budgetNanos have passed
+	 */
+	private Level generateLevel(int level, final Random rand, long budgetNanos)
+			throws InvalidLevelException, InvalidCpuDescriptionException {
+
+		// The index the analyzer counts words with is built before the
+		// clock starts, so that a cold start doesn't eat up the budget
+		this.analyzer.prepare();
+		long startTime = System.nanoTime();
+		Level bestLevel = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (int candidate = 0; candidate < this.maxCandidates; candidate++) {
+			Level candidateLevel = this.levelGen.generateLevel(level, rand);
+			int distance = this.bands.distanceFromBand(level, this.analyzer
+					.countPlayableWords(candidateLevel.getAlphabets()));
+			if (distance == 0) {
+				return candidateLevel;
+			}
+			if (distance < bestDistance) {
+				bestLevel = candidateLevel;
+				bestDistance = distance;
+			}
+			if (System.nanoTime() - startTime >= budgetNanos) {
+				break;
+			}
+		}
+		return bestLevel;
+	}
+}
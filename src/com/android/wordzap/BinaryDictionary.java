@@ -0,0 +1,456 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * Read only view of a dictionary compiled by DictionaryCompiler.
+ * 
+ * The compiled dictionary is usually memory mapped, so opening it costs the
+ * same no matter how many words it holds. Words are sorted by length and then
+ * alphabetically, and are identified by their index in that order.
+ * 
+ * Layout of a compiled dictionary (all numbers are big endian) :
+ * 
+ * (1) Header : magic number, format version, CRC32 checksum and length of the
+ * word list it was compiled from, number of words, length of the longest
+ * word, a reserved int and version of the word list (NO_SOURCE_VERSION if not
+ * known). BinaryDictionary.HEADER_SIZE bytes in all.
+ * 
+ * (2) Length table : for each word length L from 0 to longest + 1, index of
+ * the first word of length L
+ * 
+ * (3) Offset table : for each word length L from 0 to longest + 1, offset of
+ * the first word of length L from the start of the words section
+ * 
+ * (4) Padding upto the next multiple of 8 bytes
+ * 
+ * (5) Signatures : low and high half of the LetterSignature of each word
+ * 
+ * (6) Words : upper case letters of each word, one byte per letter
+ */
+public class BinaryDictionary {
+
+	// Identifies a compiled dictionary. Reads "WZDC" in ASCII
+	public static final int MAGIC = 0x575A4443;
+
+	// Version of the layout. Bump this whenever the layout changes
+	public static final int VERSION = 2;
+
+	// Size of the header in bytes
+	public static final int HEADER_SIZE = 40;
+
+	// Size of the signature of one word in bytes
+	public static final int SIGNATURE_SIZE = 16;
+
+	// Version of word lists that aren't versioned
+	public static final long NO_SOURCE_VERSION = 0;
+
+	private final ByteBuffer buffer;
+	private final long sourceChecksum;
+	private final int sourceLength;
+	private final int wordCount;
+	private final int maxWordLength;
+	private final long sourceVersion;
+
+	// Index of the first word of each length
+	private final int[] firstWordOfLength;
+
+	// Offset of the first word of each length within the words section
+	private final int[] offsetOfLength;
+
+	// Start of the signatures section
+	private final int signaturesOffset;
+
+	// Start of the words section
+	private final int wordsOffset;
+
+	/*
+	 * Opens a compiled dictionary held in a buffer
+	 * 
+	 * Throws InvalidDictionaryException : If the buffer doesn't hold a
+	 * dictionary compiled by this version of DictionaryCompiler
+	 */
+	public BinaryDictionary(final ByteBuffer buffer)
+			throws InvalidDictionaryException {
+		this.buffer = buffer;
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new InvalidDictionaryException(
+					"The buffer doesn't hold a compiled dictionary");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new InvalidDictionaryException(
+					"The dictionary was compiled with layout version "
+							+ buffer.getInt(4) + ", expected " + VERSION);
+		}
+		this.sourceChecksum = buffer.getLong(8);
+		this.sourceLength = buffer.getInt(16);
+		this.wordCount = buffer.getInt(20);
+		this.maxWordLength = buffer.getInt(24);
+		this.sourceVersion = buffer.getLong(32);
+		if (this.wordCount < 0 || this.maxWordLength < 0) {
+			throw new InvalidDictionaryException(
+					"The dictionary header is corrupt");
+		}
+
+		// Counts are checked against the size of the buffer before the
+		// tables are read, so that sizes computed from them can't overflow
+		int bodySize = buffer.limit() - HEADER_SIZE;
+		if (this.maxWordLength > bodySize / 8 - 2
+				|| this.wordCount > bodySize / SIGNATURE_SIZE) {
+			throw new InvalidDictionaryException("The dictionary is truncated");
+		}
+		int numLengths = this.maxWordLength + 2;
+		int tablesSize = 2 * numLengths * 4;
+		this.firstWordOfLength = new int[numLengths];
+		this.offsetOfLength = new int[numLengths];
+		for (int length = 0; length < numLengths; length++) {
+			this.firstWordOfLength[length] = buffer.getInt(HEADER_SIZE + 4
+					* length);
+			this.offsetOfLength[length] = buffer.getInt(HEADER_SIZE + 4
+					* (numLengths + length));
+		}
+
+		// Words of length L take L bytes each in the words section
+		if (this.firstWordOfLength[0] != 0 || this.offsetOfLength[0] != 0) {
+			throw new InvalidDictionaryException(
+					"The dictionary tables are corrupt");
+		}
+		for (int length = 0; length < numLengths - 1; length++) {
+			long numWords = (long) this.firstWordOfLength[length + 1]
+					- this.firstWordOfLength[length];
+			if (numWords < 0
+					|| (long) this.offsetOfLength[length + 1]
+							- this.offsetOfLength[length] != numWords * length) {
+				throw new InvalidDictionaryException(
+						"The dictionary tables are corrupt");
+			}
+		}
+
+		this.signaturesOffset = align(HEADER_SIZE + tablesSize);
+		this.wordsOffset = this.signaturesOffset + this.wordCount
+				* SIGNATURE_SIZE;
+		if (this.firstWordOfLength[numLengths - 1] != this.wordCount
+				|| buffer.limit() - this.wordsOffset != this.offsetOfLength[numLengths - 1]) {
+			throw new InvalidDictionaryException("The dictionary is truncated");
+		}
+	}
+
+	// Rounds offset up to the next multiple of 8
+	static int align(int offset) {
+		return (offset + 7) & ~7;
+	}
+
+	/*
+	 * Memory maps a compiled dictionary file
+	 * 
+	 * Throws IOException : If the file can't be mapped
+	 * 
+	 * Throws InvalidDictionaryException : If the file doesn't hold a
+	 * dictionary compiled by this version of DictionaryCompiler
+	 */
+	public static BinaryDictionary map(File dictionaryFile)
+			throws IOException, InvalidDictionaryException {
+		RandomAccessFile file = new RandomAccessFile(dictionaryFile, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			return new BinaryDictionary(channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			file.close();
+		}
+	}
+
+	/*
+	 * Maps the compiled form of a word list of no known version. As the word
+	 * list has to be read to tell whether the compiled form is stale, this
+	 * costs as much as reading the word list.
+	 * 
+	 * Parameter 1 : File holding the compiled form of the word list
+	 * 
+	 * Parameter 2 : Handle to file containing list of words
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * or when writing its compiled form
+	 * 
+	 * Throws InvalidDictionaryException : If the word list can't be compiled
+	 */
+	public static BinaryDictionary load(File dictionaryFile,
+			final InputStream wordListHandle) throws IOException,
+			InvalidDictionaryException {
+		return load(dictionaryFile, NO_SOURCE_VERSION, wordListHandle);
+	}
+
+	/*
+	 * Maps the compiled form of a word list. The compiled form is rebuilt from
+	 * the word list if it doesn't exist, is corrupt, was compiled by another
+	 * version of DictionaryCompiler or was compiled from a different word list.
+	 * 
+	 * If the compiled form records the version of the word list passed, the
+	 * word list isn't read at all. Otherwise it is read and compared with the
+	 * checksum and length in the compiled form.
+	 * 
+	 * Parameter 1 : File holding the compiled form of the word list
+	 * 
+	 * Parameter 2 : Version of the word list, which should change whenever
+	 * the word list does (see versionOf), or NO_SOURCE_VERSION
+	 * 
+	 * Parameter 3 : Handle to file containing list of words
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * or when writing its compiled form
+	 * 
+	 * Throws InvalidDictionaryException : If the word list can't be compiled
+	 */
+	public static BinaryDictionary load(File dictionaryFile,
+			long sourceVersion, final InputStream wordListHandle)
+			throws IOException, InvalidDictionaryException {
+		BinaryDictionary dictionary = null;
+		if (dictionaryFile.exists()) {
+			try {
+				dictionary = map(dictionaryFile);
+			} catch (InvalidDictionaryException e) {
+				// Corrupt, so it gets rebuilt below
+			}
+		}
+		if (dictionary != null && sourceVersion != NO_SOURCE_VERSION
+				&& dictionary.getSourceVersion() == sourceVersion) {
+			return dictionary;
+		}
+
+		byte[] wordList = readFully(wordListHandle);
+		if (dictionary != null
+				&& dictionary.getSourceVersion() == sourceVersion
+				&& dictionary.getSourceChecksum() == checksum(wordList)
+				&& dictionary.getSourceLength() == wordList.length) {
+			return dictionary;
+		}
+
+		DictionaryCompiler.compile(wordList, sourceVersion, dictionaryFile);
+		return map(dictionaryFile);
+	}
+
+	/*
+	 * Compiles a word list in memory, without writing the compiled form
+	 * anywhere
+	 * 
+	 * Parameter : Handle to file containing list of words
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the word list can't be compiled
+	 */
+	public static BinaryDictionary compile(final InputStream wordListHandle)
+			throws IOException, InvalidDictionaryException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DictionaryCompiler.compile(readFully(wordListHandle), out);
+		return new BinaryDictionary(ByteBuffer.wrap(out.toByteArray()));
+	}
+
+	// Reads everything from a stream
+	static byte[] readFully(final InputStream handle) throws IOException {
+		byte[] bytes = new byte[8192];
+		int numBytes = 0;
+		int numRead;
+		while ((numRead = handle.read(bytes, numBytes, bytes.length - numBytes)) != -1) {
+			numBytes += numRead;
+			if (numBytes == bytes.length) {
+				byte[] biggerBytes = new byte[bytes.length * 2];
+				System.arraycopy(bytes, 0, biggerBytes, 0, numBytes);
+				bytes = biggerBytes;
+			}
+		}
+		byte[] allBytes = new byte[numBytes];
+		System.arraycopy(bytes, 0, allBytes, 0, numBytes);
+		return allBytes;
+	}
+
+	// Returns the CRC32 checksum of a word list
+	public static long checksum(final byte[] wordList) {
+		CRC32 crc = new CRC32();
+		crc.update(wordList, 0, wordList.length);
+		return crc.getValue();
+	}
+
+	// Returns the CRC32 checksum of the word list file at path
+	public static long checksum(File wordListFile) throws IOException {
+		InputStream handle = new FileInputStream(wordListFile);
+		try {
+			return checksum(readFully(handle));
+		} finally {
+			handle.close();
+		}
+	}
+
+	// Returns checksum of the word list this dictionary was compiled from
+	public long getSourceChecksum() {
+		return this.sourceChecksum;
+	}
+
+	// Returns length in bytes of the word list this dictionary was compiled
+	// from
+	public int getSourceLength() {
+		return this.sourceLength;
+	}
+
+	/*
+	 * Returns a version of a word list shipped inside a file, such as the
+	 * application package, made of the size and modification time of the
+	 * file. Both change whenever the file is replaced, even if the version of
+	 * the application stays the same. Returns NO_SOURCE_VERSION if the file
+	 * doesn't exist.
+	 */
+	public static long versionOf(File file) {
+		if (!file.exists()) {
+			return NO_SOURCE_VERSION;
+		}
+		long version = file.lastModified() * 31 + file.length();
+		return version == NO_SOURCE_VERSION ? 1 : version;
+	}
+
+	// Returns version of the word list this dictionary was compiled from, or
+	// NO_SOURCE_VERSION
+	public long getSourceVersion() {
+		return this.sourceVersion;
+	}
+
+	// Returns number of words in the dictionary
+	public int getWordCount() {
+		return this.wordCount;
+	}
+
+	// Returns length of the longest word in the dictionary
+	public int getMaxWordLength() {
+		return this.maxWordLength;
+	}
+
+	/*
+	 * Returns index of the first word with the given length. Words of length
+	 * L have indices from getFirstWordOfLength(L) (inclusive) upto
+	 * getFirstWordOfLength(L + 1) (exclusive).
+	 */
+	public int getFirstWordOfLength(int length) {
+		if (length < 0) {
+			return 0;
+		}
+		if (length >= this.firstWordOfLength.length) {
+			return this.wordCount;
+		}
+		return this.firstWordOfLength[length];
+	}
+
+	// Returns length of the word at index
+	public int getWordLength(int index) {
+		int length = 0;
+		while (this.firstWordOfLength[length + 1] <= index) {
+			length++;
+		}
+		return length;
+	}
+
+	// Returns offset of the first letter of a word in the buffer
+	private int letterOffset(int index, int length) {
+		return this.wordsOffset + this.offsetOfLength[length]
+				+ (index - this.firstWordOfLength[length]) * length;
+	}
+
+	/*
+	 * Copies letters of the word at index into dest, and returns the length of
+	 * the word. dest should be atleast getMaxWordLength() long.
+	 */
+	public int copyWord(int index, final char[] dest) {
+		int length = this.getWordLength(index);
+		int offset = this.letterOffset(index, length);
+		for (int letter = 0; letter < length; letter++) {
+			dest[letter] = (char) (this.buffer.get(offset + letter) & 0xFF);
+		}
+		return length;
+	}
+
+	// Returns the word at index
+	public String getWord(int index) {
+		char[] letters = new char[this.getWordLength(index)];
+		this.copyWord(index, letters);
+		return new String(letters);
+	}
+
+	// Returns letter at position letterIndex of the word at index
+	public char getLetter(int index, int length, int letterIndex) {
+		return (char) (this.buffer.get(this.letterOffset(index, length)
+				+ letterIndex) & 0xFF);
+	}
+
+	/*
+	 * Finds all words that can be formed from a set of letters, using each
+	 * letter in the set at most once. Indices of these words are written to
+	 * wordIndices in increasing order. Doesn't create any objects.
+	 * 
+	 * Parameter 1 : Low half of the LetterSignature of the set of letters
+	 * 
+	 * Parameter 2 : High half of the LetterSignature of the set of letters
+	 * 
+	 * Parameter 3 : Array that receives word indices. Should be atleast
+	 * getWordCount() long.
+	 * 
+	 * Returns number of words found
+	 */
+	public int findSubsetWords(long setLow, long setHigh,
+			final int[] wordIndices) {
+		int numFound = 0;
+		int offset = this.signaturesOffset;
+		for (int index = 0; index < this.wordCount; index++, offset += SIGNATURE_SIZE) {
+			if (LetterSignature.isSubset(this.buffer.getLong(offset),
+					this.buffer.getLong(offset + 8), setLow, setHigh)) {
+				wordIndices[numFound++] = index;
+			}
+		}
+		return numFound;
+	}
+
+	// Returns low half of the LetterSignature of the word at index
+	public long getSignatureLow(int index) {
+		return this.buffer.getLong(this.signaturesOffset + index
+				* SIGNATURE_SIZE);
+	}
+
+	// Returns high half of the LetterSignature of the word at index
+	public long getSignatureHigh(int index) {
+		return this.buffer.getLong(this.signaturesOffset + index
+				* SIGNATURE_SIZE + 8);
+	}
+}
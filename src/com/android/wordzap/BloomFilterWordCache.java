@@ -0,0 +1,290 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Puts a Bloom filter in front of any WordCache, so that most invalid words
+ * are rejected without looking them up in the cache.
+ * 
+ * The filter never rejects a cached word. A word the filter accepts is looked
+ * up in the wrapped cache, which gives the exact answer. All other methods are
+ * passed on to the wrapped cache.
+ * 
+ * Words are hashed in upper case, as caches validate words regardless of case.
+ */
+public class BloomFilterWordCache implements WordCache {
+
+	// Most hash functions used per word
+	private static final int MAX_HASH_COUNT = 16;
+
+	// Cache that gives the exact answer
+	private final WordCache wrappedCache;
+
+	// Bits of the filter
+	private final long[] bits;
+	private final int numBits;
+
+	// Number of bits set for each word
+	private final int numHashes;
+
+	// False positive rate expected from the size of the filter
+	private final double expectedFalsePositiveRate;
+
+	// Lookup statistics
+	private final AtomicLong numLookups = new AtomicLong();
+	private final AtomicLong numRejected = new AtomicLong();
+	private final AtomicLong numFalsePositives = new AtomicLong();
+
+	/*
+	 * Builds a filter holding every valid word of a cache.
+	 * 
+	 * Parameter 1 : Cache that gives the exact answer
+	 * 
+	 * Parameter 2 : Desired false positive rate, between 0 and 1 (exclusive)
+	 * 
+	 * Parameter 3 : Most bits the filter may use. The false positive rate is
+	 * higher than desired if the filter needs more bits than this.
+	 */
+	public BloomFilterWordCache(final WordCache wrappedCache,
+			double falsePositiveRate, int maxBits) {
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("False positive rate : "
+					+ falsePositiveRate);
+		}
+		if (maxBits < Long.SIZE) {
+			throw new IllegalArgumentException("Bit budget : " + maxBits);
+		}
+		this.wrappedCache = wrappedCache;
+
+		List<String> words = wrappedCache.getValidWords();
+		int numWords = Math.max(words.size(), 1);
+
+		// Optimal size for the desired rate is -n ln(p) / (ln 2)^2 bits
+		double ln2 = Math.log(2);
+		double optimalBits = -numWords * Math.log(falsePositiveRate)
+				/ (ln2 * ln2);
+		this.numBits = (int) Math.max(Long.SIZE, Math.min(maxBits, Math
+				.ceil(optimalBits)));
+		this.bits = new long[(this.numBits + Long.SIZE - 1) / Long.SIZE];
+
+		// Optimal number of hashes is (m / n) ln 2
+		this.numHashes = (int) Math.max(1, Math.min(MAX_HASH_COUNT, Math
+				.round((double) this.numBits / numWords * ln2)));
+		this.expectedFalsePositiveRate = Math.pow(1 - Math.exp(-(double) this.numHashes
+				* numWords / this.numBits), this.numHashes);
+
+		for (String word : words) {
+			long hash = hash(word);
+			for (int index = 0; index < this.numHashes; index++) {
+				int bit = this.bitOf(hash, index);
+				this.bits[bit >>> 6] |= 1L << bit;
+			}
+		}
+	}
+
+	// Returns a 64 bit FNV-1a hash of the upper case form of word
+	private static long hash(final String word) {
+		long hash = 0xcbf29ce484222325L;
+		for (int index = 0; index < word.length(); index++) {
+			hash ^= Character.toUpperCase(word.charAt(index));
+			hash *= 0x100000001b3L;
+		}
+		// Mixing the high bits into the low bits
+		hash ^= hash >>> 29;
+		hash *= 0xbf58476d1ce4e5b9L;
+		return hash ^ (hash >>> 32);
+	}
+
+	/*
+	 * Returns the bit of a word for one of the hash functions. Hash functions
+	 * are derived from the two halves of the word's hash.
+	 */
+	private int bitOf(long hash, int hashIndex) {
+		int firstHash = (int) hash;
+		int secondHash = (int) (hash >>> 32) | 1;
+		return ((firstHash + hashIndex * secondHash) & Integer.MAX_VALUE)
+				% this.numBits;
+	}
+
+	// Returns false if word is surely not cached, true if it may be cached
+	private boolean mayContain(final String word) {
+		long hash = hash(word);
+		for (int index = 0; index < this.numHashes; index++) {
+			int bit = this.bitOf(hash, index);
+			if ((this.bits[bit >>> 6] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 * 
+	 * Returns true if word is valid, false otherwise
+	 */
+	@Override
+	public boolean isWordValid(String word) {
+		this.numLookups.incrementAndGet();
+		if (!this.mayContain(word)) {
+			this.numRejected.incrementAndGet();
+			return false;
+		}
+		boolean isValid = this.wrappedCache.isWordValid(word);
+		if (!isValid) {
+			this.numFalsePositives.incrementAndGet();
+		}
+		return isValid;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getValidWords()
+	 */
+	@Override
+	public List<String> getValidWords() {
+		return this.wrappedCache.getValidWords();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordView()
+	 */
+	@Override
+	public WordView getWordView() {
+		return this.wrappedCache.getWordView();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getRandomWord()
+	 */
+	@Override
+	public String getRandomWord() {
+		return this.wrappedCache.getRandomWord();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getRandomWord(java.util.List<
+	 * java.lang.String >)
+	 */
+	@Override
+	public String getRandomWord(List<String> wordList) {
+		return this.wrappedCache.getRandomWord(wordList);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordsFormableFrom(char[])
+	 */
+	@Override
+	public List<String> getWordsFormableFrom(final char[] letters) {
+		return this.wrappedCache.getWordsFormableFrom(letters);
+	}
+
+	// Returns the cache that gives the exact answer
+	public WordCache getWrappedCache() {
+		return this.wrappedCache;
+	}
+
+	// Returns number of bits in the filter
+	public int getBitCount() {
+		return this.numBits;
+	}
+
+	// Returns number of bits set for each word
+	public int getHashCount() {
+		return this.numHashes;
+	}
+
+	// Returns false positive rate expected from the size of the filter
+	public double getExpectedFalsePositiveRate() {
+		return this.expectedFalsePositiveRate;
+	}
+
+	// Returns number of calls to isWordValid
+	public long getLookupCount() {
+		return this.numLookups.get();
+	}
+
+	// Returns number of words rejected by the filter alone
+	public long getRejectedCount() {
+		return this.numRejected.get();
+	}
+
+	// Returns number of words the filter accepted but the cache did not
+	public long getFalsePositiveCount() {
+		return this.numFalsePositives.get();
+	}
+
+	/*
+	 * Returns the measured false positive rate : the fraction of invalid words
+	 * that the filter accepted. Returns 0 if no invalid word was looked up.
+	 */
+	public double getMeasuredFalsePositiveRate() {
+		long numFalsePositives = this.numFalsePositives.get();
+		long numInvalid = this.numRejected.get() + numFalsePositives;
+		return numInvalid == 0 ? 0 : (double) numFalsePositives / numInvalid;
+	}
+
+	// Clears lookup statistics
+	public void resetStats() {
+		this.numLookups.set(0);
+		this.numRejected.set(0);
+		this.numFalsePositives.set(0);
+	}
+
+	// Returns lookup statistics, for logging
+	@Override
+	public String toString() {
+		return "BloomFilterWordCache[bits=" + this.numBits + ", hashes="
+				+ this.numHashes + ", lookups=" + this.getLookupCount()
+				+ ", rejected=" + this.getRejectedCount()
+				+ ", falsePositives=" + this.getFalsePositiveCount() + "]";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#newPrefixCursor()
+	 */
+	@Override
+	public PrefixCursor newPrefixCursor() {
+		return this.wrappedCache.newPrefixCursor();
+	}
+}
@@ -32,22 +32,18 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.Vector;
 
-import android.os.Bundle;
 import android.os.Handler;
-import android.os.Message;
 import android.util.Log;
 
 /*
- * Models the opponent player which executes in a separate thread
+ * Models the opponent player. The player either executes in a separate
+ * thread, sleeping between moves (run()), or is driven by a GameScheduler
+ * that fires each move at its time without holding a thread (start()).
  */
 public class ComputerPlayer implements Runnable {
 
-	// Handler object to communicate opponent moves to Activity GameScreen
-	// This object is created in Activity com.android.wordzap.GameScreen
-	private final Handler mainThreadHandler;
-
-	// Handle to the Activity object representing the WordZap Game Screen
-	private final GameScreen wordZapGameScreen;
+	// Game against which moves are made
+	private final GameHost gameHost;
 
 	// WordCache to get list of words to be generated during computer moves
 	private final WordCache aWordCache;
@@ -62,19 +58,57 @@ public class ComputerPlayer implements Runnable {
 	// Number of rounds of computer moves that are generated before hand
 	private static final int NUM_MOVES_GENERATED = 10;
 
+	// Random number generator for the timings of computer moves
+	private final Random rand;
+
+	// Scheduler driving the player, and the next move waiting in it, when
+	// started with start()
+	private GameScheduler scheduler;
+	private ScheduledTask nextMoveTask;
+
+	// Scheduler time at which the player was started
+	private long startTime;
+
+	// Set once the player is cancelled, so that no more moves are made
+	private boolean isCancelled;
+
 	public ComputerPlayer(GameScreen wordZapGameScreen, WordCache aWordCache,
 			Level currentLevel, Handler mainThreadHandler)
 			throws NullPointerException {
+		this(wordZapGameScreen, aWordCache, currentLevel, mainThreadHandler,
+				new Random());
+	}
 
-		if (wordZapGameScreen == null) {
-			throw new IllegalArgumentException("GameScreen object is null.");
-		}
-		this.wordZapGameScreen = wordZapGameScreen;
+	/*
+	 * Creates a computer player whose move timings are drawn from a given
+	 * random number generator, so that a seeded generator gives the same
+	 * moves every time
+	 */
+	public ComputerPlayer(GameScreen wordZapGameScreen, WordCache aWordCache,
+			Level currentLevel, Handler mainThreadHandler, final Random rand)
+			throws NullPointerException {
+		this(new HandlerGameHost(wordZapGameScreen, mainThreadHandler),
+				aWordCache, currentLevel, rand);
+	}
 
-		if (mainThreadHandler == null) {
-			throw new IllegalArgumentException("Main Thread Handler is null.");
+	/*
+	 * Creates a computer player making moves against any game
+	 * 
+	 * Parameter 1 : Game receiving the moves
+	 * 
+	 * Parameter 2 : WordCache from which generated words are picked
+	 * 
+	 * Parameter 3 : Level, whose CpuDescriptor sets the pace of moves
+	 * 
+	 * Parameter 4 : Random number generator for the move timings
+	 */
+	public ComputerPlayer(final GameHost gameHost, WordCache aWordCache,
+			Level currentLevel, final Random rand) {
+
+		if (gameHost == null) {
+			throw new IllegalArgumentException("GameHost is null.");
 		}
-		this.mainThreadHandler = mainThreadHandler;
+		this.gameHost = gameHost;
 
 		if (aWordCache == null) {
 			throw new IllegalArgumentException("WordCache is null.");
@@ -86,6 +120,11 @@ public class ComputerPlayer implements Runnable {
 		}
 		this.currentLevel = currentLevel;
 
+		if (rand == null) {
+			throw new IllegalArgumentException("Random is null.");
+		}
+		this.rand = rand;
+
 		// Premeditate all moves for this level
 		this.populateAllMoves();
 
@@ -108,7 +147,7 @@ public class ComputerPlayer implements Runnable {
 				 * Don't proceed if game is over already (i.e. if computer or
 				 * human has won already)
 				 */
-				if (this.wordZapGameScreen.isGameOver()) {
+				if (this.gameHost.isGameOver()) {
 					Log.i("ComputerPlayer", "Dying");
 					return;
 				}
@@ -142,19 +181,14 @@ public class ComputerPlayer implements Runnable {
 				/****************************/
 
 				// Check again if game was already over during sleep time
-				if (this.wordZapGameScreen.isGameOver()) {
+				if (this.gameHost.isGameOver()) {
 					Log.i("ComputerPlayer", "Dying");
 					return;
 				}
 				Log.i("ComputerPlayer", "Woke up");
 
-				// Communicate computer move to Activity GameScreen
-				Bundle aBundle = packComputerMove(thisMove);
-
-				// Obtain message to be sent
-				Message msg = mainThreadHandler.obtainMessage();
-				msg.setData(aBundle);
-				mainThreadHandler.sendMessage(msg);
+				// Communicate computer move to the game
+				this.makeMove(thisMove);
 
 				// Reset loop index so that the method loops for ever
 				if (moveIndex == this.computerMoves.size() - 1) {
@@ -170,32 +204,95 @@ public class ComputerPlayer implements Runnable {
 	}
 
 	/*
-	 * Find what moves the computer should make, and populate the bundle
-	 * accordingly A computer move may contain any,none or both of the following
-	 * :
+	 * Starts making moves on a scheduler. Each move is made
+	 * ComputerMove.getTime() seconds after this call, counted from the start
+	 * so that delays in running one move don't push back the later ones. No
+	 * thread is held between moves, and the player stops by itself once the
+	 * game is over.
 	 * 
-	 * (1) Zap move : Computer zaps a word from the human player's visual grid
-	 * (2) Gen Word move : Computer generates a word in its own grid against the
-	 * human player. This generated word is also packed in the Bundle returned.
+	 * Throws IllegalStateException : If the player was already started
 	 */
-	private Bundle packComputerMove(ComputerMove thisMove) {
-		Bundle aBundle = new Bundle();
-		if (thisMove.isZapMove()) {
-			Log.i("ComputerPlayer", "Packed zap move");
-			aBundle.putBoolean(WordZapConstants.ZAP_MOVE_KEYNAME, true);
-		} else {
-			aBundle.putBoolean(WordZapConstants.ZAP_MOVE_KEYNAME, false);
+	public synchronized void start(final GameScheduler scheduler)
+			throws IllegalStateException {
+		if (scheduler == null) {
+			throw new IllegalArgumentException("GameScheduler is null.");
+		}
+		if (this.scheduler != null) {
+			throw new IllegalStateException("Computer player already started.");
 		}
+		this.scheduler = scheduler;
+		this.startTime = scheduler.currentTimeMillis();
+		this.scheduleMove(0);
+	}
+
+	/*
+	 * Cancels the move waiting in the scheduler. No more moves are made after
+	 * this call returns.
+	 */
+	public synchronized void cancel() {
+		this.isCancelled = true;
+		if (this.nextMoveTask != null) {
+			this.nextMoveTask.cancel();
+			this.nextMoveTask = null;
+		}
+	}
+
+	// Tells if the player was cancelled
+	public synchronized boolean isCancelled() {
+		return this.isCancelled;
+	}
+
+	// Schedules the move at moveIndex, at its time after the start
+	private void scheduleMove(final int moveIndex) {
+		if (moveIndex >= this.computerMoves.size()) {
+			this.nextMoveTask = null;
+			return;
+		}
+		long moveTime = this.startTime
+				+ this.computerMoves.get(moveIndex).getTime() * 1000L;
+		this.nextMoveTask = this.scheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+				fireMove(moveIndex);
+			}
+		}, moveTime - this.scheduler.currentTimeMillis());
+	}
+
+	// Makes the move at moveIndex on the scheduler, and schedules the next one
+	private synchronized void fireMove(int moveIndex) {
+		if (this.isCancelled) {
+			return;
+		}
+		if (this.gameHost.isGameOver()) {
+			Log.i("ComputerPlayer", "Dying");
+			this.cancel();
+			return;
+		}
+		this.makeMove(this.computerMoves.get(moveIndex));
 
+		// The move may have ended the game, and cancelled the player
+		if (!this.isCancelled) {
+			this.scheduleMove(moveIndex + 1);
+		}
+	}
+
+	/*
+	 * Makes a computer move against the game. A computer move may contain
+	 * any,none or both of a zap move and a gen word move. No word is generated
+	 * when every word is already in the human player's grid.
+	 */
+	private void makeMove(ComputerMove thisMove) {
+		String randomWord = null;
 		if (thisMove.isGenWordMove()) {
-			Log.i("ComputerPlayer", "Packed gen word move");
-			aBundle.putBoolean(WordZapConstants.GENWORD_MOVE_KEYNAME, true);
-			String randomWord=this.aWordCache.getRandomWord(this.wordZapGameScreen.getCompletedWords());
-			aBundle.putString(WordZapConstants.GENERATED_WORD_KEYNAME, randomWord);
-		} else {
-			aBundle.putBoolean(WordZapConstants.GENWORD_MOVE_KEYNAME, false);
+			randomWord = this.aWordCache.getRandomWord(this.gameHost
+					.getCompletedWords());
 		}
-		return aBundle;
+		this.gameHost.makeComputerMove(thisMove.isZapMove(), randomWord);
+	}
+
+	// Returns the premeditated moves of the player, in order of time
+	public List<ComputerMove> getComputerMoves() {
+		return this.computerMoves;
 	}
 
 	/*
@@ -309,11 +406,10 @@ public class ComputerPlayer implements Runnable {
 			throw new IllegalArgumentException("Frequency should be positive");
 		}
 
-		Random randObj = new Random();
 		Set<Integer> moves = new TreeSet<Integer>();
 		int moveIndex = 1;
 		do {
-			moves.add(randObj.nextInt(endTime));
+			moves.add(this.rand.nextInt(endTime));
 			moveIndex = moves.size();
 		} while (moveIndex < frequency);
 
@@ -0,0 +1,293 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Vector;
+
+/*
+ * Directed acyclic word graph (a minimized trie) over a set of words.
+ * 
+ * Common prefixes and common suffixes of the words share nodes, and the graph
+ * is flattened into primitive arrays once it is built. A lookup walks one edge
+ * per character of the word and never allocates.
+ * 
+ * Words are stored in upper case. Lookups are case insensitive.
+ */
+public class Dawg {
+
+	// Index of the first outgoing edge of each node. Edges of node n are
+	// stored between edgeStart[n] (inclusive) and edgeStart[n + 1] (exclusive)
+	private final int[] edgeStart;
+
+	// Letter on each edge. Edges of a node are sorted by letter
+	private final char[] edgeLabels;
+
+	// Node reached by following each edge
+	private final int[] edgeTargets;
+
+	// Tells if a word ends at a node
+	private final boolean[] finalNodes;
+
+	// Number of words that can be completed from each node
+	private final int[] completionCounts;
+
+	// Node from which every word starts
+	private final int rootNode;
+
+	// Number of distinct words in the graph
+	private final int numWords;
+
+	// Trie node used only while the graph is being built
+	private static class BuildNode {
+		private final Map<Character, BuildNode> children = new TreeMap<Character, BuildNode>();
+		private boolean isFinal;
+		private int id = -1;
+	}
+
+	/*
+	 * Builds the graph from a collection of words. Empty words are ignored.
+	 * 
+	 * Parameter : Words to be stored in the graph
+	 */
+	public Dawg(final Collection<String> words) {
+		BuildNode root = new BuildNode();
+		int wordCount = 0;
+		for (String word : words) {
+			if (word.length() == 0) {
+				continue;
+			}
+			BuildNode node = root;
+			for (int index = 0; index < word.length(); index++) {
+				Character letter = Character.toUpperCase(word.charAt(index));
+				BuildNode child = node.children.get(letter);
+				if (child == null) {
+					child = new BuildNode();
+					node.children.put(letter, child);
+				}
+				node = child;
+			}
+			if (!node.isFinal) {
+				node.isFinal = true;
+				wordCount++;
+			}
+		}
+		this.numWords = wordCount;
+
+		// Merging equivalent sub graphs, bottom up
+		List<BuildNode> uniqueNodes = new Vector<BuildNode>();
+		this.minimize(root, new HashMap<String, BuildNode>(), uniqueNodes);
+		this.rootNode = root.id;
+
+		// Flattening the graph into arrays
+		int numNodes = uniqueNodes.size();
+		int numEdges = 0;
+		for (BuildNode node : uniqueNodes) {
+			numEdges += node.children.size();
+		}
+		this.edgeStart = new int[numNodes + 1];
+		this.edgeLabels = new char[numEdges];
+		this.edgeTargets = new int[numEdges];
+		this.finalNodes = new boolean[numNodes];
+
+		int edgeIndex = 0;
+		for (BuildNode node : uniqueNodes) {
+			this.edgeStart[node.id] = edgeIndex;
+			this.finalNodes[node.id] = node.isFinal;
+			for (Map.Entry<Character, BuildNode> edge : node.children
+					.entrySet()) {
+				this.edgeLabels[edgeIndex] = edge.getKey();
+				this.edgeTargets[edgeIndex] = edge.getValue().id;
+				edgeIndex++;
+			}
+		}
+		this.edgeStart[numNodes] = edgeIndex;
+
+		// Children have smaller ids than their parents, so they are counted
+		// first
+		this.completionCounts = new int[numNodes];
+		for (int node = 0; node < numNodes; node++) {
+			int count = this.finalNodes[node] ? 1 : 0;
+			for (int edge = this.edgeStart[node]; edge < this.edgeStart[node + 1]; edge++) {
+				count += this.completionCounts[this.edgeTargets[edge]];
+			}
+			this.completionCounts[node] = count;
+		}
+	}
+
+	/*
+	 * Replaces children of a node with their registered equivalents, and
+	 * registers the node itself. Two nodes are equivalent if both are final
+	 * (or both aren't) and their outgoing edges lead to the same nodes with
+	 * the same letters.
+	 * 
+	 * Returns the registered node equivalent to the node passed
+	 */
+	private BuildNode minimize(BuildNode node, Map<String, BuildNode> register,
+			List<BuildNode> uniqueNodes) {
+		StringBuilder key = new StringBuilder();
+		key.append(node.isFinal ? '1' : '0');
+		for (Map.Entry<Character, BuildNode> edge : node.children.entrySet()) {
+			BuildNode child = this.minimize(edge.getValue(), register,
+					uniqueNodes);
+			edge.setValue(child);
+			key.append(edge.getKey()).append(child.id).append(',');
+		}
+
+		BuildNode registered = register.get(key.toString());
+		if (registered == null) {
+			/*
+			 * Ids are handed out in post order, so that every node gets its id
+			 * after all nodes reachable from it
+			 */
+			node.id = uniqueNodes.size();
+			uniqueNodes.add(node);
+			register.put(key.toString(), node);
+			registered = node;
+		}
+		return registered;
+	}
+
+	/*
+	 * Returns the node reached by following the edge labelled with letter
+	 * from node, or -1 if there is no such edge
+	 */
+	private int child(int node, char letter) {
+		for (int edge = this.edgeStart[node]; edge < this.edgeStart[node + 1]; edge++) {
+			char label = this.edgeLabels[edge];
+			if (label == letter) {
+				return this.edgeTargets[edge];
+			}
+			if (label > letter) {
+				break;
+			}
+		}
+		return -1;
+	}
+
+	// Returns the node from which every word starts
+	public int getRootNode() {
+		return this.rootNode;
+	}
+
+	/*
+	 * Returns the node reached by following the edge labelled with letter
+	 * (in any case) from node, or -1 if there is no such edge
+	 */
+	public int getChild(int node, char letter) {
+		return this.child(node, Character.toUpperCase(letter));
+	}
+
+	// Returns true if a word ends at node
+	public boolean isFinal(int node) {
+		return this.finalNodes[node];
+	}
+
+	// Returns number of words that can be completed from node
+	public int getCompletionCount(int node) {
+		return this.completionCounts[node];
+	}
+
+	// Returns true if word is stored in the graph, false otherwise
+	public boolean contains(final CharSequence word) {
+		int node = this.rootNode;
+		int length = word.length();
+		for (int index = 0; index < length && node >= 0; index++) {
+			node = this.child(node, Character.toUpperCase(word.charAt(index)));
+		}
+		return node >= 0 && this.finalNodes[node];
+	}
+
+	/*
+	 * Returns true if the word made of length chars in word, starting from
+	 * offset, is stored in the graph. Returns false otherwise.
+	 */
+	public boolean contains(final char[] word, int offset, int length) {
+		int node = this.rootNode;
+		for (int index = offset; index < offset + length && node >= 0; index++) {
+			node = this.child(node, Character.toUpperCase(word[index]));
+		}
+		return node >= 0 && this.finalNodes[node];
+	}
+
+	/*
+	 * Finds all words in the graph that can be formed from a set of letters,
+	 * using each letter atmost once, and adds them to wordList. Only branches
+	 * of the graph that the remaining letters can follow are walked.
+	 */
+	public void findWords(final char[] letters, final List<String> wordList) {
+		char[] unusedLetters = new char[letters.length];
+		for (int index = 0; index < letters.length; index++) {
+			unusedLetters[index] = Character.toUpperCase(letters[index]);
+		}
+		this.collectWords(this.rootNode, new char[letters.length], 0,
+				unusedLetters, wordList);
+	}
+
+	/*
+	 * Walks the graph from node, spending one letter per edge followed. Spent
+	 * letters are blanked out in unusedLetters while the walk is below them.
+	 */
+	private void collectWords(int node, final char[] prefix, int prefixLength,
+			final char[] unusedLetters, final List<String> wordList) {
+		if (this.finalNodes[node]) {
+			wordList.add(new String(prefix, 0, prefixLength));
+		}
+		for (int edge = this.edgeStart[node]; edge < this.edgeStart[node + 1]; edge++) {
+			char label = this.edgeLabels[edge];
+			for (int index = 0; index < unusedLetters.length; index++) {
+				if (unusedLetters[index] == label) {
+					unusedLetters[index] = 0;
+					prefix[prefixLength] = label;
+					this.collectWords(this.edgeTargets[edge], prefix,
+							prefixLength + 1, unusedLetters, wordList);
+					unusedLetters[index] = label;
+					break;
+				}
+			}
+		}
+	}
+
+	// Returns number of distinct words stored in the graph
+	public int size() {
+		return this.numWords;
+	}
+
+	// Returns number of nodes in the graph
+	public int getNodeCount() {
+		return this.finalNodes.length;
+	}
+
+	// Returns number of edges in the graph
+	public int getEdgeCount() {
+		return this.edgeLabels.length;
+	}
+}
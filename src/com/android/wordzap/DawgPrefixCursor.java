@@ -0,0 +1,145 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+/*
+ * PrefixCursor that walks a directed acyclic word graph. It keeps a stack of
+ * the nodes reached by each letter typed, so that removing a letter is a pop.
+ * Letters typed after the walk has fallen off the graph are only counted.
+ */
+public class DawgPrefixCursor implements PrefixCursor {
+
+	private final Dawg wordGraph;
+
+	// Node reached by each letter typed, while the letters are on the graph
+	private int[] nodes;
+
+	// Number of letters typed that are on the graph
+	private int depth;
+
+	// Number of letters typed after the walk fell off the graph
+	private int deadDepth;
+
+	public DawgPrefixCursor(final Dawg wordGraph) {
+		this.wordGraph = wordGraph;
+		this.nodes = new int[WordZapConstants.MAX_WORD_SIZE + 1];
+		this.reset();
+	}
+
+	// Returns the node reached by the letters typed, or -1 if there is none
+	private int currentNode() {
+		return this.deadDepth == 0 ? this.nodes[this.depth] : -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#advance(char)
+	 */
+	public boolean advance(char letter) {
+		int node = this.currentNode();
+		int child = node < 0 ? -1 : this.wordGraph.getChild(node, letter);
+		if (child < 0) {
+			this.deadDepth++;
+			return false;
+		}
+		if (this.depth + 1 == this.nodes.length) {
+			int[] deeperNodes = new int[2 * this.nodes.length];
+			System.arraycopy(this.nodes, 0, deeperNodes, 0, this.nodes.length);
+			this.nodes = deeperNodes;
+		}
+		this.nodes[++this.depth] = child;
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#retreat()
+	 */
+	public boolean retreat() {
+		if (this.deadDepth > 0) {
+			this.deadDepth--;
+			return true;
+		}
+		if (this.depth > 0) {
+			this.depth--;
+			return true;
+		}
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#reset()
+	 */
+	public void reset() {
+		this.nodes[0] = this.wordGraph.getRootNode();
+		this.depth = 0;
+		this.deadDepth = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#length()
+	 */
+	public int length() {
+		return this.depth + this.deadDepth;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#isPrefix()
+	 */
+	public boolean isPrefix() {
+		int node = this.currentNode();
+		return node >= 0 && this.wordGraph.getCompletionCount(node) > 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#isWord()
+	 */
+	public boolean isWord() {
+		int node = this.currentNode();
+		return node >= 0 && this.wordGraph.isFinal(node);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.PrefixCursor#countCompletions()
+	 */
+	public int countCompletions() {
+		int node = this.currentNode();
+		return node < 0 ? 0 : this.wordGraph.getCompletionCount(node);
+	}
+}
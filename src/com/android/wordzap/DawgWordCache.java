@@ -0,0 +1,228 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+/*
+ * 
+ * Caches english words in Word Zap using a directed acyclic word graph.
+ * 
+ * Answers the same as EnglishWordCache, but a word is validated by walking
+ * the graph one character at a time, without creating any objects.
+ * 
+ */
+public class DawgWordCache extends LengthOrderedWordCache {
+
+	// Graph of all cached words
+	private final Dawg wordGraph;
+
+	// Cached words sorted by length, and position of the first word of each
+	// length
+	private final String[] wordsByLength;
+	private final int[] firstWordOfLength;
+
+	/*
+	 * Constructs the cache from a list of words. Restricts caching of words to
+	 * those that can be formed from chars specified in charSet. All other words
+	 * in the word list stream is ignored.
+	 * 
+	 * Parameter 1 : Path to file containing list of words
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 */
+	public DawgWordCache(String wordListFile, final char[] charSet)
+			throws IOException {
+		this(new EnglishWordCache(wordListFile, charSet).getValidWords());
+	}
+
+	/*
+	 * Constructs the cache from a list of words. Restricts caching of words to
+	 * those that can be formed from chars specified in charSet. All other words
+	 * in the word list stream is ignored.
+	 * 
+	 * Parameter 1 : Handle to file containing list of words
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 */
+	public DawgWordCache(final InputStream wordListHandle, final char[] charSet)
+			throws IOException {
+		this(new EnglishWordCache(wordListHandle, charSet).getValidWords());
+	}
+
+	/*
+	 * Constructs the cache from a list of words. Restricts caching of words to
+	 * those that can be formed from chars specified in charSet. All other words
+	 * in the word list stream is ignored.
+	 * 
+	 * Parameter 1 : Handle to file containing list of words
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 */
+	public DawgWordCache(final Reader wordListHandle, final char[] charSet)
+			throws IOException {
+		// EnglishWordCache decides which words are cached, so that both caches
+		// always agree
+		this(new EnglishWordCache(wordListHandle, charSet).getValidWords());
+	}
+
+	/*
+	 * Constructs the cache from a list of words. Every word in the list is
+	 * cached.
+	 * 
+	 * Parameter : List of words to be cached
+	 */
+	public DawgWordCache(final List<String> words) {
+		this(words, new Random());
+	}
+
+	/*
+	 * Constructs the cache from a list of words, as above. getRandomWord draws
+	 * from a given random number generator.
+	 * 
+	 * Parameter 1 : List of words to be cached
+	 * 
+	 * Parameter 2 : Random number generator, reused for every pick
+	 */
+	public DawgWordCache(final List<String> words, final Random rand) {
+		List<String> upperCaseWords = new ArrayList<String>(words.size());
+		for (String word : words) {
+			if (word.length() != 0) {
+				upperCaseWords.add(word.toUpperCase());
+			}
+		}
+		this.wordGraph = new Dawg(upperCaseWords);
+		String[] sortedWords = upperCaseWords
+				.toArray(new String[upperCaseWords.size()]);
+		Arrays.sort(sortedWords);
+
+		// Grouping words by length, alphabetically within a length
+		int[] wordLengths = new int[sortedWords.length];
+		for (int word = 0; word < sortedWords.length; word++) {
+			wordLengths[word] = sortedWords[word].length();
+		}
+		int[] wordOrder = new int[sortedWords.length];
+		this.firstWordOfLength = groupByLength(wordLengths, wordOrder);
+		this.wordsByLength = new String[sortedWords.length];
+		for (int position = 0; position < wordOrder.length; position++) {
+			this.wordsByLength[position] = sortedWords[wordOrder[position]];
+		}
+		this.initPositions(this.firstWordOfLength, rand);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 * 
+	 * Returns true if word is valid, false otherwise
+	 */
+	@Override
+	public boolean isWordValid(String word) {
+		return this.wordGraph.contains(word);
+	}
+
+	/*
+	 * Returns true if the word made of length chars in word, starting from
+	 * offset, is valid. Returns false otherwise.
+	 */
+	public boolean isWordValid(final char[] word, int offset, int length) {
+		return this.wordGraph.contains(word, offset, length);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.LengthOrderedWordCache#wordAt(int)
+	 */
+	@Override
+	protected String wordAt(int position) {
+		return this.wordsByLength[position];
+	}
+
+	/*
+	 * Returns position of a word in wordsByLength, or -1 if the word is not
+	 * cached
+	 */
+	@Override
+	protected int positionOf(String word) {
+		int length = word.length();
+		if (length + 1 >= this.firstWordOfLength.length) {
+			return -1;
+		}
+		int position = Arrays.binarySearch(this.wordsByLength,
+				this.firstWordOfLength[length],
+				this.firstWordOfLength[length + 1], word);
+		return position < 0 ? -1 : position;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordsFormableFrom(char[])
+	 * 
+	 * Returns list of cached words that can be formed from letters, using each
+	 * letter atmost once. The graph is walked instead of comparing signatures.
+	 */
+	@Override
+	public List<String> getWordsFormableFrom(final char[] letters) {
+		List<String> wordList = new Vector<String>();
+		this.wordGraph.findWords(letters, wordList);
+		return wordList;
+	}
+
+	// Returns the graph backing this cache
+	public Dawg getWordGraph() {
+		return this.wordGraph;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#newPrefixCursor()
+	 */
+	@Override
+	public PrefixCursor newPrefixCursor() {
+		return new DawgPrefixCursor(this.wordGraph);
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+/*
+ * Keeps the time by which the human player has to form the next word, as a
+ * single deadline on a monotonic clock. Forming a word moves the deadline
+ * forward, and whoever needs the time left (e.g. the UI, on its own redraws)
+ * reads it from the deadline, so no thread sleeps or gets interrupted to keep
+ * time.
+ * 
+ * When the deadline passes, the game is decided as by Timer :
+ * Timer.getGameStatus(int, int). A started timer tells when that happens by
+ * itself, from a single task on its scheduler. The task is not moved when
+ * the deadline is; on running early it waits again for the time left.
+ */
+public class DeadlineTimer {
+
+	// Clock on which the deadline is kept, and scheduler running the expiry
+	// check of a started timer
+	private final GameScheduler clock;
+
+	// Milliseconds the human player has to form a word
+	private final long timeoutMillis;
+
+	// Clock time by which the human player has to form the next word
+	private volatile long deadline;
+
+	// Told once the deadline passes, and the task waiting for it
+	private Runnable onExpiry;
+	private ScheduledTask expiryTask;
+
+	/*
+	 * Creates a timer whose deadline is timeoutMillis from now
+	 * 
+	 * Parameter 1 : Scheduler whose clock keeps the deadline
+	 * 
+	 * Parameter 2 : Milliseconds the human player has to form a word
+	 */
+	public DeadlineTimer(final GameScheduler clock, long timeoutMillis) {
+		if (clock == null) {
+			throw new IllegalArgumentException("Clock is null.");
+		}
+		if (timeoutMillis <= 0) {
+			throw new IllegalArgumentException("Timeout should be positive");
+		}
+		this.clock = clock;
+		this.timeoutMillis = timeoutMillis;
+		this.reset();
+	}
+
+	// Gives the human player timeoutMillis from now to form the next word
+	public void reset() {
+		this.deadline = this.clock.currentTimeMillis() + this.timeoutMillis;
+	}
+
+	// Returns clock time by which the human player has to form the next word
+	public long getDeadline() {
+		return this.deadline;
+	}
+
+	// Returns milliseconds left before the deadline, or 0 once it has passed
+	public long getRemainingMillis() {
+		return Math.max(0, this.deadline - this.clock.currentTimeMillis());
+	}
+
+	// Returns seconds left before the deadline, rounded up
+	public int getSecondsLeft() {
+		return (int) ((this.getRemainingMillis() + 999) / 1000);
+	}
+
+	// Tells if the deadline has passed
+	public boolean isExpired() {
+		return this.clock.currentTimeMillis() >= this.deadline;
+	}
+
+	public long getTimeoutMillis() {
+		return this.timeoutMillis;
+	}
+
+	/*
+	 * Runs a task once the deadline passes, unless the timer is stopped
+	 * before. The task runs on a thread of the scheduler.
+	 * 
+	 * Throws IllegalStateException : If the timer was already started
+	 */
+	public synchronized void start(final Runnable onExpiry)
+			throws IllegalStateException {
+		if (onExpiry == null) {
+			throw new IllegalArgumentException("Expiry task is null.");
+		}
+		if (this.onExpiry != null) {
+			throw new IllegalStateException("Timer already started.");
+		}
+		this.onExpiry = onExpiry;
+		this.scheduleExpiry();
+	}
+
+	// Stops a started timer, whose expiry task then never runs
+	public synchronized void stop() {
+		if (this.expiryTask != null) {
+			this.expiryTask.cancel();
+			this.expiryTask = null;
+		}
+	}
+
+	// Waits for the time left before the deadline
+	private void scheduleExpiry() {
+		this.expiryTask = this.clock.schedule(new Runnable() {
+			public void run() {
+				checkExpiry();
+			}
+		}, this.getRemainingMillis());
+	}
+
+	// Tells the expiry, unless the deadline was moved forward meanwhile
+	private void checkExpiry() {
+		synchronized (this) {
+			if (this.expiryTask == null) {
+				return;
+			}
+			if (!this.isExpired()) {
+				this.scheduleExpiry();
+				return;
+			}
+			this.expiryTask = null;
+		}
+		this.onExpiry.run();
+	}
+}
@@ -0,0 +1,251 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * Compiles a list of words (one word per line) into the binary layout read by
+ * BinaryDictionary.
+ * 
+ * Run it offline as :
+ * 
+ * java com.android.wordzap.DictionaryCompiler res/raw/word_list.txt word_list.bin
+ * 
+ * The game also runs it on the device, the first time a word list is loaded.
+ */
+public class DictionaryCompiler {
+
+	// Orders words by length, and then alphabetically
+	private static class LengthFirstComparator implements Comparator<String> {
+		public int compare(String wordOne, String wordTwo) {
+			if (wordOne.length() != wordTwo.length()) {
+				return wordOne.length() - wordTwo.length();
+			}
+			return wordOne.compareTo(wordTwo);
+		}
+	}
+
+	private DictionaryCompiler() {
+	}
+
+	/*
+	 * Returns distinct, non empty, upper case words of a word list, sorted by
+	 * length and then alphabetically
+	 * 
+	 * Throws InvalidDictionaryException : If a word contains non ASCII
+	 * characters
+	 */
+	static Set<String> parseWords(final byte[] wordList) throws IOException,
+			InvalidDictionaryException {
+		BufferedReader buffRdr = new BufferedReader(new InputStreamReader(
+				new ByteArrayInputStream(wordList)));
+		Set<String> words = new TreeSet<String>(new LengthFirstComparator());
+		String word = null;
+		while ((word = buffRdr.readLine()) != null) {
+			word = word.toUpperCase();
+			if (word.length() == 0) {
+				continue;
+			}
+			for (int index = 0; index < word.length(); index++) {
+				if (word.charAt(index) > 0x7F) {
+					throw new InvalidDictionaryException("'" + word
+							+ "' contains non ASCII characters");
+				}
+			}
+			words.add(word);
+		}
+		return words;
+	}
+
+	/*
+	 * Compiles a word list of no known version and writes the compiled form
+	 * to a stream
+	 * 
+	 * Parameter 1 : Contents of the file containing list of words
+	 * 
+	 * Parameter 2 : Stream to which the compiled form is written
+	 * 
+	 * Throws IOException : If I/O errors happen when writing the compiled form
+	 * 
+	 * Throws InvalidDictionaryException : If the word list can't be compiled
+	 */
+	public static void compile(final byte[] wordList,
+			final OutputStream dictionaryHandle) throws IOException,
+			InvalidDictionaryException {
+		compile(wordList, BinaryDictionary.NO_SOURCE_VERSION, dictionaryHandle);
+	}
+
+	/*
+	 * Compiles a word list and writes the compiled form to a stream
+	 * 
+	 * Parameter 1 : Contents of the file containing list of words
+	 * 
+	 * Parameter 2 : Version of the word list, recorded in the header, or
+	 * BinaryDictionary.NO_SOURCE_VERSION
+	 * 
+	 * Parameter 3 : Stream to which the compiled form is written
+	 * 
+	 * Throws IOException : If I/O errors happen when writing the compiled form
+	 * 
+	 * Throws InvalidDictionaryException : If the word list can't be compiled
+	 */
+	public static void compile(final byte[] wordList, long sourceVersion,
+			final OutputStream dictionaryHandle) throws IOException,
+			InvalidDictionaryException {
+		Set<String> words = parseWords(wordList);
+
+		int maxWordLength = 0;
+		for (String word : words) {
+			maxWordLength = Math.max(maxWordLength, word.length());
+		}
+		int numLengths = maxWordLength + 2;
+		int[] firstWordOfLength = new int[numLengths];
+		int[] offsetOfLength = new int[numLengths];
+		for (String word : words) {
+			for (int length = word.length() + 1; length < numLengths; length++) {
+				firstWordOfLength[length]++;
+				offsetOfLength[length] += word.length();
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				dictionaryHandle));
+
+		// Header
+		out.writeInt(BinaryDictionary.MAGIC);
+		out.writeInt(BinaryDictionary.VERSION);
+		out.writeLong(BinaryDictionary.checksum(wordList));
+		out.writeInt(wordList.length);
+		out.writeInt(words.size());
+		out.writeInt(maxWordLength);
+		out.writeInt(0);
+		out.writeLong(sourceVersion);
+
+		// Length and offset tables
+		for (int length = 0; length < numLengths; length++) {
+			out.writeInt(firstWordOfLength[length]);
+		}
+		for (int length = 0; length < numLengths; length++) {
+			out.writeInt(offsetOfLength[length]);
+		}
+		int tablesEnd = BinaryDictionary.HEADER_SIZE + 2 * numLengths * 4;
+		for (int pad = tablesEnd; pad < BinaryDictionary.align(tablesEnd); pad++) {
+			out.writeByte(0);
+		}
+
+		// Signatures
+		for (String word : words) {
+			out.writeLong(LetterSignature.low(word));
+			out.writeLong(LetterSignature.high(word));
+		}
+
+		// Words
+		for (String word : words) {
+			for (int index = 0; index < word.length(); index++) {
+				out.writeByte(word.charAt(index));
+			}
+		}
+		out.flush();
+	}
+
+	/*
+	 * Compiles a word list and writes the compiled form to a file. The file is
+	 * replaced only once the compiled form is completely written.
+	 * 
+	 * Parameter 1 : Contents of the file containing list of words
+	 * 
+	 * Parameter 2 : Version of the word list, recorded in the header, or
+	 * BinaryDictionary.NO_SOURCE_VERSION
+	 * 
+	 * Parameter 3 : File to which the compiled form is written
+	 * 
+	 * Throws IOException : If I/O errors happen when writing the compiled form
+	 * 
+	 * Throws InvalidDictionaryException : If the word list can't be compiled
+	 */
+	public static void compile(final byte[] wordList, long sourceVersion,
+			File dictionaryFile) throws IOException,
+			InvalidDictionaryException {
+		File tmpFile = new File(dictionaryFile.getPath() + ".tmp");
+		OutputStream out = new FileOutputStream(tmpFile);
+		try {
+			compile(wordList, sourceVersion, out);
+		} finally {
+			out.close();
+		}
+		if (!tmpFile.renameTo(dictionaryFile)) {
+			dictionaryFile.delete();
+			if (!tmpFile.renameTo(dictionaryFile)) {
+				throw new IOException("Couldn't write " + dictionaryFile);
+			}
+		}
+	}
+
+	/*
+	 * Compiles a word list file into a dictionary file
+	 * 
+	 * Parameter 1 : Path to file containing list of words
+	 * 
+	 * Parameter 2 : Path to the compiled dictionary file to be written
+	 */
+	public static void main(String[] args) throws IOException,
+			InvalidDictionaryException {
+		if (args.length != 2) {
+			System.err
+					.println("Usage : java com.android.wordzap.DictionaryCompiler <word list file> <dictionary file>");
+			System.exit(1);
+		}
+		InputStream wordListHandle = new FileInputStream(args[0]);
+		byte[] wordList;
+		try {
+			wordList = BinaryDictionary.readFully(wordListHandle);
+		} finally {
+			wordListHandle.close();
+		}
+		compile(wordList, BinaryDictionary.NO_SOURCE_VERSION, new File(args[1]));
+
+		BinaryDictionary dictionary = BinaryDictionary.map(new File(args[1]));
+		System.out.println("Compiled " + dictionary.getWordCount()
+				+ " words into " + args[1]);
+	}
+}
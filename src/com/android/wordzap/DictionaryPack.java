@@ -0,0 +1,258 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.util.Log;
+
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+import com.android.wordzap.exceptions.InvalidFreqFileException;
+import com.android.wordzap.exceptions.InvalidLevelTableException;
+
+/*
+ * Everything the game needs to be played in one language : a word list, the
+ * alphabet of the language and the frequencies of its letters.
+ * 
+ * A pack only describes where its resources are. Loading is done by
+ * DictionaryPreloader, which holds the loaded objects of the active pack
+ * only. Packs are registered by name, so that a language can be added by
+ * shipping its resources and registering a pack for them.
+ * 
+ */
+public class DictionaryPack {
+
+	// Tag for log messages
+	private static final String LOG_TAG = "DictionaryPack";
+
+	// Resource of packs without a level table
+	public static final int NO_LEVEL_TABLE = 0;
+
+	// Registered packs, by name
+	private static final Map<String, DictionaryPack> packs = new HashMap<String, DictionaryPack>();
+
+	static {
+		DictionaryPack.register(new DictionaryPack(
+				WordZapConstants.ENGLISH_PACK, Alphabet.ENGLISH,
+				WordZapConstants.WORD_LISTS_FILE,
+				WordZapConstants.COMPILED_WORD_LIST_FILE,
+				WordZapConstants.ALPHABETS_FREQ_FILE,
+				WordZapConstants.ALPHABETS_FREQ_FILE_DELIM,
+				WordZapConstants.LEVEL_TABLE_FILE));
+	}
+
+	private final String name;
+	private final Alphabet alphabet;
+
+	// Raw resource holding the word list
+	private final int wordListResource;
+
+	// Name of the compiled form of the word list, kept in the cache directory
+	private final String compiledWordListName;
+
+	// Raw resource holding the letter frequencies, and string resource
+	// holding its delimiter
+	private final int frequenciesResource;
+	private final int frequenciesDelimiterResource;
+
+	// Raw resource holding the level table, or NO_LEVEL_TABLE
+	private final int levelTableResource;
+
+	/*
+	 * Parameter 1 : Name of the pack
+	 * 
+	 * Parameter 2 : Alphabet of the language
+	 * 
+	 * Parameter 3 : Raw resource holding the word list
+	 * 
+	 * Parameter 4 : Name of the compiled form of the word list, kept in the
+	 * cache directory. Should be different for each pack.
+	 * 
+	 * Parameter 5 : Raw resource holding the letter frequencies, in the format
+	 * read by LevelGenerator
+	 * 
+	 * Parameter 6 : String resource holding the delimiter of the letter
+	 * frequencies
+	 */
+	public DictionaryPack(String name, final Alphabet alphabet,
+			int wordListResource, String compiledWordListName,
+			int frequenciesResource, int frequenciesDelimiterResource) {
+		this(name, alphabet, wordListResource, compiledWordListName,
+				frequenciesResource, frequenciesDelimiterResource,
+				NO_LEVEL_TABLE);
+	}
+
+	/*
+	 * Parameter 1 to 6 : As above
+	 * 
+	 * Parameter 7 : Raw resource holding the level table compiled by
+	 * LevelTableCompiler from the word list and letter frequencies, or
+	 * NO_LEVEL_TABLE
+	 */
+	public DictionaryPack(String name, final Alphabet alphabet,
+			int wordListResource, String compiledWordListName,
+			int frequenciesResource, int frequenciesDelimiterResource,
+			int levelTableResource) {
+		this.name = name;
+		this.alphabet = alphabet;
+		this.wordListResource = wordListResource;
+		this.compiledWordListName = compiledWordListName;
+		this.frequenciesResource = frequenciesResource;
+		this.frequenciesDelimiterResource = frequenciesDelimiterResource;
+		this.levelTableResource = levelTableResource;
+	}
+
+	// Registers a pack, replacing any pack registered earlier with its name
+	public static synchronized void register(final DictionaryPack pack) {
+		DictionaryPack.packs.put(pack.getName(), pack);
+	}
+
+	// Returns the pack registered with a name, or null if there is none
+	public static synchronized DictionaryPack forName(String name) {
+		return DictionaryPack.packs.get(name);
+	}
+
+	// Returns the pack named by WordZapConstants.ACTIVE_PACK
+	public static DictionaryPack getActivePack() {
+		return DictionaryPack.forName(WordZapConstants.ACTIVE_PACK);
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public Alphabet getAlphabet() {
+		return this.alphabet;
+	}
+
+	/*
+	 * Loads a level generator for the language from the letter frequencies
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the letter
+	 * frequencies
+	 * 
+	 * Throws InvalidFreqFileException : If the letter frequencies are
+	 * incorrect
+	 */
+	public LevelGenerator loadLevelGenerator(final Resources resources)
+			throws IOException, InvalidFreqFileException {
+		InputStream frequenciesStream = resources
+				.openRawResource(this.frequenciesResource);
+		try {
+			return new LevelGenerator(new InputStreamReader(frequenciesStream),
+					resources.getString(this.frequenciesDelimiterResource),
+					this.alphabet);
+		} finally {
+			frequenciesStream.close();
+		}
+	}
+
+	/*
+	 * Loads the level table of the pack. The level table only saves work, so
+	 * the game is played without it if it can't be read.
+	 * 
+	 * Returns the level table, or null if the pack has none or it can't be
+	 * read
+	 */
+	public LevelTable loadLevelTable(final Resources resources) {
+		if (this.levelTableResource == NO_LEVEL_TABLE) {
+			return null;
+		}
+		try {
+			InputStream levelTableStream = resources
+					.openRawResource(this.levelTableResource);
+			try {
+				return new LevelTable(levelTableStream);
+			} finally {
+				levelTableStream.close();
+			}
+		} catch (IOException e) {
+			Log.e(LOG_TAG, "Can't read level table of " + this.name, e);
+		} catch (InvalidLevelTableException e) {
+			Log.e(LOG_TAG, "Can't use level table of " + this.name, e);
+		}
+		return null;
+	}
+
+	/*
+	 * Loads the word list of the language.
+	 * 
+	 * The dictionary is mapped from the compiled form of the word list, kept
+	 * in the cache directory. The word list ships inside the application
+	 * package, so the compiled form is stamped with the size and modification
+	 * time of the package, and the word list is only read when the compiled
+	 * form is missing or the package was replaced since. This holds even when
+	 * a development build is reinstalled without a new version code. The word
+	 * list is compiled in memory if the compiled form can't be used.
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the list of words can't be
+	 * compiled
+	 */
+	public BinaryDictionary loadDictionary(final Context context)
+			throws IOException, InvalidDictionaryException {
+		Resources resources = context.getResources();
+		InputStream wordListStream = resources
+				.openRawResource(this.wordListResource);
+		try {
+			File dictionaryFile = new File(context.getCacheDir(),
+					this.compiledWordListName);
+			return BinaryDictionary.load(dictionaryFile, BinaryDictionary
+					.versionOf(new File(context.getPackageCodePath())),
+					wordListStream);
+		} catch (IOException e) {
+			Log.e(LOG_TAG, "Can't use compiled word list of " + this.name, e);
+		} finally {
+			wordListStream.close();
+		}
+
+		wordListStream = resources.openRawResource(this.wordListResource);
+		try {
+			return BinaryDictionary.compile(wordListStream);
+		} finally {
+			wordListStream.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.name;
+	}
+}
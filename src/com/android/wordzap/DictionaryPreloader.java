@@ -0,0 +1,354 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.wordzap.exceptions.InvalidCpuDescriptionException;
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+import com.android.wordzap.exceptions.InvalidFreqFileException;
+import com.android.wordzap.exceptions.InvalidLevelException;
+
+/*
+ * Loads the level generator and the dictionary shared by all levels on a
+ * background thread, so that the UI thread doesn't read the alphabet
+ * frequencies file and the word list before showing a level.
+ * 
+ * Loading is started by StartScreen while the user picks a level. GameScreen
+ * waits for the loaded objects only if they are not ready yet.
+ * 
+ * Objects are loaded from a DictionaryPack. Only the objects of the last pack
+ * started are kept : starting another pack drops the loaded objects of the
+ * previous one.
+ */
+public class DictionaryPreloader {
+
+	// Tag for log messages, which report load and wait times
+	private static final String LOG_TAG = "DictionaryPreloader";
+
+	// Preloader of this process
+	private static DictionaryPreloader instance;
+
+	private final Context context;
+
+	// Pack the objects are loaded from
+	private final DictionaryPack pack;
+
+	// Time at which loading was started
+	private final long startTime;
+
+	// Loaded one after the other on the background thread, in this order
+	private final FutureTask<LevelGenerator> levelGeneratorTask;
+	private final FutureTask<DictionaryRegistry> dictionaryTask;
+
+	/*
+	 * Starts loading the pack named by WordZapConstants.ACTIVE_PACK. Returns
+	 * the preloader of this process.
+	 * 
+	 * Parameter : Any context of the application
+	 */
+	public static DictionaryPreloader start(final Context context) {
+		return DictionaryPreloader.start(context, DictionaryPack
+				.getActivePack());
+	}
+
+	/*
+	 * Starts loading a pack on a background thread, unless an earlier load of
+	 * the same pack by this process is in progress or has succeeded. Returns
+	 * the preloader of this process.
+	 * 
+	 * Parameter 1 : Any context of the application
+	 * 
+	 * Parameter 2 : Pack to be loaded
+	 */
+	public static synchronized DictionaryPreloader start(
+			final Context context, final DictionaryPack pack) {
+		if (instance == null || instance.pack != pack || instance.hasFailed()) {
+			final DictionaryPreloader preloader = new DictionaryPreloader(
+					context.getApplicationContext(), pack);
+			Thread loader = new Thread(new Runnable() {
+				public void run() {
+					preloader.load();
+				}
+			}, LOG_TAG);
+			loader.setDaemon(true);
+			loader.start();
+			instance = preloader;
+		}
+		return instance;
+	}
+
+	private DictionaryPreloader(final Context context,
+			final DictionaryPack pack) {
+		this.context = context;
+		this.pack = pack;
+		this.startTime = SystemClock.uptimeMillis();
+		this.levelGeneratorTask = new FutureTask<LevelGenerator>(
+				new Callable<LevelGenerator>() {
+					public LevelGenerator call() throws Exception {
+						return loadLevelGenerator();
+					}
+				});
+		this.dictionaryTask = new FutureTask<DictionaryRegistry>(
+				new Callable<DictionaryRegistry>() {
+					public DictionaryRegistry call() throws Exception {
+						return new DictionaryRegistry(loadMasterDictionary());
+					}
+				});
+	}
+
+	// Runs on the background thread
+	private void load() {
+		this.levelGeneratorTask.run();
+		Log.i(LOG_TAG, "Level generator of " + this.pack + " loaded after "
+				+ (SystemClock.uptimeMillis() - this.startTime) + " ms");
+		this.dictionaryTask.run();
+		Log.i(LOG_TAG, "Dictionary of " + this.pack + " loaded after "
+				+ (SystemClock.uptimeMillis() - this.startTime) + " ms");
+	}
+
+	// Returns true if loading has finished with an error
+	private boolean hasFailed() {
+		try {
+			if (this.levelGeneratorTask.isDone()) {
+				this.levelGeneratorTask.get();
+			}
+			if (this.dictionaryTask.isDone()) {
+				this.dictionaryTask.get();
+			}
+			return false;
+		} catch (ExecutionException e) {
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	// Returns the pack the objects are loaded from
+	public DictionaryPack getPack() {
+		return this.pack;
+	}
+
+	// Returns true if both the level generator and the dictionary are loaded
+	public boolean isReady() {
+		return this.levelGeneratorTask.isDone() && this.dictionaryTask.isDone();
+	}
+
+	/*
+	 * Waits for a task to finish, logging how long the calling thread had to
+	 * wait
+	 * 
+	 * Throws InterruptedIOException : If the calling thread is interrupted
+	 * while waiting
+	 */
+	private <T> T waitFor(final FutureTask<T> task, String name)
+			throws ExecutionException, InterruptedIOException {
+		long waitStart = SystemClock.uptimeMillis();
+		boolean wasReady = task.isDone();
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while loading "
+					+ name);
+		} finally {
+			if (!wasReady) {
+				Log.i(LOG_TAG, "Waited " + (SystemClock.uptimeMillis() - waitStart)
+						+ " ms for " + name);
+			}
+		}
+	}
+
+	/*
+	 * Returns the level generator, waiting for it to be loaded if needed
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the alphabet
+	 * frequencies file
+	 * 
+	 * Throws InvalidFreqFileException : If the alphabet frequencies file is
+	 * incorrect
+	 */
+	public LevelGenerator getLevelGenerator() throws IOException,
+			InvalidFreqFileException {
+		try {
+			return this.waitFor(this.levelGeneratorTask, "level generator");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof InvalidFreqFileException) {
+				throw (InvalidFreqFileException) cause;
+			}
+			throw asIOException(cause);
+		}
+	}
+
+	/*
+	 * Returns the last published dictionary shared by all levels, waiting for
+	 * it to be loaded if needed
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the list of words can't be
+	 * compiled
+	 */
+	public MasterDictionary getMasterDictionary() throws IOException,
+			InvalidDictionaryException {
+		return this.getDictionaryRegistry().getDictionary();
+	}
+
+	/*
+	 * Reloads the word list of the pack, and publishes it to games that are
+	 * running. Use this after the word list has been corrected.
+	 * 
+	 * Returns version of the published dictionary
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the list of words can't be
+	 * compiled
+	 */
+	public long reloadDictionary() throws IOException,
+			InvalidDictionaryException {
+		DictionaryRegistry registry = this.getDictionaryRegistry();
+		return registry.publish(this.loadMasterDictionary());
+	}
+
+	/*
+	 * Returns the registry of the dictionary shared by all levels, waiting for
+	 * the first dictionary to be loaded if needed
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the list of words can't be
+	 * compiled
+	 */
+	public DictionaryRegistry getDictionaryRegistry() throws IOException,
+			InvalidDictionaryException {
+		try {
+			return this.waitFor(this.dictionaryTask, "dictionary");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof InvalidDictionaryException) {
+				throw (InvalidDictionaryException) cause;
+			}
+			throw asIOException(cause);
+		}
+	}
+
+	/*
+	 * Rethrows unchecked causes of a failed load, and returns other causes as
+	 * an IOException
+	 */
+	private static IOException asIOException(final Throwable cause) {
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		}
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		IOException ioException = new IOException("Loading failed");
+		ioException.initCause(cause);
+		return ioException;
+	}
+
+	/*
+	 * Loads the level generator from the letter frequencies of the pack. The
+	 * generator picks letters from the level table of the pack, if it has
+	 * one.
+	 */
+	private LevelGenerator loadLevelGenerator() throws IOException,
+			InvalidFreqFileException {
+		Resources resources = this.context.getResources();
+		LevelGenerator levelGen = this.pack.loadLevelGenerator(resources);
+		levelGen.setLevelTable(this.pack.loadLevelTable(resources));
+		return levelGen;
+	}
+
+	/*
+	 * Loads the dictionary shared by all levels from the word list of the
+	 * pack. Word caches of levels are built from the level table of the level
+	 * generator, if the table was compiled for the word list. Otherwise the
+	 * bands of balanced levels are sampled here, rather than when the first
+	 * level is generated.
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the list of words can't be
+	 * compiled
+	 */
+	private MasterDictionary loadMasterDictionary() throws IOException,
+			InvalidDictionaryException {
+		MasterDictionary dictionary = new MasterDictionary(this.pack
+				.loadDictionary(this.context));
+		LevelGenerator levelGen = this.getLoadedLevelGenerator();
+		if (levelGen == null) {
+			return dictionary;
+		}
+		LevelTable levelTable = levelGen.getLevelTable();
+		if (levelTable != null && !dictionary.setLevelTable(levelTable)) {
+			Log.w(LOG_TAG, "Level table of " + this.pack
+					+ " was compiled for another word list");
+		}
+		if (WordZapConstants.USE_BALANCED_LEVELS) {
+			try {
+				dictionary.getLevelBands(levelGen);
+			} catch (InvalidLevelException e) {
+				Log.e(LOG_TAG, "Can't sample bands of " + this.pack, e);
+			} catch (InvalidCpuDescriptionException e) {
+				Log.e(LOG_TAG, "Can't sample bands of " + this.pack, e);
+			}
+		}
+		return dictionary;
+	}
+
+	// Returns the level generator, or null if it isn't loaded
+	private LevelGenerator getLoadedLevelGenerator() {
+		if (!this.levelGeneratorTask.isDone()) {
+			return null;
+		}
+		try {
+			return this.levelGeneratorTask.get();
+		} catch (ExecutionException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Holds the dictionary games are played with, so that a corrected word list
+ * can be published while games are running.
+ * 
+ * Each published dictionary gets the next version number. The dictionary and
+ * its version are swapped in together, as one immutable Entry, so readers
+ * never see a dictionary with the version of another one. Reading the current
+ * entry takes no lock.
+ * 
+ */
+public class DictionaryRegistry {
+
+	/*
+	 * A published dictionary and its version
+	 */
+	public static final class Entry {
+		private final long version;
+		private final MasterDictionary dictionary;
+
+		private Entry(long version, final MasterDictionary dictionary) {
+			this.version = version;
+			this.dictionary = dictionary;
+		}
+
+		public long getVersion() {
+			return this.version;
+		}
+
+		public MasterDictionary getDictionary() {
+			return this.dictionary;
+		}
+	}
+
+	// Entry of the last published dictionary
+	private final AtomicReference<Entry> current;
+
+	/*
+	 * Parameter : First dictionary, published as version 1
+	 */
+	public DictionaryRegistry(final MasterDictionary dictionary) {
+		if (dictionary == null) {
+			throw new IllegalArgumentException("Dictionary cannot be null");
+		}
+		this.current = new AtomicReference<Entry>(new Entry(1, dictionary));
+	}
+
+	// Returns the entry of the last published dictionary
+	public Entry getEntry() {
+		return this.current.get();
+	}
+
+	// Returns the last published dictionary
+	public MasterDictionary getDictionary() {
+		return this.current.get().getDictionary();
+	}
+
+	// Returns version of the last published dictionary
+	public long getVersion() {
+		return this.current.get().getVersion();
+	}
+
+	/*
+	 * Publishes a dictionary. Lookups started after this call returns use the
+	 * new dictionary.
+	 * 
+	 * Returns version of the published dictionary
+	 */
+	public long publish(final MasterDictionary dictionary) {
+		if (dictionary == null) {
+			throw new IllegalArgumentException("Dictionary cannot be null");
+		}
+		while (true) {
+			Entry previous = this.current.get();
+			Entry next = new Entry(previous.getVersion() + 1, dictionary);
+			if (this.current.compareAndSet(previous, next)) {
+				return next.getVersion();
+			}
+		}
+	}
+
+	// Publishes a compiled dictionary. Returns its version
+	public long publish(final BinaryDictionary dictionary) {
+		return this.publish(new MasterDictionary(dictionary));
+	}
+}
@@ -26,32 +26,42 @@
 
 package com.android.wordzap;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.Vector;
-
-import android.util.Log;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /*
  * 
  * Caches english words in Word Zap
  * 
  */
-public class EnglishWordCache implements WordCache {
+public class EnglishWordCache extends LengthOrderedWordCache {
+
+	// Lists smaller than this many bytes are never split for a parallel build
+	private static final int MIN_PARALLEL_BUILD_SIZE = 32 * 1024;
 
-	// Possible word lengths
-	private int[] wordLengths;
+	// Approximate number of bytes in each chunk of a parallel build
+	private static final int PARALLEL_CHUNK_SIZE = 16 * 1024;
+
+	// Cached words sorted by length, and position of the first word of each
+	// length
+	private String[] wordsByLength;
+	private int[] firstWordOfLength;
 
 	// Stores all word lists - grouped by word length (key)
 	private Map<Integer, Set<String>> wordListsHash;
@@ -70,7 +80,14 @@ public class EnglishWordCache implements WordCache {
 	 */
 	public EnglishWordCache(String wordListFile, final char[] charSet)
 			throws IOException {
-		this(new FileReader(wordListFile), charSet);
+		InputStream wordListHandle = new FileInputStream(wordListFile);
+		try {
+			this.wordListsHash = cacheWords(new WordListParser(
+					wordListHandle, charSet));
+		} finally {
+			wordListHandle.close();
+		}
+		this.layOutWords(new Random());
 	}
 
 	/*
@@ -87,7 +104,9 @@ public class EnglishWordCache implements WordCache {
 	 */
 	public EnglishWordCache(final InputStream wordListHandle,
 			final char[] charSet) throws IOException {
-		this(new InputStreamReader(wordListHandle), charSet);
+		this.wordListsHash = cacheWords(new WordListParser(
+				wordListHandle, charSet));
+		this.layOutWords(new Random());
 	}
 
 	/*
@@ -104,18 +123,119 @@ public class EnglishWordCache implements WordCache {
 	 */
 	public EnglishWordCache(final Reader wordListHandle, final char[] charSet)
 			throws IOException {
-		List<Character> charSetCollection = new Vector<Character>();
-		for (char alphabet : charSet) {
-			charSetCollection.add(Character.toUpperCase(alphabet));
+		this.wordListsHash = cacheWords(new WordListParser(
+				wordListHandle, charSet));
+		this.layOutWords(new Random());
+	}
+
+	/*
+	 * Constructs the cache from a list of words, filtering chunks of the list
+	 * in parallel. Restricts caching of words to those that can be formed from
+	 * chars specified in charSet. All other words in the word list stream is
+	 * ignored.
+	 * 
+	 * The cache holds the same words as one built sequentially. Lists smaller
+	 * than MIN_PARALLEL_BUILD_SIZE bytes are filtered sequentially, on the
+	 * calling thread.
+	 * 
+	 * Parameter 1 : Handle to file containing list of words, in ASCII
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Parameter 3 : Executor that filters chunks of the list
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of
+	 * words, or if the calling thread is interrupted while waiting for chunks
+	 */
+	public EnglishWordCache(final InputStream wordListHandle,
+			final char[] charSet, final ExecutorService executor)
+			throws IOException {
+		this(wordListHandle, charSet, executor, new Random());
+	}
+
+	/*
+	 * Constructs the cache from a list of words, filtering chunks of the list
+	 * in parallel, as above. getRandomWord draws from a given random number
+	 * generator.
+	 * 
+	 * Parameter 1 : Handle to file containing list of words, in ASCII
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Parameter 3 : Executor that filters chunks of the list
+	 * 
+	 * Parameter 4 : Random number generator, reused for every pick
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of
+	 * words, or if the calling thread is interrupted while waiting for chunks
+	 */
+	public EnglishWordCache(final InputStream wordListHandle,
+			final char[] charSet, final ExecutorService executor,
+			final Random rand) throws IOException {
+		byte[] wordList = BinaryDictionary.readFully(wordListHandle);
+		if (wordList.length < MIN_PARALLEL_BUILD_SIZE) {
+			this.wordListsHash = cacheWords(new WordListParser(
+					new ByteArrayInputStream(wordList), charSet));
+		} else {
+			this.wordListsHash = this.cacheWords(wordList, charSet, executor);
 		}
-		this.wordListsHash = this.cacheWords(wordListHandle, charSetCollection);
-		this.wordLengths = new int[WordZapConstants.MAX_WORD_SIZE
-				- WordZapConstants.MIN_WORD_SIZE];
-		int index = 0, length = 0;
-		for (index = 0, length = WordZapConstants.MIN_WORD_SIZE + 1; length <= WordZapConstants.MAX_WORD_SIZE
-				&& index < wordLengths.length; length++, index++) {
-			this.wordLengths[index] = length;
+		this.layOutWords(rand);
+	}
+
+	/*
+	 * Constructs the cache from a compiled dictionary. Restricts caching of
+	 * words to those that can be formed from chars specified in charSet. All
+	 * other words in the dictionary are ignored.
+	 * 
+	 * Only words that pass the filter are read out of the dictionary, so this
+	 * is much cheaper than parsing a list of words.
+	 * 
+	 * Parameter 1 : Compiled dictionary
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 */
+	public EnglishWordCache(final BinaryDictionary dictionary,
+			final char[] charSet) {
+		this(dictionary, charSet, new Random());
+	}
+
+	/*
+	 * Constructs the cache from a compiled dictionary, as above.
+	 * getRandomWord draws from a given random number generator.
+	 * 
+	 * Parameter 1 : Compiled dictionary
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Parameter 3 : Random number generator, reused for every pick
+	 */
+	public EnglishWordCache(final BinaryDictionary dictionary,
+			final char[] charSet, final Random rand) {
+		this.wordListsHash = this.cacheWords(dictionary, charSet);
+		this.layOutWords(rand);
+	}
+
+	// Lays out the hashed words by length, with rand picking random words
+	private void layOutWords(final Random rand) {
+		List<String> words = new ArrayList<String>();
+		for (Set<String> wordListSet : this.wordListsHash.values()) {
+			words.addAll(wordListSet);
+		}
+		int[] wordLengths = new int[words.size()];
+		for (int word = 0; word < wordLengths.length; word++) {
+			wordLengths[word] = words.get(word).length();
 		}
+		int[] wordOrder = new int[wordLengths.length];
+		this.firstWordOfLength = groupByLength(wordLengths, wordOrder);
+		this.wordsByLength = new String[wordOrder.length];
+		for (int position = 0; position < wordOrder.length; position++) {
+			this.wordsByLength[position] = words.get(wordOrder[position]);
+		}
+		this.initPositions(this.firstWordOfLength, rand);
 	}
 
 	/*
@@ -123,135 +243,196 @@ public class EnglishWordCache implements WordCache {
 	 * words of a particular length. Words are hashed only if characters in a
 	 * word form a subset of characters in charSet
 	 * 
-	 * Parameter 1 : Handle to file containing list of words
+	 * The list is split into chunks at line ends, each chunk is hashed by a
+	 * ChunkTask on the executor, and the chunks' hashes are merged in the
+	 * order of the chunks.
 	 * 
-	 * Parameter 2 : List of characters, which are the superset of characters in
-	 * each word
+	 * Parameter 1 : List of words, in ASCII
 	 * 
-	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Parameter 3 : Executor that hashes chunks of the list
+	 * 
+	 * Throws IOException : If hashing a chunk fails, or if the calling thread
+	 * is interrupted while waiting for chunks
 	 */
-	private Map<Integer, Set<String>> cacheWords(final Reader wordListHandle,
-			final List<Character> charSet) throws IOException {
-		BufferedReader buffRdr = new BufferedReader(wordListHandle);
-		Map<Integer, Set<String>> wordListsHash = new HashMap<Integer, Set<String>>();
-
-		String word = null;
+	private Map<Integer, Set<String>> cacheWords(final byte[] wordList,
+			final char[] charSet, final ExecutorService executor)
+			throws IOException {
+		List<Future<Map<Integer, Set<String>>>> chunkFutures = new ArrayList<Future<Map<Integer, Set<String>>>>();
+		int chunkStart = 0;
+		while (chunkStart < wordList.length) {
+			int chunkEnd = Math.min(chunkStart + PARALLEL_CHUNK_SIZE,
+					wordList.length);
+			while (chunkEnd < wordList.length && wordList[chunkEnd - 1] != '\n') {
+				chunkEnd++;
+			}
+			chunkFutures.add(executor.submit(new ChunkTask(wordList,
+					chunkStart, chunkEnd - chunkStart, charSet)));
+			chunkStart = chunkEnd;
+		}
 
-		while ((word = buffRdr.readLine()) != null) {
-			word = word.toUpperCase();
-			if (this.isWordSubset(charSet, word)) {
-				int wordLength = word.length();
-				if (wordLength != 0) {
-					Set<String> wordListSet = wordListsHash.get(wordLength);
+		Map<Integer, Set<String>> wordListsHash = new HashMap<Integer, Set<String>>();
+		try {
+			for (Future<Map<Integer, Set<String>>> chunkFuture : chunkFutures) {
+				for (Map.Entry<Integer, Set<String>> mapEntry : chunkFuture
+						.get().entrySet()) {
+					Set<String> wordListSet = wordListsHash.get(mapEntry
+							.getKey());
 					if (wordListSet == null) {
-						wordListSet = new TreeSet<String>();
-						wordListsHash.put(wordLength, wordListSet);
+						wordListsHash.put(mapEntry.getKey(), mapEntry
+								.getValue());
+					} else {
+						wordListSet.addAll(mapEntry.getValue());
 					}
-					wordListSet.add(word);
 				}
 			}
+		} catch (InterruptedException e) {
+			for (Future<Map<Integer, Set<String>>> chunkFuture : chunkFutures) {
+				chunkFuture.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted while caching words");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			IOException ioException = new IOException("Failed to cache words");
+			ioException.initCause(e.getCause());
+			throw ioException;
 		}
 		return wordListsHash;
 	}
 
 	/*
-	 * (non-Javadoc)
+	 * Hashes the words in one chunk of a list of words, for parallel
+	 * construction of the cache
+	 */
+	private static class ChunkTask implements
+			Callable<Map<Integer, Set<String>>> {
+		private final byte[] wordList;
+		private final int offset;
+		private final int length;
+		private final char[] charSet;
+
+		public ChunkTask(final byte[] wordList, int offset, int length,
+				final char[] charSet) {
+			this.wordList = wordList;
+			this.offset = offset;
+			this.length = length;
+			this.charSet = charSet;
+		}
+
+		@Override
+		public Map<Integer, Set<String>> call() throws IOException {
+			return cacheWords(new WordListParser(new ByteArrayInputStream(
+					this.wordList, this.offset, this.length), this.charSet));
+		}
+	}
+
+	/*
+	 * Returns a hash with keys as word lengths and values as sorted lists of
+	 * words of a particular length. Words are hashed only if characters in a
+	 * word form a subset of characters in charSet
 	 * 
-	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 * Parameter 1 : Compiled dictionary
 	 * 
-	 * Returns true if word is valid, false otherwise
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
 	 */
-	@Override
-	public boolean isWordValid(String word) {
-		word = word.toUpperCase();
-		int wordLength = word.length();
-		Set<String> wordListSet = wordListsHash.get(wordLength);
-		if (wordListSet != null && wordListSet.contains(word)) {
-			return true;
+	private Map<Integer, Set<String>> cacheWords(
+			final BinaryDictionary dictionary, final char[] charSet) {
+		Map<Integer, Set<String>> wordListsHash = new HashMap<Integer, Set<String>>();
+		int[] wordIndices = new int[dictionary.getWordCount()];
+		int numWords = dictionary.findSubsetWords(LetterSignature
+				.low(charSet), LetterSignature.high(charSet), wordIndices);
+
+		for (int index = 0; index < numWords; index++) {
+			String word = dictionary.getWord(wordIndices[index]);
+			Set<String> wordListSet = wordListsHash.get(word.length());
+			if (wordListSet == null) {
+				wordListSet = new TreeSet<String>();
+				wordListsHash.put(word.length(), wordListSet);
+			}
+			wordListSet.add(word);
 		}
-		return false;
+		return wordListsHash;
 	}
 
 	/*
-	 * Returns true of characters in the word are a subset of characters in
-	 * charSet. Returns false otherwise.
+	 * Returns a hash with keys as word lengths and values as sorted lists of
+	 * words of a particular length. Words are hashed only if characters in a
+	 * word form a subset of characters in charSet
 	 * 
-	 * Parameter 1 : List of superset characters
+	 * Parameter : Parser that returns only words formed from charSet
 	 * 
-	 * Parameter 2 : Word that needs to be checked
+	 * Throws IOException : If I/O errors happen when reading the list of words
 	 */
-	private boolean isWordSubset(final List<Character> charSet, String word) {
+	private static Map<Integer, Set<String>> cacheWords(
+			final WordListParser parser)
+			throws IOException {
+		Map<Integer, Set<String>> wordListsHash = new HashMap<Integer, Set<String>>();
 
-		List<Character> charSetTmp = new LinkedList<Character>(charSet);
+		String word = null;
 
-		for (char alphabet : word.toCharArray()) {
-			if (charSetTmp.isEmpty() || !charSetTmp.contains(alphabet)) {
-				return false;
+		while ((word = parser.nextWord()) != null) {
+			int wordLength = word.length();
+			Set<String> wordListSet = wordListsHash.get(wordLength);
+			if (wordListSet == null) {
+				wordListSet = new TreeSet<String>();
+				wordListsHash.put(wordLength, wordListSet);
 			}
-			charSetTmp.remove(new Character(alphabet));
-
+			wordListSet.add(word);
 		}
-		return true;
+		return wordListsHash;
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see com.android.wordzap.WordCache#getValidWords()
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
 	 * 
-	 * Returns list of cached valid english words
+	 * Returns true if word is valid, false otherwise
 	 */
 	@Override
-	public List<String> getValidWords() {
-		List<String> wordList = new Vector<String>();
-		for (Map.Entry<Integer, Set<String>> mapEntry : wordListsHash
-				.entrySet()) {
-			wordList.addAll(mapEntry.getValue());
+	public boolean isWordValid(String word) {
+		word = word.toUpperCase();
+		int wordLength = word.length();
+		Set<String> wordListSet = wordListsHash.get(wordLength);
+		if (wordListSet != null && wordListSet.contains(word)) {
+			return true;
 		}
-
-		return wordList;
+		return false;
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see com.android.wordzap.WordCache#getRandomWord(java.lang.String)
-	 * 
-	 * Returns a random cached word
+	 * @see com.android.wordzap.LengthOrderedWordCache#wordAt(int)
 	 */
 	@Override
-	public String getRandomWord() {
-		Random rand = new Random();
-		Set<String> setOfWords;
-
-		//Retrieve words for some random length
-		do {
-			int someWordLength = wordLengths[rand.nextInt(wordLengths.length)];
-			Log.i("ComputerPlayer", "someLength : " + someWordLength);
-			setOfWords = wordListsHash.get(someWordLength);
-		} while (setOfWords == null);
-		Log.i("ComputerPlayer", setOfWords.toString());
-		List<String> wordsList = new Vector<String>(setOfWords);
-
-		return wordsList.get(rand.nextInt(wordsList.size()));
+	protected String wordAt(int position) {
+		return this.wordsByLength[position];
 	}
 
 	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see com.android.wordzap.WordCache#getRandomWord(java.util.List<
-	 * java.lang.String >)
-	 * 
-	 * Returns a random cached word not in the list : wordList
+	 * Returns position of a word in wordsByLength, or -1 if the word is not
+	 * cached
 	 */
 	@Override
-	public String getRandomWord(List<String> wordList) {
-		String randomWord = null;
-
-		do {
-			randomWord = this.getRandomWord();
-		} while (wordList.contains(randomWord));
-
-		return randomWord;
+	protected int positionOf(String word) {
+		int length = word.length();
+		if (length + 1 >= this.firstWordOfLength.length) {
+			return -1;
+		}
+		int position = Arrays.binarySearch(this.wordsByLength,
+				this.firstWordOfLength[length],
+				this.firstWordOfLength[length + 1], word);
+		return position < 0 ? -1 : position;
 	}
 }
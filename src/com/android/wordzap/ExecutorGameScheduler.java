@@ -0,0 +1,105 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * GameScheduler that runs tasks on a ScheduledExecutorService. Waiting tasks
+ * are held in the executor's delay queue, so a few threads serve any number
+ * of games.
+ */
+public class ExecutorGameScheduler implements GameScheduler {
+
+	// Scheduler shared by all games of the process
+	private static ExecutorGameScheduler sharedInstance;
+
+	private final ScheduledExecutorService executor;
+
+	public ExecutorGameScheduler(final ScheduledExecutorService executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Executor is null.");
+		}
+		this.executor = executor;
+	}
+
+	/*
+	 * Creates a scheduler with its own daemon threads
+	 * 
+	 * Parameter : Number of threads running tasks
+	 */
+	public ExecutorGameScheduler(int numThreads) {
+		this(new ScheduledThreadPoolExecutor(numThreads, new ThreadFactory() {
+			private int threadCount = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "GameScheduler-"
+						+ (++this.threadCount));
+				thread.setDaemon(true);
+				return thread;
+			}
+		}));
+	}
+
+	/*
+	 * Returns the scheduler shared by all games of the process, creating it
+	 * with WordZapConstants.GAME_SCHEDULER_THREADS threads on first use
+	 */
+	public static synchronized ExecutorGameScheduler getSharedInstance() {
+		if (sharedInstance == null) {
+			sharedInstance = new ExecutorGameScheduler(
+					WordZapConstants.GAME_SCHEDULER_THREADS);
+		}
+		return sharedInstance;
+	}
+
+	@Override
+	public long currentTimeMillis() {
+		return System.nanoTime() / 1000000;
+	}
+
+	@Override
+	public ScheduledTask schedule(final Runnable task, long delayMillis) {
+		final ScheduledFuture<?> future = this.executor.schedule(task, Math
+				.max(0, delayMillis), TimeUnit.MILLISECONDS);
+		return new ScheduledTask() {
+			@Override
+			public boolean cancel() {
+				return future.cancel(false);
+			}
+		};
+	}
+
+	// Stops the threads of the scheduler. Waiting tasks never run.
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+}
@@ -0,0 +1,384 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * 
+ * Caches words in a single byte array, front coded : words are sorted by
+ * length and alphabetically within a length, and cut into blocks of
+ * BLOCK_SIZE words of the same length. The first word of a block is stored
+ * whole. Every other word is stored as the number of leading letters it
+ * shares with the word before it, followed by the rest of its letters.
+ * 
+ * A word is looked up by a binary search over the first words of the blocks
+ * of its length, and a scan of one block. Neither creates any objects.
+ * Strings are created only when words are asked for.
+ * 
+ * Words have to be made of ASCII characters.
+ * 
+ */
+public class FrontCodedWordCache extends LengthOrderedWordCache {
+
+	// Number of words in a block
+	private static final int BLOCK_SIZE = 16;
+
+	// Longest word that can be cached, as shared prefix lengths are bytes
+	private static final int MAX_CACHED_WORD_SIZE = 0xFF;
+
+	// Blocks of all lengths, one after the other
+	private final byte[] blocks;
+
+	// Offset in blocks of each block
+	private final int[] blockOffsets;
+
+	/*
+	 * Position of the first word of each length. Words of length L are at
+	 * positions firstWordOfLength[L] (inclusive) upto firstWordOfLength[L + 1]
+	 * (exclusive), and in blocks firstBlockOfLength[L] (inclusive) upto
+	 * firstBlockOfLength[L + 1] (exclusive).
+	 */
+	private final int[] firstWordOfLength;
+	private final int[] firstBlockOfLength;
+
+	/*
+	 * Constructs the cache from a list of words. Restricts caching of words to
+	 * those that can be formed from chars specified in charSet. All other words
+	 * in the word list are ignored.
+	 * 
+	 * Parameter 1 : Path to file containing list of words, in ASCII
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If a word contains non ASCII
+	 * characters, or is too long
+	 */
+	public FrontCodedWordCache(String wordListFile, final char[] charSet)
+			throws IOException, InvalidDictionaryException {
+		this(readWords(wordListFile, charSet));
+	}
+
+	/*
+	 * Constructs the cache from a list of words. Restricts caching of words to
+	 * those that can be formed from chars specified in charSet. All other words
+	 * in the word list stream are ignored.
+	 * 
+	 * Parameter 1 : Handle to file containing list of words, in ASCII
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If a word contains non ASCII
+	 * characters, or is too long
+	 */
+	public FrontCodedWordCache(final InputStream wordListHandle,
+			final char[] charSet) throws IOException,
+			InvalidDictionaryException {
+		this(readWords(wordListHandle, charSet));
+	}
+
+	/*
+	 * Constructs the cache from a list of words. Every word in the list is
+	 * cached, in upper case.
+	 * 
+	 * Parameter : List of words to be cached
+	 * 
+	 * Throws InvalidDictionaryException : If a word contains non ASCII
+	 * characters, or is too long
+	 */
+	public FrontCodedWordCache(final Collection<String> words)
+			throws InvalidDictionaryException {
+		this(words, new Random());
+	}
+
+	/*
+	 * Constructs the cache from a list of words, as above. getRandomWord draws
+	 * from a given random number generator.
+	 * 
+	 * Parameter 1 : List of words to be cached
+	 * 
+	 * Parameter 2 : Random number generator, reused for every pick
+	 * 
+	 * Throws InvalidDictionaryException : If a word contains non ASCII
+	 * characters, or is too long
+	 */
+	public FrontCodedWordCache(final Collection<String> words,
+			final Random rand) throws InvalidDictionaryException {
+		String[] sortedWords = sortByLength(words);
+		int[] wordLengths = new int[sortedWords.length];
+		for (int word = 0; word < sortedWords.length; word++) {
+			wordLengths[word] = sortedWords[word].length();
+		}
+
+		// Words are sorted by length already, so their order is kept
+		this.firstWordOfLength = groupByLength(wordLengths,
+				new int[sortedWords.length]);
+		int maxWordLength = this.firstWordOfLength.length - 2;
+		this.firstBlockOfLength = new int[maxWordLength + 2];
+		for (int length = 1; length < this.firstWordOfLength.length; length++) {
+			int numWords = this.firstWordOfLength[length]
+					- this.firstWordOfLength[length - 1];
+			this.firstBlockOfLength[length] = this.firstBlockOfLength[length - 1]
+					+ (numWords + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		}
+
+		// Coding blocks
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.blockOffsets = new int[this.firstBlockOfLength[maxWordLength + 1]];
+		int block = 0;
+		for (int position = 0; position < sortedWords.length; position++) {
+			String word = sortedWords[position];
+			int length = word.length();
+			int shared = 0;
+			if ((position - this.firstWordOfLength[length]) % BLOCK_SIZE == 0) {
+				this.blockOffsets[block++] = out.size();
+			} else {
+				String previous = sortedWords[position - 1];
+				while (previous.charAt(shared) == word.charAt(shared)) {
+					shared++;
+				}
+				out.write(shared);
+			}
+			for (int index = shared; index < length; index++) {
+				out.write(word.charAt(index));
+			}
+		}
+		this.blocks = out.toByteArray();
+
+		this.initPositions(this.firstWordOfLength, rand);
+	}
+
+	// Reads the words of a word list file that can be formed from charSet
+	private static List<String> readWords(String wordListFile,
+			final char[] charSet) throws IOException {
+		InputStream wordListHandle = new FileInputStream(wordListFile);
+		try {
+			return readWords(wordListHandle, charSet);
+		} finally {
+			wordListHandle.close();
+		}
+	}
+
+	// Reads the words of a word list stream that can be formed from charSet
+	private static List<String> readWords(final InputStream wordListHandle,
+			final char[] charSet) throws IOException {
+		List<String> words = new ArrayList<String>();
+		WordListParser parser = new WordListParser(wordListHandle, charSet);
+		String word;
+		while ((word = parser.nextWord()) != null) {
+			words.add(word);
+		}
+		return words;
+	}
+
+	/*
+	 * Returns words in upper case, sorted by length and alphabetically within
+	 * a length, without duplicates or empty words
+	 */
+	private static String[] sortByLength(final Collection<String> words)
+			throws InvalidDictionaryException {
+		String[] sortedWords = new String[words.size()];
+		int numWords = 0;
+		for (String word : words) {
+			word = word.toUpperCase();
+			if (word.length() > MAX_CACHED_WORD_SIZE) {
+				throw new InvalidDictionaryException("'" + word
+						+ "' is too long");
+			}
+			for (int index = 0; index < word.length(); index++) {
+				if (word.charAt(index) > 0x7F) {
+					throw new InvalidDictionaryException("'" + word
+							+ "' contains non ASCII characters");
+				}
+			}
+			if (word.length() != 0) {
+				sortedWords[numWords++] = word;
+			}
+		}
+		Arrays.sort(sortedWords, 0, numWords, new Comparator<String>() {
+			public int compare(String word1, String word2) {
+				if (word1.length() != word2.length()) {
+					return word1.length() - word2.length();
+				}
+				return word1.compareTo(word2);
+			}
+		});
+
+		int numDistinct = 0;
+		for (int index = 0; index < numWords; index++) {
+			if (numDistinct == 0
+					|| !sortedWords[index].equals(sortedWords[numDistinct - 1])) {
+				sortedWords[numDistinct++] = sortedWords[index];
+			}
+		}
+		String[] distinctWords = new String[numDistinct];
+		System.arraycopy(sortedWords, 0, distinctWords, 0, numDistinct);
+		return distinctWords;
+	}
+
+	/*
+	 * Returns the position of a word, in any case, or -1 if the word is not
+	 * cached
+	 */
+	@Override
+	protected int positionOf(final String word) {
+		int length = word.length();
+		if (length == 0 || length + 1 >= this.firstWordOfLength.length) {
+			return -1;
+		}
+		int lowBlock = this.firstBlockOfLength[length];
+		int highBlock = this.firstBlockOfLength[length + 1] - 1;
+		if (lowBlock > highBlock) {
+			return -1;
+		}
+
+		// Finding the last block whose first word doesn't come after the word
+		while (lowBlock < highBlock) {
+			int middleBlock = (lowBlock + highBlock + 1) >>> 1;
+			int offset = this.blockOffsets[middleBlock];
+			int diff = 0;
+			for (int index = 0; index < length && diff == 0; index++) {
+				diff = (this.blocks[offset + index] & 0xFF)
+						- Character.toUpperCase(word.charAt(index));
+			}
+			if (diff <= 0) {
+				lowBlock = middleBlock;
+			} else {
+				highBlock = middleBlock - 1;
+			}
+		}
+
+		/*
+		 * Scanning the block. matched is the number of leading letters the
+		 * word shares with the word just decoded, which comes before it. A
+		 * word sharing fewer letters with the one before it comes after the
+		 * word, and one sharing more letters compares the same as the word
+		 * before it.
+		 */
+		int position = this.firstWordOfLength[length]
+				+ (lowBlock - this.firstBlockOfLength[length]) * BLOCK_SIZE;
+		int endPosition = Math.min(position + BLOCK_SIZE,
+				this.firstWordOfLength[length + 1]);
+		int offset = this.blockOffsets[lowBlock];
+		int shared = 0;
+		int matched = 0;
+		while (true) {
+			if (shared < matched) {
+				return -1;
+			}
+			if (shared == matched) {
+				int suffixOffset = offset - shared;
+				while (matched < length
+						&& (this.blocks[suffixOffset + matched] & 0xFF) == Character
+								.toUpperCase(word.charAt(matched))) {
+					matched++;
+				}
+				if (matched == length) {
+					return position;
+				}
+				if ((this.blocks[suffixOffset + matched] & 0xFF) > Character
+						.toUpperCase(word.charAt(matched))) {
+					return -1;
+				}
+			}
+			offset += length - shared;
+			if (++position == endPosition) {
+				return -1;
+			}
+			shared = this.blocks[offset++] & 0xFF;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.LengthOrderedWordCache#wordAt(int)
+	 */
+	@Override
+	protected String wordAt(int position) {
+		int length = 1;
+		while (position >= this.firstWordOfLength[length + 1]) {
+			length++;
+		}
+		int wordInLength = position - this.firstWordOfLength[length];
+		int offset = this.blockOffsets[this.firstBlockOfLength[length]
+				+ wordInLength / BLOCK_SIZE];
+
+		char[] letters = new char[length];
+		for (int index = 0; index < length; index++) {
+			letters[index] = (char) this.blocks[offset++];
+		}
+		for (int wordInBlock = wordInLength % BLOCK_SIZE; wordInBlock > 0; wordInBlock--) {
+			int shared = this.blocks[offset++] & 0xFF;
+			for (int index = shared; index < length; index++) {
+				letters[index] = (char) this.blocks[offset++];
+			}
+		}
+		return new String(letters);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 * 
+	 * Returns true if word is valid, false otherwise
+	 */
+	@Override
+	public boolean isWordValid(String word) {
+		return this.positionOf(word) >= 0;
+	}
+
+	// Returns number of cached words
+	public int size() {
+		return this.getWordView().size();
+	}
+
+	// Returns number of bytes held by the blocks and their index
+	public int getByteCount() {
+		return this.blocks.length
+				+ 4
+				* (this.blockOffsets.length + this.firstWordOfLength.length + this.firstBlockOfLength.length);
+	}
+}
@@ -0,0 +1,174 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import android.util.Log;
+
+/*
+ * Runs the blocking parts of games, i.e. ComputerPlayer.run() and Timer.run(),
+ * each on a thread of its own. Threads are either platform threads, or
+ * virtual threads where the Java runtime has them (Java 21 and later, e.g.
+ * on simulation servers). A virtual thread gives back its carrier thread
+ * while it sleeps, so a few carrier threads serve any number of games.
+ * 
+ * Either way, tasks run on a java.lang.Thread returned to the caller, which
+ * interrupts it on game over or to reset the timer, as before.
+ */
+public class GameExecutor {
+
+	// Executor used by games unless told otherwise
+	private static GameExecutor defaultInstance;
+
+	// Makes the threads of the executor
+	private final ThreadFactory threadFactory;
+
+	private final boolean isVirtual;
+
+	// Number of tasks started and not yet returned
+	private int numRunning;
+
+	private GameExecutor(final ThreadFactory threadFactory, boolean isVirtual) {
+		this.threadFactory = threadFactory;
+		this.isVirtual = isVirtual;
+	}
+
+	/*
+	 * Creates an executor running tasks on platform daemon threads
+	 * 
+	 * Parameter : Prefix of thread names
+	 */
+	public static GameExecutor newPlatformExecutor(final String name) {
+		return new GameExecutor(new ThreadFactory() {
+			private int threadCount = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, name + "-"
+						+ (++this.threadCount));
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, false);
+	}
+
+	/*
+	 * Creates an executor running tasks on virtual threads. The factory comes
+	 * from Thread.ofVirtual(), looked up by reflection as the game is built
+	 * for runtimes without it.
+	 * 
+	 * Parameter : Prefix of thread names
+	 * 
+	 * Throws UnsupportedOperationException : If the runtime has no virtual
+	 * threads
+	 */
+	public static GameExecutor newVirtualExecutor(final String name)
+			throws UnsupportedOperationException {
+		try {
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = ofVirtual.invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class)
+					.invoke(builder, name + "-", 1L);
+			ThreadFactory threadFactory = (ThreadFactory) builderClass
+					.getMethod("factory").invoke(builder);
+			return new GameExecutor(threadFactory, true);
+		} catch (Exception e) {
+			throw new UnsupportedOperationException(
+					"Virtual threads are not available : " + e);
+		}
+	}
+
+	// Tells if the runtime has virtual threads
+	public static boolean isVirtualAvailable() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * Returns the executor used by games. Runs tasks on virtual threads if
+	 * WordZapConstants.USE_VIRTUAL_THREADS is set and the runtime has them,
+	 * on platform threads otherwise.
+	 */
+	public static synchronized GameExecutor getDefault() {
+		if (defaultInstance == null) {
+			if (WordZapConstants.USE_VIRTUAL_THREADS && isVirtualAvailable()) {
+				defaultInstance = newVirtualExecutor("Game");
+			} else {
+				defaultInstance = newPlatformExecutor("Game");
+			}
+			Log.i("GameExecutor", "Running games on "
+					+ (defaultInstance.isVirtual() ? "virtual" : "platform")
+					+ " threads");
+		}
+		return defaultInstance;
+	}
+
+	/*
+	 * Starts a task on a new thread of the executor
+	 * 
+	 * Returns the thread running the task, to be interrupted as needed
+	 */
+	public Thread execute(final Runnable task) {
+		if (task == null) {
+			throw new IllegalArgumentException("Task is null.");
+		}
+		Thread thread = this.threadFactory.newThread(new Runnable() {
+			public void run() {
+				try {
+					task.run();
+				} finally {
+					taskReturned();
+				}
+			}
+		});
+		synchronized (this) {
+			this.numRunning++;
+		}
+		thread.start();
+		return thread;
+	}
+
+	private synchronized void taskReturned() {
+		this.numRunning--;
+	}
+
+	// Returns number of tasks started and not yet returned
+	public synchronized int getRunningCount() {
+		return this.numRunning;
+	}
+
+	// Tells if tasks run on virtual threads
+	public boolean isVirtual() {
+		return this.isVirtual;
+	}
+}
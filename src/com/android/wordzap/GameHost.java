@@ -0,0 +1,70 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.List;
+
+/*
+ * A game as seen by the computer player and the timer. Lets them run against
+ * the game screen or against a headless game, without knowing how their moves
+ * and messages are delivered.
+ */
+public interface GameHost {
+
+	// Tells if the game is over (i.e. if computer or human has won already)
+	public boolean isGameOver();
+
+	// Returns words already completed by the human player
+	public List<String> getCompletedWords();
+
+	/*
+	 * Receives a move of the computer player. May be called from any thread.
+	 * 
+	 * Parameter 1 : Does the computer zap a word from the human player's grid ?
+	 * 
+	 * Parameter 2 : Word generated against the human player, or null if the
+	 * move generates no word
+	 */
+	public void makeComputerMove(boolean isZapMove, String generatedWord);
+
+	// Returns the last word formed successfully by the human player
+	public String getLastWord();
+
+	// Returns number of words completed by the computer player
+	public int getOpponentGridSize();
+
+	/*
+	 * Receives the status of the game from the timer. May be called from any
+	 * thread.
+	 * 
+	 * Parameter 1 : WordZapConstants.HUMAN_LOSS, WordZapConstants.HUMAN_WIN or
+	 * WordZapConstants.DRAW once the human player has run out of time,
+	 * WordZapConstants.NONE while the timer counts down
+	 * 
+	 * Parameter 2 : Seconds left to form a word, while the timer counts down
+	 */
+	public void showTimerStatus(int gameStatus, int timeValue);
+}
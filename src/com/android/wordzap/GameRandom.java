@@ -0,0 +1,109 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.Random;
+
+/*
+ * Source of every random choice made during a game : the letters of the
+ * level, the timings of the computer player's moves, the words it plays and
+ * the words it zaps. A game played again with the same seed makes the same
+ * choices, so a bug or a slow game can be reproduced from its seed.
+ * 
+ * Each part of the game draws from its own stream, split from the game's
+ * seed. A stream only depends on the seed and on its identifier, so drawing
+ * more or fewer numbers in one part of the game doesn't change the choices
+ * made by the others.
+ * 
+ * NOTE : Streams are java.util.Random objects, and are as safe to share
+ * between threads.
+ */
+public class GameRandom extends Random {
+
+	private static final long serialVersionUID = -4411946707302133217L;
+
+	// Stream of the letters of the level
+	public static final int LEVEL_STREAM = 1;
+
+	// Stream of the timings of the computer player's moves
+	public static final int MOVES_STREAM = 2;
+
+	// Stream of the words picked by the computer player
+	public static final int WORDS_STREAM = 3;
+
+	// Stream of the words zapped from the human player's grid
+	public static final int ZAP_STREAM = 4;
+
+	// Stream of the moves of a simulated human player, in headless games
+	public static final int HUMAN_STREAM = 5;
+
+	// Odd constant spreading stream identifiers over all longs
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	// Makes seeds of unseeded games differ, even when created together
+	private static long seedUniquifier = 0x5DEECE66DL;
+
+	private final long seed;
+
+	// Starts a game with a seed of its own
+	public GameRandom() {
+		this(GameRandom.newSeed());
+	}
+
+	// Starts a game with a given seed
+	public GameRandom(long seed) {
+		super(seed);
+		this.seed = seed;
+	}
+
+	// Returns a seed that differs from call to call
+	private static synchronized long newSeed() {
+		GameRandom.seedUniquifier += GOLDEN_GAMMA;
+		return GameRandom.mix(GameRandom.seedUniquifier ^ System.nanoTime());
+	}
+
+	// Scrambles the bits of a long, so that close inputs give unrelated outputs
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+
+	// Returns the seed the game was started with
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/*
+	 * Returns a new stream for one part of the game. Streams split with the
+	 * same identifier from games with the same seed make the same choices.
+	 * 
+	 * Parameter : Identifier of the stream, such as GameRandom.LEVEL_STREAM
+	 */
+	public GameRandom split(int stream) {
+		return new GameRandom(GameRandom.mix(this.seed + stream * GOLDEN_GAMMA));
+	}
+}
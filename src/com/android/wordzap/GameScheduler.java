@@ -0,0 +1,53 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+/*
+ * Runs the timed events of games (e.g. computer moves) at given times, without
+ * holding a thread for each game while it waits. One scheduler is shared by
+ * all games of a process.
+ */
+public interface GameScheduler {
+
+	/*
+	 * Returns current time of the scheduler's clock, in milliseconds. Delays
+	 * are counted on this clock.
+	 */
+	public long currentTimeMillis();
+
+	/*
+	 * Runs a task once, after a delay. Tasks of a game must not block, as they
+	 * share the scheduler's threads with every other game.
+	 * 
+	 * Parameter 1 : Task to run
+	 * 
+	 * Parameter 2 : Delay in milliseconds. Tasks with delays <= 0 run as soon
+	 * as possible.
+	 * 
+	 * Returns a handle that cancels the task
+	 */
+	public ScheduledTask schedule(Runnable task, long delayMillis);
+}
@@ -27,7 +27,6 @@
 package com.android.wordzap;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.EmptyStackException;
 import java.util.List;
@@ -43,6 +42,7 @@ import android.media.MediaPlayer;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Message;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.KeyEvent;
 import android.view.View;
@@ -54,6 +54,7 @@ import com.android.wordzap.R.id;
 import com.android.wordzap.datamodel.LetterGrid;
 import com.android.wordzap.exceptions.DuplicateWordException;
 import com.android.wordzap.exceptions.InvalidCpuDescriptionException;
+import com.android.wordzap.exceptions.InvalidDictionaryException;
 import com.android.wordzap.exceptions.InvalidFreqFileException;
 import com.android.wordzap.exceptions.InvalidGridSizeException;
 import com.android.wordzap.exceptions.InvalidLevelException;
@@ -129,9 +130,21 @@ public class GameScreen extends Activity {
 	// Array of text views that indicate position of the computer player
 	private TextView[] computerPlayerTxtViews;
 
+	// Loads the level generator and the dictionary
+	private DictionaryPreloader preloader;
+
+	// Follows the word being typed by the human player
+	private PrefixCursor prefixCursor;
+
 	// Generates Word Zap levels
 	private LevelGenerator levelGen;
-	private WordCache aWordCache;
+
+	// Source of every random choice of this game, and stream of zapped words
+	private GameRandom gameRandom;
+	private Random zapRandom;
+
+	// Word cache of this level, following the dictionary of the preloader
+	private RegistryWordCache aWordCache;
 
 	// Computer position on the visual grid
 	private int computerPosition;
@@ -145,11 +158,17 @@ public class GameScreen extends Activity {
 	// Game over flag shared with ComputerPlayer thread
 	private volatile boolean gameOver;
 
-	// Opponent thread
+	// Opponent player, and the thread running it unless it is driven by the
+	// shared GameScheduler. The thread is started by GameExecutor.
+	private ComputerPlayer computerPlayer;
 	private Thread opponent;
 
-	// Timer thread
+	// Timer and its thread, or the deadline of the human player's next word
+	// and the UI callback showing the time left to it
+	private Timer timerTask;
 	private Thread timer;
+	private DeadlineTimer deadlineTimer;
+	private Runnable timerTick;
 
 	// Handler object for handling computer player's message interrupts
 	private Handler timerThreadHandler;
@@ -158,18 +177,23 @@ public class GameScreen extends Activity {
 	@Override
 	public void onCreate(Bundle savedInstanceState) {
 
+		// Time at which the screen started being created
+		long createTime = SystemClock.uptimeMillis();
+
 		super.onCreate(savedInstanceState);
 		this.setRequestedOrientation(WordZapConstants.DEFAULT_ORIENTATION);
 		setContentView(R.layout.game_screen);
 
 		try {
+			/*
+			 * Level generator and dictionary are loaded in the background,
+			 * usually starting from StartScreen
+			 */
+			this.preloader = DictionaryPreloader.start(this);
+			boolean wasPreloaded = this.preloader.isReady();
+
 			/* Initiate level generator to generate word zap levels */
-			InputStream alphaFreqStream = this.getResources().openRawResource(
-					WordZapConstants.ALPHABETS_FREQ_FILE);
-			String alphaFreqStreamDelim = this.getResources().getString(
-					WordZapConstants.ALPHABETS_FREQ_FILE_DELIM);
-			this.levelGen = new LevelGenerator(alphaFreqStream,
-					alphaFreqStreamDelim);
+			this.levelGen = this.preloader.getLevelGenerator();
 
 			/*
 			 * 
@@ -198,15 +222,29 @@ public class GameScreen extends Activity {
 					WordZapConstants.DIFFICULTY_PARAM_KEYNAME,
 					WordZapConstants.START_LEVEL);
 			Log.i(GameScreen.class.toString(), "" + startLevel);
-			this.currentLevel = this.levelGen.generateLevel(startLevel);
+
+			/*
+			 * Init randomness. Passing the logged seed back in the intent
+			 * plays the same game again
+			 */
+			if (getIntent().hasExtra(WordZapConstants.GAME_SEED_KEYNAME)) {
+				this.gameRandom = new GameRandom(getIntent().getLongExtra(
+						WordZapConstants.GAME_SEED_KEYNAME, 0));
+			} else {
+				this.gameRandom = new GameRandom();
+			}
+			this.zapRandom = this.gameRandom.split(GameRandom.ZAP_STREAM);
+			Log.i(GameScreen.class.toString(), "Game seed : "
+					+ this.gameRandom.getSeed());
+
+			this.currentLevel = this.generateLevel(startLevel);
 			char[] levelChars = this.currentLevel.getAlphabets();
 
 			/*
 			 * Init word cache
 			 */
-			InputStream wordListStream = this.getResources().openRawResource(
-					WordZapConstants.WORD_LISTS_FILE);
-			this.aWordCache = new EnglishWordCache(wordListStream, levelChars);
+			this.aWordCache = this.createWordCache(levelChars);
+			this.prefixCursor = this.aWordCache.newPrefixCursor();
 
 			/*
 			 * Retrieve command buttons that help add letters to the grid and
@@ -243,31 +281,10 @@ public class GameScreen extends Activity {
 				public void handleMessage(Message msg) {
 					if (!isGameOver()) {
 						Bundle msgBundle = msg.getData();
-						int gameStatus = msgBundle
-								.getInt(WordZapConstants.GAME_STATUS);
-
-						switch (gameStatus) {
-						case WordZapConstants.HUMAN_LOSS:
-							setGameOver(true);
-							showDialog(WordZapConstants.HUMAN_LOSE_DIALOG);
-							break;
-						case WordZapConstants.HUMAN_WIN:
-							setGameOver(true);
-							showDialog(WordZapConstants.HUMAN_WIN_DIALOG);
-							break;
-						case WordZapConstants.DRAW:
-							setGameOver(true);
-							showDialog(WordZapConstants.DRAW_DIALOG);
-							break;
-						case WordZapConstants.NONE:
-							int timeValue = msgBundle
-									.getInt(WordZapConstants.TIMER_VALUE_KEYNAME);
-							displayMessage("" + timeValue + " seconds left");
-							break;
-						default:
-							break;
-						}
-
+						showGameStatus(msgBundle
+								.getInt(WordZapConstants.GAME_STATUS),
+								msgBundle
+										.getInt(WordZapConstants.TIMER_VALUE_KEYNAME));
 					}
 				}
 			};
@@ -302,10 +319,10 @@ public class GameScreen extends Activity {
 								setGameOver(true);
 
 								// Killing opponent
-								opponent.interrupt();
+								stopOpponent();
 
 								// Waking up timer thread
-								timer.interrupt();
+								stopTimer();
 								showDialog(WordZapConstants.HUMAN_LOSE_DIALOG);
 							}
 						}
@@ -330,19 +347,34 @@ public class GameScreen extends Activity {
 			this.usedWords = new Vector<String>();
 
 			/*
-			 * Initiate computer player which runs as a separate background
-			 * thread
+			 * Initiate computer player which runs on the shared scheduler, or
+			 * as a separate background thread
 			 */
-			this.opponent = new Thread(new ComputerPlayer(this, aWordCache,
-					this.currentLevel, mainThreadHandler));
+			this.computerPlayer = new ComputerPlayer(this, aWordCache,
+					this.currentLevel, mainThreadHandler, this.gameRandom
+							.split(GameRandom.MOVES_STREAM));
 
 			/*
-			 * Initiate timer thread
+			 * Initiate timer. The deadline timer is read by a UI callback
+			 * once a second, instead of a thread sending messages.
 			 */
-
-			this.timer = new Thread(new Timer(this, timerThreadHandler));
+			if (WordZapConstants.USE_DEADLINE_TIMER) {
+				this.deadlineTimer = new DeadlineTimer(ExecutorGameScheduler
+						.getSharedInstance(),
+						2L * WordZapConstants.HUMAN_SLEEP_CHECK);
+				this.timerTick = new Runnable() {
+					public void run() {
+						tickTimer();
+					}
+				};
+			} else {
+				this.timerTask = new Timer(this, timerThreadHandler);
+			}
 
 			showDialog(WordZapConstants.SHOW_LEVEL_DIALOG);
+			Log.i(GameScreen.class.toString(), "Level shown after "
+					+ (SystemClock.uptimeMillis() - createTime) + " ms"
+					+ (wasPreloaded ? " (preloaded)" : ""));
 
 		} catch (SecurityException e) {
 			e.printStackTrace();
@@ -362,10 +394,107 @@ public class GameScreen extends Activity {
 			e.printStackTrace();
 		} catch (InvalidCpuDescriptionException e) {
 			e.printStackTrace();
+		} catch (InvalidDictionaryException e) {
+			e.printStackTrace();
 		}
 
 	}
 
+	/*
+	 * Generates the letters of a level. If WordZapConstants.USE_BALANCED_LEVELS
+	 * is set, candidates are drawn until one has a number of playable words
+	 * within the band of the level, looked up from the dictionary. Levels are drawn from the game's
+	 * seed, so only the number of candidates bounds the search.
+	 * 
+	 * Parameter : Level for which characters have to be generated
+	 */
+	private Level generateLevel(int level) throws InvalidLevelException,
+			InvalidCpuDescriptionException, IOException,
+			InvalidDictionaryException {
+		Random levelRandom = this.gameRandom.split(GameRandom.LEVEL_STREAM);
+		if (!WordZapConstants.USE_BALANCED_LEVELS) {
+			return this.levelGen.generateLevel(level, levelRandom);
+		}
+		MasterDictionary dictionary = this.preloader.getMasterDictionary();
+		BalancedLevelGenerator balancedLevelGen = new BalancedLevelGenerator(
+				this.levelGen, new LevelAnalyzer(dictionary), dictionary
+						.getLevelBands(this.levelGen),
+				WordZapConstants.LEVEL_GENERATION_TIME_BUDGET,
+				WordZapConstants.LEVEL_GENERATION_MAX_CANDIDATES);
+		return balancedLevelGen.generateLevel(level, levelRandom);
+	}
+
+	/*
+	 * Creates the word cache for this level. The cache is built again whenever
+	 * a new dictionary is published to the registry of the preloader, so a
+	 * corrected word list reaches games that are running.
+	 * 
+	 * Parameter : Letters of the current level
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 * 
+	 * Throws InvalidDictionaryException : If the list of words can't be
+	 * compiled
+	 */
+	private RegistryWordCache createWordCache(char[] levelChars)
+			throws IOException, InvalidDictionaryException {
+		return new RegistryWordCache(this.preloader.getDictionaryRegistry(),
+				levelChars) {
+			@Override
+			protected WordCache createCache(final MasterDictionary dictionary,
+					final char[] levelChars) {
+				return GameScreen.createWordCache(dictionary, levelChars,
+						gameRandom.split(GameRandom.WORDS_STREAM));
+			}
+		};
+	}
+
+	/*
+	 * Creates the word cache for a level from a dictionary. The
+	 * implementation is chosen by WordZapConstants.WORD_CACHE_TYPE, and is put
+	 * behind a Bloom filter if WordZapConstants.USE_BLOOM_FILTER is set
+	 * 
+	 * Parameter 1 : Dictionary shared by all levels
+	 * 
+	 * Parameter 2 : Letters of the level
+	 * 
+	 * Parameter 3 : Random number generator of the cache's getRandomWord
+	 */
+	private static WordCache createWordCache(
+			final MasterDictionary dictionary, char[] levelChars,
+			final Random rand) {
+		WordCache wordCache;
+		switch (WordZapConstants.WORD_CACHE_TYPE) {
+		case WordZapConstants.ENGLISH_WORD_CACHE:
+			wordCache = new EnglishWordCache(dictionary.getDictionary(),
+					levelChars, rand);
+			break;
+		case WordZapConstants.DAWG_WORD_CACHE:
+			wordCache = new DawgWordCache(dictionary.createLevelCache(
+					levelChars).getValidWords(), rand);
+			break;
+		case WordZapConstants.FRONT_CODED_WORD_CACHE:
+			try {
+				wordCache = new FrontCodedWordCache(dictionary
+						.createLevelCache(levelChars).getValidWords(), rand);
+			} catch (InvalidDictionaryException e) {
+				// Can't happen, compiled dictionaries only hold ASCII words
+				Log.e(GameScreen.class.toString(), "Can't front code words", e);
+				wordCache = dictionary.createLevelCache(levelChars, rand);
+			}
+			break;
+		default:
+			wordCache = dictionary.createLevelCache(levelChars, rand);
+		}
+
+		if (WordZapConstants.USE_BLOOM_FILTER) {
+			wordCache = new BloomFilterWordCache(wordCache,
+					WordZapConstants.BLOOM_FILTER_FALSE_POSITIVE_RATE,
+					WordZapConstants.BLOOM_FILTER_MAX_BITS);
+		}
+		return wordCache;
+	}
+
 	/*
 	 * Pushes a given word into the computer player's letter grid
 	 */
@@ -378,10 +507,111 @@ public class GameScreen extends Activity {
 
 	}
 
-	// Starts computer player thread
+	// Starts computer player and timer threads
 	public void startOpponent() {
-		this.opponent.start();
-		this.timer.start();
+		if (!WordZapConstants.USE_SCHEDULED_OPPONENT) {
+			this.opponent = GameExecutor.getDefault().execute(
+					this.computerPlayer);
+		} else {
+			this.computerPlayer.start(ExecutorGameScheduler.getSharedInstance());
+		}
+		if (!WordZapConstants.USE_DEADLINE_TIMER) {
+			this.timer = GameExecutor.getDefault().execute(this.timerTask);
+		} else {
+			this.deadlineTimer.reset();
+			this.timerThreadHandler.post(this.timerTick);
+		}
+	}
+
+	/*
+	 * Shows the time left to form a word, or ends the game once the deadline
+	 * has passed. Runs on the main thread, as the time shown changes.
+	 */
+	private void tickTimer() {
+		if (this.isGameOver()) {
+			return;
+		}
+		long remainingMillis = this.deadlineTimer.getRemainingMillis();
+		if (remainingMillis == 0) {
+			this.showGameStatus(Timer.getGameStatus(this.getCompletedWords()
+					.size(), this.getOpponentGridSize()), 0);
+			return;
+		}
+
+		// Time left is shown during the last HUMAN_SLEEP_CHECK milliseconds,
+		// as by the timer thread
+		if (remainingMillis <= WordZapConstants.HUMAN_SLEEP_CHECK) {
+			this.showGameStatus(WordZapConstants.NONE, this.deadlineTimer
+					.getSecondsLeft());
+		}
+
+		// Next tick when the seconds left change
+		long tickDelay = remainingMillis % 1000;
+		this.timerThreadHandler.postDelayed(this.timerTick,
+				tickDelay == 0 ? 1000 : tickDelay);
+	}
+
+	/*
+	 * Shows the status of the game decided by the timer
+	 * 
+	 * Parameter 1 : WordZapConstants.HUMAN_LOSS, WordZapConstants.HUMAN_WIN,
+	 * WordZapConstants.DRAW or WordZapConstants.NONE if the game goes on
+	 * 
+	 * Parameter 2 : Seconds left to form a word, shown if the game goes on
+	 */
+	private void showGameStatus(int gameStatus, int timeValue) {
+		switch (gameStatus) {
+		case WordZapConstants.HUMAN_LOSS:
+			setGameOver(true);
+			showDialog(WordZapConstants.HUMAN_LOSE_DIALOG);
+			break;
+		case WordZapConstants.HUMAN_WIN:
+			setGameOver(true);
+			showDialog(WordZapConstants.HUMAN_WIN_DIALOG);
+			break;
+		case WordZapConstants.DRAW:
+			setGameOver(true);
+			showDialog(WordZapConstants.DRAW_DIALOG);
+			break;
+		case WordZapConstants.NONE:
+			displayMessage("" + timeValue + " seconds left");
+			break;
+		default:
+			break;
+		}
+	}
+
+	// Gives the human player the full time again to form the next word
+	private void resetTimer() {
+		if (!WordZapConstants.USE_DEADLINE_TIMER) {
+			if (this.timer != null) {
+				this.timer.interrupt();
+			}
+		} else {
+			this.deadlineTimer.reset();
+		}
+	}
+
+	// Stops the timer once the game is over
+	private void stopTimer() {
+		if (!WordZapConstants.USE_DEADLINE_TIMER) {
+			if (this.timer != null) {
+				this.timer.interrupt();
+			}
+		} else {
+			this.timerThreadHandler.removeCallbacks(this.timerTick);
+		}
+	}
+
+	// Stops the computer player from making more moves
+	private void stopOpponent() {
+		if (!WordZapConstants.USE_SCHEDULED_OPPONENT) {
+			if (this.opponent != null) {
+				this.opponent.interrupt();
+			}
+		} else {
+			this.computerPlayer.cancel();
+		}
 	}
 
 	/*
@@ -617,10 +847,19 @@ public class GameScreen extends Activity {
 		this.gridTxtViews[row][col].setText("" + pushedLetter);
 		this.gridTxtViewInputSource[row][col] = srcButton;
 
-		if (this.humanPlayerGrid.getWordAtTop().length() > WordZapConstants.MIN_WORD_SIZE) {
-			btnEndWord.setEnabled(true);
-		}
+		this.prefixCursor.advance(pushedLetter);
+		this.updateEndWordButton();
+
+	}
 
+	/*
+	 * Enables the 'End Word' button only if the letters at the top of the grid
+	 * make a valid word that is long enough
+	 */
+	private void updateEndWordButton() {
+		this.btnEndWord
+				.setEnabled(this.prefixCursor.length() > WordZapConstants.MIN_WORD_SIZE
+						&& this.prefixCursor.isWord());
 	}
 
 	/*
@@ -657,9 +896,8 @@ public class GameScreen extends Activity {
 			if (poppedCol == 0) {
 				this.humanPlayerGrid.removeWordAtTop();
 			}
-			if (poppedCol == WordZapConstants.MIN_WORD_SIZE) {
-				this.btnEndWord.setEnabled(false);
-			}
+			this.prefixCursor.retreat();
+			this.updateEndWordButton();
 		}
 
 	}
@@ -677,7 +915,7 @@ public class GameScreen extends Activity {
 		 * the grid
 		 */
 		if (completedWords.size() > 0) {
-			String wordToBeRemoved = completedWords.get(new Random()
+			String wordToBeRemoved = completedWords.get(this.zapRandom
 					.nextInt(completedWords.size()));
 			int removedWordIndex = this.humanPlayerGrid
 					.removeWord(wordToBeRemoved);
@@ -767,6 +1005,10 @@ public class GameScreen extends Activity {
 					+ "' is not a valid word");
 		}
 
+		// The next letter typed starts a new word, looked up in the last
+		// published dictionary
+		this.prefixCursor = this.aWordCache.newPrefixCursor();
+
 		// Adds the word to list of already used words
 		this.usedWords.add(wordAtTop);
 
@@ -780,16 +1022,16 @@ public class GameScreen extends Activity {
 			this.setGameOver(true);
 
 			// Waking up timer thread
-			this.timer.interrupt();
+			this.stopTimer();
 
 			// Killing opponent
-			this.opponent.interrupt();
+			this.stopOpponent();
 
 			showDialog(WordZapConstants.HUMAN_WIN_DIALOG);
 		}
 
 		// Waking up timer thread
-		this.timer.interrupt();
+		this.resetTimer();
 
 	}
 
@@ -835,6 +1077,18 @@ public class GameScreen extends Activity {
 	@Override
 	protected void onDestroy() {
 		super.onDestroy();
+
+		// The opponent makes no moves against a destroyed screen
+		if (this.computerPlayer != null) {
+			this.stopOpponent();
+			this.stopTimer();
+		}
+		if (this.aWordCache != null) {
+			WordCache currentCache = this.aWordCache.getCurrentCache();
+			if (currentCache instanceof BloomFilterWordCache) {
+				Log.i(GameScreen.class.toString(), currentCache.toString());
+			}
+		}
 		if (mMediaPlayer != null) {
 			mMediaPlayer.release();
 			mMediaPlayer = null;
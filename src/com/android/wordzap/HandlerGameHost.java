@@ -0,0 +1,131 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.List;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Message;
+import android.util.Log;
+
+/*
+ * Delivers computer moves and timer messages to Activity GameScreen, packed
+ * in a Bundle and sent to a Handler of the main thread
+ */
+public class HandlerGameHost implements GameHost {
+
+	// Handle to the Activity object representing the WordZap Game Screen
+	private final GameScreen wordZapGameScreen;
+
+	// Handler object to communicate opponent moves or timer messages to
+	// Activity GameScreen
+	private final Handler mainThreadHandler;
+
+	public HandlerGameHost(GameScreen wordZapGameScreen,
+			Handler mainThreadHandler) {
+		if (wordZapGameScreen == null) {
+			throw new IllegalArgumentException("GameScreen object is null.");
+		}
+		this.wordZapGameScreen = wordZapGameScreen;
+
+		if (mainThreadHandler == null) {
+			throw new IllegalArgumentException("Main Thread Handler is null.");
+		}
+		this.mainThreadHandler = mainThreadHandler;
+	}
+
+	@Override
+	public boolean isGameOver() {
+		return this.wordZapGameScreen.isGameOver();
+	}
+
+	@Override
+	public List<String> getCompletedWords() {
+		return this.wordZapGameScreen.getCompletedWords();
+	}
+
+	@Override
+	public String getLastWord() {
+		return this.wordZapGameScreen.getLastWord();
+	}
+
+	@Override
+	public int getOpponentGridSize() {
+		return this.wordZapGameScreen.getOpponentGridSize();
+	}
+
+	/*
+	 * Packs the move in a Bundle, which may contain any,none or both of the
+	 * following :
+	 * 
+	 * (1) Zap move : Computer zaps a word from the human player's visual grid
+	 * (2) Gen Word move : Computer generates a word in its own grid against the
+	 * human player. This generated word is also packed in the Bundle.
+	 */
+	@Override
+	public void makeComputerMove(boolean isZapMove, String generatedWord) {
+		Bundle aBundle = new Bundle();
+		if (isZapMove) {
+			Log.i("ComputerPlayer", "Packed zap move");
+			aBundle.putBoolean(WordZapConstants.ZAP_MOVE_KEYNAME, true);
+		} else {
+			aBundle.putBoolean(WordZapConstants.ZAP_MOVE_KEYNAME, false);
+		}
+
+		if (generatedWord != null) {
+			Log.i("ComputerPlayer", "Packed gen word move");
+			aBundle.putBoolean(WordZapConstants.GENWORD_MOVE_KEYNAME, true);
+			aBundle.putString(WordZapConstants.GENERATED_WORD_KEYNAME,
+					generatedWord);
+		} else {
+			aBundle.putBoolean(WordZapConstants.GENWORD_MOVE_KEYNAME, false);
+		}
+
+		// Obtain message to be sent
+		Message msg = this.mainThreadHandler.obtainMessage();
+		msg.setData(aBundle);
+		this.mainThreadHandler.sendMessage(msg);
+	}
+
+	/*
+	 * Packs the status of the game, and the time value displayed in the
+	 * Game Screen UI while the timer counts down
+	 */
+	@Override
+	public void showTimerStatus(int gameStatus, int timeValue) {
+		Bundle aBundle = new Bundle();
+		aBundle.putInt(WordZapConstants.GAME_STATUS, gameStatus);
+		if (gameStatus == WordZapConstants.NONE) {
+			aBundle.putInt(WordZapConstants.TIMER_VALUE_KEYNAME, timeValue);
+		}
+
+		// Obtain message to be sent
+		Message msg = this.mainThreadHandler.obtainMessage();
+		msg.setData(aBundle);
+		this.mainThreadHandler.sendMessage(msg);
+	}
+}
@@ -0,0 +1,389 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+/*
+ * A game without a screen, played by the computer player against a simulated
+ * human player. Used to host many games in one process, e.g. on simulation
+ * servers.
+ * 
+ * Games created with a GameScheduler run every timed event on it : the
+ * computer player's moves, the simulated human player's words and the
+ * deadline of the human player's next word. The game holds no thread of its
+ * own, so a scheduler with a single thread can drive any number of games.
+ * 
+ * Games created without a scheduler are played as on the phone, by blocking
+ * threads started from a GameExecutor : the computer player's thread, the
+ * Timer's thread, which the human player interrupts on every word, and a
+ * thread for the human player itself. They are all interrupted once the game
+ * is over.
+ * 
+ * Rules are those of GameScreen : the human player wins with a full grid of
+ * words, loses when the computer player forms a word with its grid full, and
+ * the player with more words wins when the human player runs out of time.
+ */
+public class HeadlessGame implements GameHost {
+
+	// Scheduler running the timed events of the game, null if the game is
+	// played by threads
+	private final GameScheduler scheduler;
+
+	// WordCache from which both players pick their words
+	private final WordCache aWordCache;
+
+	private final ComputerPlayer computerPlayer;
+
+	// Deadline of the human player's next word, on the scheduler
+	private final DeadlineTimer deadlineTimer;
+
+	// Threads playing the game, when started on a GameExecutor
+	private volatile Thread opponentThread;
+	private volatile Thread timerThread;
+	private volatile Thread humanThread;
+
+	// Random number generators of the simulated human player's words, and of
+	// the words zapped from its grid
+	private final Random humanRandom;
+	private final Random zapRandom;
+
+	// Most milliseconds the simulated human player takes to form a word
+	private final long maxThinkMillis;
+
+	// Words in the human player's grid, and every word it has formed
+	private final List<String> completedWords;
+	private final List<String> usedWords;
+
+	// Last word formed by the human player
+	private String lastWord;
+
+	// Number of words in the computer player's grid
+	private int opponentWordCount;
+
+	// WordZapConstants.NONE until the game is over
+	private volatile int gameStatus;
+
+	// Next word of the simulated human player
+	private ScheduledTask humanWordTask;
+
+	/*
+	 * Creates a game. Every random choice of the game is drawn from
+	 * gameRandom.
+	 * 
+	 * Parameter 1 : Level played
+	 * 
+	 * Parameter 2 : WordCache holding the words of the level
+	 * 
+	 * Parameter 3 : Scheduler running the timed events of the game
+	 * 
+	 * Parameter 4 : Randomness of the game
+	 * 
+	 * Parameter 5 : Most milliseconds the simulated human player takes to form
+	 * a word. Each word takes a random time upto this.
+	 */
+	public HeadlessGame(Level currentLevel, WordCache aWordCache,
+			final GameScheduler scheduler, final GameRandom gameRandom,
+			long maxThinkMillis) {
+		this(currentLevel, aWordCache, gameRandom, maxThinkMillis, scheduler);
+		if (scheduler == null) {
+			throw new IllegalArgumentException("GameScheduler is null.");
+		}
+	}
+
+	/*
+	 * Creates a game played by threads, which start(GameExecutor) starts.
+	 * Parameters are those of the scheduled game.
+	 */
+	public HeadlessGame(Level currentLevel, WordCache aWordCache,
+			final GameRandom gameRandom, long maxThinkMillis) {
+		this(currentLevel, aWordCache, gameRandom, maxThinkMillis, null);
+	}
+
+	private HeadlessGame(Level currentLevel, WordCache aWordCache,
+			final GameRandom gameRandom, long maxThinkMillis,
+			final GameScheduler scheduler) {
+		if (gameRandom == null) {
+			throw new IllegalArgumentException("GameRandom is null.");
+		}
+		if (maxThinkMillis <= 0) {
+			throw new IllegalArgumentException("Think time should be positive");
+		}
+		this.scheduler = scheduler;
+		this.aWordCache = aWordCache;
+		this.maxThinkMillis = maxThinkMillis;
+		this.humanRandom = gameRandom.split(GameRandom.HUMAN_STREAM);
+		this.zapRandom = gameRandom.split(GameRandom.ZAP_STREAM);
+		this.completedWords = new Vector<String>();
+		this.usedWords = new Vector<String>();
+		this.lastWord = "";
+		this.gameStatus = WordZapConstants.NONE;
+
+		this.computerPlayer = new ComputerPlayer(this, aWordCache,
+				currentLevel, gameRandom.split(GameRandom.MOVES_STREAM));
+		this.deadlineTimer = scheduler == null ? null : new DeadlineTimer(
+				scheduler, 2L * WordZapConstants.HUMAN_SLEEP_CHECK);
+	}
+
+	/*
+	 * Starts both players and the human player's timer on the scheduler
+	 * 
+	 * Throws IllegalStateException : If the game was created without a
+	 * scheduler
+	 */
+	public synchronized void start() throws IllegalStateException {
+		if (this.scheduler == null) {
+			throw new IllegalStateException("Game is played by threads.");
+		}
+		this.deadlineTimer.reset();
+		this.deadlineTimer.start(new Runnable() {
+			public void run() {
+				timeOut();
+			}
+		});
+		this.computerPlayer.start(this.scheduler);
+		this.scheduleHumanWord();
+	}
+
+	/*
+	 * Starts the threads of both players and of the timer
+	 * 
+	 * Throws IllegalStateException : If the game was created with a scheduler,
+	 * or already started
+	 */
+	public synchronized void start(final GameExecutor executor)
+			throws IllegalStateException {
+		if (this.scheduler != null) {
+			throw new IllegalStateException("Game is played on a scheduler.");
+		}
+		if (this.timerThread != null) {
+			throw new IllegalStateException("Game already started.");
+		}
+		this.timerThread = executor.execute(new Timer(this));
+		this.opponentThread = executor.execute(this.computerPlayer);
+		this.humanThread = executor.execute(new Runnable() {
+			public void run() {
+				playHuman();
+			}
+		});
+	}
+
+	@Override
+	public boolean isGameOver() {
+		return this.gameStatus != WordZapConstants.NONE;
+	}
+
+	/*
+	 * Returns WordZapConstants.HUMAN_WIN, WordZapConstants.HUMAN_LOSS or
+	 * WordZapConstants.DRAW once the game is over, WordZapConstants.NONE
+	 * before
+	 */
+	public int getGameStatus() {
+		return this.gameStatus;
+	}
+
+	@Override
+	public synchronized List<String> getCompletedWords() {
+		return new Vector<String>(this.completedWords);
+	}
+
+	@Override
+	public synchronized String getLastWord() {
+		return this.lastWord;
+	}
+
+	// Returns number of words in the computer player's grid
+	@Override
+	public synchronized int getOpponentGridSize() {
+		return this.opponentWordCount;
+	}
+
+	// Ends the game once the Timer tells that the human player is out of time
+	@Override
+	public void showTimerStatus(int gameStatus, int timeValue) {
+		if (gameStatus == WordZapConstants.NONE) {
+			return;
+		}
+		synchronized (this) {
+			if (this.isGameOver()) {
+				return;
+			}
+			this.gameStatus = gameStatus;
+		}
+		this.stopEvents();
+	}
+
+	/*
+	 * Plays a move of the computer player : the generated word goes into its
+	 * grid, then a zap removes a random word from the human player's grid
+	 */
+	@Override
+	public void makeComputerMove(boolean isZapMove, String generatedWord) {
+		synchronized (this) {
+			if (this.isGameOver()) {
+				return;
+			}
+			if (generatedWord != null) {
+				if (this.opponentWordCount == WordZapConstants.GRID_NUMROWS) {
+					this.gameStatus = WordZapConstants.HUMAN_LOSS;
+				} else {
+					this.opponentWordCount++;
+				}
+			}
+			if (!this.isGameOver() && isZapMove
+					&& this.completedWords.size() > 0) {
+				this.completedWords.remove(this.zapRandom
+						.nextInt(this.completedWords.size()));
+			}
+		}
+		if (this.isGameOver()) {
+			this.stopEvents();
+		}
+	}
+
+	// Waits for the simulated human player to think of its next word
+	private void scheduleHumanWord() {
+		this.humanWordTask = this.scheduler.schedule(new Runnable() {
+			public void run() {
+				formHumanWord();
+			}
+		}, this.nextThinkMillis());
+	}
+
+	// Returns milliseconds the simulated human player takes for its next word
+	private long nextThinkMillis() {
+		return 1 + (long) (this.humanRandom.nextDouble() * this.maxThinkMillis);
+	}
+
+	/*
+	 * Plays a word of the simulated human player, which gets the full time
+	 * again to form the next one. Once no new word is left, the human player
+	 * waits for the timer.
+	 */
+	private void formHumanWord() {
+		synchronized (this) {
+			if (this.playHumanWord()) {
+				this.deadlineTimer.reset();
+				if (!this.isGameOver()) {
+					this.scheduleHumanWord();
+				}
+			} else {
+				this.humanWordTask = null;
+			}
+		}
+		if (this.isGameOver()) {
+			this.stopEvents();
+		}
+	}
+
+	/*
+	 * Body of the human player's thread. Sleeps between words, and wakes the
+	 * timer thread up after each, as GameScreen.endWord() does.
+	 */
+	private void playHuman() {
+		try {
+			while (!this.isGameOver()) {
+				Thread.sleep(this.nextThinkMillis());
+				if (!this.playHumanWord()) {
+					break;
+				}
+
+				// Waking up timer thread
+				this.timerThread.interrupt();
+			}
+		} catch (InterruptedException e) {
+			// Don't care as the thread is interrupted on game over
+		}
+		if (this.isGameOver()) {
+			this.stopEvents();
+		}
+	}
+
+	/*
+	 * Puts a new word in the human player's grid, and ends the game if the
+	 * grid is full.
+	 * 
+	 * Returns false if the game is over, or if no new word is left
+	 */
+	private synchronized boolean playHumanWord() {
+		if (this.isGameOver()) {
+			return false;
+		}
+		String word = this.aWordCache.getRandomWord(this.usedWords);
+		if (word == null) {
+			return false;
+		}
+		this.usedWords.add(word);
+		this.completedWords.add(word);
+		this.lastWord = word;
+		if (this.completedWords.size() == WordZapConstants.GRID_NUMROWS) {
+			this.gameStatus = WordZapConstants.HUMAN_WIN;
+		}
+		return true;
+	}
+
+	// Ends the game once the human player runs out of time
+	private void timeOut() {
+		synchronized (this) {
+			if (this.isGameOver()) {
+				return;
+			}
+			this.gameStatus = Timer.getGameStatus(this.completedWords.size(),
+					this.opponentWordCount);
+		}
+		this.stopEvents();
+	}
+
+	/*
+	 * Cancels every event of a game that is over. Called without holding the
+	 * game's lock, as the computer player makes its moves holding its own.
+	 */
+	private void stopEvents() {
+		if (this.scheduler == null) {
+			this.interrupt(this.opponentThread);
+			this.interrupt(this.timerThread);
+			this.interrupt(this.humanThread);
+			return;
+		}
+		this.computerPlayer.cancel();
+		this.deadlineTimer.stop();
+		synchronized (this) {
+			if (this.humanWordTask != null) {
+				this.humanWordTask.cancel();
+				this.humanWordTask = null;
+			}
+		}
+	}
+
+	// Interrupts a thread of the game, other than the current one
+	private void interrupt(final Thread thread) {
+		if (thread != null && thread != Thread.currentThread()) {
+			thread.interrupt();
+		}
+	}
+}
@@ -0,0 +1,306 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+/*
+ * Base of caches that lay out their words by length, and alphabetically
+ * within a length, at positions 0 to (number of words - 1). Words of length L
+ * are at positions firstWordOfLength[L] (inclusive) upto
+ * firstWordOfLength[L + 1] (exclusive).
+ * 
+ * A cache only says which word is at a position and where a word is, and
+ * gets random picks, a read only view, letter signature queries and prefix
+ * cursors from here. Subclasses call initPositions(...) once their words are
+ * laid out.
+ * 
+ * Each list passed to getRandomWord(List) keeps its own exclusion state, so
+ * that callers picking against different lists, such as the two players of a
+ * game, don't undo each other's exclusions. A list is matched to the state
+ * that needs the fewest changes to exclude it.
+ * 
+ */
+public abstract class LengthOrderedWordCache implements WordCache {
+
+	// Most lists whose words are kept excluded at the same time
+	private static final int MAX_EXCLUDED_LISTS = 4;
+
+	// Position of the first word of each length
+	private int[] firstWordOfLength;
+
+	// Letter signature of the word at each position
+	private long[] signaturesLow;
+	private long[] signaturesHigh;
+
+	// Picks positions for getRandomWord(), with nothing excluded
+	private WordSampler sampler;
+
+	// Picks positions for getRandomWord(List), one per list, most recently
+	// used first
+	private final List<WordSampler> listSamplers = new ArrayList<WordSampler>();
+
+	// Random number generator shared by the samplers
+	private Random rand;
+
+	// Read only view of the cached words
+	private WordView wordView;
+
+	// Graph walked by prefix cursors, built on first use
+	private Dawg prefixGraph;
+
+	// Returns the word at a position
+	protected abstract String wordAt(int position);
+
+	/*
+	 * Returns the position of a word, or a negative number if the word is not
+	 * cached
+	 */
+	protected abstract int positionOf(String word);
+
+	/*
+	 * Returns low half of the letter signature of the word at a position.
+	 * Caches that keep signatures of their words can override this and
+	 * signatureHighAt(...) to avoid creating the word.
+	 */
+	protected long signatureLowAt(int position) {
+		return LetterSignature.low(this.wordAt(position));
+	}
+
+	// Returns high half of the letter signature of the word at a position
+	protected long signatureHighAt(int position) {
+		return LetterSignature.high(this.wordAt(position));
+	}
+
+	/*
+	 * Groups words by length, keeping their order within a length.
+	 * 
+	 * Parameter 1 : Length of each word
+	 * 
+	 * Parameter 2 : Filled with the index in wordLengths of the word at each
+	 * position. Should be as long as wordLengths.
+	 * 
+	 * Returns position of the first word of each length, and number of words
+	 * as the last element. Covers atleast the lengths upto
+	 * WordZapConstants.MAX_WORD_SIZE.
+	 */
+	protected static int[] groupByLength(final int[] wordLengths,
+			final int[] wordsByLength) {
+		int maxWordLength = WordZapConstants.MAX_WORD_SIZE;
+		for (int length : wordLengths) {
+			maxWordLength = Math.max(maxWordLength, length);
+		}
+		int[] firstWordOfLength = new int[maxWordLength + 2];
+		for (int length : wordLengths) {
+			firstWordOfLength[length + 1]++;
+		}
+		for (int length = 1; length < firstWordOfLength.length; length++) {
+			firstWordOfLength[length] += firstWordOfLength[length - 1];
+		}
+		int[] numWordsOfLength = new int[maxWordLength + 1];
+		for (int word = 0; word < wordLengths.length; word++) {
+			int length = wordLengths[word];
+			wordsByLength[firstWordOfLength[length]
+					+ numWordsOfLength[length]++] = word;
+		}
+		return firstWordOfLength;
+	}
+
+	/*
+	 * Sets up the cache once its words are laid out. Signatures of all words
+	 * are worked out here, once.
+	 * 
+	 * Parameter 1 : Position of the first word of each length, and number of
+	 * words as the last element
+	 * 
+	 * Parameter 2 : Random number generator of getRandomWord, reused for
+	 * every pick
+	 */
+	protected void initPositions(final int[] firstWordOfLength,
+			final Random rand) {
+		this.firstWordOfLength = firstWordOfLength;
+		int numWords = firstWordOfLength[firstWordOfLength.length - 1];
+		this.signaturesLow = new long[numWords];
+		this.signaturesHigh = new long[numWords];
+		for (int position = 0; position < numWords; position++) {
+			this.signaturesLow[position] = this.signatureLowAt(position);
+			this.signaturesHigh[position] = this.signatureHighAt(position);
+		}
+
+		this.rand = rand;
+		this.sampler = this.newSampler();
+		this.wordView = new WordView(firstWordOfLength) {
+			@Override
+			protected String wordAt(int position) {
+				return LengthOrderedWordCache.this.wordAt(position);
+			}
+		};
+	}
+
+	// Returns a sampler over every position
+	private WordSampler newSampler() {
+		return new WordSampler(this.firstWordOfLength,
+				WordZapConstants.RANDOM_WORD_DISTRIBUTION, this.rand);
+	}
+
+	// Returns the word at a position given by a sampler
+	private String pickedWord(int position) {
+		if (position == WordSampler.EXHAUSTED) {
+			return null;
+		}
+		return this.wordAt(position);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getValidWords()
+	 * 
+	 * Returns a read only view of cached valid english words, by length
+	 */
+	@Override
+	public List<String> getValidWords() {
+		return this.wordView;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordView()
+	 */
+	@Override
+	public WordView getWordView() {
+		return this.wordView;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getRandomWord()
+	 * 
+	 * Returns a random cached word longer than WordZapConstants.MIN_WORD_SIZE,
+	 * or null if there is no such word
+	 */
+	@Override
+	public synchronized String getRandomWord() {
+		return this.pickedWord(this.sampler.nextPosition());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getRandomWord(java.util.List<
+	 * java.lang.String >)
+	 * 
+	 * Returns a random cached word not in the list : wordList, or null if
+	 * every cached word longer than WordZapConstants.MIN_WORD_SIZE is in the
+	 * list
+	 */
+	@Override
+	public synchronized String getRandomWord(List<String> wordList) {
+		WordSampler listSampler = this.samplerFor(wordList);
+
+		// Words stay excluded between picks, so only words added to the list
+		// since its previous pick are looked up. Words zapped off the list
+		// are included again.
+		int numWords = wordList.size();
+		for (int index = listSampler.retainExcluded(wordList); index < numWords; index++) {
+			String word = wordList.get(index);
+			listSampler.excludeWord(word, this.positionOf(word));
+		}
+		return this.pickedWord(listSampler.nextPosition());
+	}
+
+	/*
+	 * Returns the sampler that needs the fewest changes to exclude the words
+	 * of a list. A new sampler is made for the list if none needs fewer
+	 * changes than one starting afresh, and there is room for one.
+	 */
+	private WordSampler samplerFor(final List<String> wordList) {
+		int bestIndex = -1;
+		int bestChanges = Integer.MAX_VALUE;
+		for (int index = 0; index < this.listSamplers.size(); index++) {
+			int numChanges = this.listSamplers.get(index).countChanges(
+					wordList);
+			if (numChanges < bestChanges) {
+				bestIndex = index;
+				bestChanges = numChanges;
+			}
+		}
+
+		WordSampler listSampler;
+		if (bestChanges > wordList.size()
+				&& this.listSamplers.size() < MAX_EXCLUDED_LISTS) {
+			listSampler = this.newSampler();
+		} else {
+			listSampler = this.listSamplers.remove(bestIndex);
+		}
+		this.listSamplers.add(0, listSampler);
+		return listSampler;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordsFormableFrom(char[])
+	 * 
+	 * Returns list of cached words that can be formed from letters, using each
+	 * letter atmost once. Only the signatures worked out when the cache was
+	 * built are compared.
+	 */
+	@Override
+	public List<String> getWordsFormableFrom(final char[] letters) {
+		long lettersLow = LetterSignature.low(letters);
+		long lettersHigh = LetterSignature.high(letters);
+		List<String> wordList = new Vector<String>();
+		for (int position = 0; position < this.signaturesLow.length; position++) {
+			if (LetterSignature.isSubset(this.signaturesLow[position],
+					this.signaturesHigh[position], lettersLow, lettersHigh)) {
+				wordList.add(this.wordAt(position));
+			}
+		}
+		return wordList;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#newPrefixCursor()
+	 * 
+	 * The word graph behind the cursors is built on first use
+	 */
+	@Override
+	public synchronized PrefixCursor newPrefixCursor() {
+		if (this.prefixGraph == null) {
+			this.prefixGraph = new Dawg(this.getValidWords());
+		}
+		return new DawgPrefixCursor(this.prefixGraph);
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+/*
+ * Packs the letter counts of a word into two longs, called the low and the
+ * high half of the word's signature.
+ * 
+ * Each letter from 'A' to 'Z' owns a 4 bit lane : lanes of 'A' to 'P' live in
+ * the low half, lanes of 'Q' to 'Z' in the high half. One more lane in the
+ * high half counts all characters that are not english letters. A lane holds
+ * counts from 0 to LetterSignature.MAX_LETTER_COUNT; larger counts are
+ * saturated to that value.
+ * 
+ * Two words are anagrams of each other if and only if their signatures are
+ * equal (ignoring saturation).
+ * 
+ * Since counts never exceed 7, the top bit of every lane is free. isSubset
+ * sets that bit in every lane of the letter set and subtracts the word : a
+ * lane keeps its top bit only if the set has enough of that letter, and no
+ * lane ever borrows from its neighbour.
+ */
+public final class LetterSignature {
+
+	// Number of bits in each lane
+	public static final int LANE_BITS = 4;
+
+	// Largest count stored in a lane
+	public static final int MAX_LETTER_COUNT = 7;
+
+	// Number of lanes in the low half
+	public static final int LOW_LANES = 64 / LANE_BITS;
+
+	// Lane that counts characters which are not english letters
+	public static final int OTHER_LANE = 26;
+
+	private static final long LANE_MASK = (1L << LANE_BITS) - 1;
+
+	// Top bit of each lane in the low half
+	private static final long LOW_GUARD_BITS = 0x8888888888888888L;
+
+	// Top bit of each lane in the high half (lanes of 'Q' to 'Z', and
+	// LetterSignature.OTHER_LANE)
+	private static final long HIGH_GUARD_BITS = 0x0000088888888888L;
+
+	private LetterSignature() {
+	}
+
+	// Returns the lane that counts a character
+	public static int laneOf(char letter) {
+		letter = Character.toUpperCase(letter);
+		if (letter >= 'A' && letter <= 'Z') {
+			return letter - 'A';
+		}
+		return LetterSignature.OTHER_LANE;
+	}
+
+	/*
+	 * Adds one occurence of a character to a signature half.
+	 * 
+	 * Parameter 1 : Low or high half of a signature
+	 * 
+	 * Parameter 2 : Lane of the character, as returned by laneOf(char)
+	 * 
+	 * Parameter 3 : true if half is the high half, false if it is the low half
+	 * 
+	 * Returns the updated half. The half is returned unchanged if the character
+	 * belongs to the other half.
+	 */
+	public static long addToHalf(long half, int lane, boolean isHighHalf) {
+		if ((lane >= LetterSignature.LOW_LANES) != isHighHalf) {
+			return half;
+		}
+		int shift = (lane % LetterSignature.LOW_LANES) * LANE_BITS;
+		if (((half >>> shift) & LANE_MASK) < LetterSignature.MAX_LETTER_COUNT) {
+			half += 1L << shift;
+		}
+		return half;
+	}
+
+	// Returns the low half of the signature of word
+	public static long low(final CharSequence word) {
+		long half = 0;
+		for (int index = 0; index < word.length(); index++) {
+			half = addToHalf(half, laneOf(word.charAt(index)), false);
+		}
+		return half;
+	}
+
+	// Returns the high half of the signature of word
+	public static long high(final CharSequence word) {
+		long half = 0;
+		for (int index = 0; index < word.length(); index++) {
+			half = addToHalf(half, laneOf(word.charAt(index)), true);
+		}
+		return half;
+	}
+
+	// Returns the low half of the signature of a set of letters
+	public static long low(final char[] letters) {
+		long half = 0;
+		for (char letter : letters) {
+			half = addToHalf(half, laneOf(letter), false);
+		}
+		return half;
+	}
+
+	// Returns the high half of the signature of a set of letters
+	public static long high(final char[] letters) {
+		long half = 0;
+		for (char letter : letters) {
+			half = addToHalf(half, laneOf(letter), true);
+		}
+		return half;
+	}
+
+	/*
+	 * Returns true if a word with signature (wordLow, wordHigh) can be formed
+	 * from a set of letters with signature (setLow, setHigh), using each letter
+	 * in the set at most once. Returns false otherwise.
+	 */
+	public static boolean isSubset(long wordLow, long wordHigh, long setLow,
+			long setHigh) {
+		long lowLanes = ((setLow | LOW_GUARD_BITS) - wordLow) & LOW_GUARD_BITS;
+		long highLanes = ((setHigh | HIGH_GUARD_BITS) - wordHigh)
+				& HIGH_GUARD_BITS;
+		return ((lowLanes ^ LOW_GUARD_BITS) | (highLanes ^ HIGH_GUARD_BITS)) == 0;
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Vector;
+
+/*
+ * Finds every playable word of a level, so that levels which can't fill a
+ * letter grid can be told apart from the others.
+ * 
+ * Words are looked up in the anagram index of a MasterDictionary, or asked
+ * for from a WordCache. With a MasterDictionary, a level is analyzed in well
+ * under a millisecond, and only playable words are materialized as Strings.
+ * 
+ */
+public class LevelAnalyzer {
+
+	// Orders words by length, and alphabetically within a length
+	private static final Comparator<String> BY_LENGTH = new Comparator<String>() {
+		public int compare(String word1, String word2) {
+			if (word1.length() != word2.length()) {
+				return word1.length() - word2.length();
+			}
+			return word1.compareTo(word2);
+		}
+	};
+
+	// Only one of these is set
+	private final MasterDictionary dictionary;
+	private final WordCache wordCache;
+
+	// Indices of the words found in the dictionary, reused across levels
+	private final int[] wordIndices;
+
+	// Analyzes levels against every word of a dictionary
+	public LevelAnalyzer(final MasterDictionary dictionary) {
+		this.dictionary = dictionary;
+		this.wordCache = null;
+		this.wordIndices = new int[dictionary.getWordCount()];
+	}
+
+	// Analyzes levels against the words of a cache
+	public LevelAnalyzer(final WordCache wordCache) {
+		this.dictionary = null;
+		this.wordCache = wordCache;
+		this.wordIndices = null;
+	}
+
+	// Returns the report of a level
+	public LevelReport analyze(final Level level) {
+		return this.analyze(level.getAlphabets());
+	}
+
+	/*
+	 * Returns the report of a level
+	 * 
+	 * Parameter : Letters of the level
+	 */
+	public synchronized LevelReport analyze(final char[] levelLetters) {
+		long startTime = System.nanoTime();
+		List<String> playableWords = new Vector<String>();
+		if (this.dictionary != null) {
+			BinaryDictionary compiledWords = this.dictionary.getDictionary();
+			int numFound = this.dictionary.getAnagramIndex().findWords(
+					levelLetters, this.wordIndices);
+			for (int index = 0; index < numFound; index++) {
+				int wordIndex = this.wordIndices[index];
+				if (isPlayableLength(compiledWords.getWordLength(wordIndex))) {
+					playableWords.add(this.dictionary.getWord(wordIndex));
+				}
+			}
+		} else {
+			for (String word : this.wordCache
+					.getWordsFormableFrom(levelLetters)) {
+				if (isPlayableLength(word.length())) {
+					playableWords.add(word);
+				}
+			}
+			Collections.sort(playableWords, BY_LENGTH);
+		}
+		return new LevelReport(levelLetters, playableWords, System.nanoTime()
+				- startTime);
+	}
+
+	/*
+	 * Returns number of playable words of a level, without finding them. With
+	 * a MasterDictionary, words are counted by walking its signature trie, in
+	 * a few microseconds.
+	 * 
+	 * Parameter : Letters of the level
+	 */
+	public int countPlayableWords(final char[] levelLetters) {
+		if (this.dictionary != null) {
+			return this.dictionary.getSignatureTrie().countWords(levelLetters,
+					WordZapConstants.MIN_WORD_SIZE + 1,
+					WordZapConstants.MAX_WORD_SIZE);
+		}
+		int numPlayable = 0;
+		for (String word : this.wordCache.getWordsFormableFrom(levelLetters)) {
+			if (isPlayableLength(word.length())) {
+				numPlayable++;
+			}
+		}
+		return numPlayable;
+	}
+
+	/*
+	 * Builds the index walked by countPlayableWords, if not built yet, so that
+	 * the first count is as fast as the next ones
+	 */
+	public void prepare() {
+		if (this.dictionary != null) {
+			this.dictionary.getSignatureTrie();
+		}
+	}
+
+	// Returns true if words of a length can be played
+	private static boolean isPlayableLength(int length) {
+		return length > WordZapConstants.MIN_WORD_SIZE
+				&& length <= WordZapConstants.MAX_WORD_SIZE;
+	}
+}
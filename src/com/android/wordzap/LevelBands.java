@@ -0,0 +1,161 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.android.wordzap.exceptions.InvalidCpuDescriptionException;
+import com.android.wordzap.exceptions.InvalidLevelException;
+
+/*
+ * Bands of playable words that levels of a dictionary pack should fall
+ * within, used by BalancedLevelGenerator to reject outliers.
+ * 
+ * The band of a level holds the middle half of the levels LevelGenerator
+ * generates from the letter frequencies of the pack, counted against its
+ * word list. Bands are sampled by LevelTableCompiler and stored in the level
+ * table of the pack, or sampled when the dictionary is loaded if the pack
+ * has no level table. Levels are sampled from a fixed seed, so a pack always
+ * gets the same bands.
+ * 
+ */
+public class LevelBands {
+
+	// Levels sampled for the band of each level
+	public static final int DEFAULT_SAMPLES_PER_LEVEL = 200;
+
+	// Seed of the sampled levels
+	public static final long DEFAULT_SEED = 0x575A4C42L;
+
+	// Fewest and most playable words a level may have, from
+	// LevelGenerator.MIN_LEVEL
+	private final int[] minWordsInLevels;
+	private final int[] maxWordsInLevels;
+
+	/*
+	 * Parameter 1 : Fewest playable words of each level, from
+	 * LevelGenerator.MIN_LEVEL
+	 * 
+	 * Parameter 2 : Most playable words of each level
+	 * 
+	 * Throws IllegalArgumentException : if the parameters have different
+	 * lengths, or a band is empty
+	 */
+	public LevelBands(final int[] minWordsInLevels, final int[] maxWordsInLevels) {
+		if (minWordsInLevels.length != maxWordsInLevels.length) {
+			throw new IllegalArgumentException(
+					"Every level should have both a fewest and a most number of words");
+		}
+		for (int level = 0; level < minWordsInLevels.length; level++) {
+			if (minWordsInLevels[level] < 0
+					|| minWordsInLevels[level] > maxWordsInLevels[level]) {
+				throw new IllegalArgumentException("Band of level "
+						+ (level + LevelGenerator.MIN_LEVEL) + " is empty");
+			}
+		}
+		this.minWordsInLevels = minWordsInLevels.clone();
+		this.maxWordsInLevels = maxWordsInLevels.clone();
+	}
+
+	/*
+	 * Samples the bands of every level from a level generator. Letters are
+	 * never picked from the level table of the generator.
+	 * 
+	 * Parameter 1 : Generator the sampled levels are drawn from
+	 * 
+	 * Parameter 2 : Analyzer that counts playable words of sampled levels
+	 * 
+	 * Parameter 3 : Levels sampled for the band of each level
+	 * 
+	 * Parameter 4 : Source of random choices
+	 * 
+	 * Throws IllegalArgumentException : if Parameter 3 is less than 1
+	 */
+	public static LevelBands sample(final LevelGenerator levelGen,
+			final LevelAnalyzer analyzer, int samplesPerLevel,
+			final Random rand) throws InvalidLevelException,
+			InvalidCpuDescriptionException {
+		if (samplesPerLevel < 1) {
+			throw new IllegalArgumentException(
+					"Atleast one level should be sampled for each band");
+		}
+		int numLevels = LevelGenerator.MAX_LEVEL - LevelGenerator.MIN_LEVEL + 1;
+		int[] minWordsInLevels = new int[numLevels];
+		int[] maxWordsInLevels = new int[numLevels];
+		int[] counts = new int[samplesPerLevel];
+		for (int level = 0; level < numLevels; level++) {
+			for (int sample = 0; sample < samplesPerLevel; sample++) {
+				counts[sample] = analyzer.countPlayableWords(levelGen
+						.generateLevel(level + LevelGenerator.MIN_LEVEL, rand,
+								false).getAlphabets());
+			}
+			Arrays.sort(counts);
+			minWordsInLevels[level] = counts[samplesPerLevel / 4];
+			maxWordsInLevels[level] = counts[(3 * samplesPerLevel) / 4];
+		}
+		return new LevelBands(minWordsInLevels, maxWordsInLevels);
+	}
+
+	// Samples the bands of every level from the default seed
+	public static LevelBands sample(final LevelGenerator levelGen,
+			final LevelAnalyzer analyzer) throws InvalidLevelException,
+			InvalidCpuDescriptionException {
+		return LevelBands.sample(levelGen, analyzer,
+				DEFAULT_SAMPLES_PER_LEVEL, new Random(DEFAULT_SEED));
+	}
+
+	// Returns number of levels with a band
+	public int getLevelCount() {
+		return this.minWordsInLevels.length;
+	}
+
+	// Returns fewest playable words a level may have
+	public int getMinWords(int level) {
+		return this.minWordsInLevels[level - LevelGenerator.MIN_LEVEL];
+	}
+
+	// Returns most playable words a level may have
+	public int getMaxWords(int level) {
+		return this.maxWordsInLevels[level - LevelGenerator.MIN_LEVEL];
+	}
+
+	/*
+	 * Returns by how many words a count of playable words misses the band of a
+	 * level, or 0 if it is within the band
+	 */
+	public int distanceFromBand(int level, int numWords) {
+		int minWords = this.getMinWords(level);
+		int maxWords = this.getMaxWords(level);
+		if (numWords < minWords) {
+			return minWords - numWords;
+		}
+		if (numWords > maxWords) {
+			return numWords - maxWords;
+		}
+		return 0;
+	}
+}
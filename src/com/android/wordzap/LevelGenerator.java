@@ -54,7 +54,9 @@ import com.android.wordzap.exceptions.InvalidLevelException;
  * 
  * You can then use the LevelGenerator.generateLevel(int level) method to generate characters for a Word Zap level
  * 
- * NOTE : LevelGenerator currently works only with English alphabets ('A' to 'Z')
+ * Letters are picked from the Alphabet of a language, which is english unless another one is passed to the constructor
+ * 
+ * NOTE : LevelGenerator currently works only with alphabets made of English letters ('A' to 'Z')
  * 
  * 
  */
@@ -65,14 +67,6 @@ public class LevelGenerator {
 	public static final int MIN_LEVEL = 1;
 	public static final int MAX_LEVEL = 53;
 
-	private static final String VOWELS_STR = "AEIOU";
-	private static List<Character> vowelsList;
-
-	private static final String CONSONANTS_STR = "BCDFGHJKLMNPQRTVWXYZ";
-	private static List<Character> consonantsStr;
-
-	private static final char PLURAL_CHAR = 'S';
-
 	private static final int NUM_CONSONANT_TIERS = 5;
 	private static final int CONSONANT_TIER_SIZE = 4;
 
@@ -125,11 +119,17 @@ public class LevelGenerator {
 			9, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13, 13,
 			13, 13, 13, 13, 13 };
 
+	// Letters of the language levels are generated for
+	private final Alphabet alphabet;
+
 	private SortedMap<Character, Double> freqSortedConsonants;
 	private List<List<Character>> levelConsonantTiers;
 
 	private HumanLevelDescriptor[] allLevelDescriptors;
 
+	// Precomputed letter sets, picked from instead of generating letters
+	private volatile LevelTable levelTable;
+
 	// Comparator for sorting vowels and consonants based on frequency
 	private class ValueSorter<K, V> implements Comparator<K> {
 		private Map<K, V> mapObject;
@@ -154,21 +154,6 @@ public class LevelGenerator {
 		}
 	};
 
-	static {
-		// Initialising all vowels in english
-		LevelGenerator.vowelsList = new Vector<Character>();
-		for (char vowel : LevelGenerator.VOWELS_STR.toCharArray()) {
-			LevelGenerator.vowelsList.add(vowel);
-		}
-
-		// Initialising all consonants in english
-		LevelGenerator.consonantsStr = new Vector<Character>();
-		for (char consonant : LevelGenerator.CONSONANTS_STR.toCharArray()) {
-			LevelGenerator.consonantsStr.add(consonant);
-		}
-
-	}
-
 	/*
 	 * 
 	 * Generates characters for a required level.
@@ -185,6 +170,35 @@ public class LevelGenerator {
 	public Level generateLevel(int level) throws InvalidLevelException,
 			InvalidCpuDescriptionException {
 
+		return this.generateLevel(level, new Random());
+	}
+
+	/*
+	 * 
+	 * Generates characters for a required level, drawing every random choice
+	 * from a given generator. Generators seeded alike give the same levels.
+	 * 
+	 * Parameter 1 : Level for which characters have to be generated
+	 * 
+	 * Parameter 2 : Source of random choices
+	 * 
+	 * Throws InvalidLevelException : if the level parameter passed doesnt fall
+	 * between LevelGenerator.MIN_LEVEL and LevelGenerator.MAX_LEVEL
+	 */
+
+	public Level generateLevel(int level, final Random rand)
+			throws InvalidLevelException, InvalidCpuDescriptionException {
+		return this.generateLevel(level, rand, true);
+	}
+
+	/*
+	 * Generates a level as above. Letters are picked from the level table
+	 * only if Parameter 3 is true, so that levels can be sampled from the
+	 * letter frequencies alone.
+	 */
+	Level generateLevel(int level, final Random rand, boolean useLevelTable)
+			throws InvalidLevelException, InvalidCpuDescriptionException {
+
 		if (level < LevelGenerator.MIN_LEVEL
 				|| level > LevelGenerator.MAX_LEVEL) {
 			throw new InvalidLevelException(
@@ -199,9 +213,15 @@ public class LevelGenerator {
 				cpuMoveTimeIntervals[level], cpuMoveFrequencies[level],
 				cpuZapTimeIntervals[level], cpuZapFrequencies[level]);
 
-		int numLevelVowels = thisLevel.getNumberOfVowels();
+		// Letters of levels found in the level table are picked from it
+		LevelTable table = this.levelTable;
+		if (useLevelTable && table != null
+				&& table.getEntryCount(level + 1) > 0) {
+			return new Level(table.pickLetters(level + 1, rand), thisCpuLevel,
+					level + 1);
+		}
 
-		Random rand = new Random();
+		int numLevelVowels = thisLevel.getNumberOfVowels();
 
 		/*
 		 * *********************************************
@@ -220,8 +240,9 @@ public class LevelGenerator {
 			 * Choosing the required number of vowels for this levels at random
 			 * from the set of all vowels
 			 */
+			List<Character> vowelsList = this.alphabet.getVowels();
 			int randIndex = rand.nextInt(vowelsList.size());
-			thisLevelVowels.add(LevelGenerator.vowelsList.get(randIndex));
+			thisLevelVowels.add(vowelsList.get(randIndex));
 		}
 
 		// Adding all generated vowels to final list
@@ -257,19 +278,19 @@ public class LevelGenerator {
 
 		/*
 		 * *****************************************************
-		 * Checking if LetterGenerator.PLURAL_CHAR can be included at this level
+		 * Checking if the plural letter of the alphabet can be included at this level
 		 * *****************************************************
 		 */
 
-		if (thisLevel.isPluralAllowed()) {
+		if (thisLevel.isPluralAllowed() && this.alphabet.hasPluralChar()) {
 			int randIndex = rand.nextInt(finalConsonants.size());
 
 			/*
 			 * if plural is allowed, some consonant char is randomly removed and
-			 * replaced with LetterGenerator.PLURAL_CHAR
+			 * replaced with the plural letter of the alphabet
 			 */
 			finalConsonants.remove(randIndex);
-			finalConsonants.add(LevelGenerator.PLURAL_CHAR);
+			finalConsonants.add(this.alphabet.getPluralChar());
 		}
 
 		// Forming final list
@@ -284,6 +305,20 @@ public class LevelGenerator {
 		return new Level(levelAlphabets,thisCpuLevel,level+1);
 	}
 
+	/*
+	 * Makes generateLevel pick the letters of a level from a level table,
+	 * whenever the table has letter sets for the level. Pass null to generate
+	 * letters again.
+	 */
+	public void setLevelTable(final LevelTable levelTable) {
+		this.levelTable = levelTable;
+	}
+
+	// Returns the level table letters are picked from, or null if there is none
+	public LevelTable getLevelTable() {
+		return this.levelTable;
+	}
+
 	/*
 	 * Allows initialising the class with a specific list of english alphaets
 	 * containing frequencies of the set of alphabets that will be used during
@@ -370,6 +405,44 @@ public class LevelGenerator {
 	public LevelGenerator(final Reader freqFileHandle, String delimiter)
 			throws IOException, InvalidFreqFileException {
 
+		this(freqFileHandle, delimiter, Alphabet.ENGLISH);
+	}
+
+	/*
+	 * Allows initialising the class with the alphabet of a language, and a
+	 * list of its letters along with their frequencies.
+	 * 
+	 * Parameter 1 : Handle to file containing list of letters along with their
+	 * frequencies, in the format described above. Every letter should belong
+	 * to the alphabet.
+	 * 
+	 * Parameter 2 : File delimiter for the above file.
+	 * 
+	 * Parameter 3 : Alphabet of the language
+	 * 
+	 * Throws IOException : If an IOException occurs during I/O with file
+	 * mentioned in Parameter 1.
+	 * 
+	 * Throws InvalidFreqFileException : If data in file mentioned in Parameter
+	 * 1 is incorrect, or doesn't have enough consonants to fill every
+	 * consonant tier.
+	 * 
+	 * Throws IllegalArgumentException : If the alphabet has too few vowels for
+	 * some level
+	 */
+
+	public LevelGenerator(final Reader freqFileHandle, String delimiter,
+			final Alphabet alphabet) throws IOException,
+			InvalidFreqFileException {
+
+		this.alphabet = alphabet;
+		for (int numVowels : numVowelsInLevels) {
+			if (numVowels > alphabet.getVowels().size()) {
+				throw new IllegalArgumentException("Levels need atleast "
+						+ numVowels + " vowels");
+			}
+		}
+
 		// Parsing alphabet-frequency stream
 		Map<Character, Double> freqHash = this.parseFrequencies(freqFileHandle,
 				delimiter);
@@ -382,7 +455,7 @@ public class LevelGenerator {
 
 		// Segregating consonants from other alphabets
 		for (Map.Entry<Character, Double> freqEntry : freqHash.entrySet()) {
-			if (consonantsStr.contains(freqEntry.getKey())) {
+			if (this.alphabet.getConsonants().contains(freqEntry.getKey())) {
 				consonantsTmpHash.put(freqEntry.getKey(), freqEntry.getValue());
 			}
 		}
@@ -391,6 +464,13 @@ public class LevelGenerator {
 		this.freqSortedConsonants = new TreeMap<Character, Double>(
 				new ValueSorter<Character, Double>(consonantsTmpHash));
 		this.freqSortedConsonants.putAll(consonantsTmpHash);
+		if (this.freqSortedConsonants.size() < NUM_CONSONANT_TIERS
+				* CONSONANT_TIER_SIZE) {
+			throw new InvalidFreqFileException(
+					"The frequency mapping file should contain atleast "
+							+ NUM_CONSONANT_TIERS * CONSONANT_TIER_SIZE
+							+ " consonants.");
+		}
 
 		// Filling up consonants into different tiers based on frequency
 		levelConsonantTiers = new Vector<List<Character>>();
@@ -424,6 +504,11 @@ public class LevelGenerator {
 				listIndex++;
 			}
 
+			// Least frequent consonants of larger alphabets are left out
+			if (listIndex == LevelGenerator.NUM_CONSONANT_TIERS) {
+				break;
+			}
+
 		}
 
 		// Initiating array of Levels
@@ -507,12 +592,10 @@ public class LevelGenerator {
 						"The frequency mapping file cannot contain duplicate entries for alphabets");
 			}
 
-			// Oops .. file cant contain non-english characters
-			if (!alphabet.equals(LevelGenerator.PLURAL_CHAR)
-					&& !vowelsList.contains(alphabet)
-					&& !consonantsStr.contains(alphabet)) {
+			// Oops .. file cant contain letters of other languages
+			if (!this.alphabet.contains(alphabet)) {
 				throw new InvalidFreqFileException(
-						"The frequency mapping file cannot contain non-english characters");
+						"The frequency mapping file cannot contain letters outside the alphabet");
 			}
 			try {
 				// Looks like the second fields isnt a valid double value
@@ -0,0 +1,142 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Playable words of a level, as found by LevelAnalyzer.
+ * 
+ * A word is playable if it can be formed from the letters of the level, using
+ * each letter atmost once, and is longer than WordZapConstants.MIN_WORD_SIZE
+ * and atmost WordZapConstants.MAX_WORD_SIZE letters long.
+ * 
+ */
+public class LevelReport {
+
+	private final char[] letters;
+
+	// Playable words, by length and alphabetically within a length
+	private final List<String> playableWords;
+
+	// Number of playable words of each length
+	private final int[] wordCounts;
+
+	// Time taken to find the playable words
+	private final long analysisNanos;
+
+	/*
+	 * Use LevelAnalyzer to create reports
+	 * 
+	 * Parameter 1 : Letters of the level
+	 * 
+	 * Parameter 2 : Playable words, by length
+	 * 
+	 * Parameter 3 : Time taken to find the playable words, in nanoseconds
+	 */
+	LevelReport(final char[] letters, final List<String> playableWords,
+			long analysisNanos) {
+		this.letters = letters.clone();
+		this.playableWords = Collections.unmodifiableList(playableWords);
+		this.wordCounts = new int[WordZapConstants.MAX_WORD_SIZE + 1];
+		for (String word : playableWords) {
+			this.wordCounts[word.length()]++;
+		}
+		this.analysisNanos = analysisNanos;
+	}
+
+	// Returns letters of the level
+	public char[] getLetters() {
+		return this.letters.clone();
+	}
+
+	// Returns read only list of playable words, by length
+	public List<String> getPlayableWords() {
+		return this.playableWords;
+	}
+
+	// Returns number of playable words
+	public int getWordCount() {
+		return this.playableWords.size();
+	}
+
+	// Returns number of playable words of a length
+	public int getWordCount(int length) {
+		if (length < 0 || length >= this.wordCounts.length) {
+			return 0;
+		}
+		return this.wordCounts[length];
+	}
+
+	// Returns length of the longest playable word, or 0 if there is none
+	public int getLongestWordLength() {
+		for (int length = this.wordCounts.length - 1; length > 0; length--) {
+			if (this.wordCounts[length] != 0) {
+				return length;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * Returns true if there are enough distinct playable words to fill every
+	 * row of a letter grid
+	 */
+	public boolean hasEnoughWords() {
+		return this.getWordCount() >= WordZapConstants.GRID_NUMROWS;
+	}
+
+	// Returns time taken to find the playable words, in nanoseconds
+	public long getAnalysisNanos() {
+		return this.analysisNanos;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder();
+		report.append(new String(this.letters)).append(" : ").append(
+				this.getWordCount()).append(" words (");
+		for (int length = WordZapConstants.MIN_WORD_SIZE + 1; length < this.wordCounts.length; length++) {
+			if (length > WordZapConstants.MIN_WORD_SIZE + 1) {
+				report.append(", ");
+			}
+			report.append(this.wordCounts[length]).append(" of ").append(
+					length);
+		}
+		report.append(")");
+		if (!this.hasEnoughWords()) {
+			report.append(", not enough to fill the grid");
+		}
+		return report.toString();
+	}
+}
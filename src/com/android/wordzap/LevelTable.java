@@ -0,0 +1,347 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.android.wordzap.exceptions.InvalidLevelTableException;
+
+/*
+ * Letter sets of every level, vetted and compiled offline by
+ * LevelTableCompiler, along with the indices of the words that can be formed
+ * from each of them.
+ * 
+ * LevelGenerator picks the letters of a level from the table instead of
+ * generating them, and MasterDictionary builds the word cache of a level from
+ * its word indices instead of looking the words up in its anagram index.
+ * BalancedLevelGenerator generates levels within the bands of the table.
+ * 
+ * Layout of a level table, in big endian order :
+ * 
+ * (1) Header : magic number, format version, CRC32 checksum of the word list
+ * the word indices refer to, number of words in that word list, number of
+ * levels
+ * 
+ * (2) Level by level : number of entries, then fewest and most playable
+ * words of the band of the level
+ * 
+ * (3) Entries, level by level : number of letters and the letters (one byte
+ * each), then number of words and the word indices in increasing order. Each
+ * index is written as the gap from the index before it, less one, in 7 bit
+ * groups with the high bit set on all groups but the last.
+ */
+public class LevelTable {
+
+	// "WZLT"
+	public static final int MAGIC = 0x575A4C54;
+
+	// Format version, changed whenever the layout changes
+	public static final int VERSION = 2;
+
+	// Size of the header, without the levels
+	public static final int HEADER_SIZE = 24;
+
+	// Size of the entry count and band of a level
+	private static final int LEVEL_SIZE = 12;
+
+	private final byte[] table;
+
+	// Checksum and size of the word list the word indices refer to
+	private final long dictionaryChecksum;
+	private final int dictionaryWordCount;
+
+	// Bands of playable words of each level
+	private final LevelBands bands;
+
+	// Offset of each entry in table, by level
+	private final int[][] entryOffsets;
+
+	// Entry of each set of letters, keyed by the sorted letters
+	private final Map<String, Integer> entriesByLetters;
+
+	// Offset of every entry, in table order
+	private final int[] allEntryOffsets;
+
+	/*
+	 * Reads a level table from a stream
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the stream
+	 * 
+	 * Throws InvalidLevelTableException : If the stream doesn't hold a level
+	 * table written by this version of LevelTableCompiler
+	 */
+	public LevelTable(final InputStream tableHandle) throws IOException,
+			InvalidLevelTableException {
+		this(BinaryDictionary.readFully(tableHandle));
+	}
+
+	/*
+	 * Reads a level table. Every entry is checked once, so that entries can be
+	 * read later without bounds checks.
+	 * 
+	 * Throws InvalidLevelTableException : If the bytes don't hold a level
+	 * table written by this version of LevelTableCompiler
+	 */
+	public LevelTable(final byte[] table) throws InvalidLevelTableException {
+		this.table = table;
+		if (table.length < HEADER_SIZE || this.readInt(0) != MAGIC) {
+			throw new InvalidLevelTableException(
+					"The bytes don't hold a level table");
+		}
+		if (this.readInt(4) != VERSION) {
+			throw new InvalidLevelTableException(
+					"The level table was written with layout version "
+							+ this.readInt(4) + ", expected " + VERSION);
+		}
+		this.dictionaryChecksum = ((long) this.readInt(8) << 32)
+				| (this.readInt(12) & 0xFFFFFFFFL);
+		this.dictionaryWordCount = this.readInt(16);
+		int numLevels = this.readInt(20);
+		if (numLevels < 0
+				|| numLevels > (table.length - HEADER_SIZE) / LEVEL_SIZE) {
+			throw new InvalidLevelTableException("The level table is truncated");
+		}
+
+		this.entryOffsets = new int[numLevels][];
+		int[] minWordsInLevels = new int[numLevels];
+		int[] maxWordsInLevels = new int[numLevels];
+		int numEntries = 0;
+		for (int level = 0; level < numLevels; level++) {
+			int levelOffset = HEADER_SIZE + LEVEL_SIZE * level;
+			int levelEntries = this.readInt(levelOffset);
+			minWordsInLevels[level] = this.readInt(levelOffset + 4);
+			maxWordsInLevels[level] = this.readInt(levelOffset + 8);
+			if (levelEntries < 0 || levelEntries > table.length
+					|| minWordsInLevels[level] < 0
+					|| minWordsInLevels[level] > maxWordsInLevels[level]) {
+				throw new InvalidLevelTableException(
+						"The level table header is corrupt");
+			}
+			this.entryOffsets[level] = new int[levelEntries];
+			numEntries += levelEntries;
+		}
+		this.bands = new LevelBands(minWordsInLevels, maxWordsInLevels);
+
+		this.entriesByLetters = new HashMap<String, Integer>();
+		this.allEntryOffsets = new int[numEntries];
+		int offset = HEADER_SIZE + LEVEL_SIZE * numLevels;
+		int entry = 0;
+		for (int[] levelOffsets : this.entryOffsets) {
+			for (int levelEntry = 0; levelEntry < levelOffsets.length; levelEntry++) {
+				int nextOffset = this.checkEntry(offset);
+				levelOffsets[levelEntry] = offset;
+				this.allEntryOffsets[entry] = offset;
+				this.entriesByLetters.put(LevelTable.keyOf(this
+						.readLetters(offset)), entry);
+				offset = nextOffset;
+				entry++;
+			}
+		}
+		if (offset != table.length) {
+			throw new InvalidLevelTableException(
+					"The level table has trailing bytes");
+		}
+	}
+
+	// Reads a big endian int at offset
+	private int readInt(int offset) {
+		return ((this.table[offset] & 0xFF) << 24)
+				| ((this.table[offset + 1] & 0xFF) << 16)
+				| ((this.table[offset + 2] & 0xFF) << 8)
+				| (this.table[offset + 3] & 0xFF);
+	}
+
+	/*
+	 * Checks that the entry at offset lies within the table and only refers
+	 * to words of the dictionary.
+	 * 
+	 * Returns offset of the next entry
+	 */
+	private int checkEntry(int offset) throws InvalidLevelTableException {
+		if (offset >= this.table.length || this.table[offset] < 0
+				|| offset + 1 + this.table[offset] > this.table.length) {
+			throw new InvalidLevelTableException("The level table is truncated");
+		}
+		int[] cursor = { offset + 1 + this.table[offset] };
+		int numWords = this.checkedVarint(cursor);
+		int wordIndex = -1;
+		for (int word = 0; word < numWords; word++) {
+			wordIndex += this.checkedVarint(cursor) + 1;
+			if (wordIndex < 0 || wordIndex >= this.dictionaryWordCount) {
+				throw new InvalidLevelTableException(
+						"The level table refers to word " + wordIndex
+								+ " of " + this.dictionaryWordCount);
+			}
+		}
+		return cursor[0];
+	}
+
+	/*
+	 * Reads a varint at cursor[0] and moves the cursor past it, checking that
+	 * it lies within the table
+	 */
+	private int checkedVarint(final int[] cursor)
+			throws InvalidLevelTableException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			if (cursor[0] >= this.table.length) {
+				throw new InvalidLevelTableException(
+						"The level table is truncated");
+			}
+			int group = this.table[cursor[0]++];
+			value |= (group & 0x7F) << shift;
+			if ((group & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new InvalidLevelTableException("The level table is corrupt");
+	}
+
+	// Returns the letters of the entry at offset
+	private char[] readLetters(int offset) {
+		char[] letters = new char[this.table[offset]];
+		for (int index = 0; index < letters.length; index++) {
+			letters[index] = (char) this.table[offset + 1 + index];
+		}
+		return letters;
+	}
+
+	// Returns the word indices of the entry at offset
+	private int[] readWordIndices(int offset) {
+		int position = offset + 1 + this.table[offset];
+		int numWords = 0;
+		for (int shift = 0;; shift += 7) {
+			int group = this.table[position++];
+			numWords |= (group & 0x7F) << shift;
+			if ((group & 0x80) == 0) {
+				break;
+			}
+		}
+
+		int[] wordIndices = new int[numWords];
+		int wordIndex = -1;
+		for (int word = 0; word < numWords; word++) {
+			int gap = 0;
+			for (int shift = 0;; shift += 7) {
+				int group = this.table[position++];
+				gap |= (group & 0x7F) << shift;
+				if ((group & 0x80) == 0) {
+					break;
+				}
+			}
+			wordIndex += gap + 1;
+			wordIndices[word] = wordIndex;
+		}
+		return wordIndices;
+	}
+
+	// Returns the sorted upper case letters of a set of letters
+	static String keyOf(final char[] letters) {
+		char[] sortedLetters = new char[letters.length];
+		for (int index = 0; index < letters.length; index++) {
+			sortedLetters[index] = Character.toUpperCase(letters[index]);
+		}
+		Arrays.sort(sortedLetters);
+		return new String(sortedLetters);
+	}
+
+	// Returns number of levels in the table
+	public int getLevelCount() {
+		return this.entryOffsets.length;
+	}
+
+	// Returns number of letter sets of a level, or 0 if the table has none
+	public int getEntryCount(int level) {
+		int levelIndex = level - LevelGenerator.MIN_LEVEL;
+		if (levelIndex < 0 || levelIndex >= this.entryOffsets.length) {
+			return 0;
+		}
+		return this.entryOffsets[levelIndex].length;
+	}
+
+	/*
+	 * Returns the letters of an entry of a level
+	 * 
+	 * Parameter 1 : Level, from LevelGenerator.MIN_LEVEL
+	 * 
+	 * Parameter 2 : Entry, between 0 and getEntryCount(level) - 1
+	 */
+	public char[] getLetters(int level, int entry) {
+		return this.readLetters(this.entryOffsets[level
+				- LevelGenerator.MIN_LEVEL][entry]);
+	}
+
+	// Returns the letters of a randomly picked entry of a level
+	public char[] pickLetters(int level, final Random rand) {
+		return this.getLetters(level, rand.nextInt(this.getEntryCount(level)));
+	}
+
+	/*
+	 * Returns the indices of the words that can be formed from an entry of a
+	 * level, in increasing order
+	 */
+	public int[] getWordIndices(int level, int entry) {
+		return this.readWordIndices(this.entryOffsets[level
+				- LevelGenerator.MIN_LEVEL][entry]);
+	}
+
+	/*
+	 * Returns the indices of the words that can be formed from a set of
+	 * letters, in increasing order, or null if the set isn't in the table.
+	 * Letters may be in any order.
+	 */
+	public int[] findWordIndices(final char[] letters) {
+		Integer entry = this.entriesByLetters.get(LevelTable.keyOf(letters));
+		if (entry == null) {
+			return null;
+		}
+		return this.readWordIndices(this.allEntryOffsets[entry]);
+	}
+
+	// Returns the bands of playable words of the levels of the table
+	public LevelBands getBands() {
+		return this.bands;
+	}
+
+	/*
+	 * Returns true if the word indices of the table refer to the words of a
+	 * dictionary
+	 */
+	public boolean isCompiledFor(final BinaryDictionary dictionary) {
+		return dictionary.getSourceChecksum() == this.dictionaryChecksum
+				&& dictionary.getWordCount() == this.dictionaryWordCount;
+	}
+
+	// Returns size of the table in bytes
+	public int getByteCount() {
+		return this.table.length;
+	}
+}
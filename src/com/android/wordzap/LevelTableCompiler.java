@@ -0,0 +1,227 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.Vector;
+
+import com.android.wordzap.exceptions.InvalidCpuDescriptionException;
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+import com.android.wordzap.exceptions.InvalidFreqFileException;
+import com.android.wordzap.exceptions.InvalidLevelException;
+import com.android.wordzap.exceptions.InvalidLevelTableException;
+
+/*
+ * Precomputes the letter sets of every level, and writes them along with the
+ * indices of their words in the layout read by LevelTable.
+ * 
+ * The bands of the levels are sampled first (see LevelBands) and written
+ * along with the letter sets. Letter sets are drawn by a
+ * BalancedLevelGenerator within those bands, so every set has a number of
+ * playable words within the band of its level. A set is kept only once per
+ * level.
+ * 
+ * Run it offline whenever the word list or LevelGenerator's tables change :
+ * 
+ * java com.android.wordzap.LevelTableCompiler res/raw/word_list.txt
+ * res/raw/english_alphabets_frequencies.txt - res/raw/level_table.bin
+ */
+public class LevelTableCompiler {
+
+	// Letter sets kept for each level, unless given on the command line
+	public static final int DEFAULT_ENTRIES_PER_LEVEL = 16;
+
+	// Seed of the random choices, so that the table can be compiled again
+	// identically
+	public static final long DEFAULT_SEED = 0x575A4C54L;
+
+	// Letter sets drawn per kept set, before a level is given up on
+	private static final int MAX_DRAWS_PER_ENTRY = 50;
+
+	// Candidates drawn by the balanced generator for one letter set, and
+	// time it may take to draw them in milliseconds
+	private static final int MAX_CANDIDATES = 10000;
+	private static final long TIME_BUDGET = 60000;
+
+	private LevelTableCompiler() {
+	}
+
+	/*
+	 * Precomputes letter sets of every level and writes them to a stream
+	 * 
+	 * Parameter 1 : Dictionary the word indices refer to
+	 * 
+	 * Parameter 2 : Generator the letter sets are drawn from. It shouldn't
+	 * pick letters from a level table itself.
+	 * 
+	 * Parameter 3 : Letter sets to keep for each level
+	 * 
+	 * Parameter 4 : Seed of the random choices
+	 * 
+	 * Parameter 5 : Stream to which the level table is written
+	 * 
+	 * Throws IOException : If I/O errors happen when writing the level table
+	 */
+	public static void compile(final MasterDictionary dictionary,
+			final LevelGenerator levelGen, int entriesPerLevel, long seed,
+			final OutputStream tableHandle) throws IOException,
+			InvalidLevelException, InvalidCpuDescriptionException {
+		LevelAnalyzer analyzer = new LevelAnalyzer(dictionary);
+		LevelBands bands = LevelBands.sample(levelGen, analyzer);
+		BalancedLevelGenerator balancedLevelGen = new BalancedLevelGenerator(
+				levelGen, analyzer, bands, TIME_BUDGET, MAX_CANDIDATES);
+		Random rand = new Random(seed);
+		int[] wordIndices = new int[dictionary.getWordCount()];
+
+		// Entries of each level, written once all levels are drawn
+		int numLevels = LevelGenerator.MAX_LEVEL - LevelGenerator.MIN_LEVEL + 1;
+		List<List<char[]>> levelEntries = new Vector<List<char[]>>();
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			List<char[]> entries = new Vector<char[]>();
+			Set<String> keptSets = new HashSet<String>();
+			for (int draw = 0; draw < entriesPerLevel * MAX_DRAWS_PER_ENTRY
+					&& entries.size() < entriesPerLevel; draw++) {
+				char[] letters = balancedLevelGen.generateLevel(level, rand)
+						.getAlphabets();
+				int numWords = analyzer.countPlayableWords(letters);
+				if (bands.distanceFromBand(level, numWords) == 0
+						&& keptSets.add(LevelTable.keyOf(letters))) {
+					entries.add(letters);
+				}
+			}
+			levelEntries.add(entries);
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				tableHandle));
+
+		// Header
+		out.writeInt(LevelTable.MAGIC);
+		out.writeInt(LevelTable.VERSION);
+		out.writeLong(dictionary.getDictionary().getSourceChecksum());
+		out.writeInt(dictionary.getWordCount());
+		out.writeInt(numLevels);
+
+		// Levels
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			out.writeInt(levelEntries.get(level - LevelGenerator.MIN_LEVEL)
+					.size());
+			out.writeInt(bands.getMinWords(level));
+			out.writeInt(bands.getMaxWords(level));
+		}
+
+		// Entries
+		AnagramIndex anagramIndex = dictionary.getAnagramIndex();
+		for (List<char[]> entries : levelEntries) {
+			for (char[] letters : entries) {
+				out.writeByte(letters.length);
+				for (char letter : letters) {
+					out.writeByte(letter);
+				}
+				int numWords = anagramIndex.findWords(letters, wordIndices);
+				writeVarint(out, numWords);
+				int previousIndex = -1;
+				for (int word = 0; word < numWords; word++) {
+					writeVarint(out, wordIndices[word] - previousIndex - 1);
+					previousIndex = wordIndices[word];
+				}
+			}
+		}
+		out.flush();
+	}
+
+	// Writes a non negative int in 7 bit groups, lowest group first
+	private static void writeVarint(final DataOutputStream out, int value)
+			throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/*
+	 * Compiles the level table of a word list and a letter frequencies file
+	 * 
+	 * Parameter 1 : Path to file containing list of words
+	 * 
+	 * Parameter 2 : Path to file containing letter frequencies
+	 * 
+	 * Parameter 3 : Delimiter of the letter frequencies file
+	 * 
+	 * Parameter 4 : Path to the level table file to be written
+	 * 
+	 * Parameter 5 (optional) : Letter sets to keep for each level
+	 */
+	public static void main(String[] args) throws IOException,
+			InvalidDictionaryException, InvalidFreqFileException,
+			InvalidLevelException, InvalidCpuDescriptionException,
+			InvalidLevelTableException {
+		if (args.length != 4 && args.length != 5) {
+			System.err
+					.println("Usage : java com.android.wordzap.LevelTableCompiler <word list file> <frequencies file> <frequencies delimiter> <level table file> [entries per level]");
+			System.exit(1);
+		}
+		InputStream wordListHandle = new FileInputStream(args[0]);
+		MasterDictionary dictionary;
+		try {
+			dictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+		LevelGenerator levelGen = new LevelGenerator(args[1], args[2]);
+		int entriesPerLevel = args.length == 5 ? Integer.parseInt(args[4])
+				: DEFAULT_ENTRIES_PER_LEVEL;
+
+		ByteArrayOutputStream table = new ByteArrayOutputStream();
+		compile(dictionary, levelGen, entriesPerLevel, DEFAULT_SEED, table);
+		OutputStream tableHandle = new FileOutputStream(args[3]);
+		try {
+			table.writeTo(tableHandle);
+		} finally {
+			tableHandle.close();
+		}
+		LevelTable levelTable = new LevelTable(table.toByteArray());
+		int numEntries = 0;
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			numEntries += levelTable.getEntryCount(level);
+		}
+		System.out.println("Compiled " + numEntries + " letter sets into "
+				+ args[3] + " (" + levelTable.getByteCount() + " bytes)");
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Random;
+
+/*
+ * 
+ * Caches the words of one level, as a view over the MasterDictionary.
+ * 
+ * The view only holds indices of the level's words in the master dictionary,
+ * in the master dictionary's order (by length, then alphabetically).
+ * 
+ */
+public class LevelWordCache extends LengthOrderedWordCache {
+
+	// Dictionary this view is taken from
+	private final MasterDictionary master;
+
+	// Indices of the cached words in the master dictionary, in increasing
+	// order
+	private final int[] wordIndices;
+
+	/*
+	 * Position in wordIndices of the first word of each length. Words of
+	 * length L are found from firstWordOfLength[L] (inclusive) upto
+	 * firstWordOfLength[L + 1] (exclusive).
+	 */
+	private final int[] firstWordOfLength;
+
+	/*
+	 * Use MasterDictionary.createLevelCache(...) to create views
+	 * 
+	 * Parameter 1 : Dictionary this view is taken from
+	 * 
+	 * Parameter 2 : Indices of the cached words in the master dictionary, in
+	 * increasing order
+	 * 
+	 * Parameter 3 : Random number generator, reused for every pick of
+	 * getRandomWord
+	 */
+	LevelWordCache(final MasterDictionary master, final int[] wordIndices,
+			final Random rand) {
+		this.master = master;
+		this.wordIndices = wordIndices;
+
+		BinaryDictionary dictionary = master.getDictionary();
+		this.firstWordOfLength = new int[master.getMaxWordLength() + 2];
+		int position = 0;
+		for (int length = 0; length < this.firstWordOfLength.length; length++) {
+			int firstIndex = dictionary.getFirstWordOfLength(length);
+			while (position < wordIndices.length
+					&& wordIndices[position] < firstIndex) {
+				position++;
+			}
+			this.firstWordOfLength[length] = position;
+		}
+
+		this.initPositions(this.firstWordOfLength, rand);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 * 
+	 * Returns true if word is valid, false otherwise
+	 */
+	@Override
+	public boolean isWordValid(String word) {
+		return this.positionOf(word) >= 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.LengthOrderedWordCache#wordAt(int)
+	 */
+	@Override
+	protected String wordAt(int position) {
+		return this.master.getWord(this.wordIndices[position]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.LengthOrderedWordCache#signatureLowAt(int)
+	 * 
+	 * Read from the master dictionary, which keeps signatures of all words
+	 */
+	@Override
+	protected long signatureLowAt(int position) {
+		return this.master.getDictionary().getSignatureLow(
+				this.wordIndices[position]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.LengthOrderedWordCache#signatureHighAt(int)
+	 */
+	@Override
+	protected long signatureHighAt(int position) {
+		return this.master.getDictionary().getSignatureHigh(
+				this.wordIndices[position]);
+	}
+
+	/*
+	 * Returns position of a word in wordIndices, or -1 if the word is not
+	 * cached
+	 */
+	@Override
+	protected int positionOf(String word) {
+		int length = word.length();
+		if (length + 1 >= this.firstWordOfLength.length) {
+			return -1;
+		}
+
+		// Binary search among cached words of the same length
+		int low = this.firstWordOfLength[length];
+		int high = this.firstWordOfLength[length + 1] - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int diff = this.master.compareWord(this.wordIndices[mid], length,
+					word);
+			if (diff < 0) {
+				low = mid + 1;
+			} else if (diff > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	// Returns number of words in this view
+	public int size() {
+		return this.wordIndices.length;
+	}
+}
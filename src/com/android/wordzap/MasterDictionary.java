@@ -0,0 +1,216 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.Random;
+
+import com.android.wordzap.exceptions.InvalidCpuDescriptionException;
+import com.android.wordzap.exceptions.InvalidLevelException;
+
+/*
+ * Dictionary shared by every level played in this process.
+ * 
+ * The dictionary is loaded once, and each level gets a cheap LevelWordCache
+ * view over it : a single filtering pass over the dictionary's letter
+ * signatures, instead of parsing the word list again.
+ * 
+ * Words are materialized as Strings only when they are first asked for.
+ */
+public class MasterDictionary {
+
+	// Compiled words, signatures and length table
+	private final BinaryDictionary dictionary;
+
+	// Words that have already been materialized, by index
+	private final String[] words;
+
+	// Groups words by their letters. Built the first time it is needed
+	private AnagramIndex anagramIndex;
+
+	// Counts words formable from letters. Built the first time it is needed
+	private SignatureTrie signatureTrie;
+
+	// Word indices of precomputed letter sets, if compiled for this dictionary
+	private volatile LevelTable levelTable;
+
+	// Bands of levels sampled for this dictionary, if it has no level table
+	private LevelBands sampledBands;
+
+	/*
+	 * Wraps a compiled dictionary. Games share the dictionary loaded by
+	 * DictionaryPreloader, and published through DictionaryRegistry.
+	 */
+	public MasterDictionary(final BinaryDictionary dictionary) {
+		this.dictionary = dictionary;
+		this.words = new String[dictionary.getWordCount()];
+	}
+
+	// Returns the anagram index of the dictionary, building it if needed
+	public synchronized AnagramIndex getAnagramIndex() {
+		if (this.anagramIndex == null) {
+			this.anagramIndex = new AnagramIndex(this.dictionary);
+		}
+		return this.anagramIndex;
+	}
+
+	// Returns the signature trie of the dictionary, building it if needed
+	public synchronized SignatureTrie getSignatureTrie() {
+		if (this.signatureTrie == null) {
+			this.signatureTrie = new SignatureTrie(this.dictionary);
+		}
+		return this.signatureTrie;
+	}
+
+	/*
+	 * Makes createLevelCache take the words of letter sets found in a level
+	 * table from the table. The table is only used if its word indices refer
+	 * to this dictionary.
+	 * 
+	 * Returns true if the table is used, false otherwise
+	 */
+	public boolean setLevelTable(final LevelTable levelTable) {
+		if (!levelTable.isCompiledFor(this.dictionary)) {
+			return false;
+		}
+		this.levelTable = levelTable;
+		return true;
+	}
+
+	/*
+	 * Returns the bands of playable words levels of this dictionary should
+	 * fall within. Bands are read from the level table, or sampled from a
+	 * level generator the first time they are needed if there is no table.
+	 * 
+	 * Parameter : Generator of the levels of the dictionary pack
+	 */
+	public synchronized LevelBands getLevelBands(final LevelGenerator levelGen)
+			throws InvalidLevelException, InvalidCpuDescriptionException {
+		LevelTable table = this.levelTable;
+		if (table != null) {
+			return table.getBands();
+		}
+		if (this.sampledBands == null) {
+			this.sampledBands = LevelBands.sample(levelGen, new LevelAnalyzer(
+					this));
+		}
+		return this.sampledBands;
+	}
+
+	/*
+	 * Creates a word cache holding all words that can be formed from the
+	 * letters of a level, using each letter atmost once. Words are looked up
+	 * in the anagram index, unless the letters are found in the level table.
+	 * 
+	 * Parameter : Letters of the level
+	 */
+	public LevelWordCache createLevelCache(final char[] levelChars) {
+		return this.createLevelCache(levelChars, new Random());
+	}
+
+	/*
+	 * Creates a word cache for the letters of a level, as above, whose
+	 * getRandomWord draws from a given random number generator
+	 * 
+	 * Parameter 1 : Letters of the level
+	 * 
+	 * Parameter 2 : Random number generator, reused for every pick
+	 */
+	public LevelWordCache createLevelCache(final char[] levelChars,
+			final Random rand) {
+		LevelTable table = this.levelTable;
+		if (table != null) {
+			int[] tableWordIndices = table.findWordIndices(levelChars);
+			if (tableWordIndices != null) {
+				return new LevelWordCache(this, tableWordIndices, rand);
+			}
+		}
+
+		int[] wordIndices = new int[this.dictionary.getWordCount()];
+		int numWords = this.getAnagramIndex().findWords(levelChars,
+				wordIndices);
+		int[] levelWordIndices = new int[numWords];
+		System.arraycopy(wordIndices, 0, levelWordIndices, 0, numWords);
+		return new LevelWordCache(this, levelWordIndices, rand);
+	}
+
+	/*
+	 * Creates a word cache holding every word of the dictionary
+	 * 
+	 * Parameter : Random number generator, reused for every pick of
+	 * getRandomWord
+	 */
+	public LevelWordCache createFullCache(final Random rand) {
+		int[] wordIndices = new int[this.dictionary.getWordCount()];
+		for (int index = 0; index < wordIndices.length; index++) {
+			wordIndices[index] = index;
+		}
+		return new LevelWordCache(this, wordIndices, rand);
+	}
+
+	// Returns the word at index
+	public String getWord(int index) {
+		String word = this.words[index];
+		if (word == null) {
+			word = this.dictionary.getWord(index);
+			this.words[index] = word;
+		}
+		return word;
+	}
+
+	/*
+	 * Compares the word at index with another word of the same length,
+	 * ignoring case of the other word. Doesn't create any objects.
+	 * 
+	 * Returns a negative number, zero or a positive number if the word at
+	 * index comes before, is the same as or comes after the other word.
+	 */
+	int compareWord(int index, int length, final CharSequence word) {
+		for (int letterIndex = 0; letterIndex < length; letterIndex++) {
+			int diff = this.dictionary.getLetter(index, length, letterIndex)
+					- Character.toUpperCase(word.charAt(letterIndex));
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return 0;
+	}
+
+	// Returns number of words in the dictionary
+	public int getWordCount() {
+		return this.dictionary.getWordCount();
+	}
+
+	// Returns length of the longest word in the dictionary
+	public int getMaxWordLength() {
+		return this.dictionary.getMaxWordLength();
+	}
+
+	// Returns the compiled dictionary
+	public BinaryDictionary getDictionary() {
+		return this.dictionary;
+	}
+}
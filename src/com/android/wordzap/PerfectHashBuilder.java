@@ -0,0 +1,278 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * Builds a PerfectHashWordCache from a set of words.
+ * 
+ * Run it offline, when compiling the dictionary, as :
+ * 
+ * java com.android.wordzap.PerfectHashBuilder res/raw/word_list.txt word_list.mph
+ */
+public class PerfectHashBuilder {
+
+	// Average number of words in a bucket
+	private static final int WORDS_PER_BUCKET = 4;
+
+	// Displacements tried for a bucket before trying another seed
+	private static final int MAX_DISPLACEMENT = 1 << 20;
+
+	// Distinct upper case words added so far
+	private final Set<String> words = new LinkedHashSet<String>();
+
+	/*
+	 * Adds a word to the cache being built. Empty words are ignored.
+	 * 
+	 * Throws InvalidDictionaryException : If the word contains non ASCII
+	 * characters
+	 */
+	public PerfectHashBuilder add(String word)
+			throws InvalidDictionaryException {
+		word = word.toUpperCase();
+		for (int index = 0; index < word.length(); index++) {
+			if (word.charAt(index) > 0x7F) {
+				throw new InvalidDictionaryException("'" + word
+						+ "' contains non ASCII characters");
+			}
+		}
+		if (word.length() != 0) {
+			this.words.add(word);
+		}
+		return this;
+	}
+
+	/*
+	 * Adds words to the cache being built
+	 * 
+	 * Throws InvalidDictionaryException : If a word contains non ASCII
+	 * characters
+	 */
+	public PerfectHashBuilder addAll(final Collection<String> words)
+			throws InvalidDictionaryException {
+		for (String word : words) {
+			this.add(word);
+		}
+		return this;
+	}
+
+	// Adds every word of a compiled dictionary to the cache being built
+	public PerfectHashBuilder addAll(final BinaryDictionary dictionary) {
+		for (int index = 0; index < dictionary.getWordCount(); index++) {
+			this.words.add(dictionary.getWord(index));
+		}
+		return this;
+	}
+
+	/*
+	 * Builds a cache holding the words added so far
+	 */
+	public PerfectHashWordCache build() {
+		return this.build(new Random());
+	}
+
+	/*
+	 * Builds a cache holding the words added so far, whose getRandomWord
+	 * draws from a given random number generator
+	 * 
+	 * Parameter : Random number generator, reused for every pick
+	 */
+	public PerfectHashWordCache build(final Random rand) {
+		String[] keys = this.words.toArray(new String[this.words.size()]);
+		int numBuckets = Math.max(1, (keys.length + WORDS_PER_BUCKET - 1)
+				/ WORDS_PER_BUCKET);
+		int[] displacements = new int[numBuckets];
+		int[] wordOfSlot = new int[keys.length];
+
+		for (long seed = 0;; seed++) {
+			if (this.findDisplacements(keys, seed, displacements, wordOfSlot)) {
+				int[] offsets = new int[keys.length + 1];
+				for (int slot = 0; slot < keys.length; slot++) {
+					offsets[slot + 1] = offsets[slot]
+							+ keys[wordOfSlot[slot]].length();
+				}
+				byte[] packedWords = new byte[offsets[keys.length]];
+				for (int slot = 0; slot < keys.length; slot++) {
+					String word = keys[wordOfSlot[slot]];
+					for (int index = 0; index < word.length(); index++) {
+						packedWords[offsets[slot] + index] = (byte) word
+								.charAt(index);
+					}
+				}
+				return new PerfectHashWordCache(seed, displacements, offsets,
+						packedWords, rand);
+			}
+		}
+	}
+
+	/*
+	 * Tries to find a displacement for each bucket, so that every word lands
+	 * in its own slot. Buckets are placed largest first, while there are many
+	 * free slots.
+	 * 
+	 * Parameter 1 : Words to be placed
+	 * 
+	 * Parameter 2 : Seed of the hash function
+	 * 
+	 * Parameter 3 : Receives the displacement of each bucket
+	 * 
+	 * Parameter 4 : Receives the index in keys of the word in each slot
+	 * 
+	 * Returns false if some bucket can't be placed with this seed
+	 */
+	private boolean findDisplacements(final String[] keys, long seed,
+			final int[] displacements, final int[] wordOfSlot) {
+		int numWords = keys.length;
+		int numBuckets = displacements.length;
+
+		// Grouping words by bucket
+		long[] hashes = new long[numWords];
+		int[] bucketStart = new int[numBuckets + 1];
+		for (int index = 0; index < numWords; index++) {
+			hashes[index] = PerfectHashWordCache.hash(keys[index], seed);
+			bucketStart[PerfectHashWordCache.bucketOf(hashes[index],
+					numBuckets) + 1]++;
+		}
+		int maxBucketSize = 0;
+		for (int bucket = 0; bucket < numBuckets; bucket++) {
+			maxBucketSize = Math.max(maxBucketSize, bucketStart[bucket + 1]);
+			bucketStart[bucket + 1] += bucketStart[bucket];
+		}
+		int[] bucketWords = new int[numWords];
+		int[] bucketFill = new int[numBuckets];
+		for (int index = 0; index < numWords; index++) {
+			int bucket = PerfectHashWordCache.bucketOf(hashes[index],
+					numBuckets);
+			bucketWords[bucketStart[bucket] + bucketFill[bucket]++] = index;
+		}
+
+		// Ordering buckets by size, largest first
+		int[] numBucketsOfSize = new int[maxBucketSize + 2];
+		for (int bucket = 0; bucket < numBuckets; bucket++) {
+			numBucketsOfSize[maxBucketSize
+					- (bucketStart[bucket + 1] - bucketStart[bucket]) + 1]++;
+		}
+		for (int size = 1; size < numBucketsOfSize.length; size++) {
+			numBucketsOfSize[size] += numBucketsOfSize[size - 1];
+		}
+		int[] bucketOrder = new int[numBuckets];
+		for (int bucket = 0; bucket < numBuckets; bucket++) {
+			bucketOrder[numBucketsOfSize[maxBucketSize
+					- (bucketStart[bucket + 1] - bucketStart[bucket])]++] = bucket;
+		}
+
+		boolean[] isSlotTaken = new boolean[numWords];
+		int[] bucketSlots = new int[maxBucketSize];
+		for (int bucket : bucketOrder) {
+			int first = bucketStart[bucket];
+			int size = bucketStart[bucket + 1] - first;
+			displacements[bucket] = 0;
+			if (size == 0) {
+				continue;
+			}
+
+			boolean isPlaced = false;
+			for (int displacement = 0; displacement < MAX_DISPLACEMENT
+					&& !isPlaced; displacement++) {
+				int numPlaced = 0;
+				for (; numPlaced < size; numPlaced++) {
+					int slot = PerfectHashWordCache.slotOf(
+							hashes[bucketWords[first + numPlaced]],
+							displacement, numWords);
+					if (isSlotTaken[slot]) {
+						break;
+					}
+					isSlotTaken[slot] = true;
+					bucketSlots[numPlaced] = slot;
+				}
+				if (numPlaced == size) {
+					isPlaced = true;
+					displacements[bucket] = displacement;
+					for (int index = 0; index < size; index++) {
+						wordOfSlot[bucketSlots[index]] = bucketWords[first
+								+ index];
+					}
+				} else {
+					// Freeing slots taken by this attempt
+					for (int index = 0; index < numPlaced; index++) {
+						isSlotTaken[bucketSlots[index]] = false;
+					}
+				}
+			}
+			if (!isPlaced) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Builds a cache from a word list file and saves it
+	 * 
+	 * Parameter 1 : Path to file containing list of words
+	 * 
+	 * Parameter 2 : Path to the cache file to be written
+	 */
+	public static void main(String[] args) throws IOException,
+			InvalidDictionaryException {
+		if (args.length != 2) {
+			System.err
+					.println("Usage : java com.android.wordzap.PerfectHashBuilder <word list file> <cache file>");
+			System.exit(1);
+		}
+		InputStream wordListHandle = new FileInputStream(args[0]);
+		PerfectHashBuilder builder = new PerfectHashBuilder();
+		try {
+			builder.addAll(DictionaryCompiler.parseWords(BinaryDictionary
+					.readFully(wordListHandle)));
+		} finally {
+			wordListHandle.close();
+		}
+		PerfectHashWordCache cache = builder.build();
+
+		OutputStream cacheHandle = new FileOutputStream(new File(args[1]));
+		try {
+			cache.writeTo(cacheHandle);
+		} finally {
+			cacheHandle.close();
+		}
+		System.out.println("Hashed " + cache.size() + " words into "
+				+ args[1]);
+	}
+}
@@ -0,0 +1,376 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * 
+ * Caches english words in Word Zap using a minimal perfect hash function.
+ * 
+ * Every cached word hashes to its own slot, and the slots are numbered 0 to
+ * (number of words - 1). Validating a word takes one hash of the word, and
+ * one comparison with the bytes of the only word that can be in its slot.
+ * Words are kept as upper case ASCII bytes packed one after the other, in
+ * slot order.
+ * 
+ * The hash function is found by hash and displace : words are first hashed
+ * into small buckets, and each bucket gets a displacement that moves its
+ * words into free slots. Use PerfectHashBuilder to build a cache, and
+ * writeTo(...) to save one for PerfectHashWordCache(InputStream).
+ * 
+ * Serialized form (big endian) :
+ * 
+ * (1) Header : magic, layout version, seed, number of words, number of
+ * buckets, number of bytes in words
+ * 
+ * (2) Displacement of each bucket
+ * 
+ * (3) Offset of each slot's word in words, followed by the number of bytes in
+ * words
+ * 
+ * (4) Words
+ */
+public class PerfectHashWordCache extends LengthOrderedWordCache {
+
+	// Identifies a serialized cache. Reads "WZPH" in ASCII
+	public static final int MAGIC = 0x575A5048;
+
+	// Version of the serialized form. Bump this whenever it changes
+	public static final int VERSION = 1;
+
+	// Seed of the hash function
+	private final long seed;
+
+	private final int numWords;
+	private final int numBuckets;
+
+	// Displacement of each bucket
+	private final int[] displacements;
+
+	/*
+	 * Word of slot S is found in words from offsets[S] (inclusive) upto
+	 * offsets[S + 1] (exclusive)
+	 */
+	private final int[] offsets;
+	private final byte[] words;
+
+	// Slots grouped by word length and sorted alphabetically within a length,
+	// and position of the first slot of each length
+	private final int[] slotsByLength;
+	private final int[] firstWordOfLength;
+
+	/*
+	 * Use PerfectHashBuilder to create caches. getRandomWord draws from rand,
+	 * reused for every pick.
+	 */
+	PerfectHashWordCache(long seed, final int[] displacements,
+			final int[] offsets, final byte[] words, final Random rand) {
+		this.seed = seed;
+		this.numWords = offsets.length - 1;
+		this.numBuckets = displacements.length;
+		this.displacements = displacements;
+		this.offsets = offsets;
+		this.words = words;
+
+		// Grouping slots by length
+		int[] wordLengths = new int[this.numWords];
+		for (int slot = 0; slot < this.numWords; slot++) {
+			wordLengths[slot] = this.wordLength(slot);
+		}
+		this.slotsByLength = new int[this.numWords];
+		this.firstWordOfLength = groupByLength(wordLengths, this.slotsByLength);
+
+		// Words of each length are ordered alphabetically, for prefix views
+		for (int length = 0; length + 1 < this.firstWordOfLength.length; length++) {
+			this.sortSlots(this.firstWordOfLength[length],
+					this.firstWordOfLength[length + 1]);
+		}
+
+		this.initPositions(this.firstWordOfLength, rand);
+	}
+
+	/*
+	 * Reads a cache saved by writeTo(...)
+	 * 
+	 * Parameter : Handle to the serialized cache
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the cache
+	 * 
+	 * Throws InvalidDictionaryException : If the stream doesn't hold a cache
+	 * serialized by this version of PerfectHashWordCache
+	 */
+	public static PerfectHashWordCache read(final InputStream cacheHandle)
+			throws IOException, InvalidDictionaryException {
+		return read(cacheHandle, new Random());
+	}
+
+	/*
+	 * Reads a cache saved by writeTo(...), as above. getRandomWord draws from
+	 * a given random number generator.
+	 * 
+	 * Parameter 1 : Handle to the serialized cache
+	 * 
+	 * Parameter 2 : Random number generator, reused for every pick
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the cache
+	 * 
+	 * Throws InvalidDictionaryException : If the stream doesn't hold a cache
+	 * serialized by this version of PerfectHashWordCache
+	 */
+	public static PerfectHashWordCache read(final InputStream cacheHandle,
+			final Random rand) throws IOException, InvalidDictionaryException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				cacheHandle));
+		if (in.readInt() != MAGIC) {
+			throw new InvalidDictionaryException(
+					"The stream doesn't hold a perfect hash cache");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new InvalidDictionaryException(
+					"The cache was written with version " + version
+							+ ", expected " + VERSION);
+		}
+		long seed = in.readLong();
+		int numWords = in.readInt();
+		int numBuckets = in.readInt();
+		int numBytes = in.readInt();
+		if (numWords < 0 || numBuckets < 1 || numBytes < 0) {
+			throw new InvalidDictionaryException("The cache header is corrupt");
+		}
+
+		int[] displacements = new int[numBuckets];
+		for (int bucket = 0; bucket < numBuckets; bucket++) {
+			displacements[bucket] = in.readInt();
+		}
+		int[] offsets = new int[numWords + 1];
+		for (int slot = 0; slot <= numWords; slot++) {
+			offsets[slot] = in.readInt();
+			if (offsets[slot] < (slot == 0 ? 0 : offsets[slot - 1])) {
+				throw new InvalidDictionaryException(
+						"The cache offsets are corrupt");
+			}
+		}
+		if (offsets[numWords] != numBytes) {
+			throw new InvalidDictionaryException("The cache offsets are corrupt");
+		}
+		byte[] words = new byte[numBytes];
+		in.readFully(words);
+		return new PerfectHashWordCache(seed, displacements, offsets, words,
+				rand);
+	}
+
+	/*
+	 * Writes the serialized form of this cache to a stream
+	 * 
+	 * Throws IOException : If I/O errors happen when writing the cache
+	 */
+	public void writeTo(final OutputStream cacheHandle) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				cacheHandle));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(this.seed);
+		out.writeInt(this.numWords);
+		out.writeInt(this.numBuckets);
+		out.writeInt(this.words.length);
+		for (int displacement : this.displacements) {
+			out.writeInt(displacement);
+		}
+		for (int offset : this.offsets) {
+			out.writeInt(offset);
+		}
+		out.write(this.words);
+		out.flush();
+	}
+
+	// Returns a 64 bit hash of the upper case form of word
+	static long hash(final CharSequence word, long seed) {
+		long hash = seed ^ 0xcbf29ce484222325L;
+		for (int index = 0; index < word.length(); index++) {
+			hash ^= Character.toUpperCase(word.charAt(index));
+			hash *= 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	// Scrambles the bits of a hash
+	static long mix(long hash) {
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+
+	// Returns the bucket of a word's hash
+	static int bucketOf(long hash, int numBuckets) {
+		return (int) ((hash >>> 1) % numBuckets);
+	}
+
+	// Returns the slot of a word's hash, when its bucket has a displacement
+	static int slotOf(long hash, int displacement, int numWords) {
+		return (int) ((mix(hash + displacement * 0x9E3779B97F4A7C15L) >>> 1) % numWords);
+	}
+
+	// Returns number of letters in the word of a slot
+	private int wordLength(int slot) {
+		return this.offsets[slot + 1] - this.offsets[slot];
+	}
+
+	/*
+	 * Compares the words of two slots having words of the same length.
+	 * Returns a negative number, zero or a positive number if the word of
+	 * slot1 comes before, is the same as or comes after the word of slot2.
+	 */
+	private int compareSlots(int slot1, int slot2) {
+		int offset1 = this.offsets[slot1];
+		int offset2 = this.offsets[slot2];
+		for (int index = this.wordLength(slot1) - 1; index >= 0; index--, offset1++, offset2++) {
+			int difference = this.words[offset1] - this.words[offset2];
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	// Sorts slotsByLength from position from (inclusive) upto to (exclusive)
+	// alphabetically
+	private void sortSlots(int from, int to) {
+		Integer[] slots = new Integer[to - from];
+		for (int index = 0; index < slots.length; index++) {
+			slots[index] = this.slotsByLength[from + index];
+		}
+		Arrays.sort(slots, new Comparator<Integer>() {
+			public int compare(Integer slot1, Integer slot2) {
+				return compareSlots(slot1, slot2);
+			}
+		});
+		for (int index = 0; index < slots.length; index++) {
+			this.slotsByLength[from + index] = slots[index];
+		}
+	}
+
+	// Returns the word of a slot
+	private String getWord(int slot) {
+		int offset = this.offsets[slot];
+		char[] letters = new char[this.wordLength(slot)];
+		for (int index = 0; index < letters.length; index++) {
+			letters[index] = (char) this.words[offset + index];
+		}
+		return new String(letters);
+	}
+
+	/*
+	 * Returns the slot of a word, or -1 if the word is not cached
+	 */
+	private int slotOfWord(final String word) {
+		if (this.numWords == 0) {
+			return -1;
+		}
+		long hash = hash(word, this.seed);
+		int slot = slotOf(hash, this.displacements[bucketOf(hash,
+				this.numBuckets)], this.numWords);
+
+		int offset = this.offsets[slot];
+		if (this.wordLength(slot) != word.length()) {
+			return -1;
+		}
+		for (int index = 0; index < word.length(); index++) {
+			if (this.words[offset + index] != Character.toUpperCase(word
+					.charAt(index))) {
+				return -1;
+			}
+		}
+		return slot;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 * 
+	 * Returns true if word is valid, false otherwise
+	 */
+	@Override
+	public boolean isWordValid(String word) {
+		return this.slotOfWord(word) >= 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.LengthOrderedWordCache#wordAt(int)
+	 */
+	@Override
+	protected String wordAt(int position) {
+		return this.getWord(this.slotsByLength[position]);
+	}
+
+	/*
+	 * Returns position of a word in slotsByLength, or -1 if the word is not
+	 * cached
+	 */
+	@Override
+	protected int positionOf(String word) {
+		int slot = this.slotOfWord(word);
+		if (slot < 0) {
+			return -1;
+		}
+		int length = word.length();
+		int low = this.firstWordOfLength[length];
+		int high = this.firstWordOfLength[length + 1] - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = this.compareSlots(this.slotsByLength[middle], slot);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	// Returns number of cached words
+	public int size() {
+		return this.numWords;
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+/* 
+ * Follows a word as it is typed, one letter at a time, and tells whether the
+ * letters typed so far start or make a cached word. Each call costs the same
+ * however many words are cached.
+ * 
+ * Get a cursor from WordCache.newPrefixCursor(). A cursor is meant to be used
+ * by one thread.
+ * 
+ */
+
+public interface PrefixCursor {
+
+	// Appends a letter. Returns true if the letters typed so far start a cached word
+	boolean advance(char letter);
+
+	// Removes the last letter typed. Returns false if no letters were typed
+	boolean retreat();
+
+	// Removes all letters typed
+	void reset();
+
+	// Returns number of letters typed
+	int length();
+
+	// Returns true if the letters typed so far start a cached word
+	boolean isPrefix();
+
+	// Returns true if the letters typed so far make a cached word
+	boolean isWord();
+
+	// Returns number of cached words that start with the letters typed so far
+	int countCompletions();
+
+}
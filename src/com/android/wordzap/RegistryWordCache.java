@@ -0,0 +1,186 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.List;
+
+/*
+ * Word cache of a level that follows the dictionary published in a
+ * DictionaryRegistry.
+ * 
+ * Every call first compares the registry entry with the entry the current
+ * cache was built from. When a new dictionary has been published, the cache
+ * of the level is built again from it and swapped in. Lookups take no lock :
+ * if several threads notice a new dictionary together, each builds an
+ * equivalent cache and the last one built is kept.
+ * 
+ * LetterGrid objects holding this cache pick up a new dictionary on their
+ * next lockWordAtTop().
+ * 
+ */
+public class RegistryWordCache implements WordCache {
+
+	/*
+	 * A level cache and the registry entry it was built from
+	 */
+	private static final class Snapshot {
+		private final DictionaryRegistry.Entry entry;
+		private final WordCache cache;
+
+		private Snapshot(final DictionaryRegistry.Entry entry,
+				final WordCache cache) {
+			this.entry = entry;
+			this.cache = cache;
+		}
+	}
+
+	private final DictionaryRegistry registry;
+
+	// Letters of the level
+	private final char[] levelChars;
+
+	// Cache built from the last dictionary noticed
+	private volatile Snapshot snapshot;
+
+	/*
+	 * Parameter 1 : Registry of the dictionary to follow
+	 * 
+	 * Parameter 2 : Letters of the level
+	 */
+	public RegistryWordCache(final DictionaryRegistry registry,
+			final char[] levelChars) {
+		this.registry = registry;
+		this.levelChars = levelChars.clone();
+	}
+
+	/*
+	 * Builds the cache of the level from a dictionary. Creates a
+	 * LevelWordCache, override to create another cache.
+	 * 
+	 * Parameter 1 : Dictionary that was published
+	 * 
+	 * Parameter 2 : Letters of the level
+	 */
+	protected WordCache createCache(final MasterDictionary dictionary,
+			final char[] levelChars) {
+		return dictionary.createLevelCache(levelChars);
+	}
+
+	/*
+	 * Returns the cache built from the last published dictionary, building
+	 * it if needed
+	 */
+	public WordCache getCurrentCache() {
+		DictionaryRegistry.Entry entry = this.registry.getEntry();
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null || snapshot.entry != entry) {
+			snapshot = new Snapshot(entry, this.createCache(entry
+					.getDictionary(), this.levelChars));
+			this.snapshot = snapshot;
+		}
+		return snapshot.cache;
+	}
+
+	// Returns version of the dictionary the current cache was built from
+	public long getVersion() {
+		Snapshot snapshot = this.snapshot;
+		return snapshot == null ? 0 : snapshot.entry.getVersion();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#isWordValid(java.lang.String)
+	 */
+	@Override
+	public boolean isWordValid(String word) {
+		return this.getCurrentCache().isWordValid(word);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getValidWords()
+	 */
+	@Override
+	public List<String> getValidWords() {
+		return this.getCurrentCache().getValidWords();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordView()
+	 */
+	@Override
+	public WordView getWordView() {
+		return this.getCurrentCache().getWordView();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getRandomWord()
+	 */
+	@Override
+	public String getRandomWord() {
+		return this.getCurrentCache().getRandomWord();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getRandomWord(java.util.List<
+	 * java.lang.String >)
+	 */
+	@Override
+	public String getRandomWord(final List<String> wordList) {
+		return this.getCurrentCache().getRandomWord(wordList);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#getWordsFormableFrom(char[])
+	 */
+	@Override
+	public List<String> getWordsFormableFrom(final char[] letters) {
+		return this.getCurrentCache().getWordsFormableFrom(letters);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.android.wordzap.WordCache#newPrefixCursor()
+	 * 
+	 * The cursor keeps following the dictionary it was created with
+	 */
+	@Override
+	public PrefixCursor newPrefixCursor() {
+		return this.getCurrentCache().newPrefixCursor();
+	}
+}
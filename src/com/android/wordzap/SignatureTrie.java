@@ -0,0 +1,219 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.Arrays;
+
+/*
+ * Trie of the letter signatures of a compiled dictionary, used to count the
+ * words that can be formed from a set of letters without finding them.
+ * 
+ * Each word is inserted as its letters sorted by lane, so that all anagrams
+ * end at the same node, and every node counts the words ending at it. To
+ * count the words of a set of letters, the trie is walked with the sub
+ * multisets of the letters in lane order. A sub multiset that isn't the start
+ * of any signature is dropped along with every larger one, so far fewer
+ * nodes are visited than AnagramIndex does hash lookups.
+ * 
+ * Children of a node are stored next to each other in lane order, and found
+ * through a bit mask of the lanes they stand for.
+ */
+public class SignatureTrie {
+
+	// Index of the root node
+	private static final int ROOT_NODE = 0;
+
+	// Bit i is set if a node has a child for lane i
+	private final int[] childLanes;
+
+	// Index of the first child of a node
+	private final int[] firstChild;
+
+	// Number of words whose signature ends at a node
+	private final int[] wordCounts;
+
+	private final int numNodes;
+
+	/*
+	 * Builds the trie of every word of a compiled dictionary
+	 */
+	public SignatureTrie(final BinaryDictionary dictionary) {
+		int wordCount = dictionary.getWordCount();
+		String[] keys = new String[wordCount];
+		int numLetters = 0;
+		for (int index = 0; index < wordCount; index++) {
+			keys[index] = SignatureTrie.keyOf(dictionary
+					.getSignatureLow(index), dictionary.getSignatureHigh(index));
+			numLetters += keys[index].length();
+		}
+		Arrays.sort(keys);
+
+		// Every letter of every key adds atmost one node
+		int[] nodeChildLanes = new int[numLetters + 1];
+		int[] nodeFirstChild = new int[numLetters + 1];
+		int[] nodeWordCounts = new int[numLetters + 1];
+		int usedNodes = this.build(keys, 0, wordCount, 0, ROOT_NODE, 1,
+				nodeChildLanes, nodeFirstChild, nodeWordCounts);
+
+		this.numNodes = usedNodes;
+		this.childLanes = new int[usedNodes];
+		this.firstChild = new int[usedNodes];
+		this.wordCounts = new int[usedNodes];
+		System.arraycopy(nodeChildLanes, 0, this.childLanes, 0, usedNodes);
+		System.arraycopy(nodeFirstChild, 0, this.firstChild, 0, usedNodes);
+		System.arraycopy(nodeWordCounts, 0, this.wordCounts, 0, usedNodes);
+	}
+
+	/*
+	 * Returns the lanes of a signature as a String, one character per letter
+	 * in increasing lane order
+	 */
+	private static String keyOf(long low, long high) {
+		StringBuilder key = new StringBuilder();
+		for (int lane = 0; lane <= LetterSignature.OTHER_LANE; lane++) {
+			long half = lane < LetterSignature.LOW_LANES ? low : high;
+			int shift = (lane % LetterSignature.LOW_LANES)
+					* LetterSignature.LANE_BITS;
+			long count = (half >>> shift)
+					& ((1L << LetterSignature.LANE_BITS) - 1);
+			for (; count > 0; count--) {
+				key.append((char) ('A' + lane));
+			}
+		}
+		return key.toString();
+	}
+
+	/*
+	 * Fills in node from the sorted keys between from and to, which share
+	 * their first depth letters, and then fills in its children.
+	 * 
+	 * Returns number of nodes in use
+	 */
+	private int build(final String[] keys, int from, int to, int depth,
+			int node, int usedNodes, final int[] nodeChildLanes,
+			final int[] nodeFirstChild, final int[] nodeWordCounts) {
+		// Keys that end here sort before the longer ones
+		int index = from;
+		while (index < to && keys[index].length() == depth) {
+			nodeWordCounts[node]++;
+			index++;
+		}
+
+		for (int keyIndex = index; keyIndex < to; keyIndex++) {
+			nodeChildLanes[node] |= 1 << (keys[keyIndex].charAt(depth) - 'A');
+		}
+		nodeFirstChild[node] = usedNodes;
+		usedNodes += Integer.bitCount(nodeChildLanes[node]);
+
+		int child = nodeFirstChild[node];
+		while (index < to) {
+			char letter = keys[index].charAt(depth);
+			int end = index;
+			while (end < to && keys[end].charAt(depth) == letter) {
+				end++;
+			}
+			usedNodes = this.build(keys, index, end, depth + 1, child,
+					usedNodes, nodeChildLanes, nodeFirstChild, nodeWordCounts);
+			child++;
+			index = end;
+		}
+		return usedNodes;
+	}
+
+	/*
+	 * Counts the words that can be formed from a set of letters, using each
+	 * letter in the set at most once.
+	 * 
+	 * Parameter 1 : Set of letters
+	 * 
+	 * Parameter 2 : Fewest letters a counted word may have
+	 * 
+	 * Parameter 3 : Most letters a counted word may have
+	 * 
+	 * Returns number of words found
+	 */
+	public int countWords(final char[] letters, int minLength, int maxLength) {
+		int[] laneCounts = new int[LetterSignature.OTHER_LANE + 1];
+		for (char letter : letters) {
+			int lane = LetterSignature.laneOf(letter);
+			if (laneCounts[lane] < LetterSignature.MAX_LETTER_COUNT) {
+				laneCounts[lane]++;
+			}
+		}
+
+		// Only lanes that hold letters take part in the walk
+		int numLanes = 0;
+		int[] lanes = new int[laneCounts.length];
+		for (int lane = 0; lane < laneCounts.length; lane++) {
+			if (laneCounts[lane] != 0) {
+				lanes[numLanes++] = lane;
+			}
+		}
+
+		return this.countWords(ROOT_NODE, lanes, numLanes, laneCounts, 0, 0,
+				minLength, maxLength);
+	}
+
+	/*
+	 * Counts the words below node that add letters from lanes[laneIndex]
+	 * onwards to the numTaken letters already on the path to node. laneCounts
+	 * holds the letters still left in each lane.
+	 * 
+	 * Returns number of words counted
+	 */
+	private int countWords(int node, final int[] lanes, int numLanes,
+			final int[] laneCounts, int laneIndex, int numTaken,
+			int minLength, int maxLength) {
+		int numCounted = numTaken >= minLength ? this.wordCounts[node] : 0;
+		if (numTaken == maxLength) {
+			return numCounted;
+		}
+
+		int nodeLanes = this.childLanes[node];
+		for (; laneIndex < numLanes; laneIndex++) {
+			int lane = lanes[laneIndex];
+			int laneBit = 1 << lane;
+			if ((nodeLanes & laneBit) == 0) {
+				continue;
+			}
+			int child = this.firstChild[node]
+					+ Integer.bitCount(nodeLanes & (laneBit - 1));
+
+			// The same lane may be taken again while it has letters left
+			laneCounts[lane]--;
+			numCounted += this.countWords(child, lanes, numLanes, laneCounts,
+					laneCounts[lane] > 0 ? laneIndex : laneIndex + 1,
+					numTaken + 1, minLength, maxLength);
+			laneCounts[lane]++;
+		}
+		return numCounted;
+	}
+
+	// Returns number of nodes in the trie
+	public int getNodeCount() {
+		return this.numNodes;
+	}
+}
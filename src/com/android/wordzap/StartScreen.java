@@ -87,6 +87,9 @@ public class StartScreen extends Activity implements OnClickListener {
 		this.helpText = this.getResources().getString(R.string.help_text);
 		this.creditsText = this.getResources().getString(R.string.credits);
 
+		// Loading the dictionary while the user picks a level
+		DictionaryPreloader.start(this);
+
 	}
 
 	public void onClick(View v) {
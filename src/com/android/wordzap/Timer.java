@@ -26,48 +26,42 @@
 
 package com.android.wordzap;
 
-import android.content.res.Resources.Theme;
-import android.os.Bundle;
 import android.os.Handler;
-import android.os.Message;
 import android.util.Log;
 
 /*
  * This class checks if human player has made a move once in every WordZapConstants.HUMAN_SLEEP_CHECK milliseconds. 
  * If there is no response, then this thread sends a termination message to the
- * parent thread : com.android.wordzap.GameScreen, indicating that the human player has lost the game.
+ * game (e.g. com.android.wordzap.GameScreen), indicating that the human player has lost the game.
  */
 public class Timer implements Runnable {
 
-	// Handler object to communicate opponent moves to Activity GameScreen
-	// This object is created in Activity com.android.wordzap.GameScreen
-	private final Handler mainThreadHandler;
+	// Game to which the timer's messages are sent
+	private final GameHost gameHost;
 
 	// The last word formed by the human player
 	private String lastWord;
 
-	// Handle to the Activity object representing the WordZap Game Screen
-	private final GameScreen wordZapGameScreen;
-
 	public Timer(GameScreen wordZapGameScreen, Handler mainThreadHandler)
 			throws NullPointerException {
+		this(new HandlerGameHost(wordZapGameScreen, mainThreadHandler));
+	}
 
-		if (wordZapGameScreen == null) {
-			throw new IllegalArgumentException("GameScreen object is null.");
-		}
-		this.wordZapGameScreen = wordZapGameScreen;
-
-		if (mainThreadHandler == null) {
-			throw new IllegalArgumentException("Main Thread Handler is null.");
+	// Creates a timer for any game
+	public Timer(final GameHost gameHost) {
+		if (gameHost == null) {
+			throw new IllegalArgumentException("GameHost is null.");
 		}
-		this.mainThreadHandler = mainThreadHandler;
+		this.gameHost = gameHost;
 
 		this.lastWord = "";
 	}
 
 	public void run() {
 
-		while (true) {
+		// The thread is interrupted once the game is over, as well as on
+		// every new word
+		while (!this.gameHost.isGameOver()) {
 			try {
 
 				Log.i("Timer", "Gonna sleep for : "
@@ -83,12 +77,11 @@ public class Timer implements Runnable {
 				Log.i("Timer", "Woke up");
 
 				// Check again if game was already over during sleep time
-				if (this.wordZapGameScreen.isGameOver()) {
+				if (this.gameHost.isGameOver()) {
 					Log.i("Timer", "Dying");
 					return;
 				}
 
-				Bundle aBundle = new Bundle();
 				int time;
 				
 				/**
@@ -97,23 +90,12 @@ public class Timer implements Runnable {
 				 * interrupts by forming a valid word
 				 */
 				for (time = WordZapConstants.HUMAN_SLEEP_CHECK; time >= 0
-						&& this.lastWord.equals(this.wordZapGameScreen
-								.getLastWord())
-						&& !wordZapGameScreen.isGameOver(); time -= 1000) {
-
-					/*
-					 * Clear bundle and populate with timer value to be
-					 * displayed in com.android.wordzap.GameScreen UI
-					 */
-					aBundle.clear();
-					aBundle.putInt(WordZapConstants.TIMER_VALUE_KEYNAME,
-							time / 1000);
-					aBundle.putInt(WordZapConstants.GAME_STATUS, WordZapConstants.NONE);
+						&& this.lastWord.equals(this.gameHost.getLastWord())
+						&& !this.gameHost.isGameOver(); time -= 1000) {
 
-					// Obtain message to be sent
-					Message msg = mainThreadHandler.obtainMessage();
-					msg.setData(aBundle);
-					mainThreadHandler.sendMessage(msg);
+					// Timer value to be displayed in the game's UI
+					this.gameHost.showTimerStatus(WordZapConstants.NONE,
+							time / 1000);
 
 					/*****************************/
 					Thread.sleep(1000);
@@ -126,16 +108,9 @@ public class Timer implements Runnable {
 				 * with a valid word
 				 */
 				if (time < 0) {
-					if(wordZapGameScreen.getCompletedWords().size() > wordZapGameScreen.getOpponentGridSize() ){
-						aBundle.putInt(WordZapConstants.GAME_STATUS, WordZapConstants.HUMAN_WIN);
-					}else if(wordZapGameScreen.getCompletedWords().size() < wordZapGameScreen.getOpponentGridSize() ){
-						aBundle.putInt(WordZapConstants.GAME_STATUS, WordZapConstants.HUMAN_LOSS);
-					}else{
-						aBundle.putInt(WordZapConstants.GAME_STATUS, WordZapConstants.DRAW);
-					}
-					Message msg = mainThreadHandler.obtainMessage();
-					msg.setData(aBundle);
-					mainThreadHandler.sendMessage(msg);
+					this.gameHost.showTimerStatus(Timer.getGameStatus(
+							this.gameHost.getCompletedWords().size(),
+							this.gameHost.getOpponentGridSize()), 0);
 				}
 
 			} catch (InterruptedException e) {
@@ -145,9 +120,31 @@ public class Timer implements Runnable {
 
 			// Remember the last word no matter what interrupts occur
 			finally {
-				this.lastWord = this.wordZapGameScreen.getLastWord();
+				this.lastWord = this.gameHost.getLastWord();
 			}
 		}
+		Log.i("Timer", "Dying");
+
+	}
 
+	/*
+	 * Decides the end of a game in which the human player failed to respond
+	 * in time. The player with more completed words wins.
+	 * 
+	 * Parameter 1 : Number of words completed by the human player
+	 * 
+	 * Parameter 2 : Number of words completed by the computer player
+	 * 
+	 * Returns WordZapConstants.HUMAN_WIN, WordZapConstants.HUMAN_LOSS or
+	 * WordZapConstants.DRAW
+	 */
+	public static int getGameStatus(int humanWordCount, int opponentWordCount) {
+		if (humanWordCount > opponentWordCount) {
+			return WordZapConstants.HUMAN_WIN;
+		} else if (humanWordCount < opponentWordCount) {
+			return WordZapConstants.HUMAN_LOSS;
+		} else {
+			return WordZapConstants.DRAW;
+		}
 	}
 }
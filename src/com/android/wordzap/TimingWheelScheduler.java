@@ -0,0 +1,266 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap;
+
+import java.util.List;
+import java.util.Vector;
+
+import android.util.Log;
+
+/*
+ * GameScheduler built as a hashed timing wheel. Time is cut into ticks of
+ * tickMillis, and a task waits in the bucket of the tick it is due, hashed
+ * onto a wheel of wheelSize buckets. Each bucket is a doubly linked list, so
+ * scheduling and cancelling a task take constant time however many tasks
+ * wait.
+ * 
+ * A single ticker thread turns the wheel and runs every task that comes due,
+ * so tasks must not block. Tasks run upto one tick late, never early.
+ */
+public class TimingWheelScheduler implements GameScheduler {
+
+	// Task waiting in a bucket of the wheel
+	private class WheelTask implements ScheduledTask {
+		private final Runnable task;
+
+		// Tick at which the task is due
+		private final long dueTick;
+
+		// Neighbours in the bucket's list, and the bucket itself. bucket is
+		// -1 once the task has left the wheel
+		private WheelTask previous;
+		private WheelTask next;
+		private int bucket;
+
+		private WheelTask(Runnable task, long dueTick) {
+			this.task = task;
+			this.dueTick = dueTick;
+		}
+
+		@Override
+		public boolean cancel() {
+			synchronized (TimingWheelScheduler.this) {
+				if (this.bucket < 0) {
+					return false;
+				}
+				unlink(this);
+				return true;
+			}
+		}
+	}
+
+	private final long tickMillis;
+	private final int wheelMask;
+
+	// First task of each bucket
+	private final WheelTask[] buckets;
+
+	// Clock time of tick 0
+	private final long startTime;
+
+	// Last tick whose bucket was emptied of due tasks
+	private long currentTick;
+
+	// Number of tasks on the wheel
+	private int numWaiting;
+
+	private volatile boolean isShutdown;
+
+	private final Thread ticker;
+
+	/*
+	 * Creates a wheel and starts its ticker thread
+	 * 
+	 * Parameter 1 : Length of a tick in milliseconds
+	 * 
+	 * Parameter 2 : Number of buckets on the wheel. Rounded up to a power of
+	 * two. Tasks due more than one turn of the wheel away are passed over
+	 * once every turn.
+	 */
+	public TimingWheelScheduler(long tickMillis, int wheelSize) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("Tick should be positive");
+		}
+		if (wheelSize <= 0) {
+			throw new IllegalArgumentException("Wheel size should be positive");
+		}
+		int numBuckets = 1;
+		while (numBuckets < wheelSize) {
+			numBuckets *= 2;
+		}
+		this.tickMillis = tickMillis;
+		this.wheelMask = numBuckets - 1;
+		this.buckets = new WheelTask[numBuckets];
+		this.startTime = this.currentTimeMillis();
+		this.currentTick = 0;
+
+		this.ticker = new Thread(new Runnable() {
+			public void run() {
+				turnWheel();
+			}
+		}, "TimingWheel");
+		this.ticker.setDaemon(true);
+		this.ticker.start();
+	}
+
+	@Override
+	public long currentTimeMillis() {
+		return System.nanoTime() / 1000000;
+	}
+
+	@Override
+	public synchronized ScheduledTask schedule(final Runnable task,
+			long delayMillis) {
+		if (task == null) {
+			throw new IllegalArgumentException("Task is null.");
+		}
+
+		// Ticks that ended while the wheel was idle had nothing to run
+		if (this.numWaiting == 0) {
+			this.currentTick = Math.max(this.currentTick, this
+					.getElapsedTicks());
+		}
+
+		// Due at the first tick ending after the delay
+		long dueTime = this.currentTimeMillis() + Math.max(0, delayMillis);
+		long dueTick = Math.max(this.currentTick + 1, (dueTime
+				- this.startTime + this.tickMillis - 1)
+				/ this.tickMillis);
+		WheelTask wheelTask = new WheelTask(task, dueTick);
+
+		int bucket = (int) (dueTick & this.wheelMask);
+		wheelTask.bucket = bucket;
+		wheelTask.next = this.buckets[bucket];
+		if (wheelTask.next != null) {
+			wheelTask.next.previous = wheelTask;
+		}
+		this.buckets[bucket] = wheelTask;
+
+		// Wakes the ticker up if the wheel was idle
+		if (this.numWaiting++ == 0) {
+			this.notifyAll();
+		}
+		return wheelTask;
+	}
+
+	// Removes a task from its bucket
+	private void unlink(final WheelTask wheelTask) {
+		if (wheelTask.previous != null) {
+			wheelTask.previous.next = wheelTask.next;
+		} else {
+			this.buckets[wheelTask.bucket] = wheelTask.next;
+		}
+		if (wheelTask.next != null) {
+			wheelTask.next.previous = wheelTask.previous;
+		}
+		wheelTask.previous = null;
+		wheelTask.next = null;
+		wheelTask.bucket = -1;
+		this.numWaiting--;
+	}
+
+	/*
+	 * Body of the ticker thread. Sleeps until the end of each tick, and runs
+	 * the tasks due in it.
+	 */
+	private void turnWheel() {
+		List<WheelTask> dueTasks = new Vector<WheelTask>();
+		while (!this.isShutdown) {
+			try {
+				synchronized (this) {
+
+					// Nothing to run until a task is scheduled
+					while (this.numWaiting == 0 && !this.isShutdown) {
+						this.wait();
+					}
+
+					long sleepMillis = this.startTime + (this.currentTick + 1)
+							* this.tickMillis - this.currentTimeMillis();
+					if (sleepMillis > 0) {
+						this.wait(sleepMillis);
+						continue;
+					}
+
+					// Catches up with every tick that has ended
+					long elapsedTicks = this.getElapsedTicks();
+					while (this.currentTick < elapsedTicks) {
+						this.currentTick++;
+						this.collectDueTasks(dueTasks);
+					}
+				}
+
+				// Tasks run outside the lock, so that they may schedule or
+				// cancel other tasks
+				for (WheelTask dueTask : dueTasks) {
+					try {
+						dueTask.task.run();
+					} catch (RuntimeException e) {
+						Log.e("TimingWheel", "Task failed", e);
+					}
+				}
+				dueTasks.clear();
+			} catch (InterruptedException e) {
+				Log.i("TimingWheel", "Interrupted");
+			}
+		}
+	}
+
+	// Returns number of ticks that have ended since the wheel was created
+	private long getElapsedTicks() {
+		return (this.currentTimeMillis() - this.startTime) / this.tickMillis;
+	}
+
+	// Moves tasks due at the current tick out of its bucket
+	private void collectDueTasks(final List<WheelTask> dueTasks) {
+		WheelTask wheelTask = this.buckets[(int) (this.currentTick & this.wheelMask)];
+		while (wheelTask != null) {
+			WheelTask nextTask = wheelTask.next;
+			if (wheelTask.dueTick <= this.currentTick) {
+				this.unlink(wheelTask);
+				dueTasks.add(wheelTask);
+			}
+			wheelTask = nextTask;
+		}
+	}
+
+	// Returns number of tasks waiting on the wheel
+	public synchronized int getWaitingCount() {
+		return this.numWaiting;
+	}
+
+	// Returns the ticker thread, which runs every task of the wheel
+	public Thread getTickerThread() {
+		return this.ticker;
+	}
+
+	// Stops the ticker thread. Waiting tasks never run.
+	public void shutdown() {
+		synchronized (this) {
+			this.isShutdown = true;
+			this.notifyAll();
+		}
+	}
+}
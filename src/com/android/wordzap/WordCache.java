@@ -39,13 +39,22 @@ public interface WordCache {
 	// Returns true if word is valid, false otherwise
 	boolean isWordValid(String word);
 	
-	//Returns list of all cached valid words
+	//Returns list of all cached valid words, by length. The list is a read only view of the cache
 	List< String > getValidWords();
 
-	//Returns a random cached word
+	//Returns a read only view of all cached valid words, by length, that can be narrowed by length or prefix without copying words
+	WordView getWordView();
+
+	//Returns a random cached word, or null if there is none
 	String getRandomWord();
 	
-	//Returns a random cached word not in the list : wordList
+	//Returns a random cached word not in the list : wordList, or null if every cached word is in the list
 	String getRandomWord(final List<String> wordList);
+
+	//Returns list of cached words that can be formed from letters, using each letter atmost once
+	List<String> getWordsFormableFrom(final char[] letters);
+
+	//Returns a cursor that follows a word as it is typed, letter by letter, against the cached words
+	PrefixCursor newPrefixCursor();
 	
 }
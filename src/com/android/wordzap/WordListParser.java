@@ -0,0 +1,166 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/*
+ * Reads a list of words, one word per line, and returns only the words that
+ * can be formed from a set of characters.
+ * 
+ * The list is read in large chunks. Each word is uppercased and its
+ * LetterSignature computed in place, while it is being read, and a String is
+ * created only for words that pass the filter. Most words in the list are
+ * rejected by a level's letters, so this creates far fewer objects than
+ * reading lines as Strings.
+ * 
+ * Byte streams are read as ASCII, like the word list shipped with the game.
+ */
+public class WordListParser {
+
+	// Number of bytes or chars read at a time
+	private static final int CHUNK_SIZE = 16 * 1024;
+
+	// Only one of these is set
+	private final InputStream byteSource;
+	private final Reader charSource;
+
+	// Chunk read from the source
+	private final byte[] byteChunk;
+	private final char[] charChunk;
+	private int chunkLength;
+	private int chunkPosition;
+
+	// Uppercased characters of the word being read
+	private char[] word;
+
+	// Signature of the set of characters words are formed from
+	private final long charSetLow;
+	private final long charSetHigh;
+
+	/*
+	 * Parameter 1 : Handle to file containing list of words, in ASCII
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word returned
+	 */
+	public WordListParser(final InputStream wordListHandle,
+			final char[] charSet) {
+		this.byteSource = wordListHandle;
+		this.charSource = null;
+		this.byteChunk = new byte[CHUNK_SIZE];
+		this.charChunk = null;
+		this.word = new char[WordZapConstants.MAX_WORD_SIZE * 4];
+		this.charSetLow = LetterSignature.low(charSet);
+		this.charSetHigh = LetterSignature.high(charSet);
+	}
+
+	/*
+	 * Parameter 1 : Handle to file containing list of words
+	 * 
+	 * Parameter 2 : Array of characters, which are the superset of characters
+	 * in each word returned
+	 */
+	public WordListParser(final Reader wordListHandle, final char[] charSet) {
+		this.byteSource = null;
+		this.charSource = wordListHandle;
+		this.byteChunk = null;
+		this.charChunk = new char[CHUNK_SIZE];
+		this.word = new char[WordZapConstants.MAX_WORD_SIZE * 4];
+		this.charSetLow = LetterSignature.low(charSet);
+		this.charSetHigh = LetterSignature.high(charSet);
+	}
+
+	// Reads the next chunk. Returns false at the end of the list.
+	private boolean readChunk() throws IOException {
+		this.chunkLength = this.byteSource != null ? this.byteSource
+				.read(this.byteChunk) : this.charSource.read(this.charChunk);
+		this.chunkPosition = 0;
+		return this.chunkLength >= 0;
+	}
+
+	// Returns the next character of the list, or -1 at the end of the list
+	private int nextChar() throws IOException {
+		while (this.chunkPosition >= this.chunkLength) {
+			if (!this.readChunk()) {
+				return -1;
+			}
+		}
+		if (this.byteSource != null) {
+			return this.byteChunk[this.chunkPosition++] & 0xFF;
+		}
+		return this.charChunk[this.chunkPosition++];
+	}
+
+	/*
+	 * Returns the next word in the list, in upper case, that can be formed
+	 * from the set of characters. Empty lines are skipped. Returns null at the
+	 * end of the list.
+	 * 
+	 * Throws IOException : If I/O errors happen when reading the list of words
+	 */
+	public String nextWord() throws IOException {
+		int wordLength = 0;
+		long wordLow = 0, wordHigh = 0;
+		while (true) {
+			int nextChar = this.nextChar();
+			if (nextChar < 0 || nextChar == '\n' || nextChar == '\r') {
+				if (wordLength != 0
+						&& LetterSignature.isSubset(wordLow, wordHigh,
+								this.charSetLow, this.charSetHigh)) {
+					return new String(this.word, 0, wordLength);
+				}
+				if (nextChar < 0) {
+					return null;
+				}
+				wordLength = 0;
+				wordLow = 0;
+				wordHigh = 0;
+				continue;
+			}
+
+			char letter = (char) nextChar;
+			if (letter >= 'a' && letter <= 'z') {
+				letter -= 'a' - 'A';
+			} else if (letter > 0x7F) {
+				letter = Character.toUpperCase(letter);
+			}
+			int lane = LetterSignature.laneOf(letter);
+			wordLow = LetterSignature.addToHalf(wordLow, lane, false);
+			wordHigh = LetterSignature.addToHalf(wordHigh, lane, true);
+
+			if (wordLength == this.word.length) {
+				char[] longerWord = new char[2 * wordLength];
+				System.arraycopy(this.word, 0, longerWord, 0, wordLength);
+				this.word = longerWord;
+			}
+			this.word[wordLength++] = letter;
+		}
+	}
+}
@@ -0,0 +1,349 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Picks random words for WordCache.getRandomWord() in constant time, without
+ * creating any objects.
+ * 
+ * The sampler does not hold words itself. A cache keeps its words in a flat
+ * array grouped by length, in increasing order of length, and the sampler
+ * returns positions in that array. Only words longer than
+ * WordZapConstants.MIN_WORD_SIZE and atmost WordZapConstants.MAX_WORD_SIZE
+ * long are picked.
+ * 
+ * Words can be excluded from being picked, and included again, in constant
+ * time. The sampler keeps a permutation of positions per word length, with
+ * positions that can still be picked at the front and excluded positions
+ * swapped to the back, so a pick never has to retry.
+ * 
+ * A cache that picks words not in a list, such as the words on a letter
+ * grid, keeps the words of the list excluded between picks. On each pick only
+ * the part of the list that changed since the previous pick is excluded or
+ * included again, so words that stay on the grid are never looked up twice.
+ */
+public class WordSampler {
+
+	// Returned by nextPosition() when there are no words left to pick
+	public static final int EXHAUSTED = -1;
+
+	// Word lengths picked from
+	private static final int MIN_SAMPLED_LENGTH = WordZapConstants.MIN_WORD_SIZE + 1;
+	private static final int MAX_SAMPLED_LENGTH = WordZapConstants.MAX_WORD_SIZE;
+
+	/*
+	 * For each picked length that has atleast one word : where its words start
+	 * in slots, how many words it has, and how many of them are not excluded
+	 */
+	private final int[] lengthStarts;
+	private final int[] lengthSizes;
+	private final int[] liveSizes;
+	private final int numLengths;
+
+	// Positions of all words that can be picked are contiguous
+	private final int firstPosition;
+	private final int numPositions;
+
+	// Number of positions that are not excluded
+	private int numLive;
+
+	/*
+	 * Permutation of positions (less firstPosition). Within a length, positions
+	 * that are not excluded come first. slotOf is the inverse permutation.
+	 */
+	private final int[] slots;
+	private final int[] slotOf;
+
+	private final int distribution;
+
+	private final Random rand;
+
+	/*
+	 * Words of the list excluded by excludeWord(), in the order of the list,
+	 * and their positions. The position is EXHAUSTED if excluding the word
+	 * excluded no position, so that including it again does nothing.
+	 */
+	private String[] listedWords = new String[16];
+	private int[] listedPositions = new int[16];
+	private int numListed;
+
+	/*
+	 * Parameter 1 : Position of the first word of each length in the cache's
+	 * array. Words of length L are found from firstWordOfLength[L] (inclusive)
+	 * upto firstWordOfLength[L + 1] (exclusive). Lengths past the end of the
+	 * array have no words.
+	 * 
+	 * Parameter 2 : WordZapConstants.LENGTH_WEIGHTED_SAMPLING or
+	 * WordZapConstants.UNIFORM_SAMPLING
+	 * 
+	 * Parameter 3 : Random number generator, reused for every pick
+	 */
+	public WordSampler(final int[] firstWordOfLength, int distribution,
+			final Random rand) {
+		if (distribution != WordZapConstants.LENGTH_WEIGHTED_SAMPLING
+				&& distribution != WordZapConstants.UNIFORM_SAMPLING) {
+			throw new IllegalArgumentException("Unknown distribution : "
+					+ distribution);
+		}
+		this.distribution = distribution;
+		this.rand = rand;
+
+		this.lengthStarts = new int[MAX_SAMPLED_LENGTH - MIN_SAMPLED_LENGTH + 1];
+		this.lengthSizes = new int[this.lengthStarts.length];
+		this.liveSizes = new int[this.lengthStarts.length];
+		int lengths = 0;
+		int first = -1, end = 0;
+		for (int length = MIN_SAMPLED_LENGTH; length <= MAX_SAMPLED_LENGTH
+				&& length + 1 < firstWordOfLength.length; length++) {
+			int size = firstWordOfLength[length + 1]
+					- firstWordOfLength[length];
+			if (size > 0) {
+				if (first < 0) {
+					first = firstWordOfLength[length];
+				}
+				this.lengthStarts[lengths] = firstWordOfLength[length] - first;
+				this.lengthSizes[lengths] = size;
+				lengths++;
+				end = firstWordOfLength[length + 1];
+			}
+		}
+		this.numLengths = lengths;
+		this.firstPosition = first;
+		this.numPositions = first < 0 ? 0 : end - first;
+
+		this.slots = new int[this.numPositions];
+		this.slotOf = new int[this.numPositions];
+		for (int slot = 0; slot < this.numPositions; slot++) {
+			this.slots[slot] = slot;
+			this.slotOf[slot] = slot;
+		}
+		this.includeAll();
+	}
+
+	/*
+	 * Returns position of a random word in the cache's array that is not
+	 * excluded, or EXHAUSTED if there are no such words
+	 */
+	public int nextPosition() {
+		if (this.numLive == 0) {
+			return EXHAUSTED;
+		}
+
+		if (this.distribution == WordZapConstants.UNIFORM_SAMPLING) {
+			int offset = this.rand.nextInt(this.numLive);
+			for (int lengthIndex = 0; lengthIndex < this.numLengths; lengthIndex++) {
+				if (offset < this.liveSizes[lengthIndex]) {
+					return this.firstPosition
+							+ this.slots[this.lengthStarts[lengthIndex]
+									+ offset];
+				}
+				offset -= this.liveSizes[lengthIndex];
+			}
+		}
+
+		// Retrieve words for some random length that has words left
+		int numLiveLengths = 0;
+		for (int lengthIndex = 0; lengthIndex < this.numLengths; lengthIndex++) {
+			if (this.liveSizes[lengthIndex] != 0) {
+				numLiveLengths++;
+			}
+		}
+		int liveLengthIndex = this.rand.nextInt(numLiveLengths);
+		for (int lengthIndex = 0; lengthIndex < this.numLengths; lengthIndex++) {
+			int liveSize = this.liveSizes[lengthIndex];
+			if (liveSize != 0 && liveLengthIndex-- == 0) {
+				return this.firstPosition
+						+ this.slots[this.lengthStarts[lengthIndex]
+								+ this.rand.nextInt(liveSize)];
+			}
+		}
+		return EXHAUSTED;
+	}
+
+	// Returns index in lengthStarts of the length a slot belongs to
+	private int lengthIndexOf(int slot) {
+		int lengthIndex = this.numLengths - 1;
+		while (this.lengthStarts[lengthIndex] > slot) {
+			lengthIndex--;
+		}
+		return lengthIndex;
+	}
+
+	// Swaps two slots, keeping slotOf up to date
+	private void swapSlots(int slot, int otherSlot) {
+		int position = this.slots[slot];
+		int otherPosition = this.slots[otherSlot];
+		this.slots[slot] = otherPosition;
+		this.slots[otherSlot] = position;
+		this.slotOf[otherPosition] = slot;
+		this.slotOf[position] = otherSlot;
+	}
+
+	/*
+	 * Stops a word from being picked.
+	 * 
+	 * Parameter : Position of the word in the cache's array
+	 * 
+	 * Returns true if the word was excluded now, false if it was already
+	 * excluded or is never picked
+	 */
+	public boolean exclude(int position) {
+		position -= this.firstPosition;
+		if (position < 0 || position >= this.numPositions) {
+			return false;
+		}
+		int slot = this.slotOf[position];
+		int lengthIndex = this.lengthIndexOf(slot);
+		int lastLiveSlot = this.lengthStarts[lengthIndex]
+				+ this.liveSizes[lengthIndex] - 1;
+		if (slot > lastLiveSlot) {
+			return false;
+		}
+		this.swapSlots(slot, lastLiveSlot);
+		this.liveSizes[lengthIndex]--;
+		this.numLive--;
+		return true;
+	}
+
+	/*
+	 * Lets an excluded word be picked again.
+	 * 
+	 * Parameter : Position of the word in the cache's array
+	 * 
+	 * Returns true if the word was included now, false if it was not excluded
+	 * or is never picked
+	 */
+	public boolean include(int position) {
+		position -= this.firstPosition;
+		if (position < 0 || position >= this.numPositions) {
+			return false;
+		}
+		int slot = this.slotOf[position];
+		int lengthIndex = this.lengthIndexOf(slot);
+		int firstExcludedSlot = this.lengthStarts[lengthIndex]
+				+ this.liveSizes[lengthIndex];
+		if (slot < firstExcludedSlot) {
+			return false;
+		}
+		this.swapSlots(slot, firstExcludedSlot);
+		this.liveSizes[lengthIndex]++;
+		this.numLive++;
+		return true;
+	}
+
+	// Lets every excluded word be picked again
+	public void includeAll() {
+		for (int lengthIndex = 0; lengthIndex < this.numLengths; lengthIndex++) {
+			this.liveSizes[lengthIndex] = this.lengthSizes[lengthIndex];
+		}
+		this.numLive = this.numPositions;
+		for (int index = 0; index < this.numListed; index++) {
+			this.listedWords[index] = null;
+		}
+		this.numListed = 0;
+	}
+
+	/*
+	 * Returns number of words at the start of a list that are excluded by
+	 * excludeWord() already, in the same order
+	 */
+	private int countRetained(final List<String> wordList) {
+		int numWords = wordList.size();
+		int numRetained = 0;
+		while (numRetained < numWords && numRetained < this.numListed
+				&& this.listedWords[numRetained].equals(wordList
+						.get(numRetained))) {
+			numRetained++;
+		}
+		return numRetained;
+	}
+
+	/*
+	 * Returns number of words excluded or included again by retainExcluded()
+	 * and excludeWord() to exclude a list of words instead of the words
+	 * excluded so far
+	 */
+	public int countChanges(final List<String> wordList) {
+		int numRetained = this.countRetained(wordList);
+		return (this.numListed - numRetained)
+				+ (wordList.size() - numRetained);
+	}
+
+	/*
+	 * Compares a list of words with the words excluded by excludeWord() so
+	 * far. Words excluded after the first difference are included again, and
+	 * the caller has to exclude the rest of the list with excludeWord().
+	 * 
+	 * Parameter : List of words not to be picked
+	 * 
+	 * Returns index in the list of the first word that is not excluded yet
+	 */
+	public int retainExcluded(final List<String> wordList) {
+		int numRetained = this.countRetained(wordList);
+
+		// Include words in the reverse order they were excluded in, so that
+		// a word listed twice stays excluded as long as it is listed
+		while (this.numListed > numRetained) {
+			this.numListed--;
+			this.include(this.listedPositions[this.numListed]);
+			this.listedWords[this.numListed] = null;
+		}
+		return numRetained;
+	}
+
+	/*
+	 * Excludes the next word of the list passed to retainExcluded().
+	 * 
+	 * Parameter 1 : Word of the list
+	 * 
+	 * Parameter 2 : Position of the word in the cache's array, or a negative
+	 * number if the word is not cached
+	 */
+	public void excludeWord(final String word, int position) {
+		if (this.numListed == this.listedWords.length) {
+			String[] newWords = new String[2 * this.numListed];
+			System.arraycopy(this.listedWords, 0, newWords, 0, this.numListed);
+			this.listedWords = newWords;
+			int[] newPositions = new int[2 * this.numListed];
+			System.arraycopy(this.listedPositions, 0, newPositions, 0,
+					this.numListed);
+			this.listedPositions = newPositions;
+		}
+		this.listedWords[this.numListed] = word;
+		this.listedPositions[this.numListed] = this.exclude(position) ? position
+				: EXHAUSTED;
+		this.numListed++;
+	}
+
+	// Returns number of words that can be picked
+	public int size() {
+		return this.numLive;
+	}
+}
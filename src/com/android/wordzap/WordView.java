@@ -0,0 +1,257 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/*
+ * Read only view of the words held by a WordCache. Nothing is copied : the
+ * view reads words straight out of the cache as it is iterated, and size() is
+ * known without scanning.
+ * 
+ * A cache lays out its words by length and alphabetically within a length, so
+ * that words of length L are found at positions firstWordOfLength[L]
+ * (inclusive) upto firstWordOfLength[L + 1] (exclusive). Views narrowed by
+ * length or prefix cover one range of positions per length.
+ * 
+ */
+public abstract class WordView extends AbstractList<String> implements
+		RandomAccess {
+
+	/*
+	 * Positions of the viewed words of length L are rangeStarts[L] (inclusive)
+	 * upto rangeEnds[L] (exclusive)
+	 */
+	private final int[] rangeStarts;
+	private final int[] rangeEnds;
+
+	// Number of viewed words
+	private final int numWords;
+
+	/*
+	 * Constructs a view of every word of a cache
+	 * 
+	 * Parameter : Position of the first word of each length, and number of
+	 * words as the last element
+	 */
+	protected WordView(final int[] firstWordOfLength) {
+		this.rangeStarts = new int[firstWordOfLength.length - 1];
+		this.rangeEnds = new int[this.rangeStarts.length];
+		for (int length = 0; length < this.rangeStarts.length; length++) {
+			this.rangeStarts[length] = firstWordOfLength[length];
+			this.rangeEnds[length] = firstWordOfLength[length + 1];
+		}
+		this.numWords = firstWordOfLength[firstWordOfLength.length - 1];
+	}
+
+	// Constructs a view of the given ranges
+	private WordView(final int[] rangeStarts, final int[] rangeEnds) {
+		this.rangeStarts = rangeStarts;
+		this.rangeEnds = rangeEnds;
+		int numWords = 0;
+		for (int length = 0; length < rangeStarts.length; length++) {
+			numWords += rangeEnds[length] - rangeStarts[length];
+		}
+		this.numWords = numWords;
+	}
+
+	// Returns the word at a position of the cache
+	protected abstract String wordAt(int position);
+
+	/*
+	 * Compares the first prefix.length() letters of the word at a position of
+	 * the cache with prefix. Returns a negative number, zero or a positive
+	 * number if the letters come before, are equal to or come after prefix.
+	 * 
+	 * Caches that don't hold their words as Strings can override this to avoid
+	 * creating one.
+	 */
+	protected int comparePrefix(int position, final String prefix) {
+		String word = this.wordAt(position);
+		for (int index = 0; index < prefix.length(); index++) {
+			int difference = word.charAt(index) - prefix.charAt(index);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		return this.numWords;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractList#get(int)
+	 */
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= this.numWords) {
+			throw new IndexOutOfBoundsException("Index : " + index
+					+ ", Size : " + this.numWords);
+		}
+		for (int length = 0;; length++) {
+			int rangeSize = this.rangeEnds[length] - this.rangeStarts[length];
+			if (index < rangeSize) {
+				return this.wordAt(this.rangeStarts[length] + index);
+			}
+			index -= rangeSize;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractList#iterator()
+	 * 
+	 * Walks the ranges of the view in order
+	 */
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+			private int length = 0;
+			private int position = rangeStarts.length == 0 ? 0
+					: rangeStarts[0];
+
+			public boolean hasNext() {
+				while (this.length < rangeStarts.length
+						&& this.position >= rangeEnds[this.length]) {
+					if (++this.length < rangeStarts.length) {
+						this.position = rangeStarts[this.length];
+					}
+				}
+				return this.length < rangeStarts.length;
+			}
+
+			public String next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return wordAt(this.position++);
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	// Returns number of viewed words of a length
+	public int size(int length) {
+		if (length < 0 || length >= this.rangeStarts.length) {
+			return 0;
+		}
+		return this.rangeEnds[length] - this.rangeStarts[length];
+	}
+
+	// Returns a view of the viewed words of a length
+	public WordView ofLength(int length) {
+		int[] rangeStarts = new int[this.rangeStarts.length];
+		int[] rangeEnds = new int[this.rangeEnds.length];
+		if (length >= 0 && length < rangeStarts.length) {
+			rangeStarts[length] = this.rangeStarts[length];
+			rangeEnds[length] = this.rangeEnds[length];
+		}
+		return new NarrowedView(this, rangeStarts, rangeEnds);
+	}
+
+	/*
+	 * Returns a view of the viewed words that start with prefix. Each range is
+	 * narrowed by binary search.
+	 * 
+	 * Parameter : Letters every viewed word should start with, in any case
+	 */
+	public WordView withPrefix(final String prefix) {
+		String upperCasePrefix = prefix.toUpperCase();
+		int[] rangeStarts = new int[this.rangeStarts.length];
+		int[] rangeEnds = new int[this.rangeEnds.length];
+		for (int length = upperCasePrefix.length(); length < rangeStarts.length; length++) {
+			int start = this.firstNotBefore(this.rangeStarts[length],
+					this.rangeEnds[length], upperCasePrefix, false);
+			int end = this.firstNotBefore(start, this.rangeEnds[length],
+					upperCasePrefix, true);
+			rangeStarts[length] = start;
+			rangeEnds[length] = end;
+		}
+		return new NarrowedView(this, rangeStarts, rangeEnds);
+	}
+
+	/*
+	 * Returns the first position from low upto high whose word doesn't come
+	 * before prefix. If pastPrefix is set, words starting with prefix are
+	 * treated as coming before it.
+	 */
+	private int firstNotBefore(int low, int high, final String prefix,
+			boolean pastPrefix) {
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			int comparison = this.comparePrefix(middle, prefix);
+			if (comparison < 0 || (pastPrefix && comparison == 0)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * View over some of the positions of another view, reading words from the
+	 * same cache
+	 */
+	private static class NarrowedView extends WordView {
+		private final WordView source;
+
+		NarrowedView(final WordView source, final int[] rangeStarts,
+				final int[] rangeEnds) {
+			super(rangeStarts, rangeEnds);
+			this.source = source instanceof NarrowedView ? ((NarrowedView) source).source
+					: source;
+		}
+
+		@Override
+		protected String wordAt(int position) {
+			return this.source.wordAt(position);
+		}
+
+		@Override
+		protected int comparePrefix(int position, final String prefix) {
+			return this.source.comparePrefix(position, prefix);
+		}
+	}
+}
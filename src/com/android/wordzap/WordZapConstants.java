@@ -69,6 +69,7 @@ public interface WordZapConstants {
 	String DIFFICULTY_PARAM_KEYNAME = "difficulty";
 	String TIMER_VALUE_KEYNAME = "timer_value";
 	String GAME_STATUS = "game_status"; 
+	String GAME_SEED_KEYNAME = "game_seed";
 	/******************************************/
 
 	/****** OTHER PARAMETERS ******/
@@ -99,9 +100,76 @@ public interface WordZapConstants {
 	int ALPHABETS_FREQ_FILE = R.raw.english_alphabets_frequencies;
 	// English word lists file
 	int WORD_LISTS_FILE = R.raw.word_list;
+	// Compiled form of the word lists file, kept in the cache directory
+	String COMPILED_WORD_LIST_FILE = "word_list.bin";
 	int ALPHABETS_FREQ_FILE_DELIM = R.string.english_alphabets_frequencies_delim;
+	// Letter sets of every level, precomputed by LevelTableCompiler
+	int LEVEL_TABLE_FILE = R.raw.level_table;
 	/********************************************/
 
+	/****** DICTIONARY PACKS ******/
+	// Pack made of the english word list and alphabet frequencies
+	String ENGLISH_PACK = "english";
+	// Pack the game is played with
+	String ACTIVE_PACK = ENGLISH_PACK;
+	/******************************/
+
+	/****** WORD CACHE IMPLEMENTATIONS ******/
+	// Caches words in sorted sets grouped by length
+	int ENGLISH_WORD_CACHE = 0;
+	// Caches words in a directed acyclic word graph
+	int DAWG_WORD_CACHE = 1;
+	// Caches words as a view over the dictionary shared by all levels
+	int LEVEL_WORD_CACHE = 2;
+	// Caches words front coded in a single byte array
+	int FRONT_CODED_WORD_CACHE = 3;
+	// Word cache implementation used by the game screen
+	int WORD_CACHE_TYPE = LEVEL_WORD_CACHE;
+	/****************************************/
+
+	/****** BLOOM FILTER IN FRONT OF THE WORD CACHE ******/
+	// Rejects most invalid words before they reach the word cache
+	boolean USE_BLOOM_FILTER = true;
+	// Desired false positive rate of the filter
+	double BLOOM_FILTER_FALSE_POSITIVE_RATE = 0.01;
+	// Most bits the filter may use
+	int BLOOM_FILTER_MAX_BITS = 64 * 1024;
+	/******************************************************/
+
+	/****** RANDOM WORD DISTRIBUTIONS ******/
+	// Picks a word length first, then a word of that length
+	int LENGTH_WEIGHTED_SAMPLING = 0;
+	// Picks every word with the same probability
+	int UNIFORM_SAMPLING = 1;
+	// Distribution of words returned by WordCache.getRandomWord()
+	int RANDOM_WORD_DISTRIBUTION = LENGTH_WEIGHTED_SAMPLING;
+	/***************************************/
+
+	/****** LEVEL QUALITY TARGETS ******/
+	// Rejects generated levels with too few or too many playable words
+	boolean USE_BALANCED_LEVELS = true;
+	// Milliseconds after which the closest unseeded level found so far is
+	// used. Seeded levels are only bounded by the number of candidates, so
+	// that a seed gives the same level on any device.
+	long LEVEL_GENERATION_TIME_BUDGET = 50;
+	// Most candidate levels drawn before the closest one is used
+	int LEVEL_GENERATION_MAX_CANDIDATES = 2000;
+	/***********************************/
+
+	/****** GAME SCHEDULING ******/
+	// Drives the computer player from a shared scheduler instead of a thread
+	// per game
+	boolean USE_SCHEDULED_OPPONENT = true;
+	// Number of threads of the shared scheduler
+	int GAME_SCHEDULER_THREADS = 1;
+	// Keeps the human player's time as a deadline read by the UI, instead of
+	// a timer thread
+	boolean USE_DEADLINE_TIMER = true;
+	// Runs the computer player and timer threads of games as virtual
+	// threads, on Java runtimes that have them
+	boolean USE_VIRTUAL_THREADS = true;
+	/*****************************/
+
 	//Number of milliseconds for which the human player can afford to sleep
 	int HUMAN_SLEEP_CHECK = 30000;
 
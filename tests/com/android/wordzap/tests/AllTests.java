@@ -38,6 +38,17 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses( { InvalidGridSizeExceptionTest.class, WordStackTest.class,
-		LetterGridTest.class })
+		LetterGridTest.class, DawgWordCacheTest.class,
+		BinaryDictionaryTest.class, LetterSignatureTest.class,
+		MasterDictionaryTest.class, WordSamplerTest.class,
+		WordListParserTest.class, EnglishWordCacheTest.class,
+		BloomFilterWordCacheTest.class, PerfectHashWordCacheTest.class,
+		WordViewTest.class, AlphabetTest.class,
+		DictionaryRegistryTest.class, FrontCodedWordCacheTest.class,
+		LevelAnalyzerTest.class, LevelBandsTest.class,
+		BalancedLevelGeneratorTest.class, LevelTableTest.class,
+		GameRandomTest.class, ComputerPlayerTest.class,
+		DeadlineTimerTest.class, TimingWheelSchedulerTest.class,
+		HeadlessGameTest.class, GameExecutorTest.class })
 public class AllTests {
 }
@@ -0,0 +1,175 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.StringReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.Alphabet;
+import com.android.wordzap.DictionaryPack;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.WordZapConstants;
+import com.android.wordzap.exceptions.InvalidFreqFileException;
+
+/*
+ * JUnit Test Cases for classes Alphabet and DictionaryPack, and for levels
+ * generated from an alphabet
+ * 
+ */
+
+public class AlphabetTest {
+
+	// Letter frequencies shipped with the game
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+	private static final String FREQ_FILE_DELIM = "-";
+
+	private String frequencies;
+
+	@Before
+	public void setUp() throws Exception {
+		BufferedReader freqFileHandle = new BufferedReader(new FileReader(
+				FREQ_FILE));
+		try {
+			StringBuilder frequencies = new StringBuilder();
+			String line;
+			while ((line = freqFileHandle.readLine()) != null) {
+				frequencies.append(line).append('\n');
+			}
+			this.frequencies = frequencies.toString();
+		} finally {
+			freqFileHandle.close();
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Asserts that every letter of every level belongs to the alphabet
+	private void assertLevelsFrom(final LevelGenerator levelGen,
+			final Alphabet alphabet) throws Exception {
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			char[] levelLetters = levelGen.generateLevel(level).getAlphabets();
+			assertTrue(levelLetters.length <= LevelGenerator.LEVEL_SIZE);
+			for (char letter : levelLetters) {
+				assertTrue("'" + letter + "' at level " + level, alphabet
+						.contains(letter));
+			}
+		}
+	}
+
+	/*
+	 * The english alphabet is used by default, and by the english pack
+	 */
+	@Test
+	public void testEnglish() throws Exception {
+		Alphabet english = Alphabet.ENGLISH;
+		assertEquals(5, english.getVowels().size());
+		assertEquals(20, english.getConsonants().size());
+		assertEquals('S', english.getPluralChar());
+		assertTrue(english.contains('S'));
+		assertFalse(english.contains('s'));
+		assertFalse(english.contains(Alphabet.NO_PLURAL_CHAR));
+
+		this.assertLevelsFrom(new LevelGenerator(FREQ_FILE, FREQ_FILE_DELIM),
+				english);
+
+		DictionaryPack englishPack = DictionaryPack
+				.forName(WordZapConstants.ENGLISH_PACK);
+		assertSame(englishPack, DictionaryPack.getActivePack());
+		assertSame(english, englishPack.getAlphabet());
+		assertEquals(null, DictionaryPack.forName("klingon"));
+	}
+
+	/*
+	 * Levels only hold letters of the alphabet they are generated from,
+	 * including alphabets without a plural letter
+	 */
+	@Test
+	public void testOtherAlphabet() throws Exception {
+		Alphabet alphabet = new Alphabet("AEIOU", "BCDFGHJKLMNPQRSTVWXYZ",
+				Alphabet.NO_PLURAL_CHAR);
+		assertFalse(alphabet.hasPluralChar());
+		assertTrue(alphabet.contains('S'));
+		this.assertLevelsFrom(new LevelGenerator(new StringReader(
+				this.frequencies), FREQ_FILE_DELIM, alphabet), alphabet);
+	}
+
+	/*
+	 * Alphabets and frequencies that can't generate levels are rejected
+	 */
+	@Test
+	public void testInvalidAlphabets() throws Exception {
+		String[][] invalidAlphabets = { { "AEIOU", "BCDFGa" },
+				{ "AEIOU", "BCDFGA" }, { "AEIOU", "BCDFG\u00C9" } };
+		for (String[] letters : invalidAlphabets) {
+			try {
+				new Alphabet(letters[0], letters[1], 'S');
+				fail("Created alphabet " + letters[0] + letters[1]);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+
+		// Too few vowels
+		try {
+			new LevelGenerator(new StringReader(this.frequencies),
+					FREQ_FILE_DELIM, new Alphabet("AEI",
+							"BCDFGHJKLMNPQRTVWXYZOU", 'S'));
+			fail("Created level generator with 3 vowels");
+		} catch (IllegalArgumentException e) {
+		}
+
+		// Frequencies of letters outside the alphabet
+		try {
+			new LevelGenerator(new StringReader(this.frequencies),
+					FREQ_FILE_DELIM, new Alphabet("AEIOU",
+							"BCDFGHJKLMNPQRTVWXY", 'S'));
+			fail("Read frequency of Z");
+		} catch (InvalidFreqFileException e) {
+		}
+
+		// Too few consonants for every consonant tier
+		try {
+			new LevelGenerator(new StringReader("A-1\nE-1\nI-1\nO-1\nU-1\nB-1"),
+					FREQ_FILE_DELIM, Alphabet.ENGLISH);
+			fail("Created level generator with 1 consonant");
+		} catch (InvalidFreqFileException e) {
+		}
+	}
+
+}
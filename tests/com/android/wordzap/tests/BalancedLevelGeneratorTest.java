@@ -0,0 +1,153 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BalancedLevelGenerator;
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.Level;
+import com.android.wordzap.LevelAnalyzer;
+import com.android.wordzap.LevelBands;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.WordZapConstants;
+
+/*
+ * JUnit Test Cases for class BalancedLevelGenerator
+ * 
+ */
+
+public class BalancedLevelGeneratorTest {
+
+	// Word list and letter frequencies shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	// Generous enough for every level to find a candidate within its band
+	private static final long TIME_BUDGET = 10000;
+	private static final int MAX_CANDIDATES = 10000;
+
+	private LevelGenerator levelGen;
+	private LevelAnalyzer analyzer;
+	private LevelBands bands;
+	private BalancedLevelGenerator balancedLevelGen;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.analyzer = new LevelAnalyzer(new MasterDictionary(
+					BinaryDictionary.compile(wordListHandle)));
+		} finally {
+			wordListHandle.close();
+		}
+		this.levelGen = new LevelGenerator(FREQ_FILE, "-");
+		this.bands = LevelBands.sample(this.levelGen, this.analyzer);
+		this.balancedLevelGen = new BalancedLevelGenerator(this.levelGen,
+				this.analyzer, this.bands, TIME_BUDGET, MAX_CANDIDATES);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Every level has a number of playable words within its band, and enough
+	 * words to fill a letter grid
+	 */
+	@Test
+	public void testGenerateLevel() throws Exception {
+		for (int round = 0; round < 5; round++) {
+			for (int levelNumber = LevelGenerator.MIN_LEVEL; levelNumber <= LevelGenerator.MAX_LEVEL; levelNumber++) {
+				Level level = this.balancedLevelGen.generateLevel(levelNumber);
+				assertEquals(levelNumber, level.getLevelNumber());
+				int numWords = this.analyzer.countPlayableWords(level
+						.getAlphabets());
+				assertTrue(numWords + " words in level " + levelNumber,
+						numWords >= this.bands.getMinWords(levelNumber)
+								&& numWords <= this.bands
+										.getMaxWords(levelNumber));
+				assertTrue(numWords >= WordZapConstants.GRID_NUMROWS);
+			}
+		}
+	}
+
+	/*
+	 * A seed always gives the same level
+	 */
+	@Test
+	public void testSeededLevels() throws Exception {
+		for (int levelNumber = LevelGenerator.MIN_LEVEL; levelNumber <= LevelGenerator.MAX_LEVEL; levelNumber++) {
+			long seed = 31 * levelNumber;
+			assertEquals(new String(this.balancedLevelGen.generateLevel(
+					levelNumber, seed).getAlphabets()), new String(
+					this.balancedLevelGen.generateLevel(levelNumber, seed)
+							.getAlphabets()));
+		}
+
+		// With a single candidate, the level is the one LevelGenerator gives
+		BalancedLevelGenerator singleCandidateGen = new BalancedLevelGenerator(
+				this.levelGen, this.analyzer, this.bands, TIME_BUDGET, 1);
+		assertEquals(new String(this.levelGen.generateLevel(10,
+				new Random(42)).getAlphabets()), new String(singleCandidateGen
+				.generateLevel(10, 42).getAlphabets()));
+	}
+
+	/*
+	 * The time budget doesn't change seeded levels, however slow the analyzer
+	 */
+	@Test
+	public void testSeededLevelsIgnoreTimeBudget() throws Exception {
+		BalancedLevelGenerator noBudgetGen = new BalancedLevelGenerator(
+				this.levelGen, this.analyzer, this.bands, 0, MAX_CANDIDATES);
+		for (int levelNumber = LevelGenerator.MIN_LEVEL; levelNumber <= LevelGenerator.MAX_LEVEL; levelNumber++) {
+			long seed = 17 * levelNumber;
+			assertEquals(new String(this.balancedLevelGen.generateLevel(
+					levelNumber, seed).getAlphabets()), new String(noBudgetGen
+					.generateLevel(levelNumber, seed).getAlphabets()));
+		}
+	}
+
+	/*
+	 * Atleast one candidate has to be drawn
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoCandidates() {
+		new BalancedLevelGenerator(this.levelGen, this.analyzer, this.bands,
+				TIME_BUDGET, 0);
+	}
+
+}
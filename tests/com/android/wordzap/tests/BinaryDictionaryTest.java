@@ -0,0 +1,293 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.DictionaryCompiler;
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.LetterSignature;
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * JUnit Test Cases for classes BinaryDictionary and DictionaryCompiler
+ * 
+ */
+
+public class BinaryDictionaryTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	private File dictionaryFile;
+
+	@Before
+	public void setUp() throws Exception {
+		this.dictionaryFile = File.createTempFile("word_list", ".bin");
+		this.dictionaryFile.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.dictionaryFile.delete();
+	}
+
+	// Loads the shipped word list through its compiled form
+	private BinaryDictionary loadWordList() throws IOException,
+			InvalidDictionaryException {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			return BinaryDictionary.load(this.dictionaryFile, wordListHandle);
+		} finally {
+			wordListHandle.close();
+		}
+	}
+
+	/*
+	 * Every word is compiled in order, with the right signature
+	 */
+	@Test
+	public void testCompiledWords() throws IOException,
+			InvalidDictionaryException {
+		BinaryDictionary dictionary = this.loadWordList();
+		assertTrue("Compiled dictionary wasn't written", this.dictionaryFile
+				.exists());
+
+		// Enough copies of each letter to form every word in the word list
+		char[] allLetters = new char[26 * 9];
+		for (int index = 0; index < allLetters.length; index++) {
+			allLetters[index] = (char) ('A' + index % 26);
+		}
+		EnglishWordCache englishCache = new EnglishWordCache(WORD_LIST_FILE,
+				allLetters);
+		TreeSet<String> textWords = new TreeSet<String>(englishCache
+				.getValidWords());
+		assertEquals(textWords.size(), dictionary.getWordCount());
+
+		String previousWord = "";
+		for (int index = 0; index < dictionary.getWordCount(); index++) {
+			String word = dictionary.getWord(index);
+			assertTrue("'" + word + "' is not in the word list", textWords
+					.contains(word));
+			assertTrue("Words are not sorted by length and then alphabetically",
+					previousWord.length() < word.length()
+							|| previousWord.compareTo(word) < 0);
+			assertEquals(word.length(), dictionary.getWordLength(index));
+			assertEquals(LetterSignature.low(word), dictionary
+					.getSignatureLow(index));
+			assertEquals(LetterSignature.high(word), dictionary
+					.getSignatureHigh(index));
+			previousWord = word;
+		}
+	}
+
+	/*
+	 * Caches built from the compiled and the text form hold the same words
+	 */
+	@Test
+	public void testEnglishWordCacheFromDictionary() throws IOException,
+			InvalidDictionaryException {
+		BinaryDictionary dictionary = this.loadWordList();
+		Random rand = new Random();
+		for (int round = 0; round < 10; round++) {
+			char[] levelLetters = new char[8];
+			for (int index = 0; index < levelLetters.length; index++) {
+				levelLetters[index] = (char) ('A' + rand.nextInt(26));
+			}
+			EnglishWordCache textCache = new EnglishWordCache(WORD_LIST_FILE,
+					levelLetters);
+			EnglishWordCache binaryCache = new EnglishWordCache(dictionary,
+					levelLetters);
+			assertEquals("Caches hold different words for "
+					+ new String(levelLetters), new TreeSet<String>(textCache
+					.getValidWords()), new TreeSet<String>(binaryCache
+					.getValidWords()));
+		}
+	}
+
+	/*
+	 * A compiled dictionary is rebuilt when its word list changes or when it
+	 * is corrupt
+	 */
+	@Test
+	public void testStaleDictionaryIsRebuilt() throws IOException,
+			InvalidDictionaryException {
+		BinaryDictionary dictionary = BinaryDictionary.load(
+				this.dictionaryFile, new ByteArrayInputStream("CAT\nDOG\n"
+						.getBytes()));
+		assertEquals(2, dictionary.getWordCount());
+
+		// Word list has changed
+		dictionary = BinaryDictionary.load(this.dictionaryFile,
+				new ByteArrayInputStream("CAT\nDOG\nmouse\n".getBytes()));
+		assertEquals(3, dictionary.getWordCount());
+		assertEquals("MOUSE", dictionary.getWord(2));
+
+		// Compiled dictionary is corrupt
+		OutputStream out = new FileOutputStream(this.dictionaryFile);
+		out.write(new byte[] { 1, 2, 3 });
+		out.close();
+		dictionary = BinaryDictionary.load(this.dictionaryFile,
+				new ByteArrayInputStream("CAT\nDOG\nmouse\n".getBytes()));
+		assertEquals(3, dictionary.getWordCount());
+		assertEquals("CAT", dictionary.getWord(0));
+	}
+
+	/*
+	 * The word list isn't read while the compiled dictionary records its
+	 * version, and is compiled again once the version changes
+	 */
+	@Test
+	public void testVersionedDictionaryIsNotRead() throws IOException,
+			InvalidDictionaryException {
+		BinaryDictionary dictionary = BinaryDictionary.load(
+				this.dictionaryFile, 7, new ByteArrayInputStream("CAT\nDOG\n"
+						.getBytes()));
+		assertEquals(7, dictionary.getSourceVersion());
+
+		InputStream unreadableHandle = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("The word list was read");
+			}
+		};
+		dictionary = BinaryDictionary.load(this.dictionaryFile, 7,
+				unreadableHandle);
+		assertEquals(2, dictionary.getWordCount());
+
+		// Same word list in a new version
+		dictionary = BinaryDictionary.load(this.dictionaryFile, 8,
+				new ByteArrayInputStream("CAT\nDOG\nmouse\n".getBytes()));
+		assertEquals(8, dictionary.getSourceVersion());
+		assertEquals(3, dictionary.getWordCount());
+
+		// Unversioned word lists are always read
+		dictionary = BinaryDictionary.load(this.dictionaryFile,
+				new ByteArrayInputStream("CAT\n".getBytes()));
+		assertEquals(BinaryDictionary.NO_SOURCE_VERSION, dictionary
+				.getSourceVersion());
+		assertEquals(1, dictionary.getWordCount());
+	}
+
+	// Returns true if the bytes are rejected as a compiled dictionary
+	private static boolean isRejected(final byte[] dictionaryBytes) {
+		try {
+			new BinaryDictionary(ByteBuffer.wrap(dictionaryBytes));
+			return false;
+		} catch (InvalidDictionaryException e) {
+			return true;
+		}
+	}
+
+	/*
+	 * Counts and tables that don't fit the size of the dictionary are
+	 * rejected before any word is read, and the dictionary is rebuilt
+	 */
+	@Test
+	public void testCorruptHeaderIsRejected() throws IOException,
+			InvalidDictionaryException {
+		byte[] wordList = "CAT\nDOG\nmouse\n".getBytes();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DictionaryCompiler.compile(wordList, out);
+		byte[] dictionaryBytes = out.toByteArray();
+		assertFalse(isRejected(dictionaryBytes));
+
+		// Word count, longest word and tables, in turn
+		int[] corruptOffsets = { 20, 24, BinaryDictionary.HEADER_SIZE + 12,
+				BinaryDictionary.HEADER_SIZE + 40 };
+		for (int offset : corruptOffsets) {
+			byte[] corruptBytes = dictionaryBytes.clone();
+			ByteBuffer.wrap(corruptBytes).putInt(offset, Integer.MAX_VALUE);
+			assertTrue("Offset " + offset, isRejected(corruptBytes));
+		}
+
+		byte[] corruptBytes = dictionaryBytes.clone();
+		ByteBuffer.wrap(corruptBytes).putInt(24, 2);
+		assertTrue(isRejected(corruptBytes));
+
+		OutputStream fileOut = new FileOutputStream(this.dictionaryFile);
+		fileOut.write(corruptBytes);
+		fileOut.close();
+		BinaryDictionary dictionary = BinaryDictionary.load(
+				this.dictionaryFile, new ByteArrayInputStream(wordList));
+		assertEquals(3, dictionary.getWordCount());
+		assertEquals("MOUSE", dictionary.getWord(2));
+	}
+
+	/*
+	 * The version of a file changes whenever the file is replaced
+	 */
+	@Test
+	public void testVersionOf() throws IOException {
+		File packageFile = File.createTempFile("wordzap", ".apk");
+		try {
+			OutputStream out = new FileOutputStream(packageFile);
+			out.write(new byte[] { 1, 2, 3 });
+			out.close();
+			packageFile.setLastModified(1000000000000L);
+			long version = BinaryDictionary.versionOf(packageFile);
+			assertTrue(version != BinaryDictionary.NO_SOURCE_VERSION);
+			assertEquals(version, BinaryDictionary.versionOf(packageFile));
+
+			// Reinstalled with the same size
+			packageFile.setLastModified(1000000060000L);
+			long reinstalledVersion = BinaryDictionary.versionOf(packageFile);
+			assertTrue(reinstalledVersion != version);
+
+			// Reinstalled in the same second, with a different size
+			out = new FileOutputStream(packageFile);
+			out.write(new byte[] { 1, 2, 3, 4 });
+			out.close();
+			packageFile.setLastModified(1000000060000L);
+			assertTrue(BinaryDictionary.versionOf(packageFile) != reinstalledVersion);
+		} finally {
+			packageFile.delete();
+		}
+		assertEquals(BinaryDictionary.NO_SOURCE_VERSION, BinaryDictionary
+				.versionOf(packageFile));
+	}
+
+}
@@ -0,0 +1,164 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.BloomFilterWordCache;
+import com.android.wordzap.LevelWordCache;
+import com.android.wordzap.MasterDictionary;
+
+/*
+ * JUnit Test Cases for class BloomFilterWordCache
+ * 
+ */
+
+public class BloomFilterWordCacheTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	// Number of random strings looked up per test
+	private static final int NUM_LOOKUPS = 2000;
+
+	// Every word in the word list, shared by all tests since it never changes
+	private static LevelWordCache allWordsCache;
+
+	private Random rand;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			MasterDictionary masterDictionary = new MasterDictionary(
+					BinaryDictionary.compile(wordListHandle));
+			allWordsCache = masterDictionary.createFullCache(new Random());
+		} finally {
+			wordListHandle.close();
+		}
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns a random string of upper case letters
+	private String randomString() {
+		char[] letters = new char[3 + this.rand.nextInt(3)];
+		for (int index = 0; index < letters.length; index++) {
+			letters[index] = (char) ('A' + this.rand.nextInt(26));
+		}
+		return new String(letters);
+	}
+
+	/*
+	 * Every cached word passes the filter, in any case, and the filter's
+	 * answers match the wrapped cache's
+	 */
+	@Test
+	public void testNoFalseNegatives() {
+		BloomFilterWordCache filteredCache = new BloomFilterWordCache(
+				allWordsCache, 0.01, 1 << 20);
+		for (String word : allWordsCache.getValidWords()) {
+			assertTrue(filteredCache.isWordValid(word));
+			assertTrue(filteredCache.isWordValid(word.toLowerCase()));
+		}
+		assertEquals(0, filteredCache.getRejectedCount());
+		assertEquals(0, filteredCache.getFalsePositiveCount());
+
+		for (int round = 0; round < NUM_LOOKUPS; round++) {
+			String word = this.randomString();
+			assertEquals(allWordsCache.isWordValid(word), filteredCache
+					.isWordValid(word));
+		}
+	}
+
+	/*
+	 * Measured false positive rate is close to the desired rate, and the
+	 * statistics add up
+	 */
+	@Test
+	public void testStats() {
+		BloomFilterWordCache filteredCache = new BloomFilterWordCache(
+				allWordsCache, 0.02, 1 << 20);
+		assertTrue(filteredCache.getExpectedFalsePositiveRate() <= 0.025);
+
+		int numInvalid = 0;
+		for (int round = 0; round < NUM_LOOKUPS; round++) {
+			if (!filteredCache.isWordValid(this.randomString() + "#")) {
+				numInvalid++;
+			}
+		}
+		assertEquals(NUM_LOOKUPS, numInvalid);
+		assertEquals(NUM_LOOKUPS, filteredCache.getLookupCount());
+		assertEquals(NUM_LOOKUPS, filteredCache.getRejectedCount()
+				+ filteredCache.getFalsePositiveCount());
+		assertTrue(filteredCache.getMeasuredFalsePositiveRate() < 0.05);
+
+		filteredCache.resetStats();
+		assertEquals(0, filteredCache.getLookupCount());
+		assertEquals(0, filteredCache.getMeasuredFalsePositiveRate(), 0);
+	}
+
+	/*
+	 * The filter stays within its bit budget, at the cost of a higher false
+	 * positive rate
+	 */
+	@Test
+	public void testBitBudget() {
+		BloomFilterWordCache filteredCache = new BloomFilterWordCache(
+				allWordsCache, 0.001, 4096);
+		assertEquals(4096, filteredCache.getBitCount());
+		assertTrue(filteredCache.getExpectedFalsePositiveRate() > 0.5);
+		for (String word : allWordsCache.getValidWords()) {
+			assertTrue(filteredCache.isWordValid(word));
+		}
+		assertFalse(filteredCache.isWordValid(""));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidFalsePositiveRate() {
+		new BloomFilterWordCache(allWordsCache, 1.0, 1 << 20);
+	}
+}
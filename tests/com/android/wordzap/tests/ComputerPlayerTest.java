@@ -0,0 +1,268 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.ComputerMove;
+import com.android.wordzap.ComputerPlayer;
+import com.android.wordzap.CpuDescriptor;
+import com.android.wordzap.ExecutorGameScheduler;
+import com.android.wordzap.GameHost;
+import com.android.wordzap.Level;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.WordCache;
+
+/*
+ * JUnit Test Cases for class ComputerPlayer
+ * 
+ */
+
+public class ComputerPlayerTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	/*
+	 * Game that records the moves made against it, and the scheduler time of
+	 * each move
+	 */
+	private static class RecordingGameHost implements GameHost {
+		private final ManualGameScheduler scheduler;
+		private final List<String> completedWords = new Vector<String>();
+		private final List<Long> moveTimes = new Vector<Long>();
+		private final List<Boolean> zapMoves = new Vector<Boolean>();
+		private final List<String> generatedWords = new Vector<String>();
+		private volatile boolean isGameOver;
+
+		private RecordingGameHost(ManualGameScheduler scheduler) {
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		public boolean isGameOver() {
+			return this.isGameOver;
+		}
+
+		@Override
+		public List<String> getCompletedWords() {
+			return this.completedWords;
+		}
+
+		@Override
+		public void makeComputerMove(boolean isZapMove, String generatedWord) {
+			this.moveTimes.add(this.scheduler.currentTimeMillis());
+			this.zapMoves.add(isZapMove);
+			this.generatedWords.add(generatedWord);
+		}
+
+		@Override
+		public String getLastWord() {
+			return "";
+		}
+
+		@Override
+		public int getOpponentGridSize() {
+			return this.generatedWords.size();
+		}
+
+		@Override
+		public void showTimerStatus(int gameStatus, int timeValue) {
+		}
+	}
+
+	private WordCache aWordCache;
+	private Level aLevel;
+	private ManualGameScheduler scheduler;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			MasterDictionary masterDictionary = new MasterDictionary(
+					BinaryDictionary.compile(wordListHandle));
+			this.aWordCache = masterDictionary.createLevelCache("TSEALRPO"
+					.toCharArray());
+		} finally {
+			wordListHandle.close();
+		}
+		this.aLevel = new Level("TSEALRPO".toCharArray(), new CpuDescriptor(
+				10, 3, 15, 2), 1);
+		this.scheduler = new ManualGameScheduler();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Every premeditated move is made at its time, with words from the cache
+	 */
+	@Test
+	public void testStart() {
+		RecordingGameHost gameHost = new RecordingGameHost(this.scheduler);
+		ComputerPlayer computerPlayer = new ComputerPlayer(gameHost,
+				this.aWordCache, this.aLevel, new Random(3));
+		List<ComputerMove> computerMoves = computerPlayer.getComputerMoves();
+		assertTrue(computerMoves.size() > 1);
+
+		this.scheduler.advance(2500);
+		computerPlayer.start(this.scheduler);
+		assertEquals(1, this.scheduler.getWaitingCount());
+		this.scheduler.advance(1000L * computerMoves.get(
+				computerMoves.size() - 1).getTime() + 1);
+
+		assertEquals(computerMoves.size(), gameHost.moveTimes.size());
+		for (int moveIndex = 0; moveIndex < computerMoves.size(); moveIndex++) {
+			ComputerMove move = computerMoves.get(moveIndex);
+			assertEquals(2500 + 1000L * move.getTime(), gameHost.moveTimes.get(
+					moveIndex).longValue());
+			assertEquals(move.isZapMove(), gameHost.zapMoves.get(moveIndex));
+			String generatedWord = gameHost.generatedWords.get(moveIndex);
+			assertEquals(move.isGenWordMove(), generatedWord != null);
+			if (generatedWord != null) {
+				assertTrue(this.aWordCache.isWordValid(generatedWord));
+			}
+		}
+
+		// Nothing is left waiting once every move is made
+		assertEquals(0, this.scheduler.getWaitingCount());
+	}
+
+	/*
+	 * No move is made after the player is cancelled, or after the game is over
+	 */
+	@Test
+	public void testCancel() {
+		RecordingGameHost gameHost = new RecordingGameHost(this.scheduler);
+		ComputerPlayer computerPlayer = new ComputerPlayer(gameHost,
+				this.aWordCache, this.aLevel, new Random(3));
+		int firstMoveTime = computerPlayer.getComputerMoves().get(0).getTime();
+		computerPlayer.start(this.scheduler);
+		this.scheduler.advance(1000L * firstMoveTime);
+		int numMoves = gameHost.moveTimes.size();
+		assertTrue(numMoves > 0);
+
+		computerPlayer.cancel();
+		assertTrue(computerPlayer.isCancelled());
+		assertEquals(0, this.scheduler.getWaitingCount());
+		this.scheduler.advance(1000000);
+		assertEquals(numMoves, gameHost.moveTimes.size());
+
+		// The player stops by itself at its next move once the game is over
+		gameHost = new RecordingGameHost(this.scheduler);
+		computerPlayer = new ComputerPlayer(gameHost, this.aWordCache,
+				this.aLevel, new Random(3));
+		computerPlayer.start(this.scheduler);
+		gameHost.isGameOver = true;
+		this.scheduler.advance(1000000);
+		assertEquals(0, gameHost.moveTimes.size());
+		assertTrue(computerPlayer.isCancelled());
+		assertEquals(0, this.scheduler.getWaitingCount());
+
+		try {
+			computerPlayer.start(this.scheduler);
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	/*
+	 * Many players share the threads of one scheduler
+	 */
+	@Test
+	public void testSharedScheduler() throws Exception {
+		final int numPlayers = 2000;
+		final CountDownLatch firstMoves = new CountDownLatch(numPlayers);
+		ExecutorGameScheduler sharedScheduler = new ExecutorGameScheduler(2);
+		int threadsBefore = Thread.activeCount();
+		try {
+			Level fastLevel = new Level("TSEALRPO".toCharArray(),
+					new CpuDescriptor(1, 1, 1, 1), 1);
+			for (int player = 0; player < numPlayers; player++) {
+
+				// Each game is over after the first move against it
+				GameHost gameHost = new GameHost() {
+					private volatile boolean isGameOver;
+
+					@Override
+					public boolean isGameOver() {
+						return this.isGameOver;
+					}
+
+					@Override
+					public List<String> getCompletedWords() {
+						return new Vector<String>();
+					}
+
+					@Override
+					public void makeComputerMove(boolean isZapMove,
+							String generatedWord) {
+						assertFalse(this.isGameOver);
+						this.isGameOver = true;
+						firstMoves.countDown();
+					}
+
+					@Override
+					public String getLastWord() {
+						return "";
+					}
+
+					@Override
+					public int getOpponentGridSize() {
+						return 0;
+					}
+
+					@Override
+					public void showTimerStatus(int gameStatus, int timeValue) {
+					}
+				};
+				new ComputerPlayer(gameHost, this.aWordCache, fastLevel,
+						new Random(player)).start(sharedScheduler);
+			}
+			assertTrue(Thread.activeCount() <= threadsBefore + 2);
+			assertTrue(firstMoves.await(10, TimeUnit.SECONDS));
+		} finally {
+			sharedScheduler.shutdown();
+		}
+	}
+
+}
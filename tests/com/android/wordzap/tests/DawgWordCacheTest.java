@@ -0,0 +1,167 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.DawgWordCache;
+import com.android.wordzap.EnglishWordCache;
+
+/*
+ * JUnit Test Cases for class DawgWordCache
+ * 
+ * Checks that DawgWordCache answers exactly like EnglishWordCache
+ * 
+ */
+
+public class DawgWordCacheTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	// Enough copies of each letter to form every word in the word list
+	private static final int LETTER_COPIES = 9;
+
+	private List<String> wordList;
+	private char[] allLetters;
+
+	@Before
+	public void setUp() throws Exception {
+		this.wordList = new Vector<String>();
+		BufferedReader buffRdr = new BufferedReader(new FileReader(
+				WORD_LIST_FILE));
+		String word = null;
+		while ((word = buffRdr.readLine()) != null) {
+			this.wordList.add(word);
+		}
+		buffRdr.close();
+
+		this.allLetters = new char[26 * LETTER_COPIES];
+		for (int index = 0; index < this.allLetters.length; index++) {
+			this.allLetters[index] = (char) ('A' + index % 26);
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Asserts that both caches give the same answer for every word in the word
+	 * list, and for a few variations of each word
+	 */
+	private void assertIdenticalAnswers(EnglishWordCache englishCache,
+			DawgWordCache dawgCache) {
+		for (String word : this.wordList) {
+			String[] variations = { word, word.toLowerCase(), word + "S",
+					word + "Q", word.length() > 1 ? word.substring(1) : "" };
+			for (String variation : variations) {
+				assertEquals("isWordValid answers differ for '" + variation
+						+ "'", englishCache.isWordValid(variation), dawgCache
+						.isWordValid(variation));
+				char[] chars = ("#" + variation + "#").toCharArray();
+				assertEquals("char array lookup differs for '" + variation
+						+ "'", englishCache.isWordValid(variation), dawgCache
+						.isWordValid(chars, 1, variation.length()));
+			}
+		}
+		assertEquals("Caches hold different words", new TreeSet<String>(
+				englishCache.getValidWords()), new TreeSet<String>(dawgCache
+				.getValidWords()));
+	}
+
+	/*
+	 * Caches every word in the word list and compares both caches
+	 */
+	@Test
+	public void testIsWordValidForWholeWordList() throws IOException {
+		EnglishWordCache englishCache = new EnglishWordCache(WORD_LIST_FILE,
+				this.allLetters);
+		DawgWordCache dawgCache = new DawgWordCache(WORD_LIST_FILE,
+				this.allLetters);
+
+		int numValidWords = 0;
+		for (String word : this.wordList) {
+			if (dawgCache.isWordValid(word)) {
+				numValidWords++;
+			}
+		}
+		assertEquals("Every non empty word in the list should be valid",
+				this.wordList.size() - 1, numValidWords);
+		assertIdenticalAnswers(englishCache, dawgCache);
+	}
+
+	/*
+	 * Caches words for random sets of level letters and compares both caches
+	 */
+	@Test
+	public void testIsWordValidForLevelLetters() throws IOException {
+		Random rand = new Random();
+		for (int round = 0; round < 5; round++) {
+			char[] levelLetters = new char[8];
+			for (int index = 0; index < levelLetters.length; index++) {
+				levelLetters[index] = (char) ('A' + rand.nextInt(26));
+			}
+			EnglishWordCache englishCache = new EnglishWordCache(
+					WORD_LIST_FILE, levelLetters);
+			DawgWordCache dawgCache = new DawgWordCache(WORD_LIST_FILE,
+					levelLetters);
+			assertIdenticalAnswers(englishCache, dawgCache);
+		}
+	}
+
+	/*
+	 * Empty words and words that only share a prefix with cached words are
+	 * invalid
+	 */
+	@Test
+	public void testInvalidWords() throws IOException {
+		DawgWordCache dawgCache = new DawgWordCache(WORD_LIST_FILE,
+				"AEHLPST".toCharArray());
+		assertTrue(dawgCache.isWordValid("HEAL"));
+		assertTrue(dawgCache.isWordValid("heal"));
+		assertFalse(dawgCache.isWordValid(""));
+		assertFalse(dawgCache.isWordValid("HEA"));
+		assertFalse(dawgCache.isWordValid("HEALZ"));
+		assertFalse(dawgCache.isWordValid("XYZ"));
+	}
+
+}
@@ -0,0 +1,158 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.DeadlineTimer;
+import com.android.wordzap.Timer;
+import com.android.wordzap.WordZapConstants;
+
+/*
+ * JUnit Test Cases for classes DeadlineTimer and Timer
+ * 
+ */
+
+public class DeadlineTimerTest {
+
+	private ManualGameScheduler clock;
+	private DeadlineTimer deadlineTimer;
+
+	@Before
+	public void setUp() throws Exception {
+		this.clock = new ManualGameScheduler();
+		this.clock.advance(500);
+		this.deadlineTimer = new DeadlineTimer(this.clock, 60000);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Time left counts down to the deadline, and is rounded up to seconds
+	 */
+	@Test
+	public void testRemainingTime() {
+		assertEquals(60500, this.deadlineTimer.getDeadline());
+		assertEquals(60000, this.deadlineTimer.getRemainingMillis());
+		assertEquals(60, this.deadlineTimer.getSecondsLeft());
+
+		this.clock.advance(30001);
+		assertEquals(29999, this.deadlineTimer.getRemainingMillis());
+		assertEquals(30, this.deadlineTimer.getSecondsLeft());
+		assertFalse(this.deadlineTimer.isExpired());
+
+		this.clock.advance(29998);
+		assertEquals(1, this.deadlineTimer.getSecondsLeft());
+		assertFalse(this.deadlineTimer.isExpired());
+		this.clock.advance(1);
+		assertEquals(0, this.deadlineTimer.getRemainingMillis());
+		assertEquals(0, this.deadlineTimer.getSecondsLeft());
+		assertTrue(this.deadlineTimer.isExpired());
+		this.clock.advance(1000);
+		assertEquals(0, this.deadlineTimer.getRemainingMillis());
+	}
+
+	/*
+	 * Forming a word gives the full time again, even after the deadline
+	 */
+	@Test
+	public void testReset() {
+		this.clock.advance(45000);
+		this.deadlineTimer.reset();
+		assertEquals(60000, this.deadlineTimer.getRemainingMillis());
+		assertEquals(105500, this.deadlineTimer.getDeadline());
+
+		this.clock.advance(70000);
+		assertTrue(this.deadlineTimer.isExpired());
+		this.deadlineTimer.reset();
+		assertFalse(this.deadlineTimer.isExpired());
+		assertEquals(60000, this.deadlineTimer.getTimeoutMillis());
+
+		try {
+			new DeadlineTimer(this.clock, 0);
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/*
+	 * A started timer tells its expiry once, at the latest deadline, unless
+	 * stopped
+	 */
+	@Test
+	public void testStart() {
+		final long[] expiryTimes = new long[2];
+		this.deadlineTimer.start(new Runnable() {
+			public void run() {
+				expiryTimes[expiryTimes[0] == 0 ? 0 : 1] = clock
+						.currentTimeMillis();
+			}
+		});
+		this.clock.advance(50000);
+		this.deadlineTimer.reset();
+		this.clock.advance(59999);
+		assertEquals(0, expiryTimes[0]);
+		this.clock.advance(100000);
+		assertEquals(110500, expiryTimes[0]);
+		assertEquals(0, expiryTimes[1]);
+		assertEquals(0, this.clock.getWaitingCount());
+
+		try {
+			this.deadlineTimer.start(new Thread());
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+		}
+
+		DeadlineTimer stoppedTimer = new DeadlineTimer(this.clock, 1000);
+		stoppedTimer.start(new Runnable() {
+			public void run() {
+				assertTrue(false);
+			}
+		});
+		stoppedTimer.stop();
+		assertEquals(0, this.clock.getWaitingCount());
+		this.clock.advance(5000);
+	}
+
+	/*
+	 * The player with more words wins once the human player runs out of time
+	 */
+	@Test
+	public void testGetGameStatus() {
+		assertEquals(WordZapConstants.HUMAN_WIN, Timer.getGameStatus(3, 2));
+		assertEquals(WordZapConstants.HUMAN_LOSS, Timer.getGameStatus(0, 1));
+		assertEquals(WordZapConstants.DRAW, Timer.getGameStatus(4, 4));
+	}
+
+}
@@ -0,0 +1,485 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.android.wordzap.AnagramIndex;
+import com.android.wordzap.BalancedLevelGenerator;
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.FrontCodedWordCache;
+import com.android.wordzap.LetterSignature;
+import com.android.wordzap.Level;
+import com.android.wordzap.LevelAnalyzer;
+import com.android.wordzap.LevelBands;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.LevelTable;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.PerfectHashBuilder;
+import com.android.wordzap.PerfectHashWordCache;
+import com.android.wordzap.WordCache;
+import com.android.wordzap.WordZapConstants;
+
+/*
+ * Compares ways of finding the words playable in a level, of building a
+ * level's cache from the text word list, and of validating words against the
+ * whole dictionary. Not a JUnit test, run it from the project directory with
+ * :
+ * 
+ * java com.android.wordzap.tests.DictionaryBenchmark [number of levels]
+ */
+public class DictionaryBenchmark {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	// Letter frequencies shipped with the game
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	// Level table shipped with the game
+	private static final String LEVEL_TABLE_FILE = "res/raw/level_table.bin";
+
+	private static final int DEFAULT_NUM_LEVELS = 200;
+
+	public static void main(String[] args) throws Exception {
+		int numLevels = args.length > 0 ? Integer.parseInt(args[0])
+				: DEFAULT_NUM_LEVELS;
+
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		MasterDictionary masterDictionary;
+		try {
+			masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+		BinaryDictionary dictionary = masterDictionary.getDictionary();
+
+		long startTime = System.nanoTime();
+		AnagramIndex anagramIndex = masterDictionary.getAnagramIndex();
+		report("Building anagram index", 1, System.nanoTime() - startTime);
+
+		// Same levels for every method
+		Random rand = new Random(42);
+		char[][] levels = new char[numLevels][LevelGenerator.LEVEL_SIZE];
+		for (char[] levelLetters : levels) {
+			for (int index = 0; index < levelLetters.length; index++) {
+				levelLetters[index] = (char) ('A' + rand.nextInt(26));
+			}
+		}
+
+		int[] wordIndices = new int[dictionary.getWordCount()];
+		long numWords = 0;
+		long numScanned = 0;
+		long numIndexed = 0;
+
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			numWords += new EnglishWordCache(WORD_LIST_FILE, levelLetters)
+					.getValidWords().size();
+		}
+		report("EnglishWordCache from text", numLevels, System.nanoTime()
+				- startTime);
+
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			numScanned += dictionary.findSubsetWords(LetterSignature
+					.low(levelLetters), LetterSignature.high(levelLetters),
+					wordIndices);
+		}
+		report("Signature scan of dictionary", numLevels, System.nanoTime()
+				- startTime);
+
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			numIndexed += anagramIndex.findWords(levelLetters, wordIndices);
+		}
+		report("Anagram index lookup", numLevels, System.nanoTime()
+				- startTime);
+
+		// All three methods should find the same number of words
+		System.out.println("Words found : " + numWords + " / " + numScanned
+				+ " / " + numIndexed);
+
+		// Analyzing levels the way LevelGenerator picks them
+		benchmarkLevelAnalyzer(masterDictionary, numLevels);
+		benchmarkLevelTable(masterDictionary, numLevels);
+
+		// Construction from the text word list, reading lines as Strings
+		// like EnglishWordCache used to, and with WordListParser
+		long numReadLine = 0;
+		long startBytes = allocatedBytes();
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			numReadLine += readLineCache(levelLetters).size();
+		}
+		report("Cache from readLine", numLevels, System.nanoTime()
+				- startTime, allocatedBytes() - startBytes);
+
+		long numParsed = 0;
+		startBytes = allocatedBytes();
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			InputStream levelHandle = new FileInputStream(WORD_LIST_FILE);
+			try {
+				numParsed += new EnglishWordCache(levelHandle, levelLetters)
+						.getValidWords().size();
+			} finally {
+				levelHandle.close();
+			}
+		}
+		report("Cache from WordListParser", numLevels, System.nanoTime()
+				- startTime, allocatedBytes() - startBytes);
+
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime
+				.getRuntime().availableProcessors());
+		long numParallel = 0;
+		startTime = System.nanoTime();
+		try {
+			for (char[] levelLetters : levels) {
+				InputStream levelHandle = new FileInputStream(WORD_LIST_FILE);
+				try {
+					numParallel += new EnglishWordCache(levelHandle,
+							levelLetters, executor).getValidWords().size();
+				} finally {
+					levelHandle.close();
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		report("Cache from parallel build", numLevels, System.nanoTime()
+				- startTime);
+
+		System.out.println("Words cached : " + numReadLine + " / "
+				+ numParsed + " / " + numParallel);
+
+		benchmarkLookups(dictionary);
+		benchmarkLargeWordList();
+	}
+
+	/*
+	 * Compares isWordValid of a cache of the whole dictionary, as
+	 * EnglishWordCache, FrontCodedWordCache and PerfectHashWordCache, and the
+	 * heap each cache holds on to
+	 */
+	private static void benchmarkLookups(BinaryDictionary dictionary)
+			throws Exception {
+		char[] allLetters = new char[26 * 9];
+		for (int index = 0; index < allLetters.length; index++) {
+			allLetters[index] = (char) ('A' + index % 26);
+		}
+
+		long startHeap = usedHeap();
+		WordCache englishCache = new EnglishWordCache(WORD_LIST_FILE,
+				allLetters);
+		long englishHeap = usedHeap() - startHeap;
+
+		startHeap = usedHeap();
+		WordCache frontCodedCache = new FrontCodedWordCache(WORD_LIST_FILE,
+				allLetters);
+		long frontCodedHeap = usedHeap() - startHeap;
+
+		startHeap = usedHeap();
+		long startTime = System.nanoTime();
+		WordCache perfectHashCache = new PerfectHashBuilder().addAll(
+				dictionary).build();
+		long buildTime = System.nanoTime() - startTime;
+		long perfectHashHeap = usedHeap() - startHeap;
+		report("Building perfect hash", 1, buildTime);
+
+		// Half valid words, half nonsense of the same lengths
+		Random rand = new Random(42);
+		String[] lookups = new String[1 << 16];
+		for (int index = 0; index < lookups.length; index++) {
+			String word = dictionary.getWord(rand.nextInt(dictionary
+					.getWordCount()));
+			if (rand.nextBoolean()) {
+				char[] letters = word.toCharArray();
+				letters[rand.nextInt(letters.length)] = (char) ('A' + rand
+						.nextInt(26));
+				word = new String(letters);
+			}
+			lookups[index] = word;
+		}
+
+		WordCache[] caches = { englishCache, frontCodedCache,
+				perfectHashCache };
+		long[] heaps = { englishHeap, frontCodedHeap, perfectHashHeap };
+		for (int cacheIndex = 0; cacheIndex < caches.length; cacheIndex++) {
+			WordCache cache = caches[cacheIndex];
+			int numValid = 0;
+			int numOps = 16 * lookups.length;
+			startTime = System.nanoTime();
+			for (int round = 0; round < 16; round++) {
+				for (String word : lookups) {
+					if (cache.isWordValid(word)) {
+						numValid++;
+					}
+				}
+			}
+			long elapsed = System.nanoTime() - startTime;
+			System.out.println(cache.getClass().getSimpleName()
+					+ ".isWordValid : " + (elapsed / numOps) + " ns per op, "
+					+ (heaps[cacheIndex] / 1024) + " KB heap, " + numValid
+					+ " valid");
+		}
+	}
+
+	/*
+	 * Times LevelAnalyzer on generated levels, and counts the levels that
+	 * can't fill a letter grid
+	 */
+	private static void benchmarkLevelAnalyzer(
+			MasterDictionary masterDictionary, int numLevels) throws Exception {
+		LevelGenerator levelGen = new LevelGenerator(FREQ_FILE, "-");
+		Level[] levels = new Level[numLevels];
+		for (int index = 0; index < numLevels; index++) {
+			levels[index] = levelGen.generateLevel(LevelGenerator.MIN_LEVEL
+					+ index % LevelGenerator.MAX_LEVEL);
+		}
+		LevelAnalyzer analyzer = new LevelAnalyzer(masterDictionary);
+		int numShortLevels = 0;
+		long startTime = System.nanoTime();
+		for (Level level : levels) {
+			if (!analyzer.analyze(level).hasEnoughWords()) {
+				numShortLevels++;
+			}
+		}
+		report("Analyzing generated level", numLevels, System.nanoTime()
+				- startTime);
+		System.out.println("Levels without enough words : " + numShortLevels
+				+ " / " + numLevels);
+
+		// Counting is what BalancedLevelGenerator does for each candidate
+		startTime = System.nanoTime();
+		int numNodes = masterDictionary.getSignatureTrie().getNodeCount();
+		report("Building signature trie of " + numNodes + " nodes", 1,
+				System.nanoTime() - startTime);
+		int numWords = 0;
+		startTime = System.nanoTime();
+		for (Level level : levels) {
+			numWords += analyzer.countPlayableWords(level.getAlphabets());
+		}
+		report("Counting playable words of generated level", numLevels,
+				System.nanoTime() - startTime);
+
+		startTime = System.nanoTime();
+		LevelBands bands = LevelBands.sample(levelGen, analyzer);
+		report("Sampling bands of every level", 1, System.nanoTime()
+				- startTime);
+		BalancedLevelGenerator balancedLevelGen = new BalancedLevelGenerator(
+				levelGen, analyzer, bands,
+				WordZapConstants.LEVEL_GENERATION_TIME_BUDGET,
+				WordZapConstants.LEVEL_GENERATION_MAX_CANDIDATES);
+		numShortLevels = 0;
+		startTime = System.nanoTime();
+		for (int index = 0; index < numLevels; index++) {
+			Level level = balancedLevelGen.generateLevel(
+					LevelGenerator.MIN_LEVEL + index % LevelGenerator.MAX_LEVEL,
+					index);
+			if (analyzer.countPlayableWords(level.getAlphabets()) < WordZapConstants.GRID_NUMROWS) {
+				numShortLevels++;
+			}
+		}
+		report("Generating balanced level", numLevels, System.nanoTime()
+				- startTime);
+		System.out.println("Balanced levels without enough words : "
+				+ numShortLevels + " / " + numLevels + " (" + numWords
+				+ " words counted)");
+	}
+
+	/*
+	 * Compares building level caches from the anagram index and from the
+	 * shipped level table, for letter sets of the table
+	 */
+	private static void benchmarkLevelTable(MasterDictionary masterDictionary,
+			int numLevels) throws Exception {
+		InputStream tableHandle = new FileInputStream(LEVEL_TABLE_FILE);
+		long startTime = System.nanoTime();
+		LevelTable levelTable;
+		try {
+			levelTable = new LevelTable(tableHandle);
+		} finally {
+			tableHandle.close();
+		}
+		report("Reading level table of " + levelTable.getByteCount()
+				+ " bytes", 1, System.nanoTime() - startTime);
+
+		Random rand = new Random(42);
+		char[][] levels = new char[numLevels][];
+		for (int index = 0; index < numLevels; index++) {
+			levels[index] = levelTable.pickLetters(LevelGenerator.MIN_LEVEL
+					+ index % LevelGenerator.MAX_LEVEL, rand);
+		}
+
+		long numIndexed = 0;
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			numIndexed += masterDictionary.createLevelCache(levelLetters)
+					.size();
+		}
+		report("Level cache from anagram index", numLevels, System.nanoTime()
+				- startTime);
+
+		masterDictionary.setLevelTable(levelTable);
+		long numTabled = 0;
+		startTime = System.nanoTime();
+		for (char[] levelLetters : levels) {
+			numTabled += masterDictionary.createLevelCache(levelLetters)
+					.size();
+		}
+		report("Level cache from level table", numLevels, System.nanoTime()
+				- startTime);
+		System.out.println("Words cached : " + numIndexed + " / " + numTabled);
+	}
+
+	/*
+	 * Compares the heap held by EnglishWordCache and FrontCodedWordCache for a
+	 * list of 250000 random words of 2 to 10 letters
+	 */
+	private static void benchmarkLargeWordList() throws Exception {
+		Random rand = new Random(42);
+		Set<String> words = new HashSet<String>();
+		while (words.size() < 250000) {
+			char[] letters = new char[2 + rand.nextInt(9)];
+			for (int index = 0; index < letters.length; index++) {
+				letters[index] = (char) ('A' + rand.nextInt(26));
+			}
+			words.add(new String(letters));
+		}
+		ByteArrayOutputStream wordList = new ByteArrayOutputStream();
+		for (String word : words) {
+			wordList.write(word.getBytes("US-ASCII"));
+			wordList.write('\n');
+		}
+		byte[] wordListBytes = wordList.toByteArray();
+		words = null;
+		char[] allLetters = new char[26 * 10];
+		for (int index = 0; index < allLetters.length; index++) {
+			allLetters[index] = (char) ('A' + index % 26);
+		}
+
+		long startHeap = usedHeap();
+		WordCache englishCache = new EnglishWordCache(
+				new ByteArrayInputStream(wordListBytes), allLetters);
+		long englishHeap = usedHeap() - startHeap;
+		System.out.println("EnglishWordCache of 250000 words : "
+				+ (englishHeap / 1024) + " KB heap, "
+				+ englishCache.getValidWords().size() + " words");
+		englishCache = null;
+
+		startHeap = usedHeap();
+		FrontCodedWordCache frontCodedCache = new FrontCodedWordCache(
+				new ByteArrayInputStream(wordListBytes), allLetters);
+		long frontCodedHeap = usedHeap() - startHeap;
+		System.out.println("FrontCodedWordCache of 250000 words : "
+				+ (frontCodedHeap / 1024) + " KB heap, "
+				+ (frontCodedCache.getByteCount() / 1024) + " KB coded, "
+				+ frontCodedCache.size() + " words");
+	}
+
+	// Returns bytes of heap in use after a garbage collection
+	private static long usedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int round = 0; round < 3; round++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/*
+	 * Caches words of a level the way EnglishWordCache did before
+	 * WordListParser, creating two Strings for every line of the word list
+	 */
+	private static Set<String> readLineCache(char[] levelLetters)
+			throws IOException {
+		long charSetLow = LetterSignature.low(levelLetters);
+		long charSetHigh = LetterSignature.high(levelLetters);
+		Set<String> words = new TreeSet<String>();
+		BufferedReader buffRdr = new BufferedReader(new FileReader(
+				WORD_LIST_FILE));
+		try {
+			String word;
+			while ((word = buffRdr.readLine()) != null) {
+				word = word.toUpperCase();
+				if (word.length() != 0
+						&& LetterSignature.isSubset(LetterSignature.low(word),
+								LetterSignature.high(word), charSetLow,
+								charSetHigh)) {
+					words.add(word);
+				}
+			}
+		} finally {
+			buffRdr.close();
+		}
+		return words;
+	}
+
+	/*
+	 * Returns number of bytes allocated so far by this thread, or 0 if the VM
+	 * can't tell
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadBean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	// Prints average time taken per operation
+	private static void report(String label, int numOps, long elapsedNanos) {
+		System.out.println(label + " : " + (elapsedNanos / numOps / 1000)
+				+ " us per op (" + numOps + " ops)");
+	}
+
+	// Prints average time taken and bytes allocated per operation
+	private static void report(String label, int numOps, long elapsedNanos,
+			long allocated) {
+		System.out.println(label + " : " + (elapsedNanos / numOps / 1000)
+				+ " us, " + (allocated / numOps / 1024) + " KB per op ("
+				+ numOps + " ops)");
+	}
+}
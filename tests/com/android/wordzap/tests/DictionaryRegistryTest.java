@@ -0,0 +1,204 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.DictionaryRegistry;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.RegistryWordCache;
+import com.android.wordzap.datamodel.LetterGrid;
+
+/*
+ * JUnit Test Cases for classes DictionaryRegistry and RegistryWordCache
+ * 
+ */
+
+public class DictionaryRegistryTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	// Word added to the word list by the corrected dictionary
+	private static final String ADDED_WORD = "ZQXJ";
+
+	// Letters of the level, which can form every word used below
+	private static final char[] LEVEL_LETTERS = "STOPZQXJ".toCharArray();
+
+	private MasterDictionary dictionary;
+	private MasterDictionary correctedDictionary;
+
+	@Before
+	public void setUp() throws Exception {
+		ByteArrayOutputStream wordList = new ByteArrayOutputStream();
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			byte[] buffer = new byte[16 * 1024];
+			int numRead;
+			while ((numRead = wordListHandle.read(buffer)) != -1) {
+				wordList.write(buffer, 0, numRead);
+			}
+		} finally {
+			wordListHandle.close();
+		}
+		this.dictionary = new MasterDictionary(BinaryDictionary
+				.compile(new ByteArrayInputStream(wordList.toByteArray())));
+		wordList.write(("\n" + ADDED_WORD + "\n").getBytes("US-ASCII"));
+		this.correctedDictionary = new MasterDictionary(BinaryDictionary
+				.compile(new ByteArrayInputStream(wordList.toByteArray())));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Published dictionaries get increasing versions, and level caches follow
+	 * them
+	 */
+	@Test
+	public void testPublish() throws Exception {
+		DictionaryRegistry registry = new DictionaryRegistry(this.dictionary);
+		assertEquals(1, registry.getVersion());
+		RegistryWordCache cache = new RegistryWordCache(registry,
+				LEVEL_LETTERS);
+		assertTrue(cache.isWordValid("STOP"));
+		assertFalse(cache.isWordValid(ADDED_WORD));
+		assertEquals(1, cache.getVersion());
+
+		assertEquals(2, registry.publish(this.correctedDictionary));
+		assertSame(this.correctedDictionary, registry.getDictionary());
+		assertTrue(cache.isWordValid(ADDED_WORD));
+		assertTrue(cache.getValidWords().contains(ADDED_WORD));
+		assertEquals(2, cache.getVersion());
+
+		assertEquals(3, registry.publish(this.dictionary));
+		assertFalse(cache.isWordValid(ADDED_WORD));
+	}
+
+	/*
+	 * A grid holding a registry cache accepts a word added by a dictionary
+	 * published after the grid was created
+	 */
+	@Test
+	public void testLockWordAtTop() throws Exception {
+		DictionaryRegistry registry = new DictionaryRegistry(this.dictionary);
+		LetterGrid grid = new LetterGrid(7, 5, new RegistryWordCache(
+				registry, LEVEL_LETTERS));
+		for (char letter : ADDED_WORD.toCharArray()) {
+			grid.putLetter(letter);
+		}
+		assertFalse(grid.lockWordAtTop());
+		registry.publish(this.correctedDictionary);
+		assertTrue(grid.lockWordAtTop());
+	}
+
+	/*
+	 * Threads looking up words while dictionaries are swapped never see an
+	 * error or a word missing from both dictionaries, and see the last
+	 * published dictionary once swapping stops
+	 */
+	@Test
+	public void testConcurrentSwaps() throws Exception {
+		final DictionaryRegistry registry = new DictionaryRegistry(
+				this.dictionary);
+		final RegistryWordCache cache = new RegistryWordCache(registry,
+				LEVEL_LETTERS);
+		final AtomicBoolean swapping = new AtomicBoolean(true);
+		// Counted down by each reader after its first lookup
+		final CountDownLatch started = new CountDownLatch(4);
+		final List<Throwable> failures = new Vector<Throwable>();
+		final int[] numLookups = new int[4];
+		Thread[] readers = new Thread[numLookups.length];
+		for (int index = 0; index < readers.length; index++) {
+			final int readerIndex = index;
+			readers[index] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						while (swapping.get()) {
+							if (!cache.isWordValid("STOP")
+									|| !cache.isWordValid("pots")
+									|| cache.isWordValid("STOPZ")) {
+								throw new AssertionError(
+										"Wrong answer during a swap");
+							}
+							cache.isWordValid(ADDED_WORD);
+							if (++numLookups[readerIndex] == 1) {
+								started.countDown();
+							}
+						}
+					} catch (Throwable e) {
+						failures.add(e);
+						started.countDown();
+					}
+				}
+			});
+			readers[index].start();
+		}
+
+		started.await();
+		long version = registry.getVersion();
+		for (int round = 0; round < 200; round++) {
+			version = registry
+					.publish(round % 2 == 0 ? this.correctedDictionary
+							: this.dictionary);
+			Thread.yield();
+		}
+		swapping.set(false);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+
+		assertEquals(new Vector<Throwable>(), failures);
+		assertEquals(201, version);
+		for (int lookups : numLookups) {
+			assertTrue(lookups > 0);
+		}
+
+		// The last published dictionary didn't have the added word
+		assertFalse(cache.isWordValid(ADDED_WORD));
+		assertEquals(version, cache.getVersion());
+	}
+
+}
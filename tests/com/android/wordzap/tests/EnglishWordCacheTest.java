@@ -0,0 +1,105 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.EnglishWordCache;
+
+/*
+ * JUnit Test Cases for class EnglishWordCache
+ * 
+ */
+
+public class EnglishWordCacheTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	private ExecutorService executor;
+	private Random rand;
+
+	@Before
+	public void setUp() throws Exception {
+		this.executor = Executors.newFixedThreadPool(4);
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.executor.shutdownNow();
+	}
+
+	// Returns random level letters
+	private char[] randomLevelLetters() {
+		char[] levelLetters = new char[8];
+		for (int index = 0; index < levelLetters.length; index++) {
+			levelLetters[index] = (char) ('A' + this.rand.nextInt(26));
+		}
+		return levelLetters;
+	}
+
+	/*
+	 * A parallel build caches the same words, in the same order, as a
+	 * sequential build
+	 */
+	@Test
+	public void testParallelBuild() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			char[] levelLetters = this.randomLevelLetters();
+			EnglishWordCache sequentialCache = new EnglishWordCache(
+					WORD_LIST_FILE, levelLetters);
+			InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+			try {
+				EnglishWordCache parallelCache = new EnglishWordCache(
+						wordListHandle, levelLetters, this.executor);
+				assertEquals(sequentialCache.getValidWords(), parallelCache
+						.getValidWords());
+			} finally {
+				wordListHandle.close();
+			}
+		}
+
+		// Small lists are built on the calling thread
+		EnglishWordCache smallCache = new EnglishWordCache(
+				new ByteArrayInputStream("cat\nact\ntac\ndog\n"
+						.getBytes("US-ASCII")), "TAC".toCharArray(),
+				this.executor);
+		assertEquals(3, smallCache.getValidWords().size());
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.FrontCodedWordCache;
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * JUnit Test Cases for class FrontCodedWordCache
+ * 
+ */
+
+public class FrontCodedWordCacheTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	private char[] allLetters;
+	private Random rand;
+
+	@Before
+	public void setUp() throws Exception {
+		this.allLetters = new char[26 * 9];
+		for (int index = 0; index < this.allLetters.length; index++) {
+			this.allLetters[index] = (char) ('A' + index % 26);
+		}
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * The cache holds and validates the same words as EnglishWordCache, for
+	 * the whole word list and for the letters of a level
+	 */
+	@Test
+	public void testIsWordValid() throws Exception {
+		char[][] charSets = { this.allLetters, "TSEALRPO".toCharArray() };
+		for (char[] charSet : charSets) {
+			EnglishWordCache englishCache = new EnglishWordCache(
+					WORD_LIST_FILE, charSet);
+			FrontCodedWordCache frontCodedCache = new FrontCodedWordCache(
+					WORD_LIST_FILE, charSet);
+			List<String> words = englishCache.getValidWords();
+			assertEquals(words, frontCodedCache.getValidWords());
+			assertEquals(words.size(), frontCodedCache.size());
+
+			for (String word : words) {
+				assertTrue(word, frontCodedCache.isWordValid(word));
+				assertTrue(word, frontCodedCache.isWordValid(word
+						.toLowerCase()));
+				assertFalse(word, frontCodedCache.isWordValid(word + "#"));
+				assertFalse(word, frontCodedCache.isWordValid("#"
+						+ word.substring(1)));
+			}
+			for (int round = 0; round < 10000; round++) {
+				char[] letters = new char[1 + this.rand.nextInt(6)];
+				for (int index = 0; index < letters.length; index++) {
+					letters[index] = (char) ('A' + this.rand.nextInt(26));
+				}
+				String word = new String(letters);
+				assertEquals(word, englishCache.isWordValid(word),
+						frontCodedCache.isWordValid(word));
+			}
+			assertFalse(frontCodedCache.isWordValid(""));
+		}
+	}
+
+	/*
+	 * Words of any length are cached once, in upper case, and words with non
+	 * ASCII characters are rejected
+	 */
+	@Test
+	public void testWordList() throws Exception {
+		FrontCodedWordCache cache = new FrontCodedWordCache(Arrays.asList(
+				"zebra", "ZEBRA", "zebras", "", "A", "antidisestablishment",
+				"zebu"));
+		assertEquals(Arrays.asList("A", "ZEBU", "ZEBRA", "ZEBRAS",
+				"ANTIDISESTABLISHMENT"), cache.getValidWords());
+		assertTrue(cache.isWordValid("AntiDisestablishment"));
+		assertFalse(cache.isWordValid("ZEBR"));
+		try {
+			new FrontCodedWordCache(Arrays.asList("CAF\u00C9"));
+			fail("Cached a non ASCII word");
+		} catch (InvalidDictionaryException e) {
+		}
+	}
+
+	/*
+	 * Words in the list are never picked, and null is returned once every
+	 * word is in the list
+	 */
+	@Test
+	public void testGetRandomWordNotInList() throws Exception {
+		FrontCodedWordCache cache = new FrontCodedWordCache(WORD_LIST_FILE,
+				"CATS".toCharArray());
+		List<String> usedWords = new Vector<String>();
+		String word;
+		while ((word = cache.getRandomWord(usedWords)) != null) {
+			assertTrue(cache.isWordValid(word));
+			assertTrue(word.length() > 2);
+			assertFalse(usedWords.contains(word));
+			usedWords.add(word);
+		}
+		assertTrue(usedWords.size() > 1);
+		assertNull(cache.getRandomWord(usedWords));
+	}
+
+}
@@ -0,0 +1,147 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.GameExecutor;
+import com.android.wordzap.GameHost;
+import com.android.wordzap.Timer;
+
+/*
+ * JUnit Test Cases for class GameExecutor
+ * 
+ */
+
+public class GameExecutorTest {
+
+	@Before
+	public void setUp() throws Exception {
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Sleeping tasks are woken up by interrupting the thread returned for
+	 * them, on either kind of threads
+	 */
+	@Test
+	public void testExecute() throws Exception {
+		List<GameExecutor> executors = new Vector<GameExecutor>();
+		executors.add(GameExecutor.newPlatformExecutor("Test"));
+		if (GameExecutor.isVirtualAvailable()) {
+			executors.add(GameExecutor.newVirtualExecutor("Test"));
+		} else {
+			try {
+				GameExecutor.newVirtualExecutor("Test");
+				assertTrue(false);
+			} catch (UnsupportedOperationException e) {
+			}
+		}
+
+		for (GameExecutor executor : executors) {
+			final CountDownLatch started = new CountDownLatch(1);
+			final CountDownLatch interrupted = new CountDownLatch(1);
+			Thread thread = executor.execute(new Runnable() {
+				public void run() {
+					try {
+						started.countDown();
+						Thread.sleep(60000);
+					} catch (InterruptedException e) {
+						interrupted.countDown();
+					}
+				}
+			});
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			assertEquals(1, executor.getRunningCount());
+			thread.interrupt();
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+			thread.join(5000);
+			assertFalse(thread.isAlive());
+			assertEquals(0, executor.getRunningCount());
+		}
+	}
+
+	/*
+	 * A timer thread returns as soon as it is interrupted at game over
+	 */
+	@Test
+	public void testTimerGameOver() throws Exception {
+		final boolean[] isGameOver = { false };
+		GameHost gameHost = new GameHost() {
+			public boolean isGameOver() {
+				return isGameOver[0];
+			}
+
+			public List<String> getCompletedWords() {
+				return new Vector<String>();
+			}
+
+			public void makeComputerMove(boolean isZapMove,
+					String generatedWord) {
+			}
+
+			public String getLastWord() {
+				return "";
+			}
+
+			public int getOpponentGridSize() {
+				return 0;
+			}
+
+			public void showTimerStatus(int gameStatus, int timeValue) {
+				assertTrue(false);
+			}
+		};
+		GameExecutor executor = GameExecutor.getDefault();
+		Thread timer = executor.execute(new Timer(gameHost));
+
+		// Reset by a word, the timer goes on
+		Thread.sleep(50);
+		timer.interrupt();
+		Thread.sleep(50);
+		assertTrue(timer.isAlive());
+
+		isGameOver[0] = true;
+		timer.interrupt();
+		timer.join(5000);
+		assertFalse(timer.isAlive());
+	}
+
+}
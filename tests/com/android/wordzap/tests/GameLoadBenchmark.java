@@ -0,0 +1,172 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.GameRandom;
+import com.android.wordzap.HeadlessGame;
+import com.android.wordzap.Level;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.TimingWheelScheduler;
+import com.android.wordzap.WordCache;
+
+/*
+ * Hosts many headless games on one timing wheel, and reports the threads and
+ * CPU time they take. Games play at the real pace of their levels. Not a
+ * JUnit test, run it from the project directory with :
+ * 
+ * java com.android.wordzap.tests.GameLoadBenchmark [seconds per run]
+ * [number of games]...
+ */
+public class GameLoadBenchmark {
+
+	// Word list and letter frequencies shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	private static final int DEFAULT_SECONDS = 10;
+	private static final int[] DEFAULT_NUM_GAMES = { 1000, 10000, 100000 };
+
+	// Most milliseconds a simulated human player takes to form a word. Above
+	// the human player's time, so that some games time out.
+	private static final long MAX_THINK_MILLIS = 70000;
+
+	// Milliseconds in a tick of the timing wheel
+	private static final long TIMING_WHEEL_TICK = 10;
+
+	// Number of buckets on the timing wheel, covering about 10 seconds
+	private static final int TIMING_WHEEL_SIZE = 1024;
+
+	public static void main(String[] args) throws Exception {
+		int numSeconds = args.length > 0 ? Integer.parseInt(args[0])
+				: DEFAULT_SECONDS;
+		int[] numGamesPerRun = DEFAULT_NUM_GAMES;
+		if (args.length > 1) {
+			numGamesPerRun = new int[args.length - 1];
+			for (int index = 1; index < args.length; index++) {
+				numGamesPerRun[index - 1] = Integer.parseInt(args[index]);
+			}
+		}
+
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		MasterDictionary masterDictionary;
+		try {
+			masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+
+		// One level of each difficulty, shared by the games playing it. Every
+		// game runs on the wheel's single thread, so caches can be shared.
+		LevelGenerator levelGen = new LevelGenerator(FREQ_FILE, "-");
+		GameRandom levelRandom = new GameRandom(42);
+		int numLevels = LevelGenerator.MAX_LEVEL - LevelGenerator.MIN_LEVEL + 1;
+		Level[] levels = new Level[numLevels];
+		WordCache[] caches = new WordCache[numLevels];
+		for (int index = 0; index < numLevels; index++) {
+			levels[index] = levelGen.generateLevel(LevelGenerator.MIN_LEVEL
+					+ index, levelRandom.split(index));
+			caches[index] = masterDictionary.createLevelCache(levels[index]
+					.getAlphabets(), levelRandom.split(numLevels + index));
+		}
+
+		System.out.println("Games\tThreads\tTicker CPU\tAll CPU\tHeap MB\tFinished");
+		for (int numGames : numGamesPerRun) {
+			runGames(numGames, numSeconds, levels, caches);
+		}
+	}
+
+	/*
+	 * Starts games on a new timing wheel, lets them play for a while and
+	 * reports the load
+	 */
+	private static void runGames(int numGames, int numSeconds,
+			final Level[] levels, final WordCache[] caches)
+			throws Exception {
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		TimingWheelScheduler timingWheel = new TimingWheelScheduler(
+				TIMING_WHEEL_TICK, TIMING_WHEEL_SIZE);
+		try {
+			HeadlessGame[] games = new HeadlessGame[numGames];
+			for (int index = 0; index < numGames; index++) {
+				int level = index % levels.length;
+				games[index] = new HeadlessGame(levels[level], caches[level],
+						timingWheel, new GameRandom(index), MAX_THINK_MILLIS);
+			}
+			System.gc();
+
+			long tickerId = timingWheel.getTickerThread().getId();
+			long tickerCpu = threadBean.getThreadCpuTime(tickerId);
+			long allCpu = getAllThreadsCpuTime(threadBean);
+			long startTime = System.nanoTime();
+			threadBean.resetPeakThreadCount();
+			for (HeadlessGame game : games) {
+				game.start();
+			}
+			Thread.sleep(numSeconds * 1000L);
+
+			long elapsed = System.nanoTime() - startTime;
+			tickerCpu = threadBean.getThreadCpuTime(tickerId) - tickerCpu;
+			allCpu = getAllThreadsCpuTime(threadBean) - allCpu;
+			int numFinished = 0;
+			for (HeadlessGame game : games) {
+				if (game.isGameOver()) {
+					numFinished++;
+				}
+			}
+			Runtime runtime = Runtime.getRuntime();
+			System.out.println(numGames + "\t"
+					+ threadBean.getPeakThreadCount() + "\t"
+					+ percent(tickerCpu, elapsed) + "\t\t"
+					+ percent(allCpu, elapsed) + "\t"
+					+ (runtime.totalMemory() - runtime.freeMemory()) / 1000000
+					+ "\t" + numFinished);
+		} finally {
+			timingWheel.shutdown();
+		}
+	}
+
+	// Returns CPU time of every live thread, in nanoseconds
+	private static long getAllThreadsCpuTime(final ThreadMXBean threadBean) {
+		long cpuTime = 0;
+		for (long threadId : threadBean.getAllThreadIds()) {
+			cpuTime += Math.max(0, threadBean.getThreadCpuTime(threadId));
+		}
+		return cpuTime;
+	}
+
+	// Formats a CPU time as a percentage of a core over elapsed time
+	private static String percent(long cpuTime, long elapsed) {
+		return String.format("%.2f%%", 100.0 * cpuTime / elapsed);
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.DawgWordCache;
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.FrontCodedWordCache;
+import com.android.wordzap.GameRandom;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.PerfectHashBuilder;
+import com.android.wordzap.WordCache;
+
+/*
+ * JUnit Test Cases for class GameRandom
+ * 
+ */
+
+public class GameRandomTest {
+
+	// Word list and letter frequencies shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	private MasterDictionary masterDictionary;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns the first numbers drawn from a stream
+	private List<Integer> draw(final GameRandom rand) {
+		List<Integer> numbers = new Vector<Integer>();
+		for (int index = 0; index < 20; index++) {
+			numbers.add(rand.nextInt(1000));
+		}
+		return numbers;
+	}
+
+	/*
+	 * Games with the same seed draw the same numbers in every stream, however
+	 * much the game itself has drawn
+	 */
+	@Test
+	public void testSplit() {
+		GameRandom game = new GameRandom(1234);
+		GameRandom sameGame = new GameRandom(1234);
+		assertEquals(1234, game.getSeed());
+		assertEquals(this.draw(game), this.draw(sameGame));
+
+		sameGame.nextLong();
+		assertEquals(this.draw(game.split(GameRandom.LEVEL_STREAM)), this
+				.draw(sameGame.split(GameRandom.LEVEL_STREAM)));
+		assertEquals(this.draw(game.split(GameRandom.ZAP_STREAM).split(7)),
+				this.draw(sameGame.split(GameRandom.ZAP_STREAM).split(7)));
+
+		// Streams, and games with other seeds, draw other numbers
+		assertFalse(this.draw(game.split(GameRandom.LEVEL_STREAM)).equals(
+				this.draw(game.split(GameRandom.MOVES_STREAM))));
+		assertFalse(this.draw(game.split(GameRandom.WORDS_STREAM)).equals(
+				this.draw(new GameRandom(1235).split(GameRandom.WORDS_STREAM))));
+		assertFalse(new GameRandom().getSeed() == new GameRandom().getSeed());
+	}
+
+	/*
+	 * Levels and the random words of word caches only depend on the seed
+	 */
+	@Test
+	public void testSeededGame() throws Exception {
+		LevelGenerator levelGen = new LevelGenerator(FREQ_FILE, "-");
+		List<String> firstGame = this.playGame(levelGen, 99);
+		assertEquals(firstGame, this.playGame(levelGen, 99));
+		assertFalse(firstGame.equals(this.playGame(levelGen, 100)));
+	}
+
+	/*
+	 * Returns the letters of every level, and words picked from each kind of
+	 * cache for them, in a game with a seed
+	 */
+	private List<String> playGame(final LevelGenerator levelGen, long seed)
+			throws Exception {
+		GameRandom game = new GameRandom(seed);
+		List<String> choices = new Vector<String>();
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			char[] levelLetters = levelGen.generateLevel(level,
+					game.split(GameRandom.LEVEL_STREAM).split(level))
+					.getAlphabets();
+			choices.add(new String(levelLetters));
+
+			GameRandom words = game.split(GameRandom.WORDS_STREAM).split(level);
+			List<String> levelWords = this.masterDictionary.createLevelCache(
+					levelLetters).getValidWords();
+			WordCache[] caches = {
+					this.masterDictionary.createLevelCache(levelLetters, words
+							.split(0)),
+					new EnglishWordCache(this.masterDictionary.getDictionary(),
+							levelLetters, words.split(1)),
+					new DawgWordCache(levelWords, words.split(2)),
+					new FrontCodedWordCache(levelWords, words.split(3)),
+					new PerfectHashBuilder().addAll(levelWords).build(
+							words.split(4)) };
+			for (WordCache cache : caches) {
+				for (int pick = 0; pick < 5; pick++) {
+					choices.add(cache.getRandomWord());
+				}
+			}
+		}
+		return choices;
+	}
+
+}
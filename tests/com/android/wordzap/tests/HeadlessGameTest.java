@@ -0,0 +1,218 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.CpuDescriptor;
+import com.android.wordzap.GameExecutor;
+import com.android.wordzap.GameRandom;
+import com.android.wordzap.HeadlessGame;
+import com.android.wordzap.Level;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.Timer;
+import com.android.wordzap.TimingWheelScheduler;
+import com.android.wordzap.WordZapConstants;
+
+/*
+ * JUnit Test Cases for class HeadlessGame
+ * 
+ */
+
+public class HeadlessGameTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	private static final char[] LEVEL_LETTERS = "TSEALRPO".toCharArray();
+
+	private MasterDictionary masterDictionary;
+	private ManualGameScheduler scheduler;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+		this.scheduler = new ManualGameScheduler();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Creates a game of a seed, whose computer player moves at a given pace
+	private HeadlessGame createGame(long seed, int cpuMoveTime,
+			long maxThinkMillis) throws Exception {
+		GameRandom gameRandom = new GameRandom(seed);
+		Level aLevel = new Level(LEVEL_LETTERS, new CpuDescriptor(cpuMoveTime,
+				2, cpuMoveTime, 2), 1);
+		return new HeadlessGame(aLevel, this.masterDictionary
+				.createLevelCache(LEVEL_LETTERS, gameRandom
+						.split(GameRandom.WORDS_STREAM)), this.scheduler,
+				gameRandom, maxThinkMillis);
+	}
+
+	// Plays a game to its end, returning the time it took
+	private long playGame(final HeadlessGame game) {
+		long startTime = this.scheduler.currentTimeMillis();
+		game.start();
+		while (!game.isGameOver()) {
+			this.scheduler.advance(100);
+		}
+
+		// Nothing of the game is left on the scheduler
+		assertEquals(0, this.scheduler.getWaitingCount());
+		return this.scheduler.currentTimeMillis() - startTime;
+	}
+
+	/*
+	 * Games of a seed play out the same way
+	 */
+	@Test
+	public void testSeededGame() throws Exception {
+		for (long seed = 0; seed < 20; seed++) {
+			HeadlessGame game = this.createGame(seed, 10, 8000);
+			long gameTime = this.playGame(game);
+			assertTrue(game.getGameStatus() != WordZapConstants.NONE);
+			assertTrue(game.getCompletedWords().size() <= WordZapConstants.GRID_NUMROWS);
+			if (game.getGameStatus() == WordZapConstants.HUMAN_WIN) {
+				assertEquals(WordZapConstants.GRID_NUMROWS, game
+						.getCompletedWords().size());
+			}
+
+			HeadlessGame sameGame = this.createGame(seed, 10, 8000);
+			assertEquals(gameTime, this.playGame(sameGame));
+			assertEquals(game.getGameStatus(), sameGame.getGameStatus());
+			assertEquals(game.getCompletedWords(), sameGame
+					.getCompletedWords());
+			assertEquals(game.getOpponentGridSize(), sameGame
+					.getOpponentGridSize());
+		}
+	}
+
+	/*
+	 * A human player who never forms a word runs out of time after twice
+	 * WordZapConstants.HUMAN_SLEEP_CHECK
+	 */
+	@Test
+	public void testTimeOut() throws Exception {
+		HeadlessGame game = this.createGame(1, 1000, Long.MAX_VALUE / 2);
+		long gameTime = this.playGame(game);
+		assertEquals(2 * WordZapConstants.HUMAN_SLEEP_CHECK, gameTime);
+		assertTrue(game.getCompletedWords().isEmpty());
+		assertEquals(Timer.getGameStatus(0, game.getOpponentGridSize()), game
+				.getGameStatus());
+	}
+
+	/*
+	 * Games played by threads stop every thread once over
+	 */
+	@Test
+	public void testThreadedGame() throws Exception {
+		GameExecutor executor = GameExecutor.newPlatformExecutor("Test");
+		HeadlessGame[] games = new HeadlessGame[50];
+		for (int index = 0; index < games.length; index++) {
+			GameRandom gameRandom = new GameRandom(index);
+			games[index] = new HeadlessGame(new Level(LEVEL_LETTERS,
+					new CpuDescriptor(30, 1, 30, 1), 1), this.masterDictionary
+					.createLevelCache(LEVEL_LETTERS, gameRandom
+							.split(GameRandom.WORDS_STREAM)), gameRandom, 5);
+			games[index].start(executor);
+		}
+
+		// The human player is fast enough to fill its grid first
+		long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (executor.getRunningCount() > 0 && System.nanoTime() < endTime) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, executor.getRunningCount());
+		for (HeadlessGame game : games) {
+			assertEquals(WordZapConstants.HUMAN_WIN, game.getGameStatus());
+			assertEquals(game.getCompletedWords().get(
+					WordZapConstants.GRID_NUMROWS - 1), game.getLastWord());
+		}
+
+		try {
+			games[0].start(executor);
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+		}
+		try {
+			games[0].start();
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	/*
+	 * Many games share the ticker thread of a timing wheel
+	 */
+	@Test
+	public void testTimingWheel() throws Exception {
+		TimingWheelScheduler timingWheel = new TimingWheelScheduler(5, 256);
+		int threadsBefore = Thread.activeCount();
+		try {
+			HeadlessGame[] games = new HeadlessGame[500];
+			for (int index = 0; index < games.length; index++) {
+				GameRandom gameRandom = new GameRandom(index);
+				games[index] = new HeadlessGame(new Level(LEVEL_LETTERS,
+						new CpuDescriptor(1, 1, 1, 1), 1),
+						this.masterDictionary.createLevelCache(LEVEL_LETTERS,
+								gameRandom.split(GameRandom.WORDS_STREAM)),
+						timingWheel, gameRandom, 200);
+				games[index].start();
+			}
+			assertTrue(Thread.activeCount() <= threadsBefore);
+
+			long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+			for (HeadlessGame game : games) {
+				while (!game.isGameOver() && System.nanoTime() < endTime) {
+					Thread.sleep(10);
+				}
+				assertFalse(game.getGameStatus() == WordZapConstants.NONE);
+			}
+		} finally {
+			timingWheel.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.LetterSignature;
+
+/*
+ * JUnit Test Cases for class LetterSignature
+ * 
+ */
+
+public class LetterSignatureTest {
+
+	private Random rand;
+
+	@Before
+	public void setUp() throws Exception {
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns a random word made of letters from 'A' to 'A' + numLetters - 1
+	private String randomWord(int maxLength, int numLetters) {
+		char[] letters = new char[this.rand.nextInt(maxLength + 1)];
+		for (int index = 0; index < letters.length; index++) {
+			letters[index] = (char) ('A' + this.rand.nextInt(numLetters));
+		}
+		return new String(letters);
+	}
+
+	// Tells if word can be formed from letters, the slow way
+	private boolean isSubset(String word, String letters) {
+		List<Character> unusedLetters = new LinkedList<Character>();
+		for (char letter : letters.toCharArray()) {
+			unusedLetters.add(letter);
+		}
+		for (char letter : word.toCharArray()) {
+			if (!unusedLetters.remove(Character.valueOf(letter))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * isSubset agrees with a letter by letter check, for letters in both
+	 * halves of the signature
+	 */
+	@Test
+	public void testIsSubset() {
+		for (int round = 0; round < 20000; round++) {
+			int numLetters = round % 2 == 0 ? 26 : 4;
+			String word = this.randomWord(7, numLetters);
+			String letters = this.randomWord(8, numLetters);
+			if (round % 3 == 0) {
+				letters = letters + word;
+			}
+			assertEquals("isSubset is wrong for '" + word + "' and '"
+					+ letters + "'", this.isSubset(word, letters),
+					LetterSignature.isSubset(LetterSignature.low(word),
+							LetterSignature.high(word), LetterSignature
+									.low(letters.toCharArray()),
+							LetterSignature.high(letters.toCharArray())));
+		}
+	}
+
+	/*
+	 * Lower case letters and other characters are counted too
+	 */
+	@Test
+	public void testOtherCharacters() {
+		long setLow = LetterSignature.low("zapz-".toCharArray());
+		long setHigh = LetterSignature.high("zapz-".toCharArray());
+		assertTrue(LetterSignature.isSubset(LetterSignature.low("ZAP"),
+				LetterSignature.high("ZAP"), setLow, setHigh));
+		assertTrue(LetterSignature.isSubset(LetterSignature.low("ZZ-"),
+				LetterSignature.high("ZZ-"), setLow, setHigh));
+		assertFalse(LetterSignature.isSubset(LetterSignature.low("ZAP!!"),
+				LetterSignature.high("ZAP!!"), setLow, setHigh));
+		assertFalse(LetterSignature.isSubset(LetterSignature.low("ZZZ"),
+				LetterSignature.high("ZZZ"), setLow, setHigh));
+	}
+
+	/*
+	 * Anagrams have equal signatures
+	 */
+	@Test
+	public void testAnagrams() {
+		assertEquals(LetterSignature.low("STOP"), LetterSignature.low("POTS"));
+		assertEquals(LetterSignature.high("STOP"), LetterSignature
+				.high("POTS"));
+		assertFalse(LetterSignature.high("STOP") == LetterSignature
+				.high("STOPS"));
+	}
+
+}
@@ -0,0 +1,171 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.DawgWordCache;
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.Level;
+import com.android.wordzap.LevelAnalyzer;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.LevelReport;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.WordZapConstants;
+
+/*
+ * JUnit Test Cases for classes LevelAnalyzer and LevelReport
+ * 
+ */
+
+public class LevelAnalyzerTest {
+
+	// Word list and letter frequencies shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	private MasterDictionary masterDictionary;
+	private LevelGenerator levelGen;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+		this.levelGen = new LevelGenerator(FREQ_FILE, "-");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns words of a level cache that can be played
+	private List<String> playableWords(final char[] levelLetters)
+			throws Exception {
+		List<String> playableWords = new Vector<String>();
+		for (String word : new EnglishWordCache(WORD_LIST_FILE, levelLetters)
+				.getValidWords()) {
+			if (word.length() > WordZapConstants.MIN_WORD_SIZE
+					&& word.length() <= WordZapConstants.MAX_WORD_SIZE) {
+				playableWords.add(word);
+			}
+		}
+		return playableWords;
+	}
+
+	/*
+	 * Reports of generated levels hold the playable words of the level, from
+	 * a dictionary or from a word cache
+	 */
+	@Test
+	public void testAnalyze() throws Exception {
+		LevelAnalyzer dictionaryAnalyzer = new LevelAnalyzer(
+				this.masterDictionary);
+		char[] allLetters = new char[26 * 9];
+		for (int index = 0; index < allLetters.length; index++) {
+			allLetters[index] = (char) ('A' + index % 26);
+		}
+		LevelAnalyzer cacheAnalyzer = new LevelAnalyzer(new DawgWordCache(
+				WORD_LIST_FILE, allLetters));
+
+		for (int levelNumber = LevelGenerator.MIN_LEVEL; levelNumber <= LevelGenerator.MAX_LEVEL; levelNumber++) {
+			Level level = this.levelGen.generateLevel(levelNumber);
+			List<String> expectedWords = this.playableWords(level
+					.getAlphabets());
+			LevelReport report = dictionaryAnalyzer.analyze(level);
+			assertEquals(expectedWords, report.getPlayableWords());
+			assertEquals(expectedWords, cacheAnalyzer.analyze(level)
+					.getPlayableWords());
+
+			int numWords = 0;
+			for (int length = 0; length <= WordZapConstants.MAX_WORD_SIZE + 1; length++) {
+				numWords += report.getWordCount(length);
+			}
+			assertEquals(report.getWordCount(), numWords);
+			assertEquals(0, report.getWordCount(WordZapConstants.MIN_WORD_SIZE));
+			assertEquals(numWords >= WordZapConstants.GRID_NUMROWS, report
+					.hasEnoughWords());
+		}
+	}
+
+	/*
+	 * Counting playable words gives the number of words in the report, from a
+	 * dictionary or from a word cache
+	 */
+	@Test
+	public void testCountPlayableWords() throws Exception {
+		LevelAnalyzer dictionaryAnalyzer = new LevelAnalyzer(
+				this.masterDictionary);
+		for (int levelNumber = LevelGenerator.MIN_LEVEL; levelNumber <= LevelGenerator.MAX_LEVEL; levelNumber++) {
+			char[] levelLetters = this.levelGen.generateLevel(levelNumber)
+					.getAlphabets();
+			LevelAnalyzer cacheAnalyzer = new LevelAnalyzer(
+					new EnglishWordCache(WORD_LIST_FILE, levelLetters));
+			int numWords = dictionaryAnalyzer.analyze(levelLetters)
+					.getWordCount();
+			assertEquals(numWords, dictionaryAnalyzer
+					.countPlayableWords(levelLetters));
+			assertEquals(numWords, cacheAnalyzer
+					.countPlayableWords(levelLetters));
+		}
+		assertEquals(0, dictionaryAnalyzer.countPlayableWords("QXZJVKWY"
+				.toCharArray()));
+	}
+
+	/*
+	 * Levels with too few words are reported as such
+	 */
+	@Test
+	public void testHasEnoughWords() {
+		LevelAnalyzer analyzer = new LevelAnalyzer(this.masterDictionary);
+		LevelReport report = analyzer.analyze("STOPAERL".toCharArray());
+		assertTrue(report.toString(), report.hasEnoughWords());
+		assertEquals(5, report.getLongestWordLength());
+
+		report = analyzer.analyze("QXZJVKWY".toCharArray());
+		assertFalse(report.toString(), report.hasEnoughWords());
+		assertEquals(0, report.getWordCount());
+		assertEquals(0, report.getLongestWordLength());
+	}
+
+}
@@ -0,0 +1,149 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.LevelAnalyzer;
+import com.android.wordzap.LevelBands;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.MasterDictionary;
+
+/*
+ * JUnit Test Cases for class LevelBands
+ * 
+ */
+
+public class LevelBandsTest {
+
+	// Word list and letter frequencies shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	private LevelGenerator levelGen;
+	private LevelAnalyzer analyzer;
+	private LevelBands bands;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.analyzer = new LevelAnalyzer(new MasterDictionary(
+					BinaryDictionary.compile(wordListHandle)));
+		} finally {
+			wordListHandle.close();
+		}
+		this.levelGen = new LevelGenerator(FREQ_FILE, "-");
+		this.bands = LevelBands.sample(this.levelGen, this.analyzer);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Every level has a band, sampled the same way every time
+	 */
+	@Test
+	public void testSample() throws Exception {
+		assertEquals(LevelGenerator.MAX_LEVEL, this.bands.getLevelCount());
+		LevelBands resampledBands = LevelBands.sample(this.levelGen,
+				this.analyzer);
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			assertTrue(this.bands.getMinWords(level) <= this.bands
+					.getMaxWords(level));
+			assertEquals(this.bands.getMinWords(level), resampledBands
+					.getMinWords(level));
+			assertEquals(this.bands.getMaxWords(level), resampledBands
+					.getMaxWords(level));
+		}
+	}
+
+	/*
+	 * Bands hold about the middle half of the levels the generator gives
+	 */
+	@Test
+	public void testMiddleHalf() throws Exception {
+		Random rand = new Random(7);
+		int numLevels = 0;
+		int numWithinBand = 0;
+		for (int round = 0; round < 20; round++) {
+			for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+				int numWords = this.analyzer.countPlayableWords(this.levelGen
+						.generateLevel(level, rand).getAlphabets());
+				if (this.bands.distanceFromBand(level, numWords) == 0) {
+					numWithinBand++;
+				}
+				numLevels++;
+			}
+		}
+		assertTrue(numWithinBand + " / " + numLevels,
+				numWithinBand > numLevels / 3
+						&& numWithinBand < 2 * numLevels / 3);
+	}
+
+	/*
+	 * Counts are measured from the nearest end of the band
+	 */
+	@Test
+	public void testDistanceFromBand() {
+		LevelBands fixedBands = new LevelBands(new int[] { 10, 20 },
+				new int[] { 15, 20 });
+		assertEquals(3, fixedBands.distanceFromBand(1, 7));
+		assertEquals(0, fixedBands.distanceFromBand(1, 10));
+		assertEquals(0, fixedBands.distanceFromBand(1, 15));
+		assertEquals(5, fixedBands.distanceFromBand(1, 20));
+		assertEquals(0, fixedBands.distanceFromBand(2, 20));
+		assertEquals(1, fixedBands.distanceFromBand(2, 21));
+	}
+
+	/*
+	 * Empty bands are rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testEmptyBand() {
+		new LevelBands(new int[] { 10 }, new int[] { 9 });
+	}
+
+	/*
+	 * Atleast one level has to be sampled
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoSamples() throws Exception {
+		LevelBands.sample(this.levelGen, this.analyzer, 0, new Random());
+	}
+
+}
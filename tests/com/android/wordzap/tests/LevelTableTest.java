@@ -0,0 +1,293 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.LevelAnalyzer;
+import com.android.wordzap.LevelBands;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.LevelTable;
+import com.android.wordzap.LevelTableCompiler;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.exceptions.InvalidLevelTableException;
+
+/*
+ * JUnit Test Cases for classes LevelTable and LevelTableCompiler
+ * 
+ */
+
+public class LevelTableTest {
+
+	// Word list, letter frequencies and level table shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+	private static final String LEVEL_TABLE_FILE = "res/raw/level_table.bin";
+
+	private static final int ENTRIES_PER_LEVEL = 4;
+
+	private MasterDictionary masterDictionary;
+	private LevelGenerator levelGen;
+	private byte[] tableBytes;
+	private LevelTable levelTable;
+
+	@Before
+	public void setUp() throws Exception {
+		this.masterDictionary = this.loadDictionary();
+		this.levelGen = new LevelGenerator(FREQ_FILE, "-");
+		ByteArrayOutputStream table = new ByteArrayOutputStream();
+		LevelTableCompiler.compile(this.masterDictionary, this.levelGen,
+				ENTRIES_PER_LEVEL, 42, table);
+		this.tableBytes = table.toByteArray();
+		this.levelTable = new LevelTable(this.tableBytes);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns a new dictionary of the shipped word list
+	private MasterDictionary loadDictionary() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			return new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+	}
+
+	/*
+	 * Every level has distinct letter sets within its band, along with the
+	 * words the anagram index finds for them
+	 */
+	@Test
+	public void testEntries() {
+		LevelAnalyzer analyzer = new LevelAnalyzer(this.masterDictionary);
+		int[] wordIndices = new int[this.masterDictionary.getWordCount()];
+		assertEquals(LevelGenerator.MAX_LEVEL, this.levelTable.getLevelCount());
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			assertEquals(ENTRIES_PER_LEVEL, this.levelTable.getEntryCount(level));
+			Set<String> letterSets = new HashSet<String>();
+			for (int entry = 0; entry < ENTRIES_PER_LEVEL; entry++) {
+				char[] letters = this.levelTable.getLetters(level, entry);
+				char[] sortedLetters = letters.clone();
+				Arrays.sort(sortedLetters);
+				assertTrue(letterSets.add(new String(sortedLetters)));
+
+				int numWords = analyzer.countPlayableWords(letters);
+				assertEquals(0, this.levelTable.getBands().distanceFromBand(
+						level, numWords));
+
+				int numFound = this.masterDictionary.getAnagramIndex()
+						.findWords(letters, wordIndices);
+				int[] tableWordIndices = this.levelTable.getWordIndices(level,
+						entry);
+				assertEquals(numFound, tableWordIndices.length);
+				for (int word = 0; word < numFound; word++) {
+					assertEquals(wordIndices[word], tableWordIndices[word]);
+				}
+			}
+		}
+		assertEquals(0, this.levelTable.getEntryCount(LevelGenerator.MAX_LEVEL + 1));
+	}
+
+	/*
+	 * Letter sets are found whatever the order and case of their letters
+	 */
+	@Test
+	public void testFindWordIndices() {
+		char[] letters = this.levelTable.getLetters(7, 2);
+		int[] wordIndices = this.levelTable.getWordIndices(7, 2);
+		char[] reversedLetters = new char[letters.length];
+		for (int index = 0; index < letters.length; index++) {
+			reversedLetters[index] = Character.toLowerCase(letters[letters.length
+					- 1 - index]);
+		}
+		assertTrue(Arrays.equals(wordIndices, this.levelTable
+				.findWordIndices(reversedLetters)));
+		assertEquals(null, this.levelTable.findWordIndices("QQQQ"
+				.toCharArray()));
+	}
+
+	/*
+	 * Level caches built from the table hold the same words as caches built
+	 * from the anagram index, and tables are only used by the dictionary
+	 * they were compiled for
+	 */
+	@Test
+	public void testCreateLevelCache() throws Exception {
+		MasterDictionary tableDictionary = this.loadDictionary();
+		assertTrue(tableDictionary.setLevelTable(this.levelTable));
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			char[] letters = this.levelTable.getLetters(level, 0);
+			assertEquals(this.masterDictionary.createLevelCache(letters)
+					.getValidWords(), tableDictionary.createLevelCache(letters)
+					.getValidWords());
+		}
+		char[] otherLetters = "ZAPWORDS".toCharArray();
+		assertEquals(this.masterDictionary.createLevelCache(otherLetters)
+				.getValidWords(), tableDictionary.createLevelCache(
+				otherLetters).getValidWords());
+
+		MasterDictionary otherDictionary = new MasterDictionary(
+				BinaryDictionary.compile(new ByteArrayInputStream("CAT\nDOG\n"
+						.getBytes())));
+		assertFalse(otherDictionary.setLevelTable(this.levelTable));
+		assertFalse(this.levelTable.isCompiledFor(otherDictionary
+				.getDictionary()));
+	}
+
+	/*
+	 * The level generator picks letters from the table, the same way for the
+	 * same seed
+	 */
+	@Test
+	public void testLevelGenerator() throws Exception {
+		this.levelGen.setLevelTable(this.levelTable);
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			char[] letters = this.levelGen.generateLevel(level, new Random(level))
+					.getAlphabets();
+			assertTrue(this.levelTable.findWordIndices(letters) != null);
+			assertEquals(new String(letters), new String(this.levelGen
+					.generateLevel(level, new Random(level)).getAlphabets()));
+		}
+
+		this.levelGen.setLevelTable(null);
+		assertEquals(null, this.levelGen.getLevelTable());
+	}
+
+	/*
+	 * The table holds the bands sampled from the letter frequencies and the
+	 * word list, which the dictionary hands out once the table is set
+	 */
+	@Test
+	public void testBands() throws Exception {
+		// Sampling ignores the level table of the generator
+		this.levelGen.setLevelTable(this.levelTable);
+		LevelBands sampledBands = LevelBands.sample(this.levelGen,
+				new LevelAnalyzer(this.masterDictionary));
+		LevelBands tableBands = this.levelTable.getBands();
+		assertEquals(LevelGenerator.MAX_LEVEL, tableBands.getLevelCount());
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			assertEquals(sampledBands.getMinWords(level), tableBands
+					.getMinWords(level));
+			assertEquals(sampledBands.getMaxWords(level), tableBands
+					.getMaxWords(level));
+		}
+
+		MasterDictionary dictionary = this.loadDictionary();
+		LevelBands dictionaryBands = dictionary.getLevelBands(this.levelGen);
+		assertEquals(tableBands.getMinWords(9), dictionaryBands.getMinWords(9));
+		assertTrue(dictionaryBands == dictionary.getLevelBands(this.levelGen));
+		assertTrue(dictionary.setLevelTable(this.levelTable));
+		assertTrue(tableBands == dictionary.getLevelBands(this.levelGen));
+	}
+
+	/*
+	 * The table is compiled identically from the same seed
+	 */
+	@Test
+	public void testCompileIsRepeatable() throws Exception {
+		ByteArrayOutputStream table = new ByteArrayOutputStream();
+		LevelTableCompiler.compile(this.masterDictionary, this.levelGen,
+				ENTRIES_PER_LEVEL, 42, table);
+		assertTrue(Arrays.equals(this.tableBytes, table.toByteArray()));
+	}
+
+	/*
+	 * The shipped level table was compiled for the shipped word list
+	 */
+	@Test
+	public void testShippedLevelTable() throws Exception {
+		InputStream tableHandle = new FileInputStream(LEVEL_TABLE_FILE);
+		LevelTable shippedTable;
+		try {
+			shippedTable = new LevelTable(tableHandle);
+		} finally {
+			tableHandle.close();
+		}
+		assertTrue(shippedTable.isCompiledFor(this.masterDictionary
+				.getDictionary()));
+		for (int level = LevelGenerator.MIN_LEVEL; level <= LevelGenerator.MAX_LEVEL; level++) {
+			assertEquals(LevelTableCompiler.DEFAULT_ENTRIES_PER_LEVEL,
+					shippedTable.getEntryCount(level));
+			assertEquals(this.levelTable.getBands().getMinWords(level),
+					shippedTable.getBands().getMinWords(level));
+			assertEquals(this.levelTable.getBands().getMaxWords(level),
+					shippedTable.getBands().getMaxWords(level));
+		}
+	}
+
+	/*
+	 * Tables with a wrong magic number are rejected
+	 */
+	@Test(expected = InvalidLevelTableException.class)
+	public void testWrongMagic() throws Exception {
+		byte[] corruptBytes = this.tableBytes.clone();
+		corruptBytes[0] = 0;
+		new LevelTable(corruptBytes);
+	}
+
+	/*
+	 * Tables with an empty band are rejected
+	 */
+	@Test(expected = InvalidLevelTableException.class)
+	public void testEmptyBand() throws Exception {
+		byte[] corruptBytes = this.tableBytes.clone();
+		// Fewest words of the first level, above the most words
+		corruptBytes[LevelTable.HEADER_SIZE + 4] = 0x7F;
+		new LevelTable(corruptBytes);
+	}
+
+	/*
+	 * Truncated tables are rejected
+	 */
+	@Test(expected = InvalidLevelTableException.class)
+	public void testTruncatedTable() throws Exception {
+		byte[] truncatedBytes = new byte[this.tableBytes.length - 1];
+		System.arraycopy(this.tableBytes, 0, truncatedBytes, 0,
+				truncatedBytes.length);
+		new LevelTable(truncatedBytes);
+	}
+
+}
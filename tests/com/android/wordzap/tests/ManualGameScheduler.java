@@ -0,0 +1,108 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import java.util.PriorityQueue;
+
+import com.android.wordzap.GameScheduler;
+import com.android.wordzap.ScheduledTask;
+
+/*
+ * GameScheduler whose clock only moves when a test advances it. Tasks run on
+ * the test's thread, in order of time.
+ */
+public class ManualGameScheduler implements GameScheduler {
+
+	// Task waiting for its time
+	private class ManualTask implements ScheduledTask, Comparable<ManualTask> {
+		private final Runnable task;
+		private final long runTime;
+		private final long sequence;
+		private boolean isCancelled;
+
+		private ManualTask(Runnable task, long runTime, long sequence) {
+			this.task = task;
+			this.runTime = runTime;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public boolean cancel() {
+			boolean wasWaiting = waitingTasks.remove(this);
+			this.isCancelled = true;
+			return wasWaiting;
+		}
+
+		@Override
+		public int compareTo(ManualTask other) {
+			if (this.runTime != other.runTime) {
+				return this.runTime < other.runTime ? -1 : 1;
+			}
+			return this.sequence < other.sequence ? -1
+					: (this.sequence == other.sequence ? 0 : 1);
+		}
+	}
+
+	private final PriorityQueue<ManualTask> waitingTasks = new PriorityQueue<ManualTask>();
+
+	private long currentTime = 0;
+	private long numScheduled = 0;
+
+	@Override
+	public long currentTimeMillis() {
+		return this.currentTime;
+	}
+
+	@Override
+	public ScheduledTask schedule(Runnable task, long delayMillis) {
+		ManualTask manualTask = new ManualTask(task, this.currentTime
+				+ Math.max(0, delayMillis), this.numScheduled++);
+		this.waitingTasks.add(manualTask);
+		return manualTask;
+	}
+
+	/*
+	 * Moves the clock forward, running every task whose time comes on the way
+	 * at its time
+	 */
+	public void advance(long millis) {
+		long endTime = this.currentTime + millis;
+		while (!this.waitingTasks.isEmpty()
+				&& this.waitingTasks.peek().runTime <= endTime) {
+			ManualTask nextTask = this.waitingTasks.poll();
+			this.currentTime = nextTask.runTime;
+			if (!nextTask.isCancelled) {
+				nextTask.task.run();
+			}
+		}
+		this.currentTime = endTime;
+	}
+
+	// Returns number of tasks waiting for their time
+	public int getWaitingCount() {
+		return this.waitingTasks.size();
+	}
+}
@@ -0,0 +1,350 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.AnagramIndex;
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.DawgWordCache;
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.LetterSignature;
+import com.android.wordzap.LevelWordCache;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.PrefixCursor;
+import com.android.wordzap.SignatureTrie;
+import com.android.wordzap.WordCache;
+
+/*
+ * JUnit Test Cases for classes MasterDictionary, LevelWordCache and
+ * SignatureTrie
+ * 
+ */
+
+public class MasterDictionaryTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	private MasterDictionary masterDictionary;
+	private Random rand;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns random level letters
+	private char[] randomLevelLetters() {
+		char[] levelLetters = new char[8];
+		for (int index = 0; index < levelLetters.length; index++) {
+			levelLetters[index] = (char) ('A' + this.rand.nextInt(26));
+		}
+		return levelLetters;
+	}
+
+	/*
+	 * Level views hold and validate the same words as EnglishWordCache
+	 */
+	@Test
+	public void testLevelWordCache() throws Exception {
+		for (int round = 0; round < 10; round++) {
+			char[] levelLetters = this.randomLevelLetters();
+			EnglishWordCache englishCache = new EnglishWordCache(
+					WORD_LIST_FILE, levelLetters);
+			LevelWordCache levelCache = this.masterDictionary
+					.createLevelCache(levelLetters);
+
+			List<String> levelWords = levelCache.getValidWords();
+			assertEquals("Caches hold different words for "
+					+ new String(levelLetters), new TreeSet<String>(
+					englishCache.getValidWords()), new TreeSet<String>(
+					levelWords));
+			assertEquals(levelWords.size(), levelCache.size());
+
+			for (int index = 0; index < this.masterDictionary.getWordCount(); index++) {
+				String word = this.masterDictionary.getWord(index);
+				assertEquals("isWordValid answers differ for '" + word + "'",
+						englishCache.isWordValid(word), levelCache
+								.isWordValid(word));
+			}
+			for (String word : levelWords) {
+				assertTrue(levelCache.isWordValid(word.toLowerCase()));
+				assertFalse(levelCache.isWordValid(word + "#"));
+			}
+		}
+	}
+
+	/*
+	 * The anagram index finds the same words as a scan of the whole
+	 * dictionary, and every cache agrees on which words can be formed from a
+	 * set of letters
+	 */
+	@Test
+	public void testGetWordsFormableFrom() throws Exception {
+		BinaryDictionary dictionary = this.masterDictionary.getDictionary();
+		AnagramIndex anagramIndex = this.masterDictionary.getAnagramIndex();
+		int[] indexedWords = new int[dictionary.getWordCount()];
+		int[] scannedWords = new int[dictionary.getWordCount()];
+		for (int round = 0; round < 50; round++) {
+			char[] levelLetters = this.randomLevelLetters();
+			int numIndexed = anagramIndex.findWords(levelLetters,
+					indexedWords);
+			int numScanned = dictionary.findSubsetWords(LetterSignature
+					.low(levelLetters), LetterSignature.high(levelLetters),
+					scannedWords);
+			assertEquals(numScanned, numIndexed);
+			for (int index = 0; index < numScanned; index++) {
+				assertEquals(scannedWords[index], indexedWords[index]);
+			}
+		}
+
+		// Too many letters to walk their sub multisets, so the index scans
+		char[] allLetters = "ABCDEFGHIJKLMNOPQRSTUVWXYZAEIOUS".toCharArray();
+		int numIndexed = anagramIndex.findWords(allLetters, indexedWords);
+		int numScanned = dictionary.findSubsetWords(LetterSignature
+				.low(allLetters), LetterSignature.high(allLetters),
+				scannedWords);
+		assertEquals(numScanned, numIndexed);
+		for (int index = 0; index < numScanned; index++) {
+			assertEquals(scannedWords[index], indexedWords[index]);
+		}
+
+		char[] levelLetters = "TSEALRPO".toCharArray();
+		Set<String> expectedWords = new TreeSet<String>(this.masterDictionary
+				.createLevelCache(levelLetters).getValidWords());
+		LevelWordCache fullCache = this.masterDictionary
+				.createFullCache(this.rand);
+		assertEquals(this.masterDictionary.getWordCount(), fullCache.size());
+		WordCache[] caches = {
+				new EnglishWordCache(WORD_LIST_FILE, allLetters),
+				new DawgWordCache(fullCache.getValidWords()), fullCache };
+		for (WordCache cache : caches) {
+			assertEquals(cache.getClass().getName(), expectedWords,
+					new TreeSet<String>(cache
+							.getWordsFormableFrom(levelLetters)));
+		}
+
+		// OPTS, POST, POTS, SPOT, STOP and TOPS
+		assertEquals(6, anagramIndex.findAnagrams("STOP", indexedWords));
+	}
+
+	/*
+	 * The signature trie counts the words the anagram index finds, of any
+	 * range of lengths
+	 */
+	@Test
+	public void testSignatureTrie() {
+		AnagramIndex anagramIndex = this.masterDictionary.getAnagramIndex();
+		SignatureTrie signatureTrie = this.masterDictionary.getSignatureTrie();
+		int[] wordIndices = new int[this.masterDictionary.getWordCount()];
+		for (int round = 0; round < 100; round++) {
+			char[] levelLetters = this.randomLevelLetters();
+			int numFound = anagramIndex.findWords(levelLetters, wordIndices);
+			int[] numOfLength = new int[levelLetters.length + 1];
+			for (int index = 0; index < numFound; index++) {
+				numOfLength[this.masterDictionary.getWord(wordIndices[index])
+						.length()]++;
+			}
+
+			assertEquals(numFound, signatureTrie.countWords(levelLetters, 0,
+					levelLetters.length));
+			for (int minLength = 1; minLength <= 5; minLength++) {
+				for (int maxLength = minLength; maxLength <= 5; maxLength++) {
+					int expected = 0;
+					for (int length = minLength; length <= maxLength; length++) {
+						expected += numOfLength[length];
+					}
+					assertEquals(expected, signatureTrie.countWords(
+							levelLetters, minLength, maxLength));
+				}
+			}
+		}
+
+		// OPTS, POST, POTS, SPOT, STOP and TOPS
+		assertEquals(6, signatureTrie.countWords("STOP".toCharArray(), 4, 4));
+		assertEquals(0, signatureTrie.countWords(new char[0], 0, 5));
+	}
+
+	/*
+	 * Random words come from the view, and are longer than the minimum word
+	 * size
+	 */
+	@Test
+	public void testGetRandomWord() {
+		LevelWordCache levelCache = this.masterDictionary
+				.createLevelCache("ESTAROLP".toCharArray());
+		for (int round = 0; round < 100; round++) {
+			String word = levelCache.getRandomWord();
+			assertTrue(levelCache.isWordValid(word));
+			assertTrue(word.length() > 2);
+		}
+		assertEquals(null, this.masterDictionary.createLevelCache(
+				"QQ".toCharArray()).getRandomWord());
+	}
+
+	/*
+	 * Words in the list are never picked, and null is returned once every
+	 * word is in the list
+	 */
+	@Test
+	public void testGetRandomWordNotInList() throws Exception {
+		char[] levelLetters = "CATS".toCharArray();
+		WordCache[] caches = {
+				new EnglishWordCache(WORD_LIST_FILE, levelLetters),
+				new DawgWordCache(WORD_LIST_FILE, levelLetters),
+				this.masterDictionary.createLevelCache(levelLetters) };
+		for (WordCache cache : caches) {
+			List<String> usedWords = new Vector<String>();
+			String word;
+			while ((word = cache.getRandomWord(usedWords)) != null) {
+				assertFalse(usedWords.contains(word));
+				usedWords.add(word);
+			}
+			assertTrue(usedWords.size() > 1);
+
+			// Zapped words become available again
+			String zappedWord = usedWords.remove(0);
+			assertEquals(zappedWord, cache.getRandomWord(usedWords));
+		}
+	}
+
+	/*
+	 * Two players picking against their own lists from the same cache don't
+	 * disturb each other's picks
+	 */
+	@Test
+	public void testGetRandomWordFromTwoLists() throws Exception {
+		char[] levelLetters = "CATS".toCharArray();
+		WordCache cache = this.masterDictionary.createLevelCache(levelLetters);
+		List<String> humanWords = new Vector<String>();
+		List<String> computerWords = new Vector<String>();
+		boolean isHumanDone = false, isComputerDone = false;
+		while (!isHumanDone || !isComputerDone) {
+			String humanWord = cache.getRandomWord(humanWords);
+			if (humanWord == null) {
+				isHumanDone = true;
+			} else {
+				assertFalse(humanWords.contains(humanWord));
+				humanWords.add(humanWord);
+			}
+			String computerWord = cache.getRandomWord(computerWords);
+			if (computerWord == null) {
+				isComputerDone = true;
+			} else {
+				assertFalse(computerWords.contains(computerWord));
+				computerWords.add(computerWord);
+			}
+			if (humanWords.size() == 2) {
+				// A word zapped off the middle of one list
+				computerWords.remove(0);
+			}
+		}
+		assertEquals(new TreeSet<String>(humanWords), new TreeSet<String>(
+				computerWords));
+	}
+
+	/*
+	 * Prefix cursors of every cache agree with a scan of the cached words, as
+	 * letters are typed and removed
+	 */
+	@Test
+	public void testNewPrefixCursor() throws Exception {
+		char[] levelLetters = "TSEALRPO".toCharArray();
+		WordCache[] caches = {
+				new EnglishWordCache(WORD_LIST_FILE, levelLetters),
+				new DawgWordCache(WORD_LIST_FILE, levelLetters),
+				this.masterDictionary.createLevelCache(levelLetters) };
+		for (WordCache cache : caches) {
+			List<String> cachedWords = cache.getValidWords();
+			PrefixCursor cursor = cache.newPrefixCursor();
+			assertEquals(cachedWords.size(), cursor.countCompletions());
+			assertFalse(cursor.retreat());
+
+			for (int round = 0; round < 200; round++) {
+				StringBuilder typed = new StringBuilder();
+				for (int index = 0; index < 5; index++) {
+					char letter = levelLetters[this.rand
+							.nextInt(levelLetters.length)];
+					typed.append(letter);
+					int completions = 0;
+					for (String word : cachedWords) {
+						if (word.startsWith(typed.toString())) {
+							completions++;
+						}
+					}
+					assertEquals(completions > 0, cursor.advance(letter));
+					assertEquals(typed.length(), cursor.length());
+					assertEquals(completions, cursor.countCompletions());
+					assertEquals(completions > 0, cursor.isPrefix());
+					assertEquals(cache.isWordValid(typed.toString()), cursor
+							.isWord());
+				}
+
+				// Removing a letter goes back to the shorter prefix
+				assertTrue(cursor.retreat());
+				typed.setLength(typed.length() - 1);
+				assertEquals(cache.isWordValid(typed.toString()), cursor
+						.isWord());
+				cursor.reset();
+				assertEquals(0, cursor.length());
+			}
+
+			cursor.advance('s');
+			cursor.advance('t');
+			cursor.advance('o');
+			cursor.advance('p');
+			assertTrue(cursor.isWord());
+		}
+	}
+
+}
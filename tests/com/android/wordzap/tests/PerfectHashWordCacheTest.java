@@ -0,0 +1,156 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.PerfectHashBuilder;
+import com.android.wordzap.PerfectHashWordCache;
+import com.android.wordzap.exceptions.InvalidDictionaryException;
+
+/*
+ * JUnit Test Cases for classes PerfectHashBuilder and PerfectHashWordCache
+ * 
+ */
+
+public class PerfectHashWordCacheTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	private BinaryDictionary dictionary;
+	private PerfectHashWordCache cache;
+	private Random rand;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			this.dictionary = BinaryDictionary.compile(wordListHandle);
+		} finally {
+			wordListHandle.close();
+		}
+		this.cache = new PerfectHashBuilder().addAll(this.dictionary).build();
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	/*
+	 * Every word of the dictionary is valid in any case, and words that are
+	 * not in the dictionary are not
+	 */
+	@Test
+	public void testIsWordValid() {
+		assertEquals(this.dictionary.getWordCount(), this.cache.size());
+		TreeSet<String> allWords = new TreeSet<String>();
+		for (int index = 0; index < this.dictionary.getWordCount(); index++) {
+			String word = this.dictionary.getWord(index);
+			allWords.add(word);
+			assertTrue(word, this.cache.isWordValid(word));
+			assertTrue(word, this.cache.isWordValid(word.toLowerCase()));
+			assertFalse(word, this.cache.isWordValid(word + "#"));
+			assertFalse(word, this.cache.isWordValid("#" + word.substring(1)));
+		}
+		for (int round = 0; round < 10000; round++) {
+			char[] letters = new char[1 + this.rand.nextInt(6)];
+			for (int index = 0; index < letters.length; index++) {
+				letters[index] = (char) ('A' + this.rand.nextInt(26));
+			}
+			String word = new String(letters);
+			assertEquals(word, allWords.contains(word), this.cache
+					.isWordValid(word));
+		}
+		assertFalse(this.cache.isWordValid(""));
+		assertEquals(allWords, new TreeSet<String>(this.cache.getValidWords()));
+	}
+
+	/*
+	 * A cache read back from its serialized form holds the same words
+	 */
+	@Test
+	public void testWriteAndRead() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.cache.writeTo(out);
+		PerfectHashWordCache readCache = PerfectHashWordCache
+				.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(this.cache.getValidWords(), readCache.getValidWords());
+		for (String word : this.cache.getValidWords()) {
+			assertTrue(readCache.isWordValid(word));
+		}
+
+		byte[] corrupt = out.toByteArray();
+		corrupt[0] = 0;
+		try {
+			PerfectHashWordCache.read(new ByteArrayInputStream(corrupt));
+			assertTrue("Read a corrupt cache", false);
+		} catch (InvalidDictionaryException e) {
+			// Expected
+		}
+	}
+
+	/*
+	 * Small and empty caches work, and random words skip words in the list
+	 */
+	@Test
+	public void testSmallCache() throws Exception {
+		PerfectHashWordCache emptyCache = new PerfectHashBuilder().build();
+		assertFalse(emptyCache.isWordValid("CAT"));
+		assertNull(emptyCache.getRandomWord());
+
+		PerfectHashWordCache smallCache = new PerfectHashBuilder().add("cat")
+				.add("act").add("CAT").add("").build();
+		assertEquals(2, smallCache.size());
+		List<String> usedWords = new Vector<String>();
+		usedWords.add(smallCache.getRandomWord());
+		String otherWord = smallCache.getRandomWord(usedWords);
+		assertFalse(usedWords.contains(otherWord));
+		usedWords.add(otherWord);
+		assertNull(smallCache.getRandomWord(usedWords));
+		assertEquals(2, smallCache.getWordsFormableFrom("TCAX".toCharArray())
+				.size());
+	}
+}
@@ -0,0 +1,143 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.GameExecutor;
+import com.android.wordzap.GameRandom;
+import com.android.wordzap.HeadlessGame;
+import com.android.wordzap.Level;
+import com.android.wordzap.LevelGenerator;
+import com.android.wordzap.MasterDictionary;
+
+/*
+ * Launches many headless games played by blocking threads (the computer
+ * player's, the Timer's and the human player's), and samples the platform
+ * threads and live heap they take once a second. On a Java runtime with virtual
+ * threads the game threads are virtual, and platform threads stay at the
+ * runtime's few carrier threads. Not a JUnit test, run it from the project
+ * directory with :
+ * 
+ * java com.android.wordzap.tests.ThreadedGameStress [number of games]
+ * [seconds] [virtual|platform]
+ */
+public class ThreadedGameStress {
+
+	// Word list and letter frequencies shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+	private static final String FREQ_FILE = "res/raw/english_alphabets_frequencies.txt";
+
+	// Default number of games, on virtual and on platform threads
+	private static final int DEFAULT_VIRTUAL_GAMES = 100000;
+	private static final int DEFAULT_PLATFORM_GAMES = 1000;
+
+	private static final int DEFAULT_SECONDS = 20;
+
+	// Most milliseconds a simulated human player takes to form a word
+	private static final long MAX_THINK_MILLIS = 70000;
+
+	public static void main(String[] args) throws Exception {
+		boolean useVirtual = args.length > 2 ? args[2].equals("virtual")
+				: GameExecutor.isVirtualAvailable();
+		if (useVirtual && !GameExecutor.isVirtualAvailable()) {
+			System.out.println("Virtual threads are not available");
+			return;
+		}
+		GameExecutor executor = useVirtual ? GameExecutor
+				.newVirtualExecutor("Game") : GameExecutor
+				.newPlatformExecutor("Game");
+		int numGames = args.length > 0 ? Integer.parseInt(args[0])
+				: (useVirtual ? DEFAULT_VIRTUAL_GAMES : DEFAULT_PLATFORM_GAMES);
+		int numSeconds = args.length > 1 ? Integer.parseInt(args[1])
+				: DEFAULT_SECONDS;
+
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		MasterDictionary masterDictionary;
+		try {
+			masterDictionary = new MasterDictionary(BinaryDictionary
+					.compile(wordListHandle));
+		} finally {
+			wordListHandle.close();
+		}
+
+		// One level of each difficulty. Games run on threads of their own, so
+		// each game gets its own cache.
+		LevelGenerator levelGen = new LevelGenerator(FREQ_FILE, "-");
+		GameRandom levelRandom = new GameRandom(42);
+		Level[] levels = new Level[LevelGenerator.MAX_LEVEL
+				- LevelGenerator.MIN_LEVEL + 1];
+		for (int index = 0; index < levels.length; index++) {
+			levels[index] = levelGen.generateLevel(LevelGenerator.MIN_LEVEL
+					+ index, levelRandom.split(index));
+		}
+
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+		System.out.println("Launching " + numGames + " games on "
+				+ (useVirtual ? "virtual" : "platform") + " threads");
+
+		long startTime = System.nanoTime();
+		HeadlessGame[] games = new HeadlessGame[numGames];
+		for (int index = 0; index < numGames; index++) {
+			GameRandom gameRandom = new GameRandom(index);
+			Level level = levels[index % levels.length];
+			games[index] = new HeadlessGame(level, masterDictionary
+					.createLevelCache(level.getAlphabets(), gameRandom
+							.split(GameRandom.WORDS_STREAM)), gameRandom,
+					MAX_THINK_MILLIS);
+			games[index].start(executor);
+		}
+		System.out.println("Launched in "
+				+ (System.nanoTime() - startTime) / 1000000 + " ms");
+
+		System.out.println("Second\tPlatform threads\tGame threads\tHeap MB\tFinished");
+		for (int second = 1; second <= numSeconds; second++) {
+			Thread.sleep(1000);
+
+			// Heap of live objects only
+			System.gc();
+			int numFinished = 0;
+			for (HeadlessGame game : games) {
+				if (game.isGameOver()) {
+					numFinished++;
+				}
+			}
+			System.out.println(second + "\t" + threadBean.getThreadCount()
+					+ "\t\t\t" + executor.getRunningCount() + "\t\t"
+					+ (runtime.totalMemory() - runtime.freeMemory() - heapBefore)
+					/ 1000000 + "\t" + numFinished);
+		}
+		System.out.println("Peak platform threads : "
+				+ threadBean.getPeakThreadCount());
+	}
+}
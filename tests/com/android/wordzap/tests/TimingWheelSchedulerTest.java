@@ -0,0 +1,161 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.ScheduledTask;
+import com.android.wordzap.TimingWheelScheduler;
+
+/*
+ * JUnit Test Cases for class TimingWheelScheduler
+ * 
+ */
+
+public class TimingWheelSchedulerTest {
+
+	private TimingWheelScheduler timingWheel;
+
+	@Before
+	public void setUp() throws Exception {
+
+		// A turn of the wheel lasts 40 ms
+		this.timingWheel = new TimingWheelScheduler(5, 8);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.timingWheel.shutdown();
+	}
+
+	/*
+	 * Tasks run on the ticker thread after their delay, never before, in
+	 * order of time. Tasks may schedule other tasks.
+	 */
+	@Test
+	public void testSchedule() throws Exception {
+		final long[] delays = { 0, 3, 17, 45, 130, 60, 1 };
+		final List<Long> lateness = new Vector<Long>();
+
+		// Tasks due in the same tick may run in any order
+		final List<Long> order = new Vector<Long>();
+		final CountDownLatch allRun = new CountDownLatch(delays.length + 1);
+		long scheduleTime = this.timingWheel.currentTimeMillis();
+		for (final long delay : delays) {
+			final long dueTime = scheduleTime + delay;
+			this.timingWheel.schedule(new Runnable() {
+				public void run() {
+					assertSame(timingWheel.getTickerThread(), Thread
+							.currentThread());
+					lateness.add(timingWheel.currentTimeMillis() - dueTime);
+					order.add(delay);
+					allRun.countDown();
+				}
+			}, delay);
+		}
+		this.timingWheel.schedule(new Runnable() {
+			public void run() {
+				timingWheel.schedule(new Runnable() {
+					public void run() {
+						allRun.countDown();
+					}
+				}, 20);
+			}
+		}, 10);
+
+		assertTrue(allRun.await(5, TimeUnit.SECONDS));
+		assertEquals(delays.length, lateness.size());
+		for (long late : lateness) {
+			assertTrue(late >= 0);
+		}
+		for (int index = 1; index < order.size(); index++) {
+			assertTrue(order.get(index - 1) < order.get(index) + 5);
+		}
+		assertEquals(0, this.timingWheel.getWaitingCount());
+	}
+
+	/*
+	 * Cancelled tasks never run, and cancelling takes the same time however
+	 * many tasks wait
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		final CountDownLatch ranTask = new CountDownLatch(1);
+		List<ScheduledTask> tasks = new Vector<ScheduledTask>();
+		for (int index = 0; index < 100000; index++) {
+			tasks.add(this.timingWheel.schedule(new Runnable() {
+				public void run() {
+					assertTrue(false);
+				}
+			}, 1000 + index % 500));
+		}
+		ScheduledTask keptTask = this.timingWheel.schedule(new Runnable() {
+			public void run() {
+				ranTask.countDown();
+			}
+		}, 30);
+		assertEquals(tasks.size() + 1, this.timingWheel.getWaitingCount());
+		for (ScheduledTask task : tasks) {
+			task.cancel();
+		}
+		assertFalse(tasks.get(0).cancel());
+
+		assertTrue(ranTask.await(5, TimeUnit.SECONDS));
+		assertFalse(keptTask.cancel());
+		assertEquals(0, this.timingWheel.getWaitingCount());
+	}
+
+	/*
+	 * The wheel keeps time after idling
+	 */
+	@Test
+	public void testIdleWheel() throws Exception {
+		Thread.sleep(100);
+		final CountDownLatch ranTask = new CountDownLatch(1);
+		final long dueTime = this.timingWheel.currentTimeMillis() + 50;
+		this.timingWheel.schedule(new Runnable() {
+			public void run() {
+				if (timingWheel.currentTimeMillis() >= dueTime) {
+					ranTask.countDown();
+				}
+			}
+		}, 50);
+		assertTrue(ranTask.await(1, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.LetterSignature;
+import com.android.wordzap.WordListParser;
+
+/*
+ * JUnit Test Cases for class WordListParser
+ * 
+ */
+
+public class WordListParserTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	@Before
+	public void setUp() throws Exception {
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns all words returned by a parser
+	private List<String> parseAll(WordListParser parser) throws Exception {
+		List<String> words = new ArrayList<String>();
+		String word;
+		while ((word = parser.nextWord()) != null) {
+			words.add(word);
+		}
+		assertNull(parser.nextWord());
+		return words;
+	}
+
+	/*
+	 * Handles upper and lower case, CR LF line ends, empty lines, a last line
+	 * without a line end, and words longer than the parser's word buffer
+	 */
+	@Test
+	public void testNextWord() throws Exception {
+		String wordList = "cat\r\n\r\nTACT\nact\nTax\n\nATTACTATTACT\nca";
+		char[] charSet = "TTTTCCCAAAAA".toCharArray();
+		List<String> expectedWords = new ArrayList<String>();
+		expectedWords.add("CAT");
+		expectedWords.add("TACT");
+		expectedWords.add("ACT");
+		expectedWords.add("CA");
+		assertEquals(expectedWords, this.parseAll(new WordListParser(
+				new ByteArrayInputStream(wordList.getBytes("US-ASCII")),
+				charSet)));
+		assertEquals(expectedWords, this.parseAll(new WordListParser(
+				new StringReader(wordList), charSet)));
+
+		charSet = "ATTACTATTACT".toCharArray();
+		expectedWords.add(3, "ATTACTATTACT");
+		assertEquals(expectedWords, this.parseAll(new WordListParser(
+				new StringReader(wordList), charSet)));
+	}
+
+	/*
+	 * Returns the same words as filtering lines of the shipped word list,
+	 * including words that span chunks
+	 */
+	@Test
+	public void testWordList() throws Exception {
+		char[] charSet = "ESTAROLPINCDU".toCharArray();
+		long charSetLow = LetterSignature.low(charSet);
+		long charSetHigh = LetterSignature.high(charSet);
+		List<String> expectedWords = new ArrayList<String>();
+		BufferedReader buffRdr = new BufferedReader(new FileReader(
+				WORD_LIST_FILE));
+		try {
+			String line;
+			while ((line = buffRdr.readLine()) != null) {
+				line = line.toUpperCase();
+				if (line.length() != 0
+						&& LetterSignature.isSubset(LetterSignature.low(line),
+								LetterSignature.high(line), charSetLow,
+								charSetHigh)) {
+					expectedWords.add(line);
+				}
+			}
+		} finally {
+			buffRdr.close();
+		}
+
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		try {
+			assertEquals(expectedWords, this.parseAll(new WordListParser(
+					wordListHandle, charSet)));
+		} finally {
+			wordListHandle.close();
+		}
+	}
+}
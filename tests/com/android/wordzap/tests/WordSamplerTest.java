@@ -0,0 +1,241 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.WordSampler;
+import com.android.wordzap.WordZapConstants;
+
+/*
+ * JUnit Test Cases for class WordSampler
+ * 
+ */
+
+public class WordSamplerTest {
+
+	private static final int NUM_DRAWS = 20000;
+
+	/*
+	 * 4 words of length 2, 1 word of length 3, 9 words of length 4, none of
+	 * length 5 and 2 words of length 6
+	 */
+	private static final int[] FIRST_WORD_OF_LENGTH = { 0, 0, 0, 4, 5, 14, 14,
+			16 };
+
+	private Random rand;
+
+	@Before
+	public void setUp() throws Exception {
+		this.rand = new Random();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns how many times each position was picked
+	private int[] countDraws(WordSampler sampler) {
+		int[] numDraws = new int[FIRST_WORD_OF_LENGTH[FIRST_WORD_OF_LENGTH.length - 1]];
+		for (int draw = 0; draw < NUM_DRAWS; draw++) {
+			numDraws[sampler.nextPosition()]++;
+		}
+		return numDraws;
+	}
+
+	/*
+	 * Picks each word length equally often, and only words of lengths 3 to 5
+	 */
+	@Test
+	public void testLengthWeightedSampling() {
+		WordSampler sampler = new WordSampler(FIRST_WORD_OF_LENGTH,
+				WordZapConstants.LENGTH_WEIGHTED_SAMPLING, this.rand);
+		assertEquals(10, sampler.size());
+		int[] numDraws = this.countDraws(sampler);
+		int numLength4 = 0;
+		for (int position = 0; position < numDraws.length; position++) {
+			if (position < 4 || position >= 14) {
+				assertEquals(0, numDraws[position]);
+			} else if (position >= 5) {
+				numLength4 += numDraws[position];
+			}
+		}
+		assertTrue(Math.abs(numDraws[4] - NUM_DRAWS / 2) < NUM_DRAWS / 20);
+		assertTrue(Math.abs(numLength4 - NUM_DRAWS / 2) < NUM_DRAWS / 20);
+	}
+
+	/*
+	 * Picks each word of lengths 3 to 5 equally often
+	 */
+	@Test
+	public void testUniformSampling() {
+		WordSampler sampler = new WordSampler(FIRST_WORD_OF_LENGTH,
+				WordZapConstants.UNIFORM_SAMPLING, this.rand);
+		int[] numDraws = this.countDraws(sampler);
+		for (int position = 0; position < numDraws.length; position++) {
+			if (position < 4 || position >= 14) {
+				assertEquals(0, numDraws[position]);
+			} else {
+				assertTrue(Math.abs(numDraws[position] - NUM_DRAWS / 10) < NUM_DRAWS / 40);
+			}
+		}
+	}
+
+	/*
+	 * Returns -1 when there are no words to pick from
+	 */
+	@Test
+	public void testNoWords() {
+		int[] firstWordOfLength = { 0, 0, 0, 3 };
+		for (int distribution : new int[] {
+				WordZapConstants.LENGTH_WEIGHTED_SAMPLING,
+				WordZapConstants.UNIFORM_SAMPLING }) {
+			WordSampler sampler = new WordSampler(firstWordOfLength,
+					distribution, this.rand);
+			assertEquals(0, sampler.size());
+			assertEquals(-1, sampler.nextPosition());
+		}
+	}
+
+	/*
+	 * Excluded words are never picked, and are picked again once included
+	 */
+	@Test
+	public void testExcludeAndInclude() {
+		for (int distribution : new int[] {
+				WordZapConstants.LENGTH_WEIGHTED_SAMPLING,
+				WordZapConstants.UNIFORM_SAMPLING }) {
+			WordSampler sampler = new WordSampler(FIRST_WORD_OF_LENGTH,
+					distribution, this.rand);
+
+			// Words of length 2 and 6 are never picked
+			assertFalse(sampler.exclude(0));
+			assertFalse(sampler.exclude(15));
+
+			for (int position = 4; position < 14; position++) {
+				if (position != 9) {
+					assertTrue(sampler.exclude(position));
+					assertFalse(sampler.exclude(position));
+				}
+			}
+			assertEquals(1, sampler.size());
+			for (int draw = 0; draw < 100; draw++) {
+				assertEquals(9, sampler.nextPosition());
+			}
+
+			assertTrue(sampler.exclude(9));
+			assertEquals(WordSampler.EXHAUSTED, sampler.nextPosition());
+
+			assertTrue(sampler.include(4));
+			assertFalse(sampler.include(4));
+			for (int draw = 0; draw < 100; draw++) {
+				assertEquals(4, sampler.nextPosition());
+			}
+
+			sampler.includeAll();
+			assertEquals(10, sampler.size());
+			int[] numDraws = this.countDraws(sampler);
+			for (int position = 4; position < 14; position++) {
+				assertTrue(numDraws[position] > 0);
+			}
+		}
+	}
+
+	// Excludes the words of a list, as a cache does, words being named "W"
+	// followed by their position
+	private void excludeList(WordSampler sampler, List<String> wordList) {
+		for (int index = sampler.retainExcluded(wordList); index < wordList
+				.size(); index++) {
+			String word = wordList.get(index);
+			sampler.excludeWord(word, Integer.parseInt(word.substring(1)));
+		}
+	}
+
+	/*
+	 * Words of a list stay excluded across picks, and words removed from the
+	 * list are picked again
+	 */
+	@Test
+	public void testExcludeWordList() {
+		WordSampler sampler = new WordSampler(FIRST_WORD_OF_LENGTH,
+				WordZapConstants.UNIFORM_SAMPLING, this.rand);
+		List<String> wordList = new ArrayList<String>();
+
+		// Only new words are excluded when the list grows
+		for (int position = 4; position < 13; position++) {
+			wordList.add("W" + position);
+			this.excludeList(sampler, wordList);
+			assertEquals(13 - position, sampler.size());
+		}
+		assertEquals(13, sampler.nextPosition());
+
+		// Words listed twice, or never picked, change nothing
+		wordList.add("W4");
+		wordList.add("W0");
+		this.excludeList(sampler, wordList);
+		assertEquals(1, sampler.size());
+
+		// A word zapped off the middle of the list is picked again
+		wordList.remove("W6");
+		this.excludeList(sampler, wordList);
+		assertEquals(2, sampler.size());
+		wordList.add("W13");
+		this.excludeList(sampler, wordList);
+		for (int draw = 0; draw < 100; draw++) {
+			assertEquals(6, sampler.nextPosition());
+		}
+
+		// The first copy of a word listed twice is zapped
+		wordList.remove("W4");
+		this.excludeList(sampler, wordList);
+		assertEquals(1, sampler.size());
+
+		// Changes to exclude another list are counted before making them
+		List<String> otherList = new ArrayList<String>(wordList.subList(0, 2));
+		otherList.add("W13");
+		assertEquals(0, sampler.countChanges(wordList));
+		assertEquals(wordList.size() - 2 + 1, sampler.countChanges(otherList));
+		wordList.clear();
+		this.excludeList(sampler, wordList);
+		assertEquals(10, sampler.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownDistribution() {
+		new WordSampler(FIRST_WORD_OF_LENGTH, -1, this.rand);
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * 
+ * The MIT License : http://www.opensource.org/licenses/mit-license.php
+
+ * Copyright (c) 2010 Kowshik Prakasam
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package com.android.wordzap.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Vector;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.android.wordzap.BinaryDictionary;
+import com.android.wordzap.DawgWordCache;
+import com.android.wordzap.EnglishWordCache;
+import com.android.wordzap.MasterDictionary;
+import com.android.wordzap.PerfectHashBuilder;
+import com.android.wordzap.WordCache;
+import com.android.wordzap.WordView;
+
+/*
+ * JUnit Test Cases for class WordView
+ * 
+ */
+
+public class WordViewTest {
+
+	// Word list shipped with the game
+	private static final String WORD_LIST_FILE = "res/raw/word_list.txt";
+
+	// Letters of the level the caches are built for
+	private static final char[] LEVEL_LETTERS = "TSEALRPO".toCharArray();
+
+	private WordCache[] caches;
+
+	@Before
+	public void setUp() throws Exception {
+		InputStream wordListHandle = new FileInputStream(WORD_LIST_FILE);
+		BinaryDictionary dictionary;
+		try {
+			dictionary = BinaryDictionary.compile(wordListHandle);
+		} finally {
+			wordListHandle.close();
+		}
+		WordCache levelCache = new MasterDictionary(dictionary)
+				.createLevelCache(LEVEL_LETTERS);
+		this.caches = new WordCache[] {
+				new EnglishWordCache(WORD_LIST_FILE, LEVEL_LETTERS),
+				new DawgWordCache(WORD_LIST_FILE, LEVEL_LETTERS),
+				levelCache,
+				new PerfectHashBuilder().addAll(levelCache.getValidWords())
+						.build() };
+	}
+
+	@After
+	public void tearDown() throws Exception {
+	}
+
+	// Returns words of the list that start with prefix and have a length, or
+	// any length if length is negative
+	private List<String> filter(final List<String> words, String prefix,
+			int length) {
+		List<String> filteredWords = new Vector<String>();
+		for (String word : words) {
+			if (word.startsWith(prefix)
+					&& (length < 0 || word.length() == length)) {
+				filteredWords.add(word);
+			}
+		}
+		return filteredWords;
+	}
+
+	/*
+	 * Every cache lays out the same words by length and alphabetically within
+	 * a length, and iteration and indexing agree
+	 */
+	@Test
+	public void testWordView() {
+		List<String> expectedWords = new Vector<String>(this.caches[0]
+				.getWordView());
+		assertFalse(expectedWords.isEmpty());
+		for (int index = 1; index < expectedWords.size(); index++) {
+			String previous = expectedWords.get(index - 1);
+			String word = expectedWords.get(index);
+			assertEquals(true, previous.length() < word.length()
+					|| (previous.length() == word.length() && previous
+							.compareTo(word) < 0));
+		}
+
+		for (WordCache cache : this.caches) {
+			WordView view = cache.getWordView();
+			String cacheName = cache.getClass().getName();
+			assertEquals(cacheName, expectedWords, view);
+			assertEquals(cacheName, expectedWords, cache.getValidWords());
+			for (int index = 0; index < view.size(); index++) {
+				assertEquals(expectedWords.get(index), view.get(index));
+			}
+			try {
+				view.get(view.size());
+				fail("Read past the end of " + cacheName);
+			} catch (IndexOutOfBoundsException e) {
+			}
+			Iterator<String> words = view.iterator();
+			for (int index = 0; index < view.size(); index++) {
+				words.next();
+			}
+			try {
+				words.next();
+				fail("Iterated past the end of " + cacheName);
+			} catch (NoSuchElementException e) {
+			}
+		}
+	}
+
+	/*
+	 * Views narrowed by length and prefix hold the same words as a scan of
+	 * all cached words
+	 */
+	@Test
+	public void testOfLengthAndWithPrefix() {
+		List<String> allWords = new Vector<String>(this.caches[0]
+				.getWordView());
+		String[] prefixes = { "", "S", "st", "TOP", "SPORT", "SPORTS", "Q" };
+		for (WordCache cache : this.caches) {
+			WordView view = cache.getWordView();
+			for (int length = 0; length <= 7; length++) {
+				List<String> expectedWords = this.filter(allWords, "", length);
+				assertEquals(expectedWords, view.ofLength(length));
+				assertEquals(expectedWords.size(), view.size(length));
+			}
+			for (String prefix : prefixes) {
+				List<String> expectedWords = this.filter(allWords, prefix
+						.toUpperCase(), -1);
+				WordView prefixView = view.withPrefix(prefix);
+				assertEquals(prefix, expectedWords, prefixView);
+				assertEquals(expectedWords.size(), prefixView.size());
+				assertEquals(this.filter(allWords, prefix.toUpperCase(), 4),
+						prefixView.ofLength(4));
+				assertEquals(this.filter(allWords, prefix.toUpperCase(), 4),
+						view.ofLength(4).withPrefix(prefix));
+			}
+		}
+		assertEquals(0, this.caches[0].getWordView().withPrefix("Q").size());
+	}
+
+}